@@ -0,0 +1,42 @@
+package com.restclient.restclient.benchmarks;
+
+import com.restclient.restclient.JsonFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Pretty-printing of response bodies shown in the editor
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonFormatBenchmark {
+
+    // Number of records in the generated array
+    @Param({"10", "1000", "20000"})
+    public int records;
+
+    private String compactJson;
+
+    @Setup
+    public void setUp() {
+        compactJson = Payloads.jsonArray(records);
+    }
+
+    @Benchmark
+    public String prettyPrint() {
+        return JsonFormat.prettyPrint(compactJson);
+    }
+}
@@ -0,0 +1,25 @@
+package com.restclient.restclient.benchmarks;
+
+// Deterministic request/response payloads shared by the benchmarks
+final class Payloads {
+
+    private Payloads() {
+    }
+
+    // Compact JSON array of store records, roughly 140 bytes each
+    static String jsonArray(int records) {
+        StringBuilder json = new StringBuilder(records * 140 + 2).append('[');
+        for (int i = 0; i < records; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"storeNbr\":").append(i)
+                    .append(",\"countryCd\":\"US\",\"name\":\"Store ").append(i)
+                    .append("\",\"open\":").append(i % 7 != 0)
+                    .append(",\"location\":{\"lat\":").append(30 + i % 17).append('.').append(i % 1000)
+                    .append(",\"lon\":-").append(90 + i % 23).append('.').append(i % 997)
+                    .append("},\"tags\":[\"grocery\",\"pharmacy\"]}");
+        }
+        return json.append(']').toString();
+    }
+}
@@ -0,0 +1,94 @@
+package com.restclient.restclient.benchmarks;
+
+import com.restclient.restclient.ApiRequest;
+import com.restclient.restclient.ApiResponse;
+import com.restclient.restclient.AuthConfig;
+import com.restclient.restclient.HttpTransport;
+import com.restclient.restclient.MockRoute;
+import com.restclient.restclient.MockServer;
+import com.restclient.restclient.TransportType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// End-to-end sends through each transport against the embedded mock server on the loopback interface,
+// so the numbers are dominated by the client's own send path rather than the network
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SendBenchmark {
+
+    @Param({"JDK_HTTP_CLIENT", "REST_ASSURED"})
+    public TransportType transportType;
+
+    // Size of the JSON response, in records of roughly 140 bytes
+    @Param({"1", "1000"})
+    public int responseRecords;
+
+    private MockServer server;
+    private HttpTransport transport;
+    private ApiRequest getRequest;
+    private ApiRequest postRequest;
+
+    @Setup
+    public void setUp() throws IOException {
+        String response = Payloads.jsonArray(responseRecords);
+        server = new MockServer(List.of(
+                MockRoute.json("GET", "/v2/stores/{storeNbr}", 200, response),
+                MockRoute.json("POST", "/v2/stores/{storeNbr}", 200, response)),
+                new MockServer.Config().threads(4));
+        server.start();
+
+        String base = server.getBaseUrl();
+        transport = transportType.create();
+        getRequest = ApiRequest.builder()
+                .url(base + "/v2/stores/{storeNbr}")
+                .pathParam("storeNbr", "5432")
+                .queryParam("include", "items")
+                .header("Accept", "application/json")
+                .auth(AuthConfig.bearer("benchmark-token"))
+                .build();
+        postRequest = getRequest.toBuilder()
+                .method("POST")
+                .header("Content-Type", "application/json")
+                .body(Payloads.jsonArray(10))
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.stop();
+    }
+
+    @Benchmark
+    public int get() throws Exception {
+        return send(getRequest);
+    }
+
+    @Benchmark
+    public int post() throws Exception {
+        return send(postRequest);
+    }
+
+    private int send(ApiRequest request) throws Exception {
+        ApiResponse response = transport.execute(request);
+        response.getBody().close();
+        return response.getStatusCode();
+    }
+}
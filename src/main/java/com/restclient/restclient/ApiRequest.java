@@ -0,0 +1,232 @@
+package com.restclient.restclient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+// Immutable snapshot of everything needed to send one request, independent of the UI and the transport
+public class ApiRequest {
+    private final String name;
+    private final String method;
+    private final String url;
+    private final String urlTemplate;
+    private final List<Header> headers;
+    private final List<QueryParam> queryParams;
+    private final Map<String, String> pathParams;
+    private final AuthConfig auth;
+    private final String body;
+    private final Duration timeout;
+    private final List<String> dependsOn;
+
+    private ApiRequest(Builder builder) {
+        this.name = builder.name;
+        this.method = builder.method;
+        this.url = builder.url;
+        this.urlTemplate = builder.urlTemplate;
+        this.headers = Collections.unmodifiableList(new ArrayList<>(builder.headers));
+        this.queryParams = Collections.unmodifiableList(new ArrayList<>(builder.queryParams));
+        this.pathParams = Collections.unmodifiableMap(new LinkedHashMap<>(builder.pathParams));
+        this.auth = builder.auth;
+        this.body = builder.body;
+        this.timeout = builder.timeout;
+        this.dependsOn = Collections.unmodifiableList(new ArrayList<>(builder.dependsOn));
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    // Builder seeded with this request, for deriving variants
+    public Builder toBuilder() {
+        Builder builder = new Builder().name(name).method(method).url(url).urlTemplate(urlTemplate).auth(auth)
+                .body(body).timeout(timeout);
+        headers.forEach(header -> builder.header(header.getKey(), header.getValue()));
+        queryParams.forEach(param -> builder.queryParam(param.getKey(), param.getValue()));
+        pathParams.forEach(builder::pathParam);
+        dependsOn.forEach(builder::dependsOn);
+        return builder;
+    }
+
+    // Display name, e.g. the sampler name of an imported request; null for ad-hoc requests
+    public String getName() {
+        return name;
+    }
+
+    // Name if there is one, otherwise method and URL
+    public String getLabel() {
+        return name != null && !name.isEmpty() ? name : method + " " + url;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    // URL as written before variables were rendered into it, or null if it was not rendered from one
+    public String getUrlTemplate() {
+        return urlTemplate;
+    }
+
+    public List<Header> getHeaders() {
+        return headers;
+    }
+
+    public List<QueryParam> getQueryParams() {
+        return queryParams;
+    }
+
+    // Values for {name} placeholders in the URL, e.g. {countryCd} / {storeNbr}
+    public Map<String, String> getPathParams() {
+        return pathParams;
+    }
+
+    public AuthConfig getAuth() {
+        return auth;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    // Per-request timeout, or null to wait indefinitely
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    // Labels of requests in the same collection that must succeed before this one runs
+    public List<String> getDependsOn() {
+        return dependsOn;
+    }
+
+    public boolean hasBody() {
+        return body != null && !body.isEmpty();
+    }
+
+    // Method to substitute the path parameters into the URL template
+    public String resolveUrl() {
+        if (pathParams.isEmpty()) {
+            return url;
+        }
+        return Template.of(url).render(pathParams);
+    }
+
+    // Method to build the full URL with the query parameters appended
+    public String buildUrlWithParams() {
+        String url = resolveUrl();
+        if (queryParams.isEmpty()) {
+            return url;
+        }
+
+        String queryString = queryParams.stream()
+                .filter(param -> !param.getKey().isEmpty())
+                .map(param -> param.getKey() + "=" + param.getValue())
+                .collect(Collectors.joining("&"));
+
+        if (queryString.isEmpty()) {
+            return url;
+        }
+        return url + (url.contains("?") ? "&" : "?") + queryString;
+    }
+
+    // Method to visit the user headers followed by the authentication headers
+    public void addHeadersToRequest(BiConsumer<String, String> headerSink) {
+        headers.stream()
+                .filter(header -> !header.getKey().isEmpty())
+                .forEach(header -> headerSink.accept(header.getKey(), header.getValue()));
+        auth.addAuthenticationToRequest(headerSink);
+    }
+
+    @Override
+    public String toString() {
+        return method + " " + buildUrlWithParams();
+    }
+
+    public static class Builder {
+        private String name;
+        private String method = "GET";
+        private String url = "";
+        private String urlTemplate;
+        private final List<Header> headers = new ArrayList<>();
+        private final List<QueryParam> queryParams = new ArrayList<>();
+        private final Map<String, String> pathParams = new LinkedHashMap<>();
+        private AuthConfig auth = AuthConfig.none();
+        private String body;
+        private Duration timeout;
+        private final List<String> dependsOn = new ArrayList<>();
+
+        public Builder name(String name) {
+            this.name = name;
+            return this;
+        }
+
+        public Builder method(String method) {
+            this.method = method;
+            return this;
+        }
+
+        public Builder url(String url) {
+            this.url = url;
+            return this;
+        }
+
+        public Builder urlTemplate(String urlTemplate) {
+            this.urlTemplate = urlTemplate;
+            return this;
+        }
+
+        public Builder header(String key, String value) {
+            headers.add(new Header(key, value));
+            return this;
+        }
+
+        public Builder queryParam(String key, String value) {
+            queryParams.add(new QueryParam(key, value));
+            return this;
+        }
+
+        public Builder pathParam(String name, String value) {
+            pathParams.put(name, value);
+            return this;
+        }
+
+        public Builder auth(AuthConfig auth) {
+            this.auth = auth == null ? AuthConfig.none() : auth;
+            return this;
+        }
+
+        public Builder body(String body) {
+            this.body = body;
+            return this;
+        }
+
+        public Builder timeout(Duration timeout) {
+            this.timeout = timeout;
+            return this;
+        }
+
+        public Builder dependsOn(String requestLabel) {
+            if (requestLabel != null && !requestLabel.trim().isEmpty() && !dependsOn.contains(requestLabel.trim())) {
+                dependsOn.add(requestLabel.trim());
+            }
+            return this;
+        }
+
+        public ApiRequest build() {
+            if (method == null || method.isEmpty()) {
+                throw new IllegalArgumentException("HTTP method is required");
+            }
+            if (url == null || url.trim().isEmpty()) {
+                throw new IllegalArgumentException("Please enter a valid URL");
+            }
+            return new ApiRequest(this);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.restclient.restclient;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+// Transport-neutral response: status, headers, body and how long each phase took
+public class ApiResponse {
+    // Where a response came from when it went through a ResponseCache
+    public enum CacheStatus { HIT, MISS, REVALIDATED }
+
+    private final int statusCode;
+    private final String protocol;
+    private final Map<String, List<String>> headers;
+    private final ResponseBody body;
+    private final RequestTiming timing;
+    private final String transportName;
+    private final CacheStatus cacheStatus;
+    private final String contentEncoding;
+    private final long wireSize;
+
+    public ApiResponse(int statusCode, String protocol, Map<String, List<String>> headers, ResponseBody body,
+                       RequestTiming timing, String transportName) {
+        this(statusCode, protocol, headers, body, timing, transportName, null);
+    }
+
+    public ApiResponse(int statusCode, String protocol, Map<String, List<String>> headers, ResponseBody body,
+                       RequestTiming timing, String transportName, CacheStatus cacheStatus) {
+        this(statusCode, protocol, headers, body, timing, transportName, cacheStatus, null, -1);
+    }
+
+    private ApiResponse(int statusCode, String protocol, Map<String, List<String>> headers, ResponseBody body,
+                        RequestTiming timing, String transportName, CacheStatus cacheStatus, String contentEncoding,
+                        long wireSize) {
+        this.statusCode = statusCode;
+        this.protocol = protocol;
+        this.headers = headers == null ? Collections.emptyMap() : headers;
+        this.body = body == null ? ResponseBody.empty() : body;
+        this.timing = timing;
+        this.transportName = transportName;
+        this.cacheStatus = cacheStatus;
+        this.contentEncoding = contentEncoding;
+        this.wireSize = wireSize;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public String getProtocol() {
+        return protocol;
+    }
+
+    public Map<String, List<String>> getHeaders() {
+        return headers;
+    }
+
+    // First value of a header, matched case-insensitively
+    public String getHeader(String name) {
+        for (Map.Entry<String, List<String>> entry : headers.entrySet()) {
+            if (entry.getKey() != null && entry.getKey().equalsIgnoreCase(name) && !entry.getValue().isEmpty()) {
+                return entry.getValue().get(0);
+            }
+        }
+        return null;
+    }
+
+    // Body may be spooled to disk; read large ones a page at a time
+    public ResponseBody getBody() {
+        return body;
+    }
+
+    public RequestTiming getTiming() {
+        return timing;
+    }
+
+    public String getTransportName() {
+        return transportName;
+    }
+
+    // Null when the response did not go through a cache
+    public CacheStatus getCacheStatus() {
+        return cacheStatus;
+    }
+
+    public ApiResponse withCacheStatus(CacheStatus cacheStatus) {
+        return new ApiResponse(statusCode, protocol, headers, body, timing, transportName, cacheStatus,
+                contentEncoding, wireSize);
+    }
+
+    // Coding the body was decoded from, e.g. gzip; null when it arrived as is
+    public String getContentEncoding() {
+        return contentEncoding;
+    }
+
+    // Bytes of body read off the wire, which differs from getBody().size() when it was decoded
+    public long getWireSize() {
+        return wireSize >= 0 ? wireSize : body.size();
+    }
+
+    // Method to note that the body was decoded from contentEncoding, wireSize bytes as received
+    public ApiResponse withContentEncoding(String contentEncoding, long wireSize) {
+        return new ApiResponse(statusCode, protocol, headers, body, timing, transportName, cacheStatus,
+                contentEncoding, wireSize);
+    }
+
+    // One-line status summary for the response pane
+    public String summary() {
+        return "Status: " + statusCode + " (" + protocol + ", " + transportName + ") - " + timing
+                + (contentEncoding == null ? "" : " [" + contentEncoding + " " + ResponseBody.formatSize(wireSize)
+                + " on the wire, " + ResponseBody.formatSize(body.size()) + " decoded]")
+                + (cacheStatus == null ? "" : " [cache " + cacheStatus + "]");
+    }
+}
@@ -0,0 +1,115 @@
+package com.restclient.restclient;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+// Authentication settings for a request; resolved to headers so every transport applies them identically
+public class AuthConfig {
+    public static final String NONE = "None";
+    public static final String BASIC = "Basic Auth";
+    public static final String BEARER = "Bearer Token";
+    public static final String AWS_SIGNATURE = "AWS Signature";
+    public static final String API_KEY = "API Key";
+    // Stand-in for a credential value that was not persisted
+    public static final String REDACTED = "***";
+
+    private static final String DEFAULT_API_KEY_HEADER = "X-API-Key";
+    private static final AuthConfig NO_AUTH = new AuthConfig(NONE, null, null);
+    // Headers whose values are credentials and must not be written to history or logs
+    private static final Set<String> SENSITIVE_HEADERS = new HashSet<>(Arrays.asList(
+            "authorization", "proxy-authorization", "cookie", "set-cookie", DEFAULT_API_KEY_HEADER.toLowerCase(Locale.ROOT)));
+
+    private final String type;
+    private final String first;
+    private final String second;
+
+    private AuthConfig(String type, String first, String second) {
+        this.type = type;
+        this.first = first;
+        this.second = second;
+    }
+
+    public static AuthConfig none() {
+        return NO_AUTH;
+    }
+
+    public static AuthConfig basic(String username, String password) {
+        return new AuthConfig(BASIC, username, password);
+    }
+
+    public static AuthConfig bearer(String token) {
+        return new AuthConfig(BEARER, token, null);
+    }
+
+    public static AuthConfig apiKey(String headerName, String key) {
+        String header = headerName == null || headerName.isEmpty() ? DEFAULT_API_KEY_HEADER : headerName;
+        return new AuthConfig(API_KEY, header, key);
+    }
+
+    public static boolean isSensitiveHeader(String name) {
+        return name != null && SENSITIVE_HEADERS.contains(name.toLowerCase(Locale.ROOT));
+    }
+
+    // Header value safe to persist or print
+    public static String redact(String name, String value) {
+        return isSensitiveHeader(name) ? REDACTED : value;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    // Raw settings for persistence: username/token/header name, and password/API key
+    String getFirst() {
+        return first;
+    }
+
+    String getSecond() {
+        return second;
+    }
+
+    // Method to rebuild a config saved with getType()/getFirst()/getSecond()
+    static AuthConfig restore(String type, String first, String second) {
+        if (type == null) {
+            return none();
+        }
+        switch (type) {
+            case BASIC:
+                return basic(first, second);
+            case BEARER:
+                return bearer(first);
+            case API_KEY:
+                return apiKey(first, second);
+            default:
+                return none();
+        }
+    }
+
+    // Method to add the authentication header(s) for this config
+    public void addAuthenticationToRequest(BiConsumer<String, String> headerSink) {
+        switch (type) {
+            case BASIC:
+                String auth = first + ":" + second;
+                String encodedAuth = Base64.getEncoder().encodeToString(auth.getBytes(StandardCharsets.UTF_8));
+                headerSink.accept("Authorization", "Basic " + encodedAuth);
+                break;
+
+            case BEARER:
+                headerSink.accept("Authorization", "Bearer " + first);
+                break;
+
+            case API_KEY:
+                headerSink.accept(first, second);
+                break;
+
+            default:
+                // None / AWS Signature: nothing to add
+                break;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.restclient.restclient;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Set;
+import java.util.function.Predicate;
+
+// Content-addressed body storage: each distinct body is written once, under its SHA-256 hash
+public class BodyStore {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final Path directory;
+    private final long maxStoredBytes;
+
+    public BodyStore(Path directory, long maxStoredBytes) throws IOException {
+        this.directory = directory;
+        this.maxStoredBytes = maxStoredBytes;
+        Files.createDirectories(directory);
+    }
+
+    // Method to hash a body and keep a copy if it is under the size cap; returns the hash
+    public String put(InputStream in) throws IOException {
+        MessageDigest digest = sha256();
+        Path temp = Files.createTempFile(directory, "body-", ".tmp");
+        long size = 0;
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                byte[] buffer = new byte[64 * 1024];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                    if (size + read <= maxStoredBytes) {
+                        out.write(buffer, 0, read);
+                    }
+                    size += read;
+                }
+            }
+            String hash = toHex(digest.digest());
+            Path target = pathFor(hash);
+            if (size <= maxStoredBytes && !Files.exists(target)) {
+                Files.createDirectories(target.getParent());
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+            return hash;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // In-memory bodies are hashed first, so a body that is already stored costs no file I/O
+    public String put(ByteBuffer bytes) throws IOException {
+        MessageDigest digest = sha256();
+        digest.update(bytes.duplicate());
+        String hash = toHex(digest.digest());
+        Path target = pathFor(hash);
+        if (bytes.remaining() <= maxStoredBytes && !Files.exists(target)) {
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(directory, "body-", ".tmp");
+            try {
+                try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                    ByteBuffer source = bytes.duplicate();
+                    while (source.hasRemaining()) {
+                        out.write(source);
+                    }
+                }
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+        return hash;
+    }
+
+    public String put(ResponseBody body) throws IOException {
+        if (!body.isSpooled()) {
+            return put(body.map());
+        }
+        try (InputStream in = body.openStream()) {
+            return put(in);
+        }
+    }
+
+    // Stored body for a hash, or null if it was too large to keep or has been evicted
+    public Path get(String hash) {
+        if (hash == null || hash.length() < 3) {
+            return null;
+        }
+        Path path = pathFor(hash);
+        return Files.exists(path) ? path : null;
+    }
+
+    // Delete every stored body whose hash is not in the live set
+    public int retainOnly(Set<String> liveHashes) throws IOException {
+        return retainOnly(liveHashes::contains);
+    }
+
+    // As above, for a caller whose set of live bodies can grow while the sweep runs
+    public int retainOnly(Predicate<String> live) throws IOException {
+        int removed = 0;
+        try (DirectoryStream<Path> shards = Files.newDirectoryStream(directory, Files::isDirectory)) {
+            for (Path shard : shards) {
+                try (DirectoryStream<Path> files = Files.newDirectoryStream(shard)) {
+                    for (Path file : files) {
+                        if (!live.test(file.getFileName().toString())) {
+                            Files.deleteIfExists(file);
+                            removed++;
+                        }
+                    }
+                }
+            }
+        }
+        return removed;
+    }
+
+    private Path pathFor(String hash) {
+        return directory.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    static String toHex(byte[] bytes) {
+        char[] text = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            text[i * 2] = HEX[(bytes[i] >> 4) & 0xF];
+            text[i * 2 + 1] = HEX[bytes[i] & 0xF];
+        }
+        return new String(text);
+    }
+}
@@ -0,0 +1,177 @@
+package com.restclient.restclient;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+// One running burst. A dispatcher thread takes a permit per request and sends it asynchronously
+// on the next client in turn; completions release the permit, so no thread waits on a response.
+// Bodies are discarded unread: the burst measures the server and the connections, not the viewer.
+public class BurstRun {
+    private final RequestTemplate template;
+    private final boolean variants;
+    private final HttpRequest prebuilt;
+    private final HttpClient[] clients;
+    private final int count;
+    private final int concurrency;
+    private final Semaphore permits;
+    private final HttpResponse.BodyHandler<Void> discarding = HttpResponse.BodyHandlers.discarding();
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder errorStatuses = new LongAdder();
+    private final ConcurrentHashMap<String, LongAdder> versions = new ConcurrentHashMap<>();
+    private final CompletableFuture<BurstRun> completion = new CompletableFuture<>();
+    private volatile String lastError;
+    private volatile boolean cancelled;
+    private volatile long startedAt;
+    private volatile long finishedAt;
+    private volatile Thread dispatcher;
+
+    BurstRun(RequestTemplate template, HttpClient[] clients, int count, int concurrency) {
+        this.template = template;
+        this.variants = template.getVariableNames().contains(BurstRunner.INDEX_VARIABLE);
+        // Built up front so a bad URL fails the start rather than every send
+        this.prebuilt = JdkHttpTransport.toHttpRequest(variants ? variant(0) : template.getSource());
+        this.clients = clients;
+        this.count = count;
+        this.concurrency = concurrency;
+        this.permits = new Semaphore(concurrency);
+    }
+
+    void start() {
+        startedAt = System.nanoTime();
+        Thread thread = HttpClientEngine.daemonThreads("burst-dispatch").newThread(this::dispatch);
+        dispatcher = thread;
+        thread.start();
+    }
+
+    // Completes once every request has been answered or the burst was cancelled
+    public CompletableFuture<BurstRun> completion() {
+        return completion;
+    }
+
+    // Stops sending; requests already in flight are left to finish on their own
+    public void cancel() {
+        cancelled = true;
+        Thread thread = dispatcher;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    // Whether the request references the index variable, so each send is a different request
+    public boolean isVariants() {
+        return variants;
+    }
+
+    public long getCompletedCount() {
+        return completed.sum();
+    }
+
+    // Sends that got no response at all
+    public long getFailureCount() {
+        return failures.sum();
+    }
+
+    // Responses with a 4xx or 5xx status
+    public long getErrorStatusCount() {
+        return errorStatuses.sum();
+    }
+
+    public double getErrorRate() {
+        long done = completed.sum();
+        return done == 0 ? 0 : (double) (failures.sum() + errorStatuses.sum()) / done;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    // Responses per protocol, e.g. {HTTP/2=1000}; HTTP/1.1 here means the server would not multiplex
+    public Map<String, Long> getVersions() {
+        Map<String, Long> counts = new TreeMap<>();
+        versions.forEach((version, adder) -> counts.put(version, adder.sum()));
+        return counts;
+    }
+
+    public long getElapsedMillis() {
+        long end = finishedAt != 0 ? finishedAt : System.nanoTime();
+        return TimeUnit.NANOSECONDS.toMillis(end - startedAt);
+    }
+
+    public double getRps() {
+        long elapsed = getElapsedMillis();
+        return elapsed == 0 ? 0 : getCompletedCount() * 1000.0 / elapsed;
+    }
+
+    private ApiRequest variant(int index) {
+        String value = String.valueOf(index);
+        Function<String, String> lookup = name -> BurstRunner.INDEX_VARIABLE.equals(name) ? value : null;
+        return template.render(lookup);
+    }
+
+    private void dispatch() {
+        try {
+            for (int i = 0; i < count && !cancelled; i++) {
+                permits.acquire();
+                HttpRequest request;
+                try {
+                    request = variants && i > 0 ? JdkHttpTransport.toHttpRequest(variant(i)) : prebuilt;
+                } catch (RuntimeException e) {
+                    lastError = e.getMessage();
+                    failures.increment();
+                    completed.increment();
+                    permits.release();
+                    continue;
+                }
+                long start = System.nanoTime();
+                clients[i % clients.length].sendAsync(request, discarding)
+                        .whenComplete((response, error) -> finished(start, response, error));
+            }
+            // Wait for the in-flight tail
+            permits.acquire(concurrency);
+        } catch (InterruptedException e) {
+            // cancelled
+        } finally {
+            finishedAt = System.nanoTime();
+            completion.complete(this);
+        }
+    }
+
+    private void finished(long start, HttpResponse<Void> response, Throwable error) {
+        latency.recordNanos(System.nanoTime() - start);
+        if (error != null) {
+            failures.increment();
+            lastError = String.valueOf(error.getCause() != null ? error.getCause() : error);
+        } else {
+            if (response.statusCode() >= 400) {
+                errorStatuses.increment();
+            }
+            versions.computeIfAbsent(JdkHttpTransport.protocolName(response.version()), key -> new LongAdder())
+                    .increment();
+        }
+        completed.increment();
+        permits.release();
+    }
+}
@@ -0,0 +1,61 @@
+package com.restclient.restclient;
+
+import java.net.http.HttpClient;
+
+// Fires N copies of one request, or N variants of it, at a host as fast as a concurrency limit
+// allows, for quick throughput checks. Each connection is its own HttpClient preferring HTTP/2, so the
+// burst is multiplexed over that many connections instead of opening one per request in flight.
+public class BurstRunner {
+    public static final int DEFAULT_COUNT = 1000;
+    public static final int DEFAULT_CONCURRENCY = 64;
+    public static final int DEFAULT_CONNECTIONS = 2;
+    // Referenced as ${i} or {i}, it makes each request a variant numbered 0..count-1
+    public static final String INDEX_VARIABLE = "i";
+
+    private final HttpClientEngine engine;
+    private int count = DEFAULT_COUNT;
+    private int concurrency = DEFAULT_CONCURRENCY;
+    private int connections = DEFAULT_CONNECTIONS;
+
+    public BurstRunner(HttpClientEngine engine) {
+        this.engine = engine;
+    }
+
+    public BurstRunner count(int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("Count must be at least 1");
+        }
+        this.count = count;
+        return this;
+    }
+
+    // Maximum number of requests in flight at once, across all connections
+    public BurstRunner concurrency(int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be at least 1");
+        }
+        this.concurrency = concurrency;
+        return this;
+    }
+
+    // HTTP/2 connections to spread the burst over; a server that only speaks HTTP/1.1 gets more
+    public BurstRunner connections(int connections) {
+        if (connections < 1) {
+            throw new IllegalArgumentException("Connections must be at least 1");
+        }
+        this.connections = connections;
+        return this;
+    }
+
+    // Method to start a burst of the given request. Unless it references the index variable, every
+    // send reuses one prebuilt HttpRequest.
+    public BurstRun start(ApiRequest request) {
+        HttpClient[] clients = new HttpClient[connections];
+        for (int i = 0; i < clients.length; i++) {
+            clients[i] = engine.newClientBuilder().version(HttpClient.Version.HTTP_2).build();
+        }
+        BurstRun run = new BurstRun(RequestTemplate.compile(request), clients, count, concurrency);
+        run.start();
+        return run;
+    }
+}
@@ -0,0 +1,146 @@
+package com.restclient.restclient;
+
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.application.Platform;
+import javafx.geometry.Insets;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import javafx.scene.text.Font;
+import javafx.stage.Stage;
+import javafx.util.Duration;
+
+import java.util.Locale;
+import java.util.function.Supplier;
+
+// Bursts the current request at its host and shows throughput, errors and the latency distribution
+public class BurstWindow {
+    private static final double PADDING = 10;
+    private static final long[] BUCKET_MILLIS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000};
+    private static final int BAR_WIDTH = 40;
+
+    private final Supplier<ApiRequest> requestSupplier;
+    private final Stage stage = new Stage();
+
+    private final TextField countField = new TextField(String.valueOf(BurstRunner.DEFAULT_COUNT));
+    private final TextField concurrencyField = new TextField(String.valueOf(BurstRunner.DEFAULT_CONCURRENCY));
+    private final TextField connectionsField = new TextField(String.valueOf(BurstRunner.DEFAULT_CONNECTIONS));
+    private final Label requestLabel = new Label();
+    private final Label statusLabel = new Label("Ready");
+    private final Label latencyLabel = new Label();
+    private final Label histogramLabel = new Label();
+    private final Button startButton = new Button("Start Burst");
+    private final Button cancelButton = new Button("Cancel");
+    private final Timeline refresher = new Timeline(new KeyFrame(Duration.millis(500), e -> refreshStatus()));
+    private BurstRun run;
+
+    public BurstWindow(Supplier<ApiRequest> requestSupplier) {
+        this.requestSupplier = requestSupplier;
+    }
+
+    public void show() {
+        GridPane grid = new GridPane();
+        grid.setHgap(10);
+        grid.setVgap(10);
+        grid.add(new Label("Requests:"), 0, 0);
+        grid.add(countField, 1, 0);
+        grid.add(new Label("Concurrency:"), 0, 1);
+        grid.add(concurrencyField, 1, 1);
+        grid.add(new Label("HTTP/2 connections:"), 0, 2);
+        grid.add(connectionsField, 1, 2);
+
+        startButton.setOnAction(e -> startBurst());
+        cancelButton.setOnAction(e -> cancelBurst());
+        cancelButton.setDisable(true);
+        histogramLabel.setFont(Font.font("Monospaced", 12));
+
+        Label hintLabel = new Label("Use ${" + BurstRunner.INDEX_VARIABLE + "} in the URL, headers or body to send "
+                + "variants numbered from 0; otherwise every request is the same");
+        VBox layout = new VBox(10, requestLabel, grid, hintLabel, new HBox(10, startButton, cancelButton),
+                statusLabel, latencyLabel, histogramLabel);
+        layout.setPadding(new Insets(PADDING));
+
+        refresher.setCycleCount(Timeline.INDEFINITE);
+        stage.setTitle("Burst");
+        stage.setScene(new Scene(layout, 640, 620));
+        stage.setOnHidden(e -> cancelBurst());
+        stage.show();
+    }
+
+    private void startBurst() {
+        ApiRequest request;
+        BurstRunner runner;
+        try {
+            request = requestSupplier.get();
+            runner = new BurstRunner(HttpClientEngine.shared())
+                    .count(Integer.parseInt(countField.getText().trim()))
+                    .concurrency(Integer.parseInt(concurrencyField.getText().trim()))
+                    .connections(Integer.parseInt(connectionsField.getText().trim()));
+            run = runner.start(request);
+        } catch (RuntimeException e) {
+            statusLabel.setText("Error: " + e.getMessage());
+            return;
+        }
+        requestLabel.setText(request.getMethod() + " " + request.buildUrlWithParams());
+        BurstRun started = run;
+        started.completion().whenComplete((done, error) -> Platform.runLater(() -> {
+            refresher.stop();
+            refreshStatus();
+            startButton.setDisable(false);
+            cancelButton.setDisable(true);
+        }));
+        startButton.setDisable(true);
+        cancelButton.setDisable(false);
+        refresher.play();
+        refreshStatus();
+    }
+
+    private void cancelBurst() {
+        if (run != null && !run.completion().isDone()) {
+            run.cancel();
+        }
+    }
+
+    private void refreshStatus() {
+        BurstRun current = run;
+        if (current == null) {
+            return;
+        }
+        String state = current.completion().isDone() ? (current.isCancelled() ? "Cancelled" : "Finished") : "Running";
+        statusLabel.setText(String.format(Locale.ROOT,
+                "%s | %d/%d done in %d ms | %.1f req/s | %.2f%% errors (%d failed, %d 4xx/5xx) | %s%s",
+                state, current.getCompletedCount(), current.getCount(), current.getElapsedMillis(), current.getRps(),
+                current.getErrorRate() * 100, current.getFailureCount(), current.getErrorStatusCount(),
+                current.getVersions(), current.getLastError() == null ? "" : "\nLast error: " + current.getLastError()));
+        LatencyHistogram latency = current.getLatency();
+        latencyLabel.setText(String.format(Locale.ROOT, "p50 %.1f ms | p90 %.1f ms | p99 %.1f ms | max %.1f ms",
+                latency.percentileMillis(50), latency.percentileMillis(90), latency.percentileMillis(99),
+                latency.getMaxMicros() / 1_000.0));
+        histogramLabel.setText(histogram(latency));
+    }
+
+    // Counts per latency band as text bars, up to the band holding the slowest request
+    private static String histogram(LatencyHistogram latency) {
+        long total = latency.getCount();
+        if (total == 0) {
+            return "";
+        }
+        StringBuilder text = new StringBuilder();
+        long below = 0;
+        for (int i = 0; i <= BUCKET_MILLIS.length && below < total; i++) {
+            long upTo = i < BUCKET_MILLIS.length ? latency.countAtOrBelowMicros(BUCKET_MILLIS[i] * 1_000) : total;
+            long inBucket = upTo - below;
+            below = upTo;
+            String band = i < BUCKET_MILLIS.length ? "<= " + BUCKET_MILLIS[i] + " ms" : "> " + BUCKET_MILLIS[i - 1] + " ms";
+            text.append(String.format(Locale.ROOT, "%-11s %-" + BAR_WIDTH + "s %7d %5.1f%%%n", band,
+                    "#".repeat((int) Math.round((double) inBucket * BAR_WIDTH / total)), inBucket,
+                    100.0 * inBucket / total));
+        }
+        return text.toString();
+    }
+}
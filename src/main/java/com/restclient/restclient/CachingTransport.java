@@ -0,0 +1,79 @@
+package com.restclient.restclient;
+
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+
+// Decorator that answers GET and HEAD from a ResponseCache: fresh entries are served without a round
+// trip, stale ones are revalidated with If-None-Match / If-Modified-Since, and a 304 reuses the
+// stored body. Every response is labelled HIT, MISS or REVALIDATED.
+public class CachingTransport implements HttpTransport {
+    private final HttpTransport delegate;
+    private final ResponseCache cache;
+
+    public CachingTransport(HttpTransport delegate, ResponseCache cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public void reserveConcurrency(int concurrency) {
+        delegate.reserveConcurrency(concurrency);
+    }
+
+    @Override
+    public ApiResponse execute(ApiRequest request) throws IOException, InterruptedException {
+        String method = request.getMethod();
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            ApiResponse response = delegate.execute(request);
+            if (response.getStatusCode() < 400) {
+                cache.invalidate(request.buildUrlWithParams());
+            }
+            return response;
+        }
+
+        long start = System.nanoTime();
+        ResponseCache.Entry entry = cache.lookup(request);
+        if (entry != null && entry.isFresh(System.currentTimeMillis())) {
+            long elapsed = System.nanoTime() - start;
+            try {
+                return cache.toResponse(entry, ApiResponse.CacheStatus.HIT, new RequestTiming(0, 0, elapsed, elapsed),
+                        delegate.getName());
+            } catch (NoSuchFileException e) {
+                // Evicted by a concurrent store since the lookup; fetch it again
+                entry = null;
+            }
+        }
+
+        ApiRequest sent = request;
+        if (entry != null && entry.hasValidators()) {
+            ApiRequest.Builder conditional = request.toBuilder();
+            if (entry.getEtag() != null) {
+                conditional.header("If-None-Match", entry.getEtag());
+            }
+            if (entry.getLastModified() != null) {
+                conditional.header("If-Modified-Since", entry.getLastModified());
+            }
+            sent = conditional.build();
+        }
+        ApiResponse response = delegate.execute(sent);
+        if (entry != null && response.getStatusCode() == 304) {
+            response.getBody().close();
+            ResponseCache.Entry refreshed = cache.refresh(entry, response);
+            try {
+                return cache.toResponse(refreshed, ApiResponse.CacheStatus.REVALIDATED, response.getTiming(),
+                        response.getTransportName());
+            } catch (NoSuchFileException e) {
+                // The stored body went while revalidating, so the 304 has nothing to reuse
+                response = delegate.execute(request);
+            }
+        }
+        cache.store(request, response);
+        cache.countResult(ApiResponse.CacheStatus.MISS);
+        return response.withCacheStatus(ApiResponse.CacheStatus.MISS);
+    }
+}
@@ -0,0 +1,103 @@
+package com.restclient.restclient;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Capture file layout: an 8-byte header (magic, version) followed by [int length][payload] records.
+// Inside a payload, counts and lengths are unsigned varints and timings zig-zag varints, so a typical
+// small exchange costs little more than its own text.
+final class CaptureCodec {
+    static final int MAGIC = 0x52434331;
+    static final int VERSION = 1;
+    static final int FILE_HEADER_SIZE = 8;
+    static final int RECORD_HEADER_SIZE = 4;
+
+    private CaptureCodec() {
+    }
+
+    static void putVarLong(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    static long getVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint at offset " + in.position());
+    }
+
+    // Signed values (timings use -1 for "not measured") are zig-zag encoded to stay short
+    static void putSignedVarLong(ByteBuffer out, long value) {
+        putVarLong(out, (value << 1) ^ (value >> 63));
+    }
+
+    static long getSignedVarLong(ByteBuffer in) {
+        long raw = getVarLong(in);
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    static void putBytes(ByteBuffer out, byte[] bytes) {
+        putVarLong(out, bytes.length);
+        out.put(bytes);
+    }
+
+    static void putBytes(ByteBuffer out, ByteBuffer bytes) {
+        putVarLong(out, bytes.remaining());
+        out.put(bytes.duplicate());
+    }
+
+    static byte[] getBytes(ByteBuffer in) {
+        long length = getVarLong(in);
+        if (length > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        byte[] bytes = new byte[(int) length];
+        in.get(bytes);
+        return bytes;
+    }
+
+    static void putString(ByteBuffer out, String value) {
+        putBytes(out, value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String getString(ByteBuffer in) {
+        return new String(getBytes(in), StandardCharsets.UTF_8);
+    }
+
+    static void putHeaders(ByteBuffer out, List<String[]> headers) {
+        putVarLong(out, headers.size());
+        for (String[] header : headers) {
+            putString(out, header[0]);
+            putString(out, header[1]);
+        }
+    }
+
+    static Map<String, List<String>> getHeaders(ByteBuffer in) {
+        long count = getVarLong(in);
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (long i = 0; i < count; i++) {
+            String name = getString(in);
+            headers.computeIfAbsent(name, key -> new ArrayList<>(1)).add(getString(in));
+        }
+        return headers;
+    }
+
+    // Upper bound of the encoded size of a string, for sizing buffers before encoding
+    static int maxSize(String value) {
+        return value == null ? 1 : 5 + value.length() * 3;
+    }
+}
@@ -0,0 +1,108 @@
+package com.restclient.restclient;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+
+// Reads a capture file sequentially. A record cut off at the end of the file (the writer was killed
+// mid-flush) ends the stream instead of failing it.
+public class CaptureReader implements Closeable {
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    private final FileChannel channel;
+    private ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private boolean endOfFile;
+
+    public CaptureReader(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        buffer.flip();
+        try {
+            if (!fill(CaptureCodec.FILE_HEADER_SIZE)) {
+                throw new EOFException("Not a capture file: " + file);
+            }
+            int magic = buffer.getInt();
+            int version = buffer.getInt();
+            if (magic != CaptureCodec.MAGIC || version != CaptureCodec.VERSION) {
+                throw new IOException("Not a capture file (or an unsupported version): " + file);
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // Next exchange, or null at the end of the capture
+    public CapturedExchange next() throws IOException {
+        if (!fill(CaptureCodec.RECORD_HEADER_SIZE)) {
+            return null;
+        }
+        int length = buffer.getInt();
+        if (length < 0 || !fill(length)) {
+            return null;
+        }
+        ByteBuffer payload = buffer.slice();
+        payload.limit(length);
+        buffer.position(buffer.position() + length);
+        try {
+            return decode(payload);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("Corrupt capture record: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private static CapturedExchange decode(ByteBuffer in) {
+        long offsetNanos = CaptureCodec.getVarLong(in);
+        long epochMillis = CaptureCodec.getVarLong(in);
+        String method = CaptureCodec.getString(in);
+        String url = CaptureCodec.getString(in);
+        Map<String, List<String>> requestHeaders = CaptureCodec.getHeaders(in);
+        byte[] requestBody = CaptureCodec.getBytes(in);
+        int status = (int) CaptureCodec.getSignedVarLong(in);
+        String protocol = CaptureCodec.getString(in);
+        String error = CaptureCodec.getString(in);
+        Map<String, List<String>> responseHeaders = CaptureCodec.getHeaders(in);
+        long responseSize = CaptureCodec.getVarLong(in);
+        byte[] responseBody = CaptureCodec.getBytes(in);
+        long[] phases = new long[7];
+        for (int i = 0; i < phases.length; i++) {
+            phases[i] = CaptureCodec.getSignedVarLong(in);
+        }
+        RequestTiming timing = new RequestTiming(phases[0], phases[1], phases[2], phases[3], phases[4], phases[5],
+                phases[6]);
+        return new CapturedExchange(offsetNanos, epochMillis, method, url, requestHeaders, requestBody, status,
+                protocol, error.isEmpty() ? null : error, responseHeaders, responseSize, responseBody, timing);
+    }
+
+    // Method to make at least `needed` bytes readable, growing the buffer for large records
+    private boolean fill(int needed) throws IOException {
+        if (buffer.remaining() >= needed) {
+            return true;
+        }
+        if (buffer.capacity() < needed) {
+            ByteBuffer larger = ByteBuffer.allocate(needed);
+            larger.put(buffer);
+            buffer = larger;
+        } else {
+            buffer.compact();
+        }
+        while (buffer.position() < needed && !endOfFile) {
+            if (channel.read(buffer) < 0) {
+                endOfFile = true;
+            }
+        }
+        buffer.flip();
+        return buffer.remaining() >= needed;
+    }
+}
@@ -0,0 +1,195 @@
+package com.restclient.restclient;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// One running replay. A single dispatcher reads the capture and releases each exchange at its
+// scheduled time onto a bounded pool; when the pool is saturated the delay shows up as dispatch lag.
+public class CaptureReplay {
+    private final CaptureReader reader;
+    private final HttpTransport transport;
+    private final double speed;
+    private final int concurrency;
+    private final String targetBaseUrl;
+    private final AuthConfig auth;
+    private final ExecutorService workers;
+    private final Semaphore permits;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder statusMismatches = new LongAdder();
+    private final AtomicLong maxLagNanos = new AtomicLong();
+    private final CompletableFuture<CaptureReplay> completion = new CompletableFuture<>();
+    private volatile boolean cancelled;
+    private volatile long startedAt;
+    private volatile long finishedAt;
+    private volatile Thread dispatcher;
+
+    CaptureReplay(CaptureReader reader, HttpTransport transport, double speed, int concurrency, String targetBaseUrl,
+                  AuthConfig auth) {
+        this.reader = reader;
+        this.transport = transport;
+        this.speed = speed;
+        this.concurrency = concurrency;
+        this.targetBaseUrl = targetBaseUrl == null ? null
+                : targetBaseUrl.endsWith("/") ? targetBaseUrl.substring(0, targetBaseUrl.length() - 1) : targetBaseUrl;
+        this.auth = auth;
+        this.workers = Executors.newFixedThreadPool(concurrency, HttpClientEngine.daemonThreads("capture-replay"));
+        this.permits = new Semaphore(concurrency);
+    }
+
+    void start() {
+        startedAt = System.nanoTime();
+        Thread thread = HttpClientEngine.daemonThreads("capture-replay-dispatch").newThread(this::dispatch);
+        dispatcher = thread;
+        thread.start();
+    }
+
+    // Completes once every exchange has been replayed or the replay was cancelled
+    public CompletableFuture<CaptureReplay> completion() {
+        return completion;
+    }
+
+    public void cancel() {
+        cancelled = true;
+        Thread thread = dispatcher;
+        if (thread != null) {
+            thread.interrupt();
+        }
+        workers.shutdownNow();
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public long getSentCount() {
+        return sent.sum();
+    }
+
+    // Sends that failed outright
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    // Responses whose status differs from the recorded one
+    public long getStatusMismatchCount() {
+        return statusMismatches.sum();
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    // Worst delay between an exchange's scheduled time and its actual send
+    public double getMaxLagMillis() {
+        return maxLagNanos.get() / 1_000_000.0;
+    }
+
+    public long getElapsedMillis() {
+        long end = finishedAt != 0 ? finishedAt : System.nanoTime();
+        return TimeUnit.NANOSECONDS.toMillis(end - startedAt);
+    }
+
+    public double getAverageRps() {
+        long elapsed = getElapsedMillis();
+        return elapsed == 0 ? 0 : getSentCount() * 1000.0 / elapsed;
+    }
+
+    private void dispatch() {
+        Throwable failure = null;
+        try {
+            Long firstOffset = null;
+            CapturedExchange exchange;
+            while (!cancelled && (exchange = reader.next()) != null) {
+                if (firstOffset == null) {
+                    firstOffset = exchange.getOffsetNanos();
+                }
+                long due = speed == 0 ? System.nanoTime()
+                        : startedAt + (long) ((exchange.getOffsetNanos() - firstOffset) / speed);
+                waitUntil(due);
+                permits.acquire();
+                if (cancelled) {
+                    permits.release();
+                    break;
+                }
+                maxLagNanos.accumulateAndGet(System.nanoTime() - due, Math::max);
+                CapturedExchange current = exchange;
+                workers.execute(() -> replay(current));
+            }
+            // Wait for the in-flight tail
+            permits.acquire(concurrency);
+        } catch (InterruptedException e) {
+            // cancelled
+        } catch (IOException | RuntimeException e) {
+            // A rejected submit after cancel() is not a failure
+            if (!cancelled) {
+                failure = e;
+            }
+        } finally {
+            finishedAt = System.nanoTime();
+            workers.shutdown();
+            try {
+                reader.close();
+            } catch (IOException e) {
+                // Read-only file; nothing to lose
+            }
+        }
+        if (failure != null) {
+            completion.completeExceptionally(failure);
+        } else {
+            completion.complete(this);
+        }
+    }
+
+    private void waitUntil(long due) throws InterruptedException {
+        long wait;
+        while ((wait = due - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(wait);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+
+    private void replay(CapturedExchange exchange) {
+        try {
+            ApiRequest request = exchange.toRequest();
+            if (targetBaseUrl != null || auth != null) {
+                ApiRequest.Builder builder = request.toBuilder();
+                if (targetBaseUrl != null) {
+                    builder.url(targetBaseUrl + RequestCollection.pathAndQuery(request.getUrl()));
+                }
+                if (auth != null) {
+                    builder.auth(auth);
+                }
+                request = builder.build();
+            }
+            long start = System.nanoTime();
+            try {
+                ApiResponse response = transport.execute(request);
+                response.getBody().close();
+                latency.recordNanos(System.nanoTime() - start);
+                if (exchange.getStatusCode() >= 0 && response.getStatusCode() != exchange.getStatusCode()) {
+                    statusMismatches.increment();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                latency.recordNanos(System.nanoTime() - start);
+                errors.increment();
+            }
+            sent.increment();
+        } finally {
+            permits.release();
+        }
+    }
+}
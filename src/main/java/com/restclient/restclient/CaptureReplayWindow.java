@@ -0,0 +1,127 @@
+package com.restclient.restclient;
+
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.application.Platform;
+import javafx.geometry.Insets;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import javafx.stage.Stage;
+import javafx.util.Duration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+// Replays a capture file and shows progress, latency and how far dispatch fell behind schedule
+public class CaptureReplayWindow {
+    private static final double PADDING = 10;
+
+    private final Path capture;
+    private final Supplier<HttpTransport> transportSupplier;
+    private final Stage stage = new Stage();
+
+    private final TextField speedField = new TextField("1");
+    private final TextField concurrencyField = new TextField(String.valueOf(CaptureReplayer.DEFAULT_CONCURRENCY));
+    private final TextField targetField = new TextField();
+    private final Label statusLabel = new Label("Ready");
+    private final Label latencyLabel = new Label();
+    private final Button startButton = new Button("Replay");
+    private final Button cancelButton = new Button("Cancel");
+    private final Timeline refresher = new Timeline(new KeyFrame(Duration.seconds(1), e -> refreshStatus()));
+    private CaptureReplay replay;
+
+    public CaptureReplayWindow(Path capture, Supplier<HttpTransport> transportSupplier) {
+        this.capture = capture;
+        this.transportSupplier = transportSupplier;
+    }
+
+    public void show() {
+        targetField.setPromptText("Recorded hosts");
+        targetField.setPrefWidth(300);
+
+        GridPane grid = new GridPane();
+        grid.setHgap(10);
+        grid.setVgap(10);
+        grid.add(new Label("Speed (1 = recorded, 0 = max):"), 0, 0);
+        grid.add(speedField, 1, 0);
+        grid.add(new Label("Concurrency:"), 0, 1);
+        grid.add(concurrencyField, 1, 1);
+        grid.add(new Label("Target base URL:"), 0, 2);
+        grid.add(targetField, 1, 2);
+
+        startButton.setOnAction(e -> startReplay());
+        cancelButton.setOnAction(e -> cancelReplay());
+        cancelButton.setDisable(true);
+
+        VBox layout = new VBox(10, grid, new HBox(10, startButton, cancelButton), statusLabel, latencyLabel);
+        layout.setPadding(new Insets(PADDING));
+
+        refresher.setCycleCount(Timeline.INDEFINITE);
+        stage.setTitle("Replay Capture - " + capture.getFileName());
+        stage.setScene(new Scene(layout, 560, 260));
+        stage.setOnHidden(e -> cancelReplay());
+        stage.show();
+    }
+
+    private void startReplay() {
+        CaptureReplayer replayer;
+        try {
+            replayer = new CaptureReplayer(transportSupplier.get())
+                    .speed(Double.parseDouble(speedField.getText().trim()))
+                    .concurrency(Integer.parseInt(concurrencyField.getText().trim()))
+                    .target(targetField.getText());
+        } catch (IllegalArgumentException e) {
+            statusLabel.setText("Error: " + e.getMessage());
+            return;
+        }
+        try {
+            replay = replayer.start(capture);
+        } catch (IOException e) {
+            statusLabel.setText("Cannot read capture: " + e.getMessage());
+            return;
+        }
+        CaptureReplay started = replay;
+        started.completion().whenComplete((done, error) -> Platform.runLater(() -> {
+            refresher.stop();
+            refreshStatus();
+            if (error != null) {
+                statusLabel.setText(statusLabel.getText() + " | stopped: " + error.getMessage());
+            }
+            startButton.setDisable(false);
+            cancelButton.setDisable(true);
+        }));
+        startButton.setDisable(true);
+        cancelButton.setDisable(false);
+        refresher.play();
+        refreshStatus();
+    }
+
+    private void cancelReplay() {
+        if (replay != null && !replay.completion().isDone()) {
+            replay.cancel();
+        }
+    }
+
+    private void refreshStatus() {
+        CaptureReplay current = replay;
+        if (current == null) {
+            return;
+        }
+        String state = current.completion().isDone() ? (current.isCancelled() ? "Cancelled" : "Finished") : "Running";
+        statusLabel.setText(String.format(Locale.ROOT,
+                "%s | %d sent, %d errors, %d status mismatches | %.1f req/s | max lag %.1f ms",
+                state, current.getSentCount(), current.getErrorCount(), current.getStatusMismatchCount(),
+                current.getAverageRps(), current.getMaxLagMillis()));
+        LatencyHistogram latency = current.getLatency();
+        latencyLabel.setText(String.format(Locale.ROOT, "p50 %.1f ms | p90 %.1f ms | p99 %.1f ms | max %.1f ms",
+                latency.percentileMillis(50), latency.percentileMillis(90), latency.percentileMillis(99),
+                latency.getMaxMicros() / 1_000.0));
+    }
+}
@@ -0,0 +1,57 @@
+package com.restclient.restclient;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+// Replays a capture file against a target at its original pacing, scaled, or as fast as possible
+public class CaptureReplayer {
+    public static final int DEFAULT_CONCURRENCY = 32;
+
+    private final HttpTransport transport;
+    private double speed = 1.0;
+    private int concurrency = DEFAULT_CONCURRENCY;
+    private String targetBaseUrl;
+    private AuthConfig auth;
+
+    public CaptureReplayer(HttpTransport transport) {
+        this.transport = transport;
+    }
+
+    // 1 keeps the recorded gaps, 2 halves them, 0 sends as fast as the concurrency allows
+    public CaptureReplayer speed(double speed) {
+        if (speed < 0 || Double.isNaN(speed)) {
+            throw new IllegalArgumentException("Speed must be zero or positive");
+        }
+        this.speed = speed;
+        return this;
+    }
+
+    // Maximum number of replayed requests in flight at once
+    public CaptureReplayer concurrency(int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be at least 1");
+        }
+        this.concurrency = concurrency;
+        return this;
+    }
+
+    // Send to this scheme://host:port instead of the recorded one; null keeps the original URLs
+    public CaptureReplayer target(String baseUrl) {
+        this.targetBaseUrl = baseUrl == null || baseUrl.trim().isEmpty() ? null : baseUrl.trim();
+        return this;
+    }
+
+    // Credentials are redacted in most captures, so replays against protected APIs supply their own
+    public CaptureReplayer auth(AuthConfig auth) {
+        this.auth = auth;
+        return this;
+    }
+
+    // Method to start a replay; the file is streamed, so captures larger than memory are fine
+    public CaptureReplay start(Path capture) throws IOException {
+        CaptureReplay replay = new CaptureReplay(new CaptureReader(capture), transport, speed, concurrency,
+                targetBaseUrl, auth);
+        replay.start();
+        return replay;
+    }
+}
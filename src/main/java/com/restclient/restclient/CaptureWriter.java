@@ -0,0 +1,256 @@
+package com.restclient.restclient;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Records exchanges into a binary capture file (see CaptureCodec). The send path only enqueues
+// references; a single background thread encodes them into a direct buffer and writes it to the
+// file channel. When the queue is full the exchange is dropped and counted rather than waited for.
+public class CaptureWriter implements Closeable {
+    public static final int DEFAULT_MAX_BODY_BYTES = 1024 * 1024;
+    private static final int QUEUE_CAPACITY = 8192;
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final int maxBodyBytes;
+    private final boolean includeSecrets;
+    private final BlockingQueue<Pending> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final long startedAt = System.nanoTime();
+    private final Thread writer;
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private volatile boolean closed;
+    private volatile IOException failure;
+
+    public CaptureWriter(Path file) throws IOException {
+        this(file, DEFAULT_MAX_BODY_BYTES, false);
+    }
+
+    // Bodies are truncated to maxBodyBytes; credentials are redacted unless includeSecrets is set
+    public CaptureWriter(Path file, int maxBodyBytes, boolean includeSecrets) throws IOException {
+        this.file = file;
+        this.maxBodyBytes = maxBodyBytes;
+        this.includeSecrets = includeSecrets;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        ByteBuffer header = ByteBuffer.allocate(CaptureCodec.FILE_HEADER_SIZE);
+        header.putInt(CaptureCodec.MAGIC).putInt(CaptureCodec.VERSION).flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        this.writer = HttpClientEngine.daemonThreads("capture-writer").newThread(this::drain);
+        writer.start();
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    // Exchanges discarded because the writer could not keep up
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    // Method to queue a completed exchange; never blocks
+    public void record(ApiRequest request, ApiResponse response, long sentAtNanos) {
+        ByteBuffer body;
+        try {
+            // A view of the body taken now: the caller may close (and delete) a spooled body right after
+            body = response.getBody().map();
+            if (body.remaining() > maxBodyBytes) {
+                body.limit(body.position() + maxBodyBytes);
+                body = body.slice();
+            }
+        } catch (IOException e) {
+            body = ByteBuffer.allocate(0);
+        }
+        offer(new Pending(request, sentAtNanos, System.currentTimeMillis(), response, body, null));
+    }
+
+    public void recordFailure(ApiRequest request, long sentAtNanos, Throwable error) {
+        offer(new Pending(request, sentAtNanos, System.currentTimeMillis(), null, null, String.valueOf(error)));
+    }
+
+    private void offer(Pending pending) {
+        if (closed || !queue.offer(pending)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    // Method to flush what is queued and close the file
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        // No interrupt: it would close the channel mid-write. The writer notices within one poll.
+        closed = true;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void drain() {
+        List<Pending> batch = new ArrayList<>(256);
+        try {
+            while (true) {
+                Pending first;
+                try {
+                    first = closed ? queue.poll() : queue.poll(100, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    break;
+                }
+                if (first == null) {
+                    if (closed) {
+                        break;
+                    }
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, 255);
+                for (Pending pending : batch) {
+                    encode(pending);
+                }
+                batch.clear();
+                flush();
+            }
+            flush();
+            channel.force(false);
+        } catch (IOException e) {
+            failure = e;
+            closed = true;
+        }
+    }
+
+    private void encode(Pending pending) throws IOException {
+        List<String[]> requestHeaders = new ArrayList<>();
+        pending.request.addHeadersToRequest((name, value) ->
+                requestHeaders.add(new String[]{name, includeSecrets ? value : AuthConfig.redact(name, value)}));
+        List<String[]> responseHeaders = new ArrayList<>();
+        if (pending.response != null) {
+            for (Map.Entry<String, List<String>> header : pending.response.getHeaders().entrySet()) {
+                for (String value : header.getValue()) {
+                    responseHeaders.add(new String[]{header.getKey(),
+                            includeSecrets ? value : AuthConfig.redact(header.getKey(), value)});
+                }
+            }
+        }
+        String url = pending.request.buildUrlWithParams();
+        String body = pending.request.getBody();
+        String protocol = pending.response == null ? null : pending.response.getProtocol();
+
+        int bound = CaptureCodec.RECORD_HEADER_SIZE + 8 * 10 + 9 * 8
+                + CaptureCodec.maxSize(pending.request.getMethod()) + CaptureCodec.maxSize(url)
+                + CaptureCodec.maxSize(body) + CaptureCodec.maxSize(protocol) + CaptureCodec.maxSize(pending.error)
+                + (pending.body == null ? 0 : pending.body.remaining());
+        for (String[] header : requestHeaders) {
+            bound += CaptureCodec.maxSize(header[0]) + CaptureCodec.maxSize(header[1]);
+        }
+        for (String[] header : responseHeaders) {
+            bound += CaptureCodec.maxSize(header[0]) + CaptureCodec.maxSize(header[1]);
+        }
+        ensureCapacity(bound);
+
+        int start = buffer.position();
+        buffer.position(start + CaptureCodec.RECORD_HEADER_SIZE);
+        CaptureCodec.putVarLong(buffer, Math.max(0, pending.sentAtNanos - startedAt));
+        CaptureCodec.putVarLong(buffer, pending.epochMillis);
+        CaptureCodec.putString(buffer, pending.request.getMethod());
+        CaptureCodec.putString(buffer, url);
+        CaptureCodec.putHeaders(buffer, requestHeaders);
+        CaptureCodec.putString(buffer, body);
+        if (pending.response == null) {
+            CaptureCodec.putSignedVarLong(buffer, -1);
+            CaptureCodec.putString(buffer, null);
+            CaptureCodec.putString(buffer, pending.error);
+            CaptureCodec.putHeaders(buffer, responseHeaders);
+            CaptureCodec.putVarLong(buffer, 0);
+            CaptureCodec.putVarLong(buffer, 0);
+            for (int i = 0; i < 7; i++) {
+                CaptureCodec.putSignedVarLong(buffer, -1);
+            }
+        } else {
+            RequestTiming timing = pending.response.getTiming();
+            CaptureCodec.putSignedVarLong(buffer, pending.response.getStatusCode());
+            CaptureCodec.putString(buffer, protocol);
+            CaptureCodec.putString(buffer, null);
+            CaptureCodec.putHeaders(buffer, responseHeaders);
+            CaptureCodec.putVarLong(buffer, pending.response.getBody().size());
+            CaptureCodec.putBytes(buffer, pending.body);
+            CaptureCodec.putSignedVarLong(buffer, timing.getDnsNanos());
+            CaptureCodec.putSignedVarLong(buffer, timing.getConnectNanos());
+            CaptureCodec.putSignedVarLong(buffer, timing.getTlsNanos());
+            CaptureCodec.putSignedVarLong(buffer, timing.getPrepareNanos());
+            CaptureCodec.putSignedVarLong(buffer, timing.getTimeToFirstByteNanos());
+            CaptureCodec.putSignedVarLong(buffer, timing.getDownloadNanos());
+            CaptureCodec.putSignedVarLong(buffer, timing.getTotalNanos());
+        }
+        buffer.putInt(start, buffer.position() - start - CaptureCodec.RECORD_HEADER_SIZE);
+        written.incrementAndGet();
+    }
+
+    private void ensureCapacity(int bound) throws IOException {
+        if (buffer.remaining() >= bound) {
+            return;
+        }
+        flush();
+        if (buffer.capacity() < bound) {
+            // One-off large record; the next flush drops back to the normal buffer
+            buffer = ByteBuffer.allocateDirect(bound);
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        if (buffer.capacity() > BUFFER_SIZE) {
+            buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        } else {
+            buffer.clear();
+        }
+    }
+
+    private static final class Pending {
+        private final ApiRequest request;
+        private final long sentAtNanos;
+        private final long epochMillis;
+        private final ApiResponse response;
+        private final ByteBuffer body;
+        private final String error;
+
+        Pending(ApiRequest request, long sentAtNanos, long epochMillis, ApiResponse response, ByteBuffer body,
+                String error) {
+            this.request = request;
+            this.sentAtNanos = sentAtNanos;
+            this.epochMillis = epochMillis;
+            this.response = response;
+            this.body = body;
+            this.error = error;
+        }
+    }
+}
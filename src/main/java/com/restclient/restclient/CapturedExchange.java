@@ -0,0 +1,115 @@
+package com.restclient.restclient;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+// One exchange read back from a capture file
+public class CapturedExchange {
+    private final long offsetNanos;
+    private final long epochMillis;
+    private final String method;
+    private final String url;
+    private final Map<String, List<String>> requestHeaders;
+    private final byte[] requestBody;
+    private final int statusCode;
+    private final String protocol;
+    private final String error;
+    private final Map<String, List<String>> responseHeaders;
+    private final long responseSize;
+    private final byte[] responseBody;
+    private final RequestTiming timing;
+
+    CapturedExchange(long offsetNanos, long epochMillis, String method, String url, Map<String, List<String>> requestHeaders,
+                     byte[] requestBody, int statusCode, String protocol, String error, Map<String, List<String>> responseHeaders,
+                     long responseSize, byte[] responseBody, RequestTiming timing) {
+        this.offsetNanos = offsetNanos;
+        this.epochMillis = epochMillis;
+        this.method = method;
+        this.url = url;
+        this.requestHeaders = Collections.unmodifiableMap(requestHeaders);
+        this.requestBody = requestBody;
+        this.statusCode = statusCode;
+        this.protocol = protocol;
+        this.error = error;
+        this.responseHeaders = Collections.unmodifiableMap(responseHeaders);
+        this.responseSize = responseSize;
+        this.responseBody = responseBody;
+        this.timing = timing;
+    }
+
+    // When the request was sent, relative to the start of the capture
+    public long getOffsetNanos() {
+        return offsetNanos;
+    }
+
+    public long getEpochMillis() {
+        return epochMillis;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    // Final URL including query parameters
+    public String getUrl() {
+        return url;
+    }
+
+    // Headers as sent, with credentials redacted unless the capture included secrets
+    public Map<String, List<String>> getRequestHeaders() {
+        return requestHeaders;
+    }
+
+    public byte[] getRequestBody() {
+        return requestBody;
+    }
+
+    // -1 if the send failed; see getError()
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public String getProtocol() {
+        return protocol;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public Map<String, List<String>> getResponseHeaders() {
+        return responseHeaders;
+    }
+
+    // Size of the original response body; the stored copy may be truncated
+    public long getResponseSize() {
+        return responseSize;
+    }
+
+    public byte[] getResponseBody() {
+        return responseBody;
+    }
+
+    public RequestTiming getTiming() {
+        return timing;
+    }
+
+    // Method to rebuild the request for replay; redacted headers are dropped
+    public ApiRequest toRequest() {
+        ApiRequest.Builder builder = ApiRequest.builder().method(method).url(url);
+        requestHeaders.forEach((name, values) -> values.stream()
+                .filter(value -> !AuthConfig.REDACTED.equals(value))
+                .forEach(value -> builder.header(name, value)));
+        if (requestBody.length > 0) {
+            builder.body(new String(requestBody, StandardCharsets.UTF_8));
+        }
+        return builder.build();
+    }
+
+    @Override
+    public String toString() {
+        return method + " " + url + " -> " + (statusCode < 0 ? "failed: " + error : String.valueOf(statusCode));
+    }
+}
@@ -0,0 +1,77 @@
+package com.restclient.restclient;
+
+import java.util.Locale;
+
+// Outcome of one request in a collection run
+public class CollectionResult {
+    public enum Outcome { PASSED, FAILED, ERROR, SKIPPED, CANCELLED }
+
+    private final int index;
+    private final ApiRequest request;
+    private final Outcome outcome;
+    private final int statusCode;
+    private final long elapsedNanos;
+    private final long responseSize;
+    private final String message;
+
+    CollectionResult(int index, ApiRequest request, Outcome outcome, int statusCode, long elapsedNanos,
+                     long responseSize, String message) {
+        this.index = index;
+        this.request = request;
+        this.outcome = outcome;
+        this.statusCode = statusCode;
+        this.elapsedNanos = elapsedNanos;
+        this.responseSize = responseSize;
+        this.message = message;
+    }
+
+    // Position of the request in its collection
+    public int getIndex() {
+        return index;
+    }
+
+    public ApiRequest getRequest() {
+        return request;
+    }
+
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    public boolean isPassed() {
+        return outcome == Outcome.PASSED;
+    }
+
+    // HTTP status, or -1 if no response was received
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public long getResponseSize() {
+        return responseSize;
+    }
+
+    // Error or skip reason; null when a response was received
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder(128).append(outcome);
+        if (statusCode >= 0) {
+            text.append(' ').append(statusCode)
+                    .append(String.format(Locale.ROOT, "  %.1f ms  ", elapsedNanos / 1_000_000.0))
+                    .append(ResponseBody.formatSize(responseSize));
+        }
+        text.append("  ").append(request.getMethod()).append(' ').append(request.getLabel());
+        if (message != null) {
+            text.append("  - ").append(message);
+        }
+        return text.toString();
+    }
+}
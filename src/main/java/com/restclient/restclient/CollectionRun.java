@@ -0,0 +1,185 @@
+package com.restclient.restclient;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+// One execution of a collection. Requests without dependencies start immediately on a bounded pool;
+// the rest are chained onto the futures of the requests they depend on and are skipped if any of
+// those did not pass. Each result is reported to the listener as soon as it is known.
+public class CollectionRun {
+    private final RequestCollection collection;
+    private final HttpTransport transport;
+    private final Map<String, String> variables;
+    private final Consumer<CollectionResult> listener;
+    private final ExecutorService executor;
+    private final Set<Thread> activeThreads = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger completed = new AtomicInteger();
+    private final CompletableFuture<List<CollectionResult>> completion;
+    private final long startedAt = System.nanoTime();
+    private volatile boolean cancelled;
+
+    CollectionRun(RequestCollection collection, HttpTransport transport, Map<String, String> variables,
+                  int concurrency, Consumer<CollectionResult> listener) {
+        this.collection = collection;
+        this.transport = transport;
+        this.variables = variables;
+        this.listener = listener;
+        List<ApiRequest> requests = collection.getRequests();
+        int[] order = executionOrder(requests);
+        this.executor = Executors.newFixedThreadPool(Math.max(1, concurrency),
+                HttpClientEngine.daemonThreads("collection-runner"));
+
+        Map<String, List<CompletableFuture<CollectionResult>>> byLabel = new HashMap<>();
+        List<CompletableFuture<CollectionResult>> futures = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            futures.add(null);
+        }
+        for (int index : order) {
+            ApiRequest request = requests.get(index);
+            List<CompletableFuture<CollectionResult>> prerequisites = new ArrayList<>();
+            for (String dependency : request.getDependsOn()) {
+                prerequisites.addAll(byLabel.get(dependency));
+            }
+            CompletableFuture<CollectionResult> future;
+            if (prerequisites.isEmpty()) {
+                future = CompletableFuture.supplyAsync(() -> execute(index, request), executor);
+            } else {
+                future = CompletableFuture.allOf(prerequisites.toArray(new CompletableFuture<?>[0]))
+                        .thenApplyAsync(ignored -> prerequisites.stream().allMatch(p -> p.join().isPassed())
+                                ? execute(index, request)
+                                : skip(index, request, "dependency did not pass"), executor);
+            }
+            // Dependents chain onto the reported future so results always stream in dependency order
+            future = future.thenApply(this::report);
+            futures.set(index, future);
+            byLabel.computeIfAbsent(request.getLabel(), label -> new ArrayList<>()).add(future);
+        }
+
+        this.completion = CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                .thenApply(ignored -> {
+                    List<CollectionResult> results = new ArrayList<>(futures.size());
+                    futures.forEach(future -> results.add(future.join()));
+                    return results;
+                });
+        completion.whenComplete((results, error) -> executor.shutdown());
+    }
+
+    public RequestCollection getCollection() {
+        return collection;
+    }
+
+    // All results in collection order, once every request has finished or been skipped
+    public CompletableFuture<List<CollectionResult>> completion() {
+        return completion;
+    }
+
+    public int getCompletedCount() {
+        return completed.get();
+    }
+
+    public long getElapsedNanos() {
+        return System.nanoTime() - startedAt;
+    }
+
+    // Method to stop the run: queued requests are reported as cancelled and running ones interrupted
+    public void cancel() {
+        cancelled = true;
+        activeThreads.forEach(Thread::interrupt);
+    }
+
+    private CollectionResult execute(int index, ApiRequest request) {
+        if (cancelled) {
+            return new CollectionResult(index, request, CollectionResult.Outcome.CANCELLED, -1, 0, 0, null);
+        }
+        Thread current = Thread.currentThread();
+        activeThreads.add(current);
+        long start = System.nanoTime();
+        try {
+            // Rendered only here: dependencies name requests by their saved labels, references included
+            ApiResponse response = transport.execute(RequestTemplate.compile(request).render(variables));
+            long elapsed = System.nanoTime() - start;
+            long size = response.getBody().size();
+            // Only the outcome is kept; drop any spooled copy of the body
+            response.getBody().close();
+            CollectionResult.Outcome outcome = response.getStatusCode() < 400
+                    ? CollectionResult.Outcome.PASSED : CollectionResult.Outcome.FAILED;
+            return new CollectionResult(index, request, outcome, response.getStatusCode(), elapsed, size, null);
+        } catch (InterruptedException e) {
+            return new CollectionResult(index, request, CollectionResult.Outcome.CANCELLED, -1,
+                    System.nanoTime() - start, 0, null);
+        } catch (Exception e) {
+            return new CollectionResult(index, request,
+                    cancelled ? CollectionResult.Outcome.CANCELLED : CollectionResult.Outcome.ERROR, -1,
+                    System.nanoTime() - start, 0, e.getMessage() != null ? e.getMessage() : e.toString());
+        } finally {
+            activeThreads.remove(current);
+            // Clear an interrupt aimed at this request so it does not leak into the next one
+            Thread.interrupted();
+        }
+    }
+
+    private CollectionResult skip(int index, ApiRequest request, String reason) {
+        CollectionResult.Outcome outcome = cancelled ? CollectionResult.Outcome.CANCELLED : CollectionResult.Outcome.SKIPPED;
+        return new CollectionResult(index, request, outcome, -1, 0, 0, cancelled ? null : reason);
+    }
+
+    private CollectionResult report(CollectionResult result) {
+        completed.incrementAndGet();
+        listener.accept(result);
+        return result;
+    }
+
+    // Topological order of the requests; rejects unknown dependencies and cycles up front
+    static int[] executionOrder(List<ApiRequest> requests) {
+        Map<String, List<Integer>> byLabel = new HashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            byLabel.computeIfAbsent(requests.get(i).getLabel(), label -> new ArrayList<>()).add(i);
+        }
+        for (ApiRequest request : requests) {
+            for (String dependency : request.getDependsOn()) {
+                if (!byLabel.containsKey(dependency)) {
+                    throw new IllegalArgumentException(
+                            "'" + request.getLabel() + "' depends on unknown request '" + dependency + "'");
+                }
+            }
+        }
+        int[] state = new int[requests.size()];
+        int[] order = new int[requests.size()];
+        int[] size = new int[1];
+        for (int i = 0; i < requests.size(); i++) {
+            visit(i, requests, byLabel, state, order, size, new ArrayList<>());
+        }
+        return order;
+    }
+
+    private static void visit(int index, List<ApiRequest> requests, Map<String, List<Integer>> byLabel, int[] state,
+                              int[] order, int[] size, List<String> path) {
+        if (state[index] == 2) {
+            return;
+        }
+        ApiRequest request = requests.get(index);
+        path.add(request.getLabel());
+        if (state[index] == 1) {
+            throw new IllegalArgumentException("Dependency cycle: " + String.join(" -> ", path));
+        }
+        state[index] = 1;
+        for (String dependency : request.getDependsOn()) {
+            // A request naming its own label lands back on itself and is reported as a cycle
+            for (int prerequisite : byLabel.get(dependency)) {
+                visit(prerequisite, requests, byLabel, state, order, size, path);
+            }
+        }
+        state[index] = 2;
+        order[size[0]++] = index;
+        path.remove(path.size() - 1);
+    }
+}
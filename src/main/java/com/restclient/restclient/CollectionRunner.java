@@ -0,0 +1,37 @@
+package com.restclient.restclient;
+
+import java.util.Map;
+import java.util.function.Consumer;
+
+// Runs every request in a collection concurrently, honouring declared dependencies
+public class CollectionRunner {
+    public static final int DEFAULT_CONCURRENCY = 8;
+
+    private final HttpTransport transport;
+    private int concurrency = DEFAULT_CONCURRENCY;
+    private Map<String, String> variables = Map.of();
+
+    public CollectionRunner(HttpTransport transport) {
+        this.transport = transport;
+    }
+
+    // Maximum number of requests in flight at once
+    public CollectionRunner concurrency(int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be at least 1");
+        }
+        this.concurrency = concurrency;
+        return this;
+    }
+
+    // Environment variables filled into each request's ${name} / {name} references as it is sent
+    public CollectionRunner variables(Map<String, String> variables) {
+        this.variables = variables == null ? Map.of() : variables;
+        return this;
+    }
+
+    // Method to start a run; the listener is called from worker threads as each result arrives
+    public CollectionRun start(RequestCollection collection, Consumer<CollectionResult> listener) {
+        return new CollectionRun(collection, transport, variables, concurrency, listener);
+    }
+}
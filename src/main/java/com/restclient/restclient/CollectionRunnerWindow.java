@@ -0,0 +1,137 @@
+package com.restclient.restclient;
+
+import javafx.application.Platform;
+import javafx.geometry.Insets;
+import javafx.scene.Scene;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.stage.Stage;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+// Runs a whole collection and lists each result as soon as it completes
+public class CollectionRunnerWindow {
+    private static final double PADDING = 10;
+
+    private final RequestCollection collection;
+    private final Supplier<HttpTransport> transportSupplier;
+    private final Supplier<Map<String, String>> variablesSupplier;
+    private final Consumer<ApiRequest> openInEditor;
+    private final Stage stage = new Stage();
+
+    private final TextField concurrencyField = new TextField(String.valueOf(CollectionRunner.DEFAULT_CONCURRENCY));
+    private final TextField baseUrlField = new TextField();
+    private final ListView<CollectionResult> resultListView = new ListView<>();
+    private final Label progressLabel = new Label();
+    private final Button runButton = new Button("Run");
+    private final Button stopButton = new Button("Stop");
+    private CollectionRun run;
+
+    // variablesSupplier gives the environment selected when Run is pressed
+    public CollectionRunnerWindow(RequestCollection collection, Supplier<HttpTransport> transportSupplier,
+                                  Supplier<Map<String, String>> variablesSupplier, Consumer<ApiRequest> openInEditor) {
+        this.collection = collection;
+        this.transportSupplier = transportSupplier;
+        this.variablesSupplier = variablesSupplier;
+        this.openInEditor = openInEditor;
+    }
+
+    public void show() {
+        concurrencyField.setPrefWidth(60);
+        baseUrlField.setPromptText("Base URL override, e.g. http://localhost:8080");
+        baseUrlField.setPrefWidth(400);
+        resultListView.setOnMouseClicked(e -> {
+            CollectionResult result = resultListView.getSelectionModel().getSelectedItem();
+            if (e.getClickCount() == 2 && result != null) {
+                openInEditor.accept(result.getRequest());
+            }
+        });
+
+        runButton.setOnAction(e -> startRun());
+        stopButton.setOnAction(e -> {
+            if (run != null) {
+                run.cancel();
+            }
+        });
+        stopButton.setDisable(true);
+        progressLabel.setText(collection.getRequests().size() + " requests");
+
+        VBox layout = new VBox(10,
+                new Label(collection.getName()),
+                new HBox(10, new Label("Concurrency:"), concurrencyField, new Label("Base URL:"), baseUrlField),
+                new HBox(10, runButton, stopButton, progressLabel),
+                resultListView);
+        VBox.setVgrow(resultListView, Priority.ALWAYS);
+        layout.setPadding(new Insets(PADDING));
+
+        stage.setTitle("Run Collection - " + collection.getName());
+        stage.setScene(new Scene(layout, 900, 600));
+        stage.setOnHidden(e -> {
+            if (run != null) {
+                run.cancel();
+            }
+        });
+        stage.show();
+    }
+
+    private void startRun() {
+        CollectionRunner runner;
+        try {
+            runner = new CollectionRunner(transportSupplier.get())
+                    .variables(variablesSupplier.get())
+                    .concurrency(Integer.parseInt(concurrencyField.getText().trim()));
+        } catch (IllegalArgumentException e) {
+            showError("Concurrency must be a positive number");
+            return;
+        }
+        RequestCollection target = collection.rebase(baseUrlField.getText());
+        int total = target.getRequests().size();
+        resultListView.getItems().clear();
+        try {
+            run = runner.start(target, result -> Platform.runLater(() -> {
+                resultListView.getItems().add(result);
+                progressLabel.setText(resultListView.getItems().size() + " / " + total);
+            }));
+        } catch (IllegalArgumentException e) {
+            showError(e.getMessage());
+            return;
+        }
+        runButton.setDisable(true);
+        stopButton.setDisable(false);
+        CollectionRun current = run;
+        current.completion().thenAccept(results -> Platform.runLater(() -> {
+            runButton.setDisable(false);
+            stopButton.setDisable(true);
+            progressLabel.setText(summarize(results, current.getElapsedNanos()));
+        }));
+    }
+
+    private static String summarize(List<CollectionResult> results, long elapsedNanos) {
+        Map<CollectionResult.Outcome, Integer> counts = new EnumMap<>(CollectionResult.Outcome.class);
+        for (CollectionResult result : results) {
+            counts.merge(result.getOutcome(), 1, Integer::sum);
+        }
+        StringBuilder summary = new StringBuilder();
+        counts.forEach((outcome, count) -> summary.append(count).append(' ')
+                .append(outcome.name().toLowerCase(Locale.ROOT)).append(", "));
+        return summary.append(String.format(Locale.ROOT, "%.2f s", elapsedNanos / 1_000_000_000.0)).toString();
+    }
+
+    private void showError(String message) {
+        Alert alert = new Alert(Alert.AlertType.ERROR, message);
+        alert.setHeaderText("Cannot run collection");
+        alert.initOwner(stage);
+        alert.showAndWait();
+    }
+}
@@ -0,0 +1,188 @@
+package com.restclient.restclient;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+// Saved request collections, one JSON file per collection
+public class CollectionStore {
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final String EXTENSION = ".json";
+
+    private final Path directory;
+
+    public CollectionStore(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+    }
+
+    // Method to open the collections under ~/.restclient (or -Drestclient.home)
+    public static CollectionStore openDefault() throws IOException {
+        String home = System.getProperty("restclient.home",
+                Paths.get(System.getProperty("user.home"), ".restclient").toString());
+        return new CollectionStore(Paths.get(home, "collections"));
+    }
+
+    // Names of every saved collection, sorted
+    public List<String> list() throws IOException {
+        List<String> names = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            for (Path file : files) {
+                try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                    names.add(JsonParser.parseReader(reader).getAsJsonObject().get("name").getAsString());
+                } catch (JsonParseException | IllegalStateException | NullPointerException e) {
+                    // Not one of ours; skip it
+                }
+            }
+        }
+        names.sort(String.CASE_INSENSITIVE_ORDER);
+        return names;
+    }
+
+    public RequestCollection load(String name) throws IOException {
+        Path file = fileFor(name);
+        if (!Files.exists(file)) {
+            return new RequestCollection(name, new ArrayList<>());
+        }
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return fromJson(JsonParser.parseReader(reader).getAsJsonObject());
+        } catch (JsonParseException | IllegalStateException e) {
+            throw new IOException("Collection file " + file + " is not valid: " + e.getMessage(), e);
+        }
+    }
+
+    public void save(RequestCollection collection) throws IOException {
+        Path file = fileFor(collection.getName());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            GSON.toJson(toJson(collection), writer);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Add a request to a collection (creating it if needed), replacing any request with the same label
+    public RequestCollection addRequest(String collectionName, ApiRequest request) throws IOException {
+        List<ApiRequest> requests = new ArrayList<>(load(collectionName).getRequests());
+        requests.removeIf(existing -> existing.getLabel().equals(request.getLabel()));
+        requests.add(request);
+        RequestCollection updated = new RequestCollection(collectionName, requests);
+        save(updated);
+        return updated;
+    }
+
+    private Path fileFor(String name) {
+        String safe = name.trim().replaceAll("[^A-Za-z0-9._-]+", "_");
+        return directory.resolve((safe.isEmpty() ? "collection" : safe) + EXTENSION);
+    }
+
+    private static JsonObject toJson(RequestCollection collection) {
+        JsonObject json = new JsonObject();
+        json.addProperty("name", collection.getName());
+        JsonArray requests = new JsonArray();
+        for (ApiRequest request : collection.getRequests()) {
+            JsonObject item = new JsonObject();
+            item.addProperty("name", request.getName());
+            item.addProperty("method", request.getMethod());
+            item.addProperty("url", request.getUrl());
+            item.add("headers", pairs(request.getHeaders().stream()
+                    .map(header -> new String[]{header.getKey(), header.getValue()})));
+            item.add("queryParams", pairs(request.getQueryParams().stream()
+                    .map(param -> new String[]{param.getKey(), param.getValue()})));
+            JsonObject pathParams = new JsonObject();
+            for (Map.Entry<String, String> pathParam : request.getPathParams().entrySet()) {
+                pathParams.addProperty(pathParam.getKey(), pathParam.getValue());
+            }
+            item.add("pathParams", pathParams);
+            JsonObject auth = new JsonObject();
+            auth.addProperty("type", request.getAuth().getType());
+            auth.addProperty("first", request.getAuth().getFirst());
+            auth.addProperty("second", request.getAuth().getSecond());
+            item.add("auth", auth);
+            item.addProperty("body", request.getBody());
+            if (request.getTimeout() != null) {
+                item.addProperty("timeoutMillis", request.getTimeout().toMillis());
+            }
+            JsonArray dependsOn = new JsonArray();
+            request.getDependsOn().forEach(dependsOn::add);
+            item.add("dependsOn", dependsOn);
+            requests.add(item);
+        }
+        json.add("requests", requests);
+        return json;
+    }
+
+    private static JsonArray pairs(Stream<String[]> entries) {
+        JsonArray array = new JsonArray();
+        entries.forEach(entry -> {
+            JsonObject pair = new JsonObject();
+            pair.addProperty("key", entry[0]);
+            pair.addProperty("value", entry[1]);
+            array.add(pair);
+        });
+        return array;
+    }
+
+    private static RequestCollection fromJson(JsonObject json) {
+        List<ApiRequest> requests = new ArrayList<>();
+        for (JsonElement element : json.getAsJsonArray("requests")) {
+            JsonObject item = element.getAsJsonObject();
+            ApiRequest.Builder builder = ApiRequest.builder()
+                    .name(text(item, "name"))
+                    .method(text(item, "method"))
+                    .url(text(item, "url"))
+                    .body(text(item, "body"));
+            for (JsonElement header : array(item, "headers")) {
+                builder.header(text(header.getAsJsonObject(), "key"), text(header.getAsJsonObject(), "value"));
+            }
+            for (JsonElement param : array(item, "queryParams")) {
+                builder.queryParam(text(param.getAsJsonObject(), "key"), text(param.getAsJsonObject(), "value"));
+            }
+            if (item.has("pathParams")) {
+                for (Map.Entry<String, JsonElement> pathParam : item.getAsJsonObject("pathParams").entrySet()) {
+                    builder.pathParam(pathParam.getKey(), pathParam.getValue().getAsString());
+                }
+            }
+            if (item.has("auth")) {
+                JsonObject auth = item.getAsJsonObject("auth");
+                builder.auth(AuthConfig.restore(text(auth, "type"), text(auth, "first"), text(auth, "second")));
+            }
+            if (item.has("timeoutMillis")) {
+                builder.timeout(Duration.ofMillis(item.get("timeoutMillis").getAsLong()));
+            }
+            for (JsonElement dependency : array(item, "dependsOn")) {
+                builder.dependsOn(dependency.getAsString());
+            }
+            requests.add(builder.build());
+        }
+        return new RequestCollection(text(json, "name"), requests);
+    }
+
+    private static String text(JsonObject json, String member) {
+        JsonElement value = json.get(member);
+        return value == null || value.isJsonNull() ? null : value.getAsString();
+    }
+
+    private static JsonArray array(JsonObject json, String member) {
+        JsonElement value = json.get(member);
+        return value != null && value.isJsonArray() ? value.getAsJsonArray() : new JsonArray();
+    }
+}
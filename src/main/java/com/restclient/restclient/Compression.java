@@ -0,0 +1,83 @@
+package com.restclient.restclient;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+// Process-wide content-coding settings for the JDK transport. Responses are negotiated with
+// Accept-Encoding and decoded while they stream in (see DecodingBodySubscriber); request bodies are
+// gzipped only when opted in and at least the threshold in size, since small bodies gain nothing.
+public final class Compression {
+    public static final int DEFAULT_REQUEST_THRESHOLD = 1024;
+    // Only codings the JDK can decode without extra libraries; br would need one
+    static final String ACCEPT_ENCODING = "gzip, deflate";
+
+    private static final Compression SHARED = new Compression(
+            Boolean.parseBoolean(System.getProperty("restclient.compression.negotiate", "true")),
+            Integer.getInteger("restclient.compression.requestThreshold", -1));
+
+    private volatile boolean negotiate;
+    private volatile int requestThreshold;
+
+    public Compression(boolean negotiate, int requestThreshold) {
+        this.negotiate = negotiate;
+        this.requestThreshold = requestThreshold;
+    }
+
+    // Process-wide settings; -Drestclient.compression.requestThreshold=<bytes> turns request compression on
+    public static Compression shared() {
+        return SHARED;
+    }
+
+    public boolean isNegotiate() {
+        return negotiate;
+    }
+
+    // Whether to send Accept-Encoding (unless the request sets its own) and decode what comes back
+    public Compression setNegotiate(boolean negotiate) {
+        this.negotiate = negotiate;
+        return this;
+    }
+
+    public int getRequestThreshold() {
+        return requestThreshold;
+    }
+
+    public boolean isCompressingRequests() {
+        return requestThreshold >= 0;
+    }
+
+    // Bodies of at least this many bytes are gzipped; negative turns request compression off
+    public Compression setRequestThreshold(int requestThreshold) {
+        this.requestThreshold = requestThreshold;
+        return this;
+    }
+
+    // Method to encode a request body: gzip when compression is on, the body is large enough and the
+    // request does not already declare a Content-Encoding; otherwise null, meaning send it as is
+    byte[] compressRequestBody(ApiRequest request) {
+        int threshold = requestThreshold;
+        if (threshold < 0 || !request.hasBody() || hasHeader(request, "Content-Encoding")) {
+            return null;
+        }
+        byte[] body = request.getBody().getBytes(StandardCharsets.UTF_8);
+        return body.length < threshold ? null : gzip(body);
+    }
+
+    static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out, 8192)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            // Writing to memory does not fail
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    static boolean hasHeader(ApiRequest request, String name) {
+        return request.getHeaders().stream().anyMatch(header -> header.getKey().trim().equalsIgnoreCase(name));
+    }
+}
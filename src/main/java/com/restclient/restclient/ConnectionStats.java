@@ -0,0 +1,213 @@
+package com.restclient.restclient;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Per-host connection and TLS counters, updated by the transports and the timed SSL engines as
+// things happen (no sampling). The JDK client does not expose its pool, so open connections are
+// counted from TLS engines handshaken and not yet closed, and are only known for https hosts.
+public final class ConnectionStats {
+    private static final ConnectionStats SHARED = new ConnectionStats();
+
+    private final ConcurrentHashMap<String, Host> hosts = new ConcurrentHashMap<>();
+    private volatile Instant since = Instant.now();
+
+    public static ConnectionStats shared() {
+        return SHARED;
+    }
+
+    public Host host(String hostKey) {
+        return hosts.computeIfAbsent(hostKey, Host::new);
+    }
+
+    // Every host seen since the last reset, sorted by name
+    public List<Host> hosts() {
+        List<Host> list = new ArrayList<>(hosts.values());
+        list.sort(Comparator.comparing(Host::getHostKey));
+        return list;
+    }
+
+    public Instant getSince() {
+        return since;
+    }
+
+    // In-flight and open counts describe the present, so they survive a reset; everything else starts over
+    public void reset() {
+        hosts.values().forEach(Host::reset);
+        since = Instant.now();
+    }
+
+    public static final class Host {
+        private final String hostKey;
+        private final AtomicInteger active = new AtomicInteger();
+        private final AtomicInteger peakActive = new AtomicInteger();
+        private final AtomicInteger openTls = new AtomicInteger();
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder newConnections = new LongAdder();
+        private final LongAdder reusedConnections = new LongAdder();
+        private final LongAdder handshakes = new LongAdder();
+        private final LongAdder resumedSessions = new LongAdder();
+        private final LongAdder closedTls = new LongAdder();
+        private final LongAdder connectNanos = new LongAdder();
+        private final LongAdder tlsNanos = new LongAdder();
+        private final AtomicLong maxConnectNanos = new AtomicLong();
+        private final AtomicLong maxTlsNanos = new AtomicLong();
+        private final ConcurrentHashMap<String, LongAdder> httpVersions = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<String, LongAdder> tlsVersions = new ConcurrentHashMap<>();
+
+        Host(String hostKey) {
+            this.hostKey = hostKey;
+        }
+
+        // Method to mark a request as in flight; pair with requestFinished
+        public void requestStarted() {
+            int now = active.incrementAndGet();
+            peakActive.accumulateAndGet(now, Math::max);
+        }
+
+        // reused is null when the transport cannot tell (plain http on the JDK client, RestAssured)
+        public void requestFinished(String httpVersion, Boolean reused) {
+            active.decrementAndGet();
+            requests.increment();
+            if (httpVersion == null) {
+                failures.increment();
+            } else {
+                httpVersions.computeIfAbsent(httpVersion, key -> new LongAdder()).increment();
+            }
+            if (reused != null) {
+                (reused ? reusedConnections : newConnections).increment();
+            }
+        }
+
+        void handshakeFinished(long connect, long tls, String tlsVersion, boolean resumed) {
+            openTls.incrementAndGet();
+            handshakes.increment();
+            if (resumed) {
+                resumedSessions.increment();
+            }
+            connectNanos.add(connect);
+            tlsNanos.add(tls);
+            maxConnectNanos.accumulateAndGet(connect, Math::max);
+            maxTlsNanos.accumulateAndGet(tls, Math::max);
+            if (tlsVersion != null) {
+                tlsVersions.computeIfAbsent(tlsVersion, key -> new LongAdder()).increment();
+            }
+        }
+
+        void connectionClosed() {
+            openTls.decrementAndGet();
+            closedTls.increment();
+        }
+
+        private void reset() {
+            peakActive.set(active.get());
+            requests.reset();
+            failures.reset();
+            newConnections.reset();
+            reusedConnections.reset();
+            handshakes.reset();
+            resumedSessions.reset();
+            closedTls.reset();
+            connectNanos.reset();
+            tlsNanos.reset();
+            maxConnectNanos.set(0);
+            maxTlsNanos.set(0);
+            httpVersions.clear();
+            tlsVersions.clear();
+        }
+
+        public String getHostKey() {
+            return hostKey;
+        }
+
+        public int getActive() {
+            return active.get();
+        }
+
+        public int getPeakActive() {
+            return peakActive.get();
+        }
+
+        // TLS connections currently open; -1 when nothing has been handshaken with this host
+        public int getOpen() {
+            return handshakes.sum() == 0 && openTls.get() == 0 ? -1 : Math.max(0, openTls.get());
+        }
+
+        // Open connections with no request on them. Exact for HTTP/1.1; HTTP/2 multiplexes, so it
+        // can under-count there.
+        public int getIdle() {
+            int open = getOpen();
+            return open < 0 ? -1 : Math.max(0, open - active.get());
+        }
+
+        public long getRequests() {
+            return requests.sum();
+        }
+
+        public long getFailures() {
+            return failures.sum();
+        }
+
+        public long getNewConnections() {
+            return newConnections.sum();
+        }
+
+        public long getReusedConnections() {
+            return reusedConnections.sum();
+        }
+
+        public long getHandshakes() {
+            return handshakes.sum();
+        }
+
+        public long getResumedSessions() {
+            return resumedSessions.sum();
+        }
+
+        public long getClosedConnections() {
+            return closedTls.sum();
+        }
+
+        public double getMeanConnectMillis() {
+            long count = handshakes.sum();
+            return count == 0 ? 0 : connectNanos.sum() / 1_000_000.0 / count;
+        }
+
+        public double getMeanTlsMillis() {
+            long count = handshakes.sum();
+            return count == 0 ? 0 : tlsNanos.sum() / 1_000_000.0 / count;
+        }
+
+        public double getMaxConnectMillis() {
+            return maxConnectNanos.get() / 1_000_000.0;
+        }
+
+        public double getMaxTlsMillis() {
+            return maxTlsNanos.get() / 1_000_000.0;
+        }
+
+        // e.g. {HTTP/1.1=3, HTTP/2=120}
+        public Map<String, Long> getHttpVersions() {
+            return counts(httpVersions);
+        }
+
+        public Map<String, Long> getTlsVersions() {
+            return counts(tlsVersions);
+        }
+
+        private static Map<String, Long> counts(ConcurrentHashMap<String, LongAdder> adders) {
+            Map<String, Long> counts = new TreeMap<>();
+            adders.forEach((key, adder) -> counts.put(key, adder.sum()));
+            return counts;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.restclient.restclient;
+
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.beans.property.ReadOnlyStringWrapper;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.stage.Stage;
+import javafx.util.Duration;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Per-host connection reuse and TLS session figures, refreshed while the window is open
+public class ConnectionsWindow {
+    private static final double PADDING = 10;
+
+    private final ConnectionStats stats;
+    private final Stage stage = new Stage();
+    private final TableView<ConnectionStats.Host> table = new TableView<>();
+    private final Label sinceLabel = new Label();
+    private final Timeline refresher = new Timeline(new KeyFrame(Duration.seconds(1), e -> refresh()));
+
+    public ConnectionsWindow(ConnectionStats stats) {
+        this.stats = stats;
+    }
+
+    public void show() {
+        TableColumn<ConnectionStats.Host, String> hostColumn = new TableColumn<>("Host");
+        hostColumn.setCellValueFactory(cell -> new ReadOnlyStringWrapper(cell.getValue().getHostKey()));
+        hostColumn.setPrefWidth(220);
+        table.getColumns().add(hostColumn);
+        table.getColumns().add(column("Open", host -> count(host.getOpen())));
+        table.getColumns().add(column("Idle", host -> count(host.getIdle())));
+        table.getColumns().add(column("Active", host -> host.getActive() + " (peak " + host.getPeakActive() + ")"));
+        table.getColumns().add(column("Requests", host -> host.getRequests() + (host.getFailures() == 0
+                ? "" : " (" + host.getFailures() + " failed)")));
+        table.getColumns().add(column("Reuse", ConnectionsWindow::reuse));
+        table.getColumns().add(column("Handshakes", host -> String.valueOf(host.getHandshakes())));
+        table.getColumns().add(column("Resumed", host -> String.valueOf(host.getResumedSessions())));
+        table.getColumns().add(column("Closed", host -> String.valueOf(host.getClosedConnections())));
+        table.getColumns().add(column("Connect (ms)", host -> host.getHandshakes() == 0 ? "-"
+                : String.format(Locale.ROOT, "%.1f / %.1f", host.getMeanConnectMillis(), host.getMaxConnectMillis())));
+        table.getColumns().add(column("TLS (ms)", host -> host.getHandshakes() == 0 ? "-"
+                : String.format(Locale.ROOT, "%.1f / %.1f", host.getMeanTlsMillis(), host.getMaxTlsMillis())));
+        table.getColumns().add(column("HTTP", host -> versions(host.getHttpVersions())));
+        table.getColumns().add(column("TLS", host -> versions(host.getTlsVersions())));
+        table.setPlaceholder(new Label("No connections made yet"));
+
+        Button resetButton = new Button("Reset");
+        resetButton.setOnAction(e -> {
+            stats.reset();
+            refresh();
+        });
+        Label noteLabel = new Label("Open/idle are tracked for https hosts only and a dropped connection may count as "
+                + "open until it is garbage collected; connect and TLS show mean / max");
+
+        HBox controls = new HBox(10, resetButton, sinceLabel);
+        controls.setAlignment(Pos.CENTER_LEFT);
+        VBox layout = new VBox(10, controls, table, noteLabel);
+        VBox.setVgrow(table, Priority.ALWAYS);
+        layout.setPadding(new Insets(PADDING));
+
+        refresh();
+        refresher.setCycleCount(Timeline.INDEFINITE);
+        refresher.play();
+
+        stage.setTitle("Connections");
+        stage.setScene(new Scene(layout, 1150, 450));
+        stage.setOnHidden(e -> refresher.stop());
+        stage.show();
+    }
+
+    private TableColumn<ConnectionStats.Host, String> column(String title,
+                                                             Function<ConnectionStats.Host, String> value) {
+        TableColumn<ConnectionStats.Host, String> column = new TableColumn<>(title);
+        column.setCellValueFactory(cell -> new ReadOnlyStringWrapper(value.apply(cell.getValue())));
+        column.setStyle("-fx-alignment: CENTER-RIGHT;");
+        return column;
+    }
+
+    private static String count(int value) {
+        return value < 0 ? "-" : String.valueOf(value);
+    }
+
+    // Share of requests that went out on an already open connection, when the transport can tell
+    private static String reuse(ConnectionStats.Host host) {
+        long reused = host.getReusedConnections();
+        long total = reused + host.getNewConnections();
+        return total == 0 ? "-" : String.format(Locale.ROOT, "%.0f%% (%d new)", 100.0 * reused / total,
+                host.getNewConnections());
+    }
+
+    private static String versions(Map<String, Long> counts) {
+        return counts.isEmpty() ? "-" : counts.entrySet().stream()
+                .map(entry -> entry.getKey() + " x" + entry.getValue())
+                .collect(Collectors.joining(", "));
+    }
+
+    private void refresh() {
+        table.getItems().setAll(stats.hosts());
+        // Counters change in place, so the cells have to be recomputed even for the same rows
+        table.refresh();
+        sinceLabel.setText("since " + stats.getSince());
+    }
+}
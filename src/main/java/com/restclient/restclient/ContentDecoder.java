@@ -0,0 +1,205 @@
+package com.restclient.restclient;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+// Incremental gzip / deflate decoder fed one network buffer at a time, so a compressed body never has
+// to be held whole. Inflater does the decompression; the gzip member header and trailer are parsed
+// here because only GZIPInputStream understands them, and it needs a blocking stream.
+final class ContentDecoder {
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private static final byte[] NONE = new byte[0];
+
+    private enum State { HEADER, BODY, TRAILER, DONE }
+
+    private final boolean gzip;
+    private final CRC32 crc = new CRC32();
+    private Inflater inflater;
+    private State state = State.HEADER;
+    // Header or trailer bytes that arrived split across buffers
+    private byte[] pending = NONE;
+    private long consumed;
+    // Output of the current gzip member, checked against the trailer
+    private long memberSize;
+    private int members;
+
+    private ContentDecoder(boolean gzip) {
+        this.gzip = gzip;
+    }
+
+    // Method to pick a decoder for a Content-Encoding value; null for identity or a coding we cannot decode
+    static ContentDecoder forEncoding(String contentEncoding) {
+        if (contentEncoding == null) {
+            return null;
+        }
+        switch (contentEncoding.trim().toLowerCase(Locale.ROOT)) {
+            case "gzip":
+            case "x-gzip":
+                return new ContentDecoder(true);
+            case "deflate":
+                return new ContentDecoder(false);
+            default:
+                return null;
+        }
+    }
+
+    // Compressed bytes taken so far
+    long getConsumed() {
+        return consumed;
+    }
+
+    // Method to decode the next buffer; returns whatever output it produced, possibly nothing
+    List<ByteBuffer> decode(ByteBuffer input) throws IOException {
+        consumed += input.remaining();
+        byte[] data;
+        int position;
+        int limit;
+        if (pending.length == 0 && input.hasArray()) {
+            data = input.array();
+            position = input.arrayOffset() + input.position();
+            limit = input.arrayOffset() + input.limit();
+        } else {
+            data = Arrays.copyOf(pending, pending.length + input.remaining());
+            input.get(data, pending.length, input.remaining());
+            position = 0;
+            limit = data.length;
+        }
+        input.position(input.limit());
+
+        List<ByteBuffer> output = new ArrayList<>(2);
+        while (position < limit && state != State.DONE) {
+            if (state == State.HEADER) {
+                int length = gzip ? gzipHeaderLength(data, position, limit, members > 0) : 0;
+                if (length == Integer.MAX_VALUE) {
+                    state = State.DONE;
+                    break;
+                }
+                if (length < 0 || !gzip && limit - position < 2) {
+                    break;
+                }
+                position += length;
+                // HTTP deflate is meant to be zlib-wrapped, but some servers send raw deflate
+                inflater = new Inflater(gzip || !isZlibHeader(data, position));
+                crc.reset();
+                memberSize = 0;
+                state = State.BODY;
+            } else if (state == State.BODY) {
+                inflater.setInput(data, position, limit - position);
+                inflate(output);
+                position = limit - inflater.getRemaining();
+                if (inflater.finished()) {
+                    inflater.end();
+                    state = gzip ? State.TRAILER : State.DONE;
+                }
+            } else {
+                if (limit - position < 8) {
+                    break;
+                }
+                checkTrailer(data, position);
+                position += 8;
+                members++;
+                // Another member may follow (concatenated gzip); anything else is the end
+                state = position >= limit || (data[position] & 0xff) == 0x1f ? State.HEADER : State.DONE;
+            }
+        }
+        // Trailing bytes after the end of the stream are ignored, as GZIPInputStream does
+        pending = state == State.DONE || position >= limit ? NONE : Arrays.copyOfRange(data, position, limit);
+        return output;
+    }
+
+    // Method to check the stream ended cleanly; a truncated body must not pass for a complete one
+    void finish() throws IOException {
+        if (state == State.BODY) {
+            inflater.end();
+        }
+        boolean complete = state == State.DONE || consumed == 0 || gzip && state == State.HEADER
+                && pending.length == 0 && members > 0;
+        if (!complete) {
+            throw new EOFException("Truncated " + (gzip ? "gzip" : "deflate") + " response body");
+        }
+    }
+
+    private void inflate(List<ByteBuffer> output) throws IOException {
+        try {
+            while (!inflater.finished() && !inflater.needsInput()) {
+                byte[] chunk = new byte[CHUNK_SIZE];
+                int count = inflater.inflate(chunk);
+                if (count > 0) {
+                    if (gzip) {
+                        crc.update(chunk, 0, count);
+                        memberSize += count;
+                    }
+                    output.add(ByteBuffer.wrap(chunk, 0, count));
+                } else if (inflater.needsDictionary()) {
+                    throw new ZipException("Deflate stream needs a preset dictionary");
+                }
+            }
+        } catch (DataFormatException e) {
+            throw new ZipException("Corrupt " + (gzip ? "gzip" : "deflate") + " response body: " + e.getMessage());
+        }
+    }
+
+    private static boolean isZlibHeader(byte[] data, int position) {
+        int cmf = data[position] & 0xff;
+        int flg = data[position + 1] & 0xff;
+        return (cmf & 0x0f) == 8 && ((cmf << 8) | flg) % 31 == 0;
+    }
+
+    // Length of the gzip member header (RFC 1952) starting at position, or -1 if it is not all here yet.
+    // After the first member, something that is not a header is trailing data: MAX_VALUE, meaning stop.
+    private static int gzipHeaderLength(byte[] data, int position, int limit, boolean trailing) throws ZipException {
+        if (limit - position < 10) {
+            return -1;
+        }
+        if ((data[position] & 0xff) != 0x1f || (data[position + 1] & 0xff) != 0x8b || data[position + 2] != 8) {
+            if (trailing) {
+                return Integer.MAX_VALUE;
+            }
+            throw new ZipException("Not in gzip format");
+        }
+        int flags = data[position + 3] & 0xff;
+        int index = position + 10;
+        if ((flags & 4) != 0) {
+            if (limit - index < 2) {
+                return -1;
+            }
+            index += 2 + ((data[index] & 0xff) | (data[index + 1] & 0xff) << 8);
+        }
+        for (int flag : new int[]{8, 16}) {
+            if ((flags & flag) != 0) {
+                while (index < limit && data[index] != 0) {
+                    index++;
+                }
+                if (index++ >= limit) {
+                    return -1;
+                }
+            }
+        }
+        if ((flags & 2) != 0) {
+            index += 2;
+        }
+        return index > limit ? -1 : index - position;
+    }
+
+    private void checkTrailer(byte[] data, int position) throws ZipException {
+        long expectedCrc = littleEndianInt(data, position);
+        long expectedSize = littleEndianInt(data, position + 4);
+        if (expectedCrc != crc.getValue() || expectedSize != (memberSize & 0xffffffffL)) {
+            throw new ZipException("Corrupt gzip response body: trailer does not match");
+        }
+    }
+
+    private static long littleEndianInt(byte[] data, int position) {
+        return (data[position] & 0xffL) | (data[position + 1] & 0xffL) << 8 | (data[position + 2] & 0xffL) << 16
+                | (data[position + 3] & 0xffL) << 24;
+    }
+}
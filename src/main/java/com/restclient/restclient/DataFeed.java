@@ -0,0 +1,267 @@
+package com.restclient.restclient;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Rows of variables read from a CSV (first line is the header) or JSONL file for data-driven runs.
+// The file is memory-mapped rather than loaded, so its size is bounded by address space, not heap.
+// Threads take rows by CAS on a shared byte offset: each finds the end of the row at the current
+// offset and claims it by moving the offset past it, so no row is handed out twice and nothing locks.
+public class DataFeed implements Closeable {
+    public enum Format { CSV, JSONL }
+
+    // Mappings are capped at 2 GB each; larger files are mapped in consecutive segments
+    private static final long SEGMENT_SIZE = 1L << 30;
+
+    private final Path file;
+    private final Format format;
+    private final boolean recycle;
+    private final FileChannel channel;
+    private final MappedByteBuffer[] segments;
+    private final long size;
+    private final long dataStart;
+    // False when there is nothing but blank lines after the header, so recycling could never find a row
+    private final boolean hasRows;
+    private final Map<String, Integer> columns;
+    private final AtomicLong offset;
+    private final LongAdder rowsRead = new LongAdder();
+
+    private DataFeed(Path file, Format format, boolean recycle) throws IOException {
+        this.file = file;
+        this.format = format;
+        this.recycle = recycle;
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            this.size = channel.size();
+            int count = (int) ((size + SEGMENT_SIZE - 1) / SEGMENT_SIZE);
+            this.segments = new MappedByteBuffer[count];
+            for (int i = 0; i < count; i++) {
+                long start = i * SEGMENT_SIZE;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(SEGMENT_SIZE, size - start));
+            }
+            long start = skipBom();
+            if (format == Format.CSV) {
+                long end = rowEnd(start);
+                List<String> names = parseCsv(start, end);
+                Map<String, Integer> index = new HashMap<>();
+                for (int i = 0; i < names.size(); i++) {
+                    index.putIfAbsent(names.get(i).trim(), i);
+                }
+                this.columns = Collections.unmodifiableMap(index);
+                start = Math.min(size, end + 1);
+            } else {
+                this.columns = Collections.emptyMap();
+            }
+            this.dataStart = start;
+            this.hasRows = hasRowFrom(start);
+            this.offset = new AtomicLong(start);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // Method to open a feed, picking the format from the extension (.jsonl / .ndjson, otherwise CSV).
+    // With recycle set the feed starts over at the end of the file instead of running dry.
+    public static DataFeed open(Path file, boolean recycle) throws IOException {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        Format format = name.endsWith(".jsonl") || name.endsWith(".ndjson") ? Format.JSONL : Format.CSV;
+        return new DataFeed(file, format, recycle);
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public Format getFormat() {
+        return format;
+    }
+
+    // CSV header names; empty for JSONL, where every row names its own fields
+    public List<String> getColumns() {
+        List<String> names = new ArrayList<>(Collections.nCopies(columns.size(), ""));
+        columns.forEach((name, index) -> names.set(index, name));
+        return names;
+    }
+
+    public long getRowsRead() {
+        return rowsRead.sum();
+    }
+
+    // Method to take the next row; null when the file is exhausted and recycling is off, or has no rows at all
+    public Row next() {
+        while (true) {
+            long start = offset.get();
+            if (start >= size) {
+                if (!recycle || !hasRows) {
+                    return null;
+                }
+                offset.compareAndSet(start, dataStart);
+                continue;
+            }
+            long end = rowEnd(start);
+            if (offset.compareAndSet(start, end + 1)) {
+                if (isBlank(start, end)) {
+                    continue;
+                }
+                rowsRead.increment();
+                return format == Format.CSV ? new Row(columns, parseCsv(start, end)) : parseJson(start, end);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        // The mappings are released when the buffers are collected; closing the channel is all we can do
+        channel.close();
+    }
+
+    private byte byteAt(long position) {
+        return segments[(int) (position / SEGMENT_SIZE)].get((int) (position % SEGMENT_SIZE));
+    }
+
+    // Position of the newline ending the row at start (or size); CSV newlines inside quotes do not count
+    private long rowEnd(long start) {
+        boolean quoted = false;
+        for (long position = start; position < size; position++) {
+            byte b = byteAt(position);
+            if (b == '"' && format == Format.CSV) {
+                quoted = !quoted;
+            } else if (b == '\n' && !quoted) {
+                return position;
+            }
+        }
+        return size;
+    }
+
+    // Stops at the first non-blank row, so this only scans far on a feed that is blank or nearly so
+    private boolean hasRowFrom(long start) {
+        long position = start;
+        while (position < size) {
+            long end = rowEnd(position);
+            if (!isBlank(position, end)) {
+                return true;
+            }
+            position = end + 1;
+        }
+        return false;
+    }
+
+    private boolean isBlank(long start, long end) {
+        for (long position = start; position < end; position++) {
+            byte b = byteAt(position);
+            if (b != ' ' && b != '\t' && b != '\r') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long skipBom() {
+        if (size >= 3 && byteAt(0) == (byte) 0xEF && byteAt(1) == (byte) 0xBB && byteAt(2) == (byte) 0xBF) {
+            return 3;
+        }
+        return 0;
+    }
+
+    private String text(long start, long end) {
+        if (end > start && byteAt(end - 1) == '\r') {
+            end--;
+        }
+        byte[] bytes = new byte[(int) (end - start)];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = byteAt(start + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // RFC 4180 fields: comma separated, optionally quoted, "" for a literal quote
+    private List<String> parseCsv(long start, long end) {
+        String line = text(start, end);
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    // Top-level fields become variables; nested objects and arrays are passed through as JSON text
+    private Row parseJson(long start, long end) {
+        String line = text(start, end);
+        Map<String, Integer> names = new LinkedHashMap<>();
+        List<String> values = new ArrayList<>();
+        try {
+            JsonObject json = JsonParser.parseString(line).getAsJsonObject();
+            for (Map.Entry<String, JsonElement> field : json.entrySet()) {
+                JsonElement value = field.getValue();
+                names.put(field.getKey(), values.size());
+                values.add(value.isJsonNull() ? "" : value.isJsonPrimitive() ? value.getAsString() : value.toString());
+            }
+        } catch (JsonParseException | IllegalStateException e) {
+            throw new IllegalArgumentException("Invalid JSON line in " + file.getFileName() + ": "
+                    + (line.length() > 80 ? line.substring(0, 80) + "..." : line), e);
+        }
+        return new Row(names, values);
+    }
+
+    // One row of the feed; looked up by column name when a RequestTemplate renders
+    public static final class Row {
+        private final Map<String, Integer> columns;
+        private final List<String> values;
+
+        Row(Map<String, Integer> columns, List<String> values) {
+            this.columns = columns;
+            this.values = values;
+        }
+
+        // Null for a column this row does not have, so the template keeps its placeholder
+        public String get(String name) {
+            Integer index = columns.get(name);
+            return index == null || index >= values.size() ? null : values.get(index);
+        }
+
+        @Override
+        public String toString() {
+            return values.toString();
+        }
+    }
+}
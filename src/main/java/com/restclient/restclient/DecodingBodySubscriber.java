@@ -0,0 +1,91 @@
+package com.restclient.restclient;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+
+// Decodes a gzip or deflate response body as it arrives and passes the plain bytes on to another
+// subscriber (normally a SpoolingBodySubscriber), counting the compressed bytes read off the wire
+public class DecodingBodySubscriber<T> implements HttpResponse.BodySubscriber<T> {
+    private final ContentDecoder decoder;
+    private final HttpResponse.BodySubscriber<T> downstream;
+    private Flow.Subscription subscription;
+    private boolean failed;
+
+    private DecodingBodySubscriber(ContentDecoder decoder, HttpResponse.BodySubscriber<T> downstream) {
+        this.decoder = decoder;
+        this.downstream = downstream;
+    }
+
+    // Method to put a decoder in front of downstream when the response is in a coding we can decode;
+    // null when it is not encoded (or uses a coding such as br), so the body is taken as is
+    public static <T> DecodingBodySubscriber<T> wrap(HttpResponse.ResponseInfo responseInfo,
+                                                     HttpResponse.BodySubscriber<T> downstream) {
+        ContentDecoder decoder = ContentDecoder.forEncoding(
+                responseInfo.headers().firstValue("Content-Encoding").orElse(null));
+        return decoder == null ? null : new DecodingBodySubscriber<>(decoder, downstream);
+    }
+
+    // Compressed size of the body so far
+    public long getWireSize() {
+        return decoder.getConsumed();
+    }
+
+    @Override
+    public CompletionStage<T> getBody() {
+        return downstream.getBody();
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        downstream.onSubscribe(subscription);
+    }
+
+    // The downstream requests more after every onNext, even an empty one, so demand is passed through as is
+    @Override
+    public void onNext(List<ByteBuffer> buffers) {
+        if (failed) {
+            return;
+        }
+        List<ByteBuffer> decoded = new ArrayList<>();
+        try {
+            for (ByteBuffer buffer : buffers) {
+                decoded.addAll(decoder.decode(buffer));
+            }
+        } catch (IOException e) {
+            failed = true;
+            subscription.cancel();
+            downstream.onError(e);
+            return;
+        }
+        downstream.onNext(decoded);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        if (!failed) {
+            failed = true;
+            downstream.onError(throwable);
+        }
+    }
+
+    @Override
+    public void onComplete() {
+        if (failed) {
+            return;
+        }
+        try {
+            decoder.finish();
+        } catch (IOException e) {
+            failed = true;
+            downstream.onError(e);
+            return;
+        }
+        downstream.onComplete();
+    }
+}
@@ -0,0 +1,69 @@
+package com.restclient.restclient;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Latency histograms for one method + templated path, one per request phase
+public class EndpointMetrics {
+    // No DNS phase: both clients resolve the host internally, where the lookup cannot be timed apart
+    public enum Phase { CONNECT, TLS, TTFB, TOTAL }
+
+    private final String method;
+    private final String path;
+    private final Map<Phase, LatencyHistogram> histograms = new EnumMap<>(Phase.class);
+    private final AtomicLong errors = new AtomicLong();
+
+    EndpointMetrics(String method, String path) {
+        this.method = method;
+        this.path = path;
+        for (Phase phase : Phase.values()) {
+            histograms.put(phase, new LatencyHistogram());
+        }
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    // Path as the request template wrote it, e.g. /stores/{storeNbr}; for a plain URL numeric and
+    // UUID-like segments become {id}, e.g. /stores/{id}
+    public String getPath() {
+        return path;
+    }
+
+    public String getKey() {
+        return method + " " + path;
+    }
+
+    // Responses received; transport failures are counted separately
+    public long getCount() {
+        return histograms.get(Phase.TOTAL).getCount();
+    }
+
+    public long getErrorCount() {
+        return errors.get();
+    }
+
+    public LatencyHistogram histogram(Phase phase) {
+        return histograms.get(phase);
+    }
+
+    void record(RequestTiming timing) {
+        recordPhase(Phase.CONNECT, timing.getConnectNanos());
+        recordPhase(Phase.TLS, timing.getTlsNanos());
+        recordPhase(Phase.TTFB, timing.getTimeToFirstByteNanos());
+        recordPhase(Phase.TOTAL, timing.getTotalNanos());
+    }
+
+    void recordError() {
+        errors.incrementAndGet();
+    }
+
+    // Phases a transport could not observe arrive as -1 and are left out
+    private void recordPhase(Phase phase, long nanos) {
+        if (nanos >= 0) {
+            histograms.get(phase).recordNanos(nanos);
+        }
+    }
+}
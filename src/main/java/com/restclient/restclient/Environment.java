@@ -0,0 +1,29 @@
+package com.restclient.restclient;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// A named set of variables (base URLs, store numbers, tokens) referenced as ${name} or {name}
+public class Environment {
+    private final String name;
+    private final Map<String, String> variables;
+
+    public Environment(String name, Map<String, String> variables) {
+        this.name = name;
+        this.variables = Collections.unmodifiableMap(new LinkedHashMap<>(variables));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Map<String, String> getVariables() {
+        return variables;
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + variables.size() + " variables)";
+    }
+}
@@ -0,0 +1,90 @@
+package com.restclient.restclient;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Saved environments, all kept in one small JSON file
+public class EnvironmentStore {
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    private final Path file;
+
+    public EnvironmentStore(Path file) {
+        this.file = file;
+    }
+
+    // Method to open ~/.restclient/environments.json (or under -Drestclient.home)
+    public static EnvironmentStore openDefault() {
+        String home = System.getProperty("restclient.home",
+                Paths.get(System.getProperty("user.home"), ".restclient").toString());
+        return new EnvironmentStore(Paths.get(home, "environments.json"));
+    }
+
+    public synchronized List<Environment> list() throws IOException {
+        List<Environment> environments = new ArrayList<>();
+        for (Map.Entry<String, JsonElement> entry : read().entrySet()) {
+            Map<String, String> variables = new LinkedHashMap<>();
+            for (Map.Entry<String, JsonElement> variable : entry.getValue().getAsJsonObject().entrySet()) {
+                variables.put(variable.getKey(), variable.getValue().isJsonNull() ? "" : variable.getValue().getAsString());
+            }
+            environments.add(new Environment(entry.getKey(), variables));
+        }
+        return environments;
+    }
+
+    public synchronized void save(Environment environment) throws IOException {
+        JsonObject json = read();
+        JsonObject variables = new JsonObject();
+        environment.getVariables().forEach(variables::addProperty);
+        json.add(environment.getName(), variables);
+        write(json);
+    }
+
+    public synchronized void delete(String name) throws IOException {
+        JsonObject json = read();
+        if (json.remove(name) != null) {
+            write(json);
+        }
+    }
+
+    private JsonObject read() throws IOException {
+        if (!Files.exists(file)) {
+            return new JsonObject();
+        }
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return JsonParser.parseReader(reader).getAsJsonObject();
+        } catch (JsonParseException | IllegalStateException e) {
+            throw new IOException("Environment file " + file + " is not valid: " + e.getMessage(), e);
+        }
+    }
+
+    private void write(JsonObject json) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path temp = Files.createTempFile(file.getParent(), "environments-", ".tmp");
+        try {
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                GSON.toJson(json, writer);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.restclient.restclient;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.geometry.Insets;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.TextInputDialog;
+import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.scene.control.cell.TextFieldTableCell;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.stage.Stage;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Creates, edits and deletes environments; variables are edited as key/value rows
+public class EnvironmentWindow {
+    private static final double PADDING = 10;
+
+    private final EnvironmentStore store;
+    private final Runnable onChanged;
+    private final Stage stage = new Stage();
+    private final ListView<Environment> environmentListView = new ListView<>();
+    private final TableView<Header> variablesTable = new TableView<>();
+    private final ObservableList<Header> variables = FXCollections.observableArrayList();
+    private final Label statusLabel = new Label();
+
+    public EnvironmentWindow(EnvironmentStore store, Runnable onChanged) {
+        this.store = store;
+        this.onChanged = onChanged;
+    }
+
+    public void show() {
+        TableColumn<Header, String> nameColumn = new TableColumn<>("Variable");
+        nameColumn.setCellValueFactory(new PropertyValueFactory<>("key"));
+        nameColumn.setCellFactory(TextFieldTableCell.forTableColumn());
+        nameColumn.setPrefWidth(180);
+        TableColumn<Header, String> valueColumn = new TableColumn<>("Value");
+        valueColumn.setCellValueFactory(new PropertyValueFactory<>("value"));
+        valueColumn.setCellFactory(TextFieldTableCell.forTableColumn());
+        valueColumn.setPrefWidth(300);
+        variablesTable.getColumns().add(nameColumn);
+        variablesTable.getColumns().add(valueColumn);
+        variablesTable.setItems(variables);
+        variablesTable.setEditable(true);
+
+        environmentListView.setPrefWidth(200);
+        environmentListView.getSelectionModel().selectedItemProperty()
+                .addListener((observable, oldValue, newValue) -> showVariables(newValue));
+
+        Button newButton = new Button("New...");
+        newButton.setOnAction(e -> createEnvironment());
+        Button deleteButton = new Button("Delete");
+        deleteButton.setOnAction(e -> deleteEnvironment());
+        Button addVariableButton = new Button("Add Variable");
+        addVariableButton.setOnAction(e -> variables.add(new Header("name", "")));
+        Button removeVariableButton = new Button("Remove Variable");
+        removeVariableButton.setOnAction(e -> variables.remove(variablesTable.getSelectionModel().getSelectedItem()));
+        Button saveButton = new Button("Save");
+        saveButton.setOnAction(e -> saveEnvironment());
+
+        VBox left = new VBox(10, environmentListView, new HBox(10, newButton, deleteButton));
+        VBox.setVgrow(environmentListView, Priority.ALWAYS);
+        VBox right = new VBox(10, new Label("Reference as ${name} anywhere, or {name} in the URL, headers and parameters"),
+                variablesTable, new HBox(10, addVariableButton, removeVariableButton, saveButton));
+        VBox.setVgrow(variablesTable, Priority.ALWAYS);
+        HBox.setHgrow(right, Priority.ALWAYS);
+        VBox layout = new VBox(10, new HBox(10, left, right), statusLabel);
+        layout.setPadding(new Insets(PADDING));
+
+        stage.setTitle("Environments");
+        stage.setScene(new Scene(layout, 800, 500));
+        stage.show();
+        reload(null);
+    }
+
+    private void reload(String select) {
+        try {
+            environmentListView.getItems().setAll(store.list());
+        } catch (IOException e) {
+            statusLabel.setText("Cannot read environments: " + e.getMessage());
+            return;
+        }
+        for (Environment environment : environmentListView.getItems()) {
+            if (environment.getName().equals(select)) {
+                environmentListView.getSelectionModel().select(environment);
+                return;
+            }
+        }
+        environmentListView.getSelectionModel().selectFirst();
+    }
+
+    private void showVariables(Environment environment) {
+        variables.clear();
+        if (environment != null) {
+            environment.getVariables().forEach((name, value) -> variables.add(new Header(name, value)));
+        }
+    }
+
+    private void createEnvironment() {
+        TextInputDialog dialog = new TextInputDialog();
+        dialog.setTitle("New Environment");
+        dialog.setHeaderText("Name of the new environment");
+        dialog.showAndWait().map(String::trim).filter(name -> !name.isEmpty()).ifPresent(name -> {
+            try {
+                store.save(new Environment(name, Map.of()));
+                reload(name);
+                onChanged.run();
+            } catch (IOException e) {
+                statusLabel.setText("Save failed: " + e.getMessage());
+            }
+        });
+    }
+
+    private void deleteEnvironment() {
+        Environment selected = environmentListView.getSelectionModel().getSelectedItem();
+        if (selected == null) {
+            return;
+        }
+        try {
+            store.delete(selected.getName());
+            reload(null);
+            onChanged.run();
+        } catch (IOException e) {
+            statusLabel.setText("Delete failed: " + e.getMessage());
+        }
+    }
+
+    private void saveEnvironment() {
+        Environment selected = environmentListView.getSelectionModel().getSelectedItem();
+        if (selected == null) {
+            statusLabel.setText("Create an environment first");
+            return;
+        }
+        Map<String, String> values = new LinkedHashMap<>();
+        for (Header variable : variables) {
+            if (variable.getKey() != null && !variable.getKey().trim().isEmpty()) {
+                values.put(variable.getKey().trim(), variable.getValue() == null ? "" : variable.getValue());
+            }
+        }
+        try {
+            store.save(new Environment(selected.getName(), values));
+            reload(selected.getName());
+            statusLabel.setText("Saved " + selected.getName());
+            onChanged.run();
+        } catch (IOException e) {
+            statusLabel.setText("Save failed: " + e.getMessage());
+        }
+    }
+}
@@ -1,23 +1,94 @@
 package com.restclient.restclient;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
 
 import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.config.EncoderConfig;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.config.SSLConfig;
 import io.restassured.http.ContentType;
+import io.restassured.http.Headers;
+import io.restassured.http.Method;
 import io.restassured.response.Response;
 import io.restassured.specification.RequestSpecification;
 
 public class GenericRestAPI {
 
+	// Verb dispatch table; the path argument is the context path relative to the base URI
+	private static final Map<String, BiFunction<RequestSpecification, String, Response>> VERBS = new HashMap<>();
+	// Verbs that carry a request body when a payload is given
+	private static final Set<String> BODY_VERBS = new HashSet<>(Arrays.asList("POST", "PUT", "PATCH", "DELETE",
+			"OPTIONS"));
+
+	static {
+		VERBS.put("GET", RequestSpecification::get);
+		VERBS.put("POST", RequestSpecification::post);
+		VERBS.put("PUT", RequestSpecification::put);
+		VERBS.put("DELETE", RequestSpecification::delete);
+		VERBS.put("PATCH", RequestSpecification::patch);
+		VERBS.put("HEAD", RequestSpecification::head);
+		VERBS.put("OPTIONS", RequestSpecification::options);
+		VERBS.put("TRACE", (spec, url) -> spec.request(Method.TRACE, url));
+	}
+
+	// Shared instance behind the static entry point; safe because nothing below touches RestAssured statics
+	private static final GenericRestAPI DEFAULT = new GenericRestAPI(null, true, 10_000, 0);
+
+	// Immutable per-instance defaults (base URI, TLS and connection settings), merged into each call's spec
+	private final RequestSpecification baseSpec;
+
+	public GenericRestAPI(String baseUri) {
+		this(baseUri, true, 10_000, 0);
+	}
+
+	// socketTimeoutMillis of 0 waits indefinitely, matching the RestAssured default
+	public GenericRestAPI(String baseUri, boolean relaxedTls, int connectTimeoutMillis, int socketTimeoutMillis) {
+		SSLConfig sslConfig = relaxedTls ? SSLConfig.sslConfig().relaxedHTTPSValidation() : SSLConfig.sslConfig();
+		RestAssuredConfig config = RestAssuredConfig.config()
+				.sslConfig(sslConfig)
+				.httpClient(HttpClientConfig.httpClientConfig()
+						.setParam("http.connection.timeout", connectTimeoutMillis)
+						.setParam("http.socket.timeout", socketTimeoutMillis))
+				// Bodies with a caller-supplied content type are encoded as UTF-8 rather than ISO-8859-1
+				.encoderConfig(EncoderConfig.encoderConfig().defaultContentCharset(StandardCharsets.UTF_8));
+		RequestSpecBuilder builder = new RequestSpecBuilder().setConfig(config);
+		if (baseUri != null) {
+			builder.setBaseUri(baseUri);
+		}
+		this.baseSpec = builder.build();
+	}
+
+	// Kept for existing callers; routes through the shared instance instead of RestAssured.baseURI
 	public static Response makeAPICall(String methodName, String baseUri, String contextPath, String username,
 			String password, Object payload, HashMap<String, Object> queryParams, HashMap<String, Object> pathParams,
 			HashMap<String, Object> headers) {
+		return DEFAULT.call(methodName, baseUri, contextPath, username, password, payload, queryParams, pathParams,
+				headers);
+	}
+
+	// Method to call the instance's own base URI
+	public Response call(String methodName, String contextPath, String username, String password, Object payload,
+			HashMap<String, Object> queryParams, HashMap<String, Object> pathParams, HashMap<String, Object> headers) {
+		return call(methodName, null, contextPath, username, password, payload, queryParams, pathParams, headers);
+	}
 
-		Response response = null;
-		RestAssured.baseURI = baseUri;
-		RestAssured.useRelaxedHTTPSValidation();
+	// Each call builds its own specification, so one instance can be shared across threads without locking;
+	// a non-null baseUri overrides the instance default for this call only
+	public Response call(String methodName, String baseUri, String contextPath, String username, String password,
+			Object payload, HashMap<String, Object> queryParams, HashMap<String, Object> pathParams,
+			HashMap<String, Object> headers) {
 
-		RequestSpecification requestSpecification = RestAssured.given();
+		RequestSpecification requestSpecification = newSpecification(baseUri);
 
 		if (username != null && password != null) {
 			requestSpecification.auth().preemptive().basic(username, password);
@@ -35,37 +106,89 @@ public class GenericRestAPI {
 			requestSpecification.pathParams(pathParams);
 		}
 
-		requestSpecification.contentType(ContentType.JSON);
+		return dispatch(requestSpecification, methodName, contextPath, payload, hasHeader(headers, "Content-Type"));
+	}
+
+	// Method for requests that repeat a header or query parameter name; the HashMap overloads keep only
+	// the last value of each, while here every header and every value is sent
+	public static Response makeAPICall(String methodName, String baseUri, String contextPath, Object payload,
+			Map<String, List<String>> queryParams, Headers headers) {
+		return DEFAULT.call(methodName, baseUri, contextPath, payload, queryParams, headers);
+	}
 
-		System.out.println("*************Request*************");
-		requestSpecification.log().all();
-		System.out.println("methodName:"+methodName);
-		if (methodName == "GET") {
-			response = requestSpecification.get().then().extract().response();
-		} else if (methodName == "POST") {
+	public Response call(String methodName, String baseUri, String contextPath, Object payload,
+			Map<String, List<String>> queryParams, Headers headers) {
+
+		RequestSpecification requestSpecification = newSpecification(baseUri);
+
+		if (headers != null && headers.exist()) {
+			requestSpecification.headers(headers);
+		}
+
+		if (queryParams != null) {
+			queryParams.forEach(requestSpecification::queryParam);
+		}
+
+		return dispatch(requestSpecification, methodName, contextPath, payload,
+				headers != null && headers.hasHeaderWithName("Content-Type"));
+	}
+
+	private RequestSpecification newSpecification(String baseUri) {
+		RequestSpecification requestSpecification = RestAssured.given().spec(baseSpec);
+		if (baseUri != null) {
+			requestSpecification.baseUri(baseUri);
+		}
+		return requestSpecification;
+	}
+
+	private static Response dispatch(RequestSpecification requestSpecification, String methodName, String contextPath,
+			Object payload, boolean hasContentType) {
+		String verb = methodName == null ? "" : methodName.trim().toUpperCase(Locale.ROOT);
+		BiFunction<RequestSpecification, String, Response> dispatch = VERBS.get(verb);
+		if (dispatch == null) {
+			throw new IllegalArgumentException("HTTP method " + methodName + " is not supported");
+		}
+		if (payload != null && BODY_VERBS.contains(verb)) {
+			if (!hasContentType) {
+				requestSpecification.contentType(ContentType.JSON);
+			}
 			requestSpecification.body(payload);
-			response = requestSpecification.post().then().extract().response();
-		}else{
-			System.out.println(methodName.contains(" is not supported yet"));
 		}
 
-		System.out.println("*************Response*************");
-		response.then().log().everything(true);
+		// Logging is done by the transports through RequestLogger, so nothing is printed here
+		return dispatch.apply(requestSpecification, contextPath == null ? "" : contextPath)
+				.then().extract().response();
+	}
 
-		return response;
+	private static boolean hasHeader(HashMap<String, Object> headers, String name) {
+		if (headers != null) {
+			for (String key : headers.keySet()) {
+				if (key.equalsIgnoreCase(name)) {
+					return true;
+				}
+			}
+		}
+		return false;
 	}
 
+	// Pass a base URI (e.g. a local MockServer) to run the samples offline; defaults to reqres.in
 	public static void main(String[] args) {
+		String baseUri = args.length > 0 ? args[0] : "https://reqres.in/";
 
 		HashMap<String, Object> queryParams = new HashMap<>();
 		queryParams.put("page", 2);
 
-		makeAPICall("GET", "https://reqres.in/", "/api/users", null, null, null, queryParams, null, null);
+		Response users = makeAPICall("GET", baseUri, "/api/users", null, null, null, queryParams, null, null);
+		System.out.println(users.getStatusLine());
+		System.out.println(users.asPrettyString());
 		System.out.println("************************");
 		HashMap<String, Object> pathParams = new HashMap<>();
 		pathParams.put("id", 2);
 		String payload = "{\r\n" + "    \"name\": \"Babu Vemula\",\r\n" + "    \"job\": \"zion resident\"\r\n" + "}";
-		makeAPICall("POST", "https://reqres.in/", "/api/users/{id}", null, null, payload, null, pathParams, null);
+		Response created = makeAPICall("POST", baseUri, "/api/users/{id}", null, null, payload, null,
+				pathParams, null);
+		System.out.println(created.getStatusLine());
+		System.out.println(created.asPrettyString());
 
 	}
 
@@ -1,18 +1,43 @@
 package com.restclient.restclient;
 
-import java.time.LocalDateTime;
+import java.time.Instant;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 
+// One row of request history. This is the in-memory index entry; headers, body hashes and the full
+// timing breakdown live in the on-disk HistoryRecord, loaded through HistoryStore.read()
 public class HistoryEntry {
-        private final String method;
-        private final String url;
-        private final String timestamp;
-
-        public HistoryEntry(String method, String url) {
-            this.method = method;
-            this.url = url;
-            this.timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
-        }
+    private static final DateTimeFormatter TIMESTAMP_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.systemDefault());
+
+    private final long id;
+    private final long epochMillis;
+    private final String method;
+    private final String url;
+    private final int statusCode;
+    private final long totalNanos;
+    private final long responseSize;
+    // List cell text, built once on first display
+    private String label;
+
+    HistoryEntry(long id, long epochMillis, String method, String url, int statusCode, long totalNanos,
+                 long responseSize) {
+        this.id = id;
+        this.epochMillis = epochMillis;
+        this.method = method;
+        this.url = url;
+        this.statusCode = statusCode;
+        this.totalNanos = totalNanos;
+        this.responseSize = responseSize;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public long getEpochMillis() {
+        return epochMillis;
+    }
 
     public String getMethod() {
         return method;
@@ -22,12 +47,36 @@ public class HistoryEntry {
         return url;
     }
 
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public long getResponseSize() {
+        return responseSize;
+    }
+
     public String getTimestamp() {
-        return timestamp;
+        return TIMESTAMP_FORMAT.format(Instant.ofEpochMilli(epochMillis));
     }
 
-    @Override
-        public String toString() {
-            return String.format("[%s] %s - %s", method, url, timestamp);
+    public String getLabel() {
+        String text = label;
+        if (text == null) {
+            text = new StringBuilder(url.length() + 40)
+                    .append('[').append(method).append("] ").append(url)
+                    .append(" - ").append(statusCode).append(" - ").append(getTimestamp())
+                    .toString();
+            label = text;
         }
-    }
\ No newline at end of file
+        return text;
+    }
+
+    @Override
+    public String toString() {
+        return getLabel();
+    }
+}
@@ -0,0 +1,62 @@
+package com.restclient.restclient;
+
+import javafx.collections.ObservableListBase;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+// Newest-first list of history entries, stored oldest-first so a new entry is an O(1) append
+// that fires a single-item change instead of shifting the whole list
+public class HistoryListModel extends ObservableListBase<HistoryEntry> {
+    private HistoryEntry[] items = new HistoryEntry[16];
+    private int size;
+    private HistoryQuery filter = new HistoryQuery();
+
+    @Override
+    public HistoryEntry get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+        return items[size - 1 - index];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    // Method to replace the contents with a search result (newest first) and remember its filter
+    public void load(HistoryEntry[] newestFirst, HistoryQuery filter) {
+        List<HistoryEntry> removed = size == 0 ? Collections.emptyList() : Arrays.asList(toArray(new HistoryEntry[0]));
+        HistoryEntry[] loaded = new HistoryEntry[Math.max(16, newestFirst.length + 16)];
+        for (int i = 0; i < newestFirst.length; i++) {
+            loaded[newestFirst.length - 1 - i] = newestFirst[i];
+        }
+        this.items = loaded;
+        this.size = newestFirst.length;
+        this.filter = filter;
+        beginChange();
+        if (!removed.isEmpty()) {
+            nextRemove(0, removed);
+        }
+        if (size > 0) {
+            nextAdd(0, size);
+        }
+        endChange();
+    }
+
+    // Add a freshly recorded entry at the top if it passes the current filter
+    public void addNewest(HistoryEntry entry) {
+        if (!filter.matches(entry)) {
+            return;
+        }
+        if (size == items.length) {
+            items = Arrays.copyOf(items, size * 2);
+        }
+        items[size++] = entry;
+        beginChange();
+        nextAdd(0, 1);
+        endChange();
+    }
+}
@@ -0,0 +1,110 @@
+package com.restclient.restclient;
+
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.util.Duration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+// History list with a filter box. Searches run against the store's index on a background thread and
+// only the newest result is applied, so typing never blocks the FX thread.
+public class HistoryPane extends VBox {
+    private static final Duration FILTER_DELAY = Duration.millis(150);
+
+    private final HistoryStore store;
+    private final HistoryListModel model = new HistoryListModel();
+    private final ListView<HistoryEntry> listView = new ListView<>(model);
+    private final TextField filterField = new TextField();
+    private final Label countLabel = new Label();
+    private final PauseTransition filterDelay = new PauseTransition(FILTER_DELAY);
+    private final AtomicLong searchSequence = new AtomicLong();
+    private long appliedSequence;
+    // Entries recorded while a search is running, re-applied on top of its result
+    private final List<HistoryEntry> pendingAdds = new ArrayList<>();
+    private int totalCount;
+    private final ExecutorService searcher = Executors.newSingleThreadExecutor(
+            HttpClientEngine.daemonThreads("history-search"));
+
+    public HistoryPane(HistoryStore store, Consumer<HistoryEntry> onOpen) {
+        super(10);
+        this.store = store;
+
+        filterField.setPromptText("Filter: GET 5xx host:api path:/users text");
+        filterDelay.setOnFinished(e -> refresh());
+        filterField.textProperty().addListener((observable, oldValue, newValue) -> filterDelay.playFromStart());
+
+        listView.setFixedCellSize(24);
+        listView.setCellFactory(view -> new ListCell<HistoryEntry>() {
+            @Override
+            protected void updateItem(HistoryEntry item, boolean empty) {
+                super.updateItem(item, empty);
+                setText(empty || item == null ? null : item.getLabel());
+            }
+        });
+        listView.setOnMouseClicked(e -> {
+            HistoryEntry selected = listView.getSelectionModel().getSelectedItem();
+            if (selected != null) {
+                onOpen.accept(selected);
+            }
+        });
+        VBox.setVgrow(listView, Priority.ALWAYS);
+
+        getChildren().addAll(new Label("History"), filterField, listView, countLabel);
+        refresh();
+    }
+
+    // Method to show a newly recorded entry; must be called on the FX thread
+    public void add(HistoryEntry entry) {
+        totalCount++;
+        if (searchSequence.get() != appliedSequence) {
+            pendingAdds.add(entry);
+        }
+        model.addNewest(entry);
+        updateCount();
+    }
+
+    // Re-run the current filter in the background and swap in the result if it is still the latest
+    public void refresh() {
+        HistoryQuery query = HistoryQuery.parse(filterField.getText() == null ? "" : filterField.getText());
+        long sequence = searchSequence.incrementAndGet();
+        searcher.execute(() -> {
+            HistoryEntry[] result = store.select(query);
+            HistoryStore.Totals totals = store.totals();
+            Platform.runLater(() -> {
+                if (sequence != searchSequence.get()) {
+                    return;
+                }
+                appliedSequence = sequence;
+                long newestId = result.length > 0 ? result[0].getId() : 0;
+                model.load(result, query);
+                // Pending entries up to the snapshot's last id are already in its count
+                totalCount = totals.getCount();
+                for (HistoryEntry pending : pendingAdds) {
+                    if (pending.getId() > newestId) {
+                        model.addNewest(pending);
+                    }
+                    if (pending.getId() > totals.getLastId()) {
+                        totalCount++;
+                    }
+                }
+                pendingAdds.clear();
+                updateCount();
+            });
+        });
+    }
+
+    private void updateCount() {
+        countLabel.setText(model.size() + " of " + totalCount + " requests");
+    }
+}
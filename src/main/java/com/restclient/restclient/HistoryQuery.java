@@ -0,0 +1,212 @@
+package com.restclient.restclient;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+// Filter and page over the history store; unset criteria match everything
+public class HistoryQuery {
+    private static final Set<String> METHODS = new HashSet<>(Arrays.asList(
+            "GET", "POST", "PUT", "DELETE", "PATCH", "HEAD", "OPTIONS", "TRACE"));
+
+    private String method;
+    private int statusFrom = Integer.MIN_VALUE;
+    private int statusTo = Integer.MAX_VALUE;
+    private String urlContains;
+    private String host;
+    private String pathPrefix;
+    private long fromMillis = Long.MIN_VALUE;
+    private long toMillis = Long.MAX_VALUE;
+    private int offset;
+    private int limit = 100;
+
+    public HistoryQuery method(String method) {
+        this.method = method == null || method.isEmpty() ? null : method.toUpperCase(Locale.ROOT);
+        return this;
+    }
+
+    public HistoryQuery status(int status) {
+        return statusRange(status, status);
+    }
+
+    // Inclusive range, e.g. 500..599 for server errors
+    public HistoryQuery statusRange(int from, int to) {
+        this.statusFrom = from;
+        this.statusTo = to;
+        return this;
+    }
+
+    // Case-insensitive substring match on the URL
+    public HistoryQuery urlContains(String text) {
+        this.urlContains = text == null || text.isEmpty() ? null : text.toLowerCase(Locale.ROOT);
+        return this;
+    }
+
+    // Case-insensitive match against the URL's host (and port)
+    public HistoryQuery host(String host) {
+        this.host = host == null || host.isEmpty() ? null : host.toLowerCase(Locale.ROOT);
+        return this;
+    }
+
+    public HistoryQuery pathPrefix(String prefix) {
+        this.pathPrefix = prefix == null || prefix.isEmpty() ? null : prefix;
+        return this;
+    }
+
+    // Inclusive time window in epoch milliseconds
+    public HistoryQuery between(long fromMillis, long toMillis) {
+        this.fromMillis = fromMillis;
+        this.toMillis = toMillis;
+        return this;
+    }
+
+    // Page of results, newest first
+    public HistoryQuery page(int offset, int limit) {
+        this.offset = Math.max(0, offset);
+        this.limit = Math.max(0, limit);
+        return this;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public int getStatusFrom() {
+        return statusFrom;
+    }
+
+    public int getStatusTo() {
+        return statusTo;
+    }
+
+    public boolean hasStatusFilter() {
+        return statusFrom != Integer.MIN_VALUE || statusTo != Integer.MAX_VALUE;
+    }
+
+    public String getUrlContains() {
+        return urlContains;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public String getPathPrefix() {
+        return pathPrefix;
+    }
+
+    // True when any of the URL-derived criteria are set
+    public boolean hasUrlFilter() {
+        return urlContains != null || host != null || pathPrefix != null;
+    }
+
+    public long getFromMillis() {
+        return fromMillis;
+    }
+
+    public long getToMillis() {
+        return toMillis;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    // Method to test one entry against every criterion except paging
+    public boolean matches(HistoryEntry entry) {
+        if (method != null && !method.equals(entry.getMethod())) {
+            return false;
+        }
+        if (entry.getStatusCode() < statusFrom || entry.getStatusCode() > statusTo) {
+            return false;
+        }
+        if (entry.getEpochMillis() < fromMillis || entry.getEpochMillis() > toMillis) {
+            return false;
+        }
+        return matchesUrl(entry.getUrl());
+    }
+
+    public boolean matchesUrl(String url) {
+        if (urlContains != null && !url.toLowerCase(Locale.ROOT).contains(urlContains)) {
+            return false;
+        }
+        if (host != null && !hostOf(url).contains(host)) {
+            return false;
+        }
+        return pathPrefix == null || pathOf(url).startsWith(pathPrefix);
+    }
+
+    // Parse filter text such as "GET 5xx host:api.example.com path:/users orders"; words that are
+    // not a method, status or prefixed term are matched against the URL
+    public static HistoryQuery parse(String text) {
+        HistoryQuery query = new HistoryQuery();
+        StringBuilder urlText = new StringBuilder();
+        for (String token : text.trim().split("\\s+")) {
+            String lower = token.toLowerCase(Locale.ROOT);
+            if (token.isEmpty()) {
+                continue;
+            }
+            if (lower.startsWith("host:")) {
+                query.host(token.substring(5));
+            } else if (lower.startsWith("path:")) {
+                query.pathPrefix(token.substring(5));
+            } else if (lower.startsWith("method:")) {
+                query.method(token.substring(7));
+            } else if (lower.startsWith("status:")) {
+                query.parseStatus(lower.substring(7));
+            } else if (METHODS.contains(token.toUpperCase(Locale.ROOT))) {
+                query.method(token);
+            } else if (!query.parseStatus(lower)) {
+                if (urlText.length() > 0) {
+                    urlText.append(' ');
+                }
+                urlText.append(token);
+            }
+        }
+        return query.urlContains(urlText.toString());
+    }
+
+    // Accepts an exact code ("404") or a class ("4xx")
+    private boolean parseStatus(String text) {
+        if (text.matches("[1-5]xx")) {
+            int base = (text.charAt(0) - '0') * 100;
+            statusRange(base, base + 99);
+            return true;
+        }
+        if (text.matches("[1-5][0-9][0-9]")) {
+            status(Integer.parseInt(text));
+            return true;
+        }
+        return false;
+    }
+
+    // Lower-cased host[:port] of a URL, or "" if it has none
+    static String hostOf(String url) {
+        int start = url.indexOf("://");
+        start = start < 0 ? 0 : start + 3;
+        int end = start;
+        while (end < url.length() && "/?#".indexOf(url.charAt(end)) < 0) {
+            end++;
+        }
+        return url.substring(start, end).toLowerCase(Locale.ROOT);
+    }
+
+    // Path of a URL without query or fragment, "/" if it has none
+    static String pathOf(String url) {
+        int scheme = url.indexOf("://");
+        int start = scheme < 0 ? 0 : url.indexOf('/', scheme + 3);
+        if (start < 0) {
+            return "/";
+        }
+        int end = start;
+        while (end < url.length() && "?#".indexOf(url.charAt(end)) < 0) {
+            end++;
+        }
+        return end > start ? url.substring(start, end) : "/";
+    }
+}
@@ -0,0 +1,75 @@
+package com.restclient.restclient;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+// Everything persisted about one exchange. Bodies are referenced by hash in the BodyStore.
+public class HistoryRecord {
+    private final HistoryEntry entry;
+    private final String protocol;
+    private final String transportName;
+    private final Map<String, List<String>> requestHeaders;
+    private final String requestBodyHash;
+    private final long requestSize;
+    private final Map<String, List<String>> responseHeaders;
+    private final String responseBodyHash;
+    private final RequestTiming timing;
+
+    HistoryRecord(HistoryEntry entry, String protocol, String transportName,
+                  Map<String, List<String>> requestHeaders, String requestBodyHash, long requestSize,
+                  Map<String, List<String>> responseHeaders, String responseBodyHash, RequestTiming timing) {
+        this.entry = entry;
+        this.protocol = protocol;
+        this.transportName = transportName;
+        this.requestHeaders = Collections.unmodifiableMap(requestHeaders);
+        this.requestBodyHash = requestBodyHash;
+        this.requestSize = requestSize;
+        this.responseHeaders = Collections.unmodifiableMap(responseHeaders);
+        this.responseBodyHash = responseBodyHash;
+        this.timing = timing;
+    }
+
+    public HistoryEntry getEntry() {
+        return entry;
+    }
+
+    public String getProtocol() {
+        return protocol;
+    }
+
+    public String getTransportName() {
+        return transportName;
+    }
+
+    // Credentials (Authorization, cookies, API keys) are redacted before they reach disk
+    public Map<String, List<String>> getRequestHeaders() {
+        return requestHeaders;
+    }
+
+    // Empty when the request had no body
+    public String getRequestBodyHash() {
+        return requestBodyHash;
+    }
+
+    public long getRequestSize() {
+        return requestSize;
+    }
+
+    public Map<String, List<String>> getResponseHeaders() {
+        return responseHeaders;
+    }
+
+    public String getResponseBodyHash() {
+        return responseBodyHash;
+    }
+
+    public RequestTiming getTiming() {
+        return timing;
+    }
+
+    @Override
+    public String toString() {
+        return entry + " (" + protocol + ", " + transportName + ") - " + timing;
+    }
+}
@@ -0,0 +1,861 @@
+package com.restclient.restclient;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+// Append-only on-disk request history with an in-memory index by method, status, URL and time.
+// Each record is [length][crc32][payload]; a torn record at the tail is dropped on open. Once the
+// log holds a quarter more than maxEntries it is compacted down to the newest maxEntries on a
+// background thread; appends and searches only wait for the final swap.
+public class HistoryStore implements Closeable {
+    public static final int DEFAULT_MAX_ENTRIES = 200_000;
+    // Bodies larger than this are hashed but not kept
+    private static final long MAX_STORED_BODY = 16L * 1024 * 1024;
+    private static final int MAGIC = 0x52434831;
+    private static final int VERSION = 1;
+    private static final int FILE_HEADER_SIZE = 8;
+    private static final int RECORD_HEADER_SIZE = 8;
+    // Marks the DNS / connect / TLS block that follows the original four timings. Records written before
+    // it existed end after those four, so the file version stays 1 and both kinds read back.
+    private static final byte TIMING_PHASES = 1;
+    // Compaction catches up with appends until at most this many records are left to copy under the write
+    // lock, giving up after a few passes if appends keep outrunning it
+    private static final int SWAP_COPY_LIMIT = 256;
+    private static final int MAX_CATCH_UP_PASSES = 8;
+
+    private final Path logFile;
+    private final BodyStore bodies;
+    private final int maxEntries;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(
+            HttpClientEngine.daemonThreads("history-compact"));
+    // Body hashes stored by appends that have not been indexed yet; compaction must not delete them
+    private final ConcurrentHashMap<String, AtomicInteger> pendingBodies = new ConcurrentHashMap<>();
+    private FileChannel channel;
+    private long logSize;
+    // Guarded by the write lock
+    private boolean compacting;
+    private boolean closed;
+    // While compaction deletes unreferenced bodies, hashes of entries indexed meanwhile
+    private volatile Set<String> retaining;
+
+    // Index: entries in append (and therefore id and time) order, with record offsets alongside
+    private final ArrayList<HistoryEntry> entries = new ArrayList<>();
+    private long[] offsets = new long[1024];
+    private final Map<String, IntList> byMethod = new HashMap<>();
+    private final Map<Integer, IntList> byStatus = new HashMap<>();
+    // Keys double as the intern pool, so repeated URLs share one String
+    private final Map<String, IntList> byUrl = new LinkedHashMap<>();
+    private long nextId = 1;
+    private long lastMillis;
+
+    public HistoryStore(Path directory, int maxEntries) throws IOException {
+        Files.createDirectories(directory);
+        this.logFile = directory.resolve("history.log");
+        this.bodies = new BodyStore(directory.resolve("bodies"), MAX_STORED_BODY);
+        this.maxEntries = maxEntries;
+        this.channel = FileChannel.open(logFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        load();
+    }
+
+    // Method to open the history under ~/.restclient (or -Drestclient.home)
+    public static HistoryStore openDefault() throws IOException {
+        String home = System.getProperty("restclient.home",
+                Paths.get(System.getProperty("user.home"), ".restclient").toString());
+        return new HistoryStore(Paths.get(home, "history"), DEFAULT_MAX_ENTRIES);
+    }
+
+    public BodyStore getBodies() {
+        return bodies;
+    }
+
+    // Record one completed exchange; bodies are hashed outside the lock
+    public HistoryEntry append(ApiRequest request, ApiResponse response) throws IOException {
+        List<String> stored = new ArrayList<>(2);
+        try {
+            return append(request, response, stored);
+        } finally {
+            stored.forEach(this::bodyIndexed);
+        }
+    }
+
+    private HistoryEntry append(ApiRequest request, ApiResponse response, List<String> stored) throws IOException {
+        String requestBodyHash = "";
+        long requestSize = 0;
+        if (request.hasBody()) {
+            byte[] requestBytes = request.getBody().getBytes(StandardCharsets.UTF_8);
+            requestBodyHash = putBody(ByteBuffer.wrap(requestBytes), null, stored);
+            requestSize = requestBytes.length;
+        }
+        String responseBodyHash = "";
+        if (response.getBody().size() > 0) {
+            responseBodyHash = putBody(null, response.getBody(), stored);
+        }
+        Map<String, List<String>> requestHeaders = new LinkedHashMap<>();
+        request.addHeadersToRequest((name, value) -> requestHeaders
+                .computeIfAbsent(name, key -> new ArrayList<>()).add(AuthConfig.redact(name, value)));
+
+        lock.writeLock().lock();
+        try {
+            if (closed) {
+                throw new IOException("History store is closed");
+            }
+            long now = Math.max(System.currentTimeMillis(), lastMillis);
+            String url = intern(request.buildUrlWithParams());
+            HistoryEntry entry = new HistoryEntry(nextId, now, request.getMethod().toUpperCase(Locale.ROOT), url,
+                    response.getStatusCode(), response.getTiming().getTotalNanos(), response.getBody().size());
+            HistoryRecord record = new HistoryRecord(entry, response.getProtocol(), response.getTransportName(),
+                    requestHeaders, requestBodyHash, requestSize, response.getHeaders(), responseBodyHash,
+                    response.getTiming());
+            long offset = logSize;
+            ByteBuffer encoded = encode(record);
+            writeFully(channel, encoded, offset);
+            logSize += encoded.capacity();
+            index(entry, offset);
+            Set<String> retained = retaining;
+            if (retained != null) {
+                retained.add(requestBodyHash);
+                retained.add(responseBodyHash);
+            }
+            if (!compacting && entries.size() > threshold()) {
+                compacting = true;
+                compactor.execute(this::compactInBackground);
+            }
+            return entry;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Full record for an entry, or null once it has been evicted
+    public HistoryRecord read(HistoryEntry entry) throws IOException {
+        lock.readLock().lock();
+        try {
+            int position = positionOf(entry.getId());
+            return position < 0 ? null : decode(readRecord(channel, offsets[position]), entry);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Size and newest id read together, so a caller can tell which entries it sees later were appended after
+    public Totals totals() {
+        lock.readLock().lock();
+        try {
+            return new Totals(entries.size(), entries.isEmpty() ? 0 : entries.get(entries.size() - 1).getId());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Newest-first page of matching entries plus the total number of matches
+    public Page search(HistoryQuery query) {
+        lock.readLock().lock();
+        try {
+            IntList matches = matches(query);
+            int total = matches.size();
+            int from = Math.min(total, query.getOffset());
+            int to = (int) Math.min(total, (long) from + query.getLimit());
+            List<HistoryEntry> page = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                page.add(entries.get(matches.get(total - 1 - i)));
+            }
+            return new Page(page, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Every matching entry, newest first, for views that page through results in memory
+    public HistoryEntry[] select(HistoryQuery query) {
+        lock.readLock().lock();
+        try {
+            IntList matches = matches(query);
+            HistoryEntry[] selected = new HistoryEntry[matches.size()];
+            for (int i = 0; i < selected.length; i++) {
+                selected[i] = entries.get(matches.get(selected.length - 1 - i));
+            }
+            return selected;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Waits for a compaction in progress, so the log is left either whole or compacted
+    @Override
+    public void close() throws IOException {
+        compactor.shutdown();
+        try {
+            compactor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        lock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            channel.force(true);
+            channel.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Positions (ascending) of entries matching every criterion in the query
+    private IntList matches(HistoryQuery query) {
+        int lo = lowerBound(query.getFromMillis());
+        int hi = upperBound(query.getToMillis());
+        if (lo >= hi) {
+            return new IntList(0);
+        }
+
+        // Drive the scan from the most selective index and check the remaining criteria per entry
+        Set<String> urls = null;
+        IntList driver = null;
+        if (query.hasUrlFilter()) {
+            urls = new HashSet<>();
+            List<IntList> lists = new ArrayList<>();
+            for (Map.Entry<String, IntList> url : byUrl.entrySet()) {
+                if (query.matchesUrl(url.getKey())) {
+                    urls.add(url.getKey());
+                    lists.add(url.getValue());
+                }
+            }
+            driver = IntList.union(lists);
+        }
+        if (query.getMethod() != null) {
+            driver = smaller(driver, byMethod.getOrDefault(query.getMethod(), new IntList(0)));
+        }
+        if (query.hasStatusFilter()) {
+            List<IntList> lists = new ArrayList<>();
+            for (Map.Entry<Integer, IntList> status : byStatus.entrySet()) {
+                if (status.getKey() >= query.getStatusFrom() && status.getKey() <= query.getStatusTo()) {
+                    lists.add(status.getValue());
+                }
+            }
+            driver = smaller(driver, IntList.union(lists));
+        }
+
+        IntList result = new IntList(driver == null ? hi - lo : Math.min(driver.size(), hi - lo));
+        if (driver == null) {
+            for (int position = lo; position < hi; position++) {
+                result.add(position);
+            }
+            return result;
+        }
+        for (int i = driver.lowerBound(lo); i < driver.size(); i++) {
+            int position = driver.get(i);
+            if (position >= hi) {
+                break;
+            }
+            HistoryEntry entry = entries.get(position);
+            if (query.getMethod() != null && !query.getMethod().equals(entry.getMethod())) {
+                continue;
+            }
+            if (entry.getStatusCode() < query.getStatusFrom() || entry.getStatusCode() > query.getStatusTo()) {
+                continue;
+            }
+            if (urls != null && !urls.contains(entry.getUrl())) {
+                continue;
+            }
+            result.add(position);
+        }
+        return result;
+    }
+
+    private static IntList smaller(IntList current, IntList candidate) {
+        return current == null || candidate.size() < current.size() ? candidate : current;
+    }
+
+    // First position with time >= millis
+    private int lowerBound(long millis) {
+        int lo = 0;
+        int hi = entries.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (entries.get(mid).getEpochMillis() < millis) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // First position with time > millis
+    private int upperBound(long millis) {
+        int lo = 0;
+        int hi = entries.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (entries.get(mid).getEpochMillis() <= millis) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private int positionOf(long id) {
+        int lo = 0;
+        int hi = entries.size() - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            long midId = entries.get(mid).getId();
+            if (midId < id) {
+                lo = mid + 1;
+            } else if (midId > id) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private void index(HistoryEntry entry, long offset) {
+        int position = entries.size();
+        entries.add(entry);
+        if (position == offsets.length) {
+            offsets = Arrays.copyOf(offsets, position * 2);
+        }
+        offsets[position] = offset;
+        byMethod.computeIfAbsent(entry.getMethod(), key -> new IntList(64)).add(position);
+        byStatus.computeIfAbsent(entry.getStatusCode(), key -> new IntList(64)).add(position);
+        byUrl.computeIfAbsent(entry.getUrl(), key -> new IntList(4)).add(position);
+        nextId = Math.max(nextId, entry.getId() + 1);
+        lastMillis = Math.max(lastMillis, entry.getEpochMillis());
+    }
+
+    private void clearIndex() {
+        entries.clear();
+        byMethod.clear();
+        byStatus.clear();
+        byUrl.clear();
+    }
+
+    private String intern(String url) {
+        IntList existing = byUrl.get(url);
+        if (existing != null && existing.size() > 0) {
+            return entries.get(existing.get(0)).getUrl();
+        }
+        return url;
+    }
+
+    // Rebuild the index from the log. Only a torn tail (a record running past the end of the file, as a
+    // crash mid-write leaves it) is truncated; a record that fails its checksum inside the file is skipped
+    // so the valid records after it survive.
+    private void load() throws IOException {
+        long size = channel.size();
+        if (size < FILE_HEADER_SIZE) {
+            ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE).putInt(MAGIC).putInt(VERSION);
+            header.flip();
+            channel.truncate(0);
+            writeFully(channel, header, 0);
+            logSize = FILE_HEADER_SIZE;
+            return;
+        }
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+        readFully(channel, header, 0);
+        header.flip();
+        if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+            throw new IOException("Not a history log: " + logFile);
+        }
+
+        long offset = FILE_HEADER_SIZE;
+        long skipped = 0;
+        while (offset < size) {
+            long length = recordLength(channel, offset, size);
+            if (length < 0) {
+                // After a corrupt record the length may be garbage too, so nothing is cut off on a guess
+                if (skipped > 0) {
+                    throw new IOException("Corrupt history log " + logFile + " at offset " + offset
+                            + " after " + skipped + " unreadable records");
+                }
+                channel.truncate(offset);
+                break;
+            }
+            ByteBuffer payload = readRecord(channel, offset);
+            if (payload == null) {
+                skipped++;
+            } else {
+                HistoryEntry entry = decodeEntry(payload);
+                index(new HistoryEntry(entry.getId(), entry.getEpochMillis(), entry.getMethod(),
+                        intern(entry.getUrl()), entry.getStatusCode(), entry.getTotalNanos(), entry.getResponseSize()),
+                        offset);
+            }
+            offset += RECORD_HEADER_SIZE + length;
+        }
+        logSize = offset;
+    }
+
+    private int threshold() {
+        return maxEntries + maxEntries / 4;
+    }
+
+    private boolean isOverThreshold() {
+        lock.readLock().lock();
+        try {
+            return !closed && entries.size() > threshold();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private String putBody(ByteBuffer bytes, ResponseBody body, List<String> stored) throws IOException {
+        // The hash is only known once the body is written, so everything is held back until then
+        AtomicInteger holdAll = pendingBodies.computeIfAbsent("", key -> new AtomicInteger());
+        holdAll.incrementAndGet();
+        try {
+            String hash = bytes != null ? bodies.put(bytes) : bodies.put(body);
+            pendingBodies.computeIfAbsent(hash, key -> new AtomicInteger()).incrementAndGet();
+            stored.add(hash);
+            return hash;
+        } finally {
+            holdAll.decrementAndGet();
+        }
+    }
+
+    private void bodyIndexed(String hash) {
+        pendingBodies.computeIfPresent(hash, (key, count) -> count.decrementAndGet() == 0 ? null : count);
+    }
+
+    private boolean isLiveBody(String hash, Set<String> liveHashes) {
+        if (liveHashes.contains(hash) || pendingBodies.containsKey(hash)) {
+            return true;
+        }
+        AtomicInteger holdAll = pendingBodies.get("");
+        Set<String> retained = retaining;
+        return holdAll != null && holdAll.get() > 0 || retained != null && retained.contains(hash);
+    }
+
+    // Appends that cross the threshold while a compaction runs do not start another, so this one goes
+    // round again until the log is back under it
+    private void compactInBackground() {
+        try {
+            do {
+                compact();
+            } while (isOverThreshold());
+        } catch (IOException e) {
+            // The log just stays long; the next append over the threshold tries again
+        } finally {
+            lock.writeLock().lock();
+            try {
+                compacting = false;
+                retaining = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    // Rewrite the log with only the newest maxEntries records and drop bodies nobody references. Records
+    // are copied without the lock, catching up with appends until only a few are left; those are copied
+    // under the write lock just before the new file replaces the old one.
+    private void compact() throws IOException {
+        int drop;
+        FileChannel source;
+        lock.readLock().lock();
+        try {
+            drop = entries.size() - maxEntries;
+            if (closed || drop <= 0) {
+                return;
+            }
+            // Only compaction replaces the channel, so it stays the same until the swap below
+            source = channel;
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Path temp = logFile.resolveSibling(logFile.getFileName() + ".compact");
+        Set<String> liveHashes = new HashSet<>();
+        long[] keptOffsets = new long[maxEntries + maxEntries / 4];
+        int copied = drop;
+        boolean swapped = false;
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE).putInt(MAGIC).putInt(VERSION);
+            header.flip();
+            long position = writeFully(out, header, 0);
+            for (int pass = 0; pass < MAX_CATCH_UP_PASSES; pass++) {
+                List<HistoryEntry> batch;
+                long[] batchOffsets;
+                lock.readLock().lock();
+                try {
+                    if (closed) {
+                        return;
+                    }
+                    int total = entries.size();
+                    if (total - copied <= SWAP_COPY_LIMIT) {
+                        break;
+                    }
+                    batch = new ArrayList<>(entries.subList(copied, total));
+                    batchOffsets = Arrays.copyOfRange(offsets, copied, total);
+                } finally {
+                    lock.readLock().unlock();
+                }
+                keptOffsets = ensureCapacity(keptOffsets, copied - drop + batch.size());
+                for (int i = 0; i < batch.size(); i++) {
+                    keptOffsets[copied - drop + i] = position;
+                    position = copyRecord(source, batchOffsets[i], batch.get(i), out, position, liveHashes);
+                }
+                copied += batch.size();
+            }
+            out.force(true);
+
+            lock.writeLock().lock();
+            try {
+                if (closed) {
+                    return;
+                }
+                int total = entries.size();
+                keptOffsets = ensureCapacity(keptOffsets, total - drop);
+                for (int i = copied; i < total; i++) {
+                    keptOffsets[i - drop] = position;
+                    position = copyRecord(channel, offsets[i], entries.get(i), out, position, liveHashes);
+                }
+                // The last few records are not forced, like any append; a crash here leaves a torn tail
+                channel.close();
+                Files.move(temp, logFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                swapped = true;
+                channel = FileChannel.open(logFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                logSize = channel.size();
+
+                List<HistoryEntry> kept = new ArrayList<>(entries.subList(drop, total));
+                clearIndex();
+                for (int i = 0; i < kept.size(); i++) {
+                    index(kept.get(i), keptOffsets[i]);
+                }
+                retaining = ConcurrentHashMap.newKeySet();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            if (!swapped) {
+                Files.deleteIfExists(temp);
+            }
+        }
+        bodies.retainOnly(hash -> isLiveBody(hash, liveHashes));
+    }
+
+    private static long[] ensureCapacity(long[] array, int size) {
+        return size <= array.length ? array : Arrays.copyOf(array, Math.max(size, array.length * 2));
+    }
+
+    private static long copyRecord(FileChannel source, long offset, HistoryEntry entry, FileChannel out, long position,
+                                   Set<String> liveHashes) throws IOException {
+        ByteBuffer payload = readRecord(source, offset);
+        if (payload == null) {
+            throw new IOException("Unreadable history record at offset " + offset);
+        }
+        HistoryRecord record = decode(payload.duplicate(), entry);
+        liveHashes.add(record.getRequestBodyHash());
+        liveHashes.add(record.getResponseBodyHash());
+        return writeFully(out, frame(payload), position);
+    }
+
+    // Payload length of the record at offset, or -1 if its header or payload runs past the end of the file
+    private static long recordLength(FileChannel channel, long offset, long size) throws IOException {
+        if (offset + RECORD_HEADER_SIZE > size) {
+            return -1;
+        }
+        ByteBuffer length = ByteBuffer.allocate(4);
+        readFully(channel, length, offset);
+        length.flip();
+        int value = length.getInt();
+        return value < 0 || offset + RECORD_HEADER_SIZE + value > size ? -1 : value;
+    }
+
+    // Payload of the record at offset, or null if it is incomplete or fails its checksum
+    private static ByteBuffer readRecord(FileChannel channel, long offset) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+        if (readFully(channel, header, offset) < RECORD_HEADER_SIZE) {
+            return null;
+        }
+        header.flip();
+        int length = header.getInt();
+        int crc = header.getInt();
+        if (length < 0 || offset + RECORD_HEADER_SIZE + length > channel.size()) {
+            return null;
+        }
+        ByteBuffer payload = ByteBuffer.allocate(length);
+        readFully(channel, payload, offset + RECORD_HEADER_SIZE);
+        CRC32 checksum = new CRC32();
+        checksum.update(payload.array());
+        if ((int) checksum.getValue() != crc) {
+            return null;
+        }
+        payload.flip();
+        return payload;
+    }
+
+    private static ByteBuffer frame(ByteBuffer payload) {
+        CRC32 checksum = new CRC32();
+        checksum.update(payload.array(), 0, payload.capacity());
+        ByteBuffer framed = ByteBuffer.allocate(RECORD_HEADER_SIZE + payload.capacity());
+        framed.putInt(payload.capacity()).putInt((int) checksum.getValue()).put(payload.array(), 0, payload.capacity());
+        framed.flip();
+        return framed;
+    }
+
+    // Index fields come first so loading only has to decode the head of each record
+    private static ByteBuffer encode(HistoryRecord record) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+        DataOutputStream out = new DataOutputStream(bytes);
+        HistoryEntry entry = record.getEntry();
+        out.writeLong(entry.getId());
+        out.writeLong(entry.getEpochMillis());
+        writeString(out, entry.getMethod());
+        writeString(out, entry.getUrl());
+        out.writeInt(entry.getStatusCode());
+        out.writeLong(entry.getTotalNanos());
+        out.writeLong(entry.getResponseSize());
+        writeString(out, record.getProtocol());
+        writeString(out, record.getTransportName());
+        writeHeaders(out, record.getRequestHeaders());
+        writeString(out, record.getRequestBodyHash());
+        out.writeLong(record.getRequestSize());
+        writeHeaders(out, record.getResponseHeaders());
+        writeString(out, record.getResponseBodyHash());
+        RequestTiming timing = record.getTiming();
+        out.writeLong(timing.getPrepareNanos());
+        out.writeLong(timing.getTimeToFirstByteNanos());
+        out.writeLong(timing.getDownloadNanos());
+        out.writeLong(timing.getTotalNanos());
+        out.writeByte(TIMING_PHASES);
+        out.writeLong(timing.getDnsNanos());
+        out.writeLong(timing.getConnectNanos());
+        out.writeLong(timing.getTlsNanos());
+        out.flush();
+        return frame(ByteBuffer.wrap(bytes.toByteArray()));
+    }
+
+    private static HistoryEntry decodeEntry(ByteBuffer in) {
+        return new HistoryEntry(in.getLong(), in.getLong(), readString(in), readString(in), in.getInt(),
+                in.getLong(), in.getLong());
+    }
+
+    private static HistoryRecord decode(ByteBuffer in, HistoryEntry entry) throws IOException {
+        if (in == null) {
+            throw new IOException("History record for entry " + entry.getId() + " is corrupt");
+        }
+        decodeEntry(in);
+        String protocol = readString(in);
+        String transportName = readString(in);
+        Map<String, List<String>> requestHeaders = readHeaders(in);
+        String requestBodyHash = readString(in);
+        long requestSize = in.getLong();
+        Map<String, List<String>> responseHeaders = readHeaders(in);
+        String responseBodyHash = readString(in);
+        RequestTiming timing = decodeTiming(in);
+        return new HistoryRecord(entry, protocol, transportName, requestHeaders, requestBodyHash, requestSize,
+                responseHeaders, responseBodyHash, timing);
+    }
+
+    private static RequestTiming decodeTiming(ByteBuffer in) {
+        long prepare = in.getLong();
+        long timeToFirstByte = in.getLong();
+        long download = in.getLong();
+        long total = in.getLong();
+        if (!in.hasRemaining() || in.get() != TIMING_PHASES) {
+            return new RequestTiming(prepare, timeToFirstByte, download, total);
+        }
+        return new RequestTiming(in.getLong(), in.getLong(), in.getLong(), prepare, timeToFirstByte, download, total);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = (value == null ? "" : value).getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getInt()];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeHeaders(DataOutputStream out, Map<String, List<String>> headers) throws IOException {
+        int count = 0;
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            if (header.getKey() != null) {
+                count += header.getValue().size();
+            }
+        }
+        out.writeInt(count);
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            if (header.getKey() == null) {
+                continue;
+            }
+            for (String value : header.getValue()) {
+                writeString(out, header.getKey());
+                writeString(out, value);
+            }
+        }
+    }
+
+    private static Map<String, List<String>> readHeaders(ByteBuffer in) {
+        int count = in.getInt();
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            String name = readString(in);
+            headers.computeIfAbsent(name, key -> new ArrayList<>()).add(readString(in));
+        }
+        return headers;
+    }
+
+    private static long writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long at = position;
+        while (buffer.hasRemaining()) {
+            at += channel.write(buffer, at);
+        }
+        return at;
+    }
+
+    private static int readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        int total = 0;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + total);
+            if (read < 0) {
+                break;
+            }
+            total += read;
+        }
+        return total;
+    }
+
+    // One page of search results
+    public static final class Page {
+        private final List<HistoryEntry> entries;
+        private final int total;
+
+        Page(List<HistoryEntry> entries, int total) {
+            this.entries = Collections.unmodifiableList(entries);
+            this.total = total;
+        }
+
+        public List<HistoryEntry> getEntries() {
+            return entries;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+    }
+
+    public static final class Totals {
+        private final int count;
+        private final long lastId;
+
+        Totals(int count, long lastId) {
+            this.count = count;
+            this.lastId = lastId;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        // Id of the newest entry, 0 when the store is empty
+        public long getLastId() {
+            return lastId;
+        }
+    }
+
+    // Growable sorted list of entry positions
+    static final class IntList {
+        private int[] values;
+        private int size;
+
+        IntList(int capacity) {
+            values = new int[Math.max(1, capacity)];
+        }
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int get(int index) {
+            return values[index];
+        }
+
+        int size() {
+            return size;
+        }
+
+        // Index of the first value >= target
+        int lowerBound(int target) {
+            int lo = 0;
+            int hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (values[mid] < target) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        static IntList union(List<IntList> lists) {
+            if (lists.size() == 1) {
+                return lists.get(0);
+            }
+            int total = 0;
+            for (IntList list : lists) {
+                total += list.size;
+            }
+            IntList merged = new IntList(total);
+            for (IntList list : lists) {
+                System.arraycopy(list.values, 0, merged.values, merged.size, list.size);
+                merged.size += list.size;
+            }
+            Arrays.sort(merged.values, 0, merged.size);
+            return merged;
+        }
+    }
+}
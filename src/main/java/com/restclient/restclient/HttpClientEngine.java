@@ -0,0 +1,320 @@
+package com.restclient.restclient;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongConsumer;
+
+// Long-lived HTTP engine shared by every front end, so repeated calls to the same
+// host reuse pooled keep-alive / HTTP/2 connections instead of reconnecting.
+public final class HttpClientEngine {
+
+    // The JDK connection pool reads these once, when the first HttpClient is created
+    private static final String POOL_SIZE_PROPERTY = "jdk.httpclient.connectionPoolSize";
+    private static final String KEEPALIVE_PROPERTY = "jdk.httpclient.keepalive.timeout";
+
+    private static final Object LOCK = new Object();
+    private static Config pendingConfig = new Config();
+    private static volatile HttpClientEngine shared;
+
+    private final Config config;
+    private final SSLContext sslContext;
+    private final ExecutorService executor;
+    private final HttpClient client;
+    private final ConcurrentHashMap<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+    // Starts at config.maxConnectionsPerHost; load runs raise it to their user count
+    private int hostLimit;
+
+    private HttpClientEngine(Config config) {
+        this.config = config;
+        this.hostLimit = config.maxConnectionsPerHost;
+        applyPoolProperties(config);
+        this.sslContext = new TimedSslContext(createSslContext(config.relaxedTls), ConnectionStats.shared());
+        this.executor = Executors.newCachedThreadPool(daemonThreads("http-engine"));
+        this.client = newClientBuilder().build();
+    }
+
+    // Returns the process-wide engine, creating it on first use
+    public static HttpClientEngine shared() {
+        HttpClientEngine engine = shared;
+        if (engine == null) {
+            synchronized (LOCK) {
+                engine = shared;
+                if (engine == null) {
+                    engine = new HttpClientEngine(pendingConfig);
+                    shared = engine;
+                }
+            }
+        }
+        return engine;
+    }
+
+    // Must be called before the first request; pool limits cannot change once the JDK pool exists
+    public static void configure(Config config) {
+        synchronized (LOCK) {
+            if (shared != null) {
+                throw new IllegalStateException("HttpClientEngine is already running");
+            }
+            pendingConfig = config;
+        }
+    }
+
+    public HttpClient client() {
+        return client;
+    }
+
+    public Config config() {
+        return config;
+    }
+
+    public ExecutorService executor() {
+        return executor;
+    }
+
+    // Builder pre-populated with the engine's TLS, timeout, version and executor settings,
+    // for callers that need a dedicated client with the same behaviour
+    public HttpClient.Builder newClientBuilder() {
+        return HttpClient.newBuilder()
+                .connectTimeout(config.connectTimeout)
+                .version(config.preferHttp2 ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .followRedirects(config.followRedirects ? HttpClient.Redirect.NORMAL : HttpClient.Redirect.NEVER)
+                .sslContext(sslContext)
+                .executor(executor);
+    }
+
+    // Blocking send, bounded by the per-host connection limit
+    public <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler)
+            throws IOException, InterruptedException {
+        return send(request, handler, null);
+    }
+
+    // As send, telling onPermit the System.nanoTime() at which the host permit was granted, so callers can
+    // keep the wait for it out of their timings
+    public <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler, LongConsumer onPermit)
+            throws IOException, InterruptedException {
+        Semaphore permits = permitsFor(request.uri());
+        permits.acquire();
+        if (onPermit != null) {
+            onPermit.accept(System.nanoTime());
+        }
+        try {
+            return client.send(request, handler);
+        } finally {
+            permits.release();
+        }
+    }
+
+    // Non-blocking send; waiting for a per-host permit happens on the engine executor
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request, HttpResponse.BodyHandler<T> handler) {
+        return sendAsync(request, handler, null);
+    }
+
+    // As sendAsync, telling onPermit when the host permit was granted, like the blocking send
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request, HttpResponse.BodyHandler<T> handler,
+                                                            LongConsumer onPermit) {
+        Semaphore permits = permitsFor(request.uri());
+        if (permits.tryAcquire()) {
+            if (onPermit != null) {
+                onPermit.accept(System.nanoTime());
+            }
+            return sendHoldingPermit(request, handler, permits);
+        }
+        return CompletableFuture
+                .runAsync(() -> {
+                    try {
+                        permits.acquire();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new CompletionException(e);
+                    }
+                    if (onPermit != null) {
+                        onPermit.accept(System.nanoTime());
+                    }
+                }, executor)
+                .thenCompose(ignored -> sendHoldingPermit(request, handler, permits));
+    }
+
+    // The client can throw before it returns a future (e.g. a closed client or a rejected header), and
+    // then nothing would ever complete to give the permit back
+    private <T> CompletableFuture<HttpResponse<T>> sendHoldingPermit(HttpRequest request,
+                                                                    HttpResponse.BodyHandler<T> handler,
+                                                                    Semaphore permits) {
+        CompletableFuture<HttpResponse<T>> future;
+        try {
+            future = client.sendAsync(request, handler);
+        } catch (RuntimeException | Error e) {
+            permits.release();
+            throw e;
+        }
+        return future.whenComplete((response, error) -> permits.release());
+    }
+
+    // Method to allow at least this many concurrent exchanges per host from now on, e.g. one per virtual user
+    // of a load run; the limit is never lowered again
+    public synchronized void raiseHostLimit(int limit) {
+        if (limit <= hostLimit) {
+            return;
+        }
+        int extra = limit - hostLimit;
+        hostLimit = limit;
+        hostPermits.values().forEach(permits -> permits.release(extra));
+    }
+
+    public synchronized int getHostLimit() {
+        return hostLimit;
+    }
+
+    private Semaphore permitsFor(URI uri) {
+        String key = hostKey(uri);
+        Semaphore permits = hostPermits.get(key);
+        if (permits == null) {
+            // Created under the same lock as raiseHostLimit, so a new host never misses a raise
+            synchronized (this) {
+                permits = hostPermits.computeIfAbsent(key, ignored -> new Semaphore(hostLimit, true));
+            }
+        }
+        return permits;
+    }
+
+    static String hostKey(URI uri) {
+        int port = uri.getPort();
+        if (port == -1) {
+            port = "https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+        }
+        return uri.getHost() + ":" + port;
+    }
+
+    private static void applyPoolProperties(Config config) {
+        if (System.getProperty(POOL_SIZE_PROPERTY) == null) {
+            System.setProperty(POOL_SIZE_PROPERTY, String.valueOf(config.maxPoolSize));
+        }
+        if (System.getProperty(KEEPALIVE_PROPERTY) == null) {
+            System.setProperty(KEEPALIVE_PROPERTY, String.valueOf(Math.max(1, config.idleTimeout.toSeconds())));
+        }
+    }
+
+    private static SSLContext createSslContext(boolean relaxed) {
+        try {
+            if (!relaxed) {
+                return SSLContext.getDefault();
+            }
+            SSLContext context = SSLContext.getInstance("TLS");
+            context.init(null, new TrustManager[]{new TrustAllManager()}, new SecureRandom());
+            return context;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to initialise TLS context", e);
+        }
+    }
+
+    static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    // Same relaxed validation the client has always used for self-signed test environments
+    private static final class TrustAllManager implements X509TrustManager {
+        public java.security.cert.X509Certificate[] getAcceptedIssuers() {
+            return new java.security.cert.X509Certificate[0];
+        }
+
+        public void checkClientTrusted(java.security.cert.X509Certificate[] certs, String authType) {
+        }
+
+        public void checkServerTrusted(java.security.cert.X509Certificate[] certs, String authType) {
+        }
+    }
+
+    // Engine settings; defaults match the previous per-click client (10s connect). Certificates are
+    // validated unless relaxedTls is set, as RestClient does for the trust-all behaviour it always had.
+    public static final class Config {
+        private int maxConnectionsPerHost = 16;
+        private int maxPoolSize = 0;
+        private Duration idleTimeout = Duration.ofSeconds(30);
+        private Duration connectTimeout = Duration.ofSeconds(10);
+        private boolean preferHttp2 = true;
+        private boolean relaxedTls = false;
+        private boolean followRedirects = false;
+
+        // Maximum concurrent exchanges (and therefore HTTP/1.1 connections) per host:port
+        public Config maxConnectionsPerHost(int max) {
+            if (max < 1) {
+                throw new IllegalArgumentException("maxConnectionsPerHost must be positive");
+            }
+            this.maxConnectionsPerHost = max;
+            return this;
+        }
+
+        // Upper bound on idle connections kept in the pool across all hosts; 0 means unbounded
+        public Config maxPoolSize(int max) {
+            this.maxPoolSize = Math.max(0, max);
+            return this;
+        }
+
+        // Idle connections are evicted from the pool after this long
+        public Config idleTimeout(Duration timeout) {
+            this.idleTimeout = timeout;
+            return this;
+        }
+
+        public Config connectTimeout(Duration timeout) {
+            this.connectTimeout = timeout;
+            return this;
+        }
+
+        public Config preferHttp2(boolean preferHttp2) {
+            this.preferHttp2 = preferHttp2;
+            return this;
+        }
+
+        // Trust any server certificate; only for self-signed test environments
+        public Config relaxedTls(boolean relaxedTls) {
+            this.relaxedTls = relaxedTls;
+            return this;
+        }
+
+        public Config followRedirects(boolean followRedirects) {
+            this.followRedirects = followRedirects;
+            return this;
+        }
+
+        public int getMaxConnectionsPerHost() {
+            return maxConnectionsPerHost;
+        }
+
+        public int getMaxPoolSize() {
+            return maxPoolSize;
+        }
+
+        public Duration getIdleTimeout() {
+            return idleTimeout;
+        }
+
+        public Duration getConnectTimeout() {
+            return connectTimeout;
+        }
+
+        public boolean isPreferHttp2() {
+            return preferHttp2;
+        }
+    }
+}
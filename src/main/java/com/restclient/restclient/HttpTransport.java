@@ -0,0 +1,16 @@
+package com.restclient.restclient;
+
+import java.io.IOException;
+
+// A backend that sends an ApiRequest exactly once and returns its response
+public interface HttpTransport {
+
+    String getName();
+
+    ApiResponse execute(ApiRequest request) throws IOException, InterruptedException;
+
+    // Called before a load run with its number of users, so a backend that limits concurrent sends per host
+    // can allow at least that many
+    default void reserveConcurrency(int concurrency) {
+    }
+}
@@ -0,0 +1,141 @@
+package com.restclient.restclient;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+// Handle for one request running on the RequestExecutor; state changes are reported from worker threads
+public class InFlightRequest {
+    private static final AtomicLong IDS = new AtomicLong();
+
+    private final long id = IDS.incrementAndGet();
+    private final ApiRequest request;
+    private final String transportName;
+    private final long submittedAt = System.nanoTime();
+    private final AtomicReference<RequestState> state = new AtomicReference<>(RequestState.QUEUED);
+    private final CompletableFuture<ApiResponse> result = new CompletableFuture<>();
+    private final CopyOnWriteArrayList<Consumer<InFlightRequest>> listeners = new CopyOnWriteArrayList<>();
+    private volatile Future<?> task;
+    private volatile long finishedAt;
+    private volatile Throwable error;
+
+    InFlightRequest(ApiRequest request, String transportName) {
+        this.request = request;
+        this.transportName = transportName;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public ApiRequest getRequest() {
+        return request;
+    }
+
+    public RequestState getState() {
+        return state.get();
+    }
+
+    // Completes with the response, or exceptionally on failure, cancellation or timeout
+    public CompletableFuture<ApiResponse> result() {
+        return result;
+    }
+
+    // Failure cause for FAILED and TIMED_OUT requests
+    public Throwable getError() {
+        return error;
+    }
+
+    // Called on the thread that changed the state
+    public void addListener(Consumer<InFlightRequest> listener) {
+        listeners.add(listener);
+    }
+
+    public boolean cancel() {
+        if (!finish(RequestState.CANCELLED)) {
+            return false;
+        }
+        interruptTask();
+        result.cancel(false);
+        return true;
+    }
+
+    public long getElapsedMillis() {
+        long end = finishedAt == 0 ? System.nanoTime() : finishedAt;
+        return (end - submittedAt) / 1_000_000;
+    }
+
+    void attach(Future<?> task) {
+        this.task = task;
+        if (state.get().isDone()) {
+            interruptTask();
+        }
+    }
+
+    boolean start() {
+        if (state.compareAndSet(RequestState.QUEUED, RequestState.RUNNING)) {
+            notifyListeners();
+            return true;
+        }
+        return false;
+    }
+
+    void complete(ApiResponse response) {
+        if (finish(RequestState.COMPLETED)) {
+            result.complete(response);
+        }
+    }
+
+    void fail(Throwable cause) {
+        if (finish(RequestState.FAILED, cause)) {
+            result.completeExceptionally(cause);
+        }
+    }
+
+    void timeout(long timeoutMillis) {
+        TimeoutException cause = new TimeoutException("Request timed out after " + timeoutMillis + " ms");
+        if (finish(RequestState.TIMED_OUT, cause)) {
+            interruptTask();
+            result.completeExceptionally(cause);
+        }
+    }
+
+    private boolean finish(RequestState target) {
+        return finish(target, null);
+    }
+
+    private boolean finish(RequestState target, Throwable cause) {
+        RequestState current = state.get();
+        while (!current.isDone()) {
+            if (state.compareAndSet(current, target)) {
+                error = cause;
+                finishedAt = System.nanoTime();
+                notifyListeners();
+                return true;
+            }
+            current = state.get();
+        }
+        return false;
+    }
+
+    private void interruptTask() {
+        Future<?> running = task;
+        if (running != null) {
+            running.cancel(true);
+        }
+    }
+
+    private void notifyListeners() {
+        listeners.forEach(listener -> listener.accept(this));
+    }
+
+    @Override
+    public String toString() {
+        return "#" + id + " [" + state.get() + "] " + request.getMethod() + " " + request.getUrl()
+                + " (" + transportName + ", " + getElapsedMillis() + " ms)";
+    }
+}
@@ -0,0 +1,143 @@
+package com.restclient.restclient;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Sends requests through the shared JDK HttpClient engine
+public class JdkHttpTransport implements HttpTransport {
+    private final HttpClientEngine engine;
+
+    public JdkHttpTransport(HttpClientEngine engine) {
+        this.engine = engine;
+    }
+
+    @Override
+    public String getName() {
+        return TransportType.JDK_HTTP_CLIENT.toString();
+    }
+
+    @Override
+    public ApiResponse execute(ApiRequest request) throws IOException, InterruptedException {
+        RequestLogger logger = RequestLogger.shared();
+        MetricsRegistry metrics = MetricsRegistry.shared();
+        try {
+            ApiResponse response = send(request);
+            metrics.record(request, response.getTiming());
+            if (logger.isEnabled()) {
+                logger.logExchange(request, response);
+            }
+            return response;
+        } catch (IOException | RuntimeException e) {
+            metrics.recordFailure(request);
+            logger.logFailure(request, e);
+            throw e;
+        }
+    }
+
+    // Raises the engine's per-host limit, which otherwise caps a load run at 16 sends in flight per host
+    @Override
+    public void reserveConcurrency(int concurrency) {
+        engine.raiseHostLimit(concurrency);
+    }
+
+    private ApiResponse send(ApiRequest request) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        HttpRequest httpRequest = toHttpRequest(request);
+        long prepareNanos = System.nanoTime() - start;
+
+        // Record when the status line and headers arrive, before the body is read
+        long[] headersAt = new long[1];
+        List<DecodingBodySubscriber<ResponseBody>> decoding = new ArrayList<>(1);
+        boolean decode = Compression.shared().isNegotiate();
+        HttpResponse.BodyHandler<ResponseBody> spooling = SpoolingBodySubscriber.handler();
+        HttpResponse.BodyHandler<ResponseBody> handler = responseInfo -> {
+            headersAt[0] = System.nanoTime();
+            HttpResponse.BodySubscriber<ResponseBody> subscriber = spooling.apply(responseInfo);
+            DecodingBodySubscriber<ResponseBody> decoder = decode ? DecodingBodySubscriber.wrap(responseInfo, subscriber) : null;
+            if (decoder == null) {
+                return subscriber;
+            }
+            decoding.add(decoder);
+            return decoder;
+        };
+        String hostKey = HttpClientEngine.hostKey(httpRequest.uri());
+        ConnectionStats.Host host = ConnectionStats.shared().host(hostKey);
+        host.requestStarted();
+        // The clock restarts once the host permit is granted: waiting for one is queueing on our side, not latency
+        long[] dispatchedAt = new long[1];
+        HttpResponse<ResponseBody> response;
+        try {
+            response = engine.send(httpRequest, handler, permitted -> dispatchedAt[0] = permitted);
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            host.requestFinished(null, null);
+            throw e;
+        }
+        long end = System.nanoTime();
+        long dispatched = dispatchedAt[0];
+
+        // The response carries the session of the connection it came over. The first exchange to complete on
+        // a connection is the one that opened it and takes the handshake times; every later one reused it.
+        long connectNanos = -1;
+        long tlsNanos = -1;
+        Boolean reused = null;
+        TlsConnection connection = TlsConnection.of(response.sslSession());
+        if (connection != null) {
+            boolean opened = connection.claimOpening();
+            connectNanos = opened ? connection.getConnectNanos() : 0;
+            tlsNanos = opened ? connection.getTlsNanos() : 0;
+            reused = !opened;
+        }
+        host.requestFinished(protocolName(response.version()), reused);
+        // The client resolves the host itself before picking a connection, so DNS is inside TTFB; timing it
+        // here would take a second lookup on every send, so it is reported as unmeasured
+        RequestTiming timing = new RequestTiming(-1, connectNanos, tlsNanos, prepareNanos,
+                headersAt[0] - dispatched, end - headersAt[0], prepareNanos + end - dispatched);
+        if (decoding.isEmpty()) {
+            return new ApiResponse(response.statusCode(), protocolName(response.version()),
+                    response.headers().map(), response.body(), timing, getName());
+        }
+        // The headers have to describe the body as kept, or the cache and mock server would replay
+        // Content-Encoding on plain bytes
+        Map<String, List<String>> headers = new LinkedHashMap<>(response.headers().map());
+        String contentEncoding = response.headers().firstValue("Content-Encoding").orElse(null);
+        headers.keySet().removeIf(name -> name.equalsIgnoreCase("Content-Encoding")
+                || name.equalsIgnoreCase("Content-Length"));
+        return new ApiResponse(response.statusCode(), protocolName(response.version()), headers, response.body(),
+                timing, getName()).withContentEncoding(contentEncoding, decoding.get(0).getWireSize());
+    }
+
+    // Method to map the request model onto a JDK HttpRequest
+    public static HttpRequest toHttpRequest(ApiRequest request) {
+        Compression compression = Compression.shared();
+        byte[] compressed = compression.compressRequestBody(request);
+        HttpRequest.BodyPublisher publisher = compressed != null
+                ? HttpRequest.BodyPublishers.ofByteArray(compressed)
+                : request.hasBody() ? HttpRequest.BodyPublishers.ofString(request.getBody())
+                : HttpRequest.BodyPublishers.noBody();
+        HttpRequest.Builder requestBuilder = HttpRequest.newBuilder()
+                .uri(URI.create(request.buildUrlWithParams()))
+                .method(request.getMethod(), publisher);
+        if (request.getTimeout() != null) {
+            requestBuilder.timeout(request.getTimeout());
+        }
+        request.addHeadersToRequest(requestBuilder::header);
+        if (compressed != null) {
+            requestBuilder.header("Content-Encoding", "gzip");
+        }
+        if (compression.isNegotiate() && !Compression.hasHeader(request, "Accept-Encoding")) {
+            requestBuilder.header("Accept-Encoding", Compression.ACCEPT_ENCODING);
+        }
+        return requestBuilder.build();
+    }
+
+    static String protocolName(HttpClient.Version version) {
+        return version == HttpClient.Version.HTTP_2 ? "HTTP/2" : "HTTP/1.1";
+    }
+}
@@ -0,0 +1,359 @@
+package com.restclient.restclient;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Streaming (StAX) reader for JMeter .jmx plans. Only the elements the client can run are kept:
+// ThreadGroup + LoopController, HTTPSamplerProxy, HeaderManager and Arguments (User Defined Variables).
+public class JmxPlanImporter {
+    private static final String HASH_TREE = "hashTree";
+
+    private enum Kind { CONTAINER, TEST_PLAN, THREAD_GROUP, SAMPLER, HEADER_MANAGER, ARGUMENTS, OTHER }
+
+    // A test element together with the elements of the hashTree that follows it
+    private static final class Node {
+        private final Kind kind;
+        private final String testName;
+        private final boolean enabled;
+        private final Map<String, String> properties = new HashMap<>();
+        private final List<String[]> entries = new ArrayList<>();
+        private final List<Node> children = new ArrayList<>();
+
+        private Node(Kind kind, String testName, boolean enabled) {
+            this.kind = kind;
+            this.testName = testName;
+            this.enabled = enabled;
+        }
+    }
+
+    public TestPlan importPlan(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return importPlan(in, file.getFileName().toString());
+        }
+    }
+
+    public TestPlan importPlan(InputStream in, String sourceName) throws IOException {
+        try {
+            Node root = parse(in);
+            return buildPlan(root, sourceName);
+        } catch (XMLStreamException e) {
+            throw new IOException("Invalid JMX file " + sourceName + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static Node parse(InputStream in) throws XMLStreamException {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        XMLStreamReader reader = factory.createXMLStreamReader(in, StandardCharsets.UTF_8.name());
+
+        Node root = new Node(Kind.CONTAINER, "", true);
+        Deque<Node> scopes = new ArrayDeque<>();
+        Deque<String> open = new ArrayDeque<>();
+        Node current = null;
+        Node lastClosed = null;
+        String entryType = null;
+        Map<String, String> entry = null;
+
+        try {
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String tag = reader.getLocalName();
+                    if (HASH_TREE.equals(tag)) {
+                        // The hashTree holds the children of the element that just closed
+                        scopes.push(lastClosed != null ? lastClosed : root);
+                        lastClosed = null;
+                        open.push(tag);
+                    } else if (current == null && HASH_TREE.equals(open.peek())) {
+                        current = new Node(kindOf(tag), reader.getAttributeValue(null, "testname"),
+                                !"false".equals(reader.getAttributeValue(null, "enabled")));
+                        Node scope = scopes.peek();
+                        if (scope != null) {
+                            scope.children.add(current);
+                        }
+                        open.push(tag);
+                    } else if (isProperty(tag)) {
+                        String name = reader.getAttributeValue(null, "name");
+                        String value = reader.getElementText();
+                        if (current != null && name != null) {
+                            if (entry != null) {
+                                entry.put(name, value);
+                            } else {
+                                current.properties.put(name, value);
+                            }
+                        }
+                    } else {
+                        if ("elementProp".equals(tag) && isEntryType(reader.getAttributeValue(null, "elementType"))) {
+                            entryType = reader.getAttributeValue(null, "elementType");
+                            entry = new HashMap<>();
+                        }
+                        open.push(tag);
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    String tag = open.pop();
+                    if (HASH_TREE.equals(tag)) {
+                        scopes.pop();
+                    } else if (current != null && HASH_TREE.equals(open.peek())) {
+                        lastClosed = current;
+                        current = null;
+                    } else if ("elementProp".equals(tag) && entry != null) {
+                        addEntry(current, entryType, entry);
+                        entry = null;
+                        entryType = null;
+                    }
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return root;
+    }
+
+    private static void addEntry(Node node, String entryType, Map<String, String> entry) {
+        if (node == null) {
+            return;
+        }
+        if ("Header".equals(entryType)) {
+            node.entries.add(new String[]{entry.get("Header.name"), entry.getOrDefault("Header.value", "")});
+        } else {
+            node.entries.add(new String[]{entry.get("Argument.name"), entry.getOrDefault("Argument.value", "")});
+        }
+    }
+
+    private static Kind kindOf(String tag) {
+        switch (tag) {
+            case "TestPlan":
+                return Kind.TEST_PLAN;
+            case "ThreadGroup":
+            case "SetupThreadGroup":
+            case "PostThreadGroup":
+                return Kind.THREAD_GROUP;
+            case "HTTPSamplerProxy":
+            case "HTTPSampler":
+                return Kind.SAMPLER;
+            case "HeaderManager":
+                return Kind.HEADER_MANAGER;
+            case "Arguments":
+                return Kind.ARGUMENTS;
+            default:
+                return Kind.OTHER;
+        }
+    }
+
+    private static boolean isProperty(String tag) {
+        return "stringProp".equals(tag) || "intProp".equals(tag) || "longProp".equals(tag)
+                || "boolProp".equals(tag) || "doubleProp".equals(tag) || "floatProp".equals(tag);
+    }
+
+    private static boolean isEntryType(String elementType) {
+        return "Header".equals(elementType) || "HTTPArgument".equals(elementType) || "Argument".equals(elementType);
+    }
+
+    private TestPlan buildPlan(Node root, String sourceName) {
+        Map<String, String> variables = new LinkedHashMap<>();
+        collectVariables(root, variables);
+
+        String planName = sourceName;
+        List<LoadScenario> groups = new ArrayList<>();
+        for (Node plan : root.children) {
+            if (plan.kind == Kind.TEST_PLAN && plan.testName != null && !plan.testName.isEmpty()) {
+                planName = plan.testName;
+            }
+            collectThreadGroups(plan, new ArrayList<>(), variables, groups);
+        }
+        return new TestPlan(planName, variables, groups);
+    }
+
+    // User Defined Variables apply plan-wide in JMeter, so they are gathered up front
+    private static void collectVariables(Node node, Map<String, String> variables) {
+        if (!node.enabled) {
+            return;
+        }
+        if (node.kind == Kind.TEST_PLAN || node.kind == Kind.ARGUMENTS) {
+            for (String[] argument : node.entries) {
+                if (argument[0] != null && !argument[0].isEmpty()) {
+                    variables.put(argument[0], argument[1]);
+                }
+            }
+        }
+        for (Node child : node.children) {
+            collectVariables(child, variables);
+        }
+    }
+
+    private void collectThreadGroups(Node node, List<Node> ancestors, Map<String, String> variables,
+                                     List<LoadScenario> groups) {
+        if (!node.enabled) {
+            return;
+        }
+        if (node.kind == Kind.THREAD_GROUP) {
+            List<ApiRequest> requests = new ArrayList<>();
+            List<Node> path = new ArrayList<>(ancestors);
+            path.add(node);
+            collectSamplers(node, path, variables, requests);
+            if (!requests.isEmpty()) {
+                groups.add(new LoadScenario(new RequestCollection(node.testName, requests),
+                        toLoadConfig(node, variables)));
+            }
+            return;
+        }
+        List<Node> path = new ArrayList<>(ancestors);
+        path.add(node);
+        for (Node child : node.children) {
+            collectThreadGroups(child, path, variables, groups);
+        }
+    }
+
+    private void collectSamplers(Node node, List<Node> path, Map<String, String> variables, List<ApiRequest> requests) {
+        for (Node child : node.children) {
+            if (!child.enabled) {
+                continue;
+            }
+            List<Node> childPath = new ArrayList<>(path);
+            childPath.add(child);
+            if (child.kind == Kind.SAMPLER) {
+                requests.add(toRequest(child, childPath, variables));
+            } else if (child.kind == Kind.OTHER) {
+                // Logic controllers (Simple, Transaction, ...) just nest more samplers
+                collectSamplers(child, childPath, variables, requests);
+            }
+        }
+    }
+
+    private static ApiRequest toRequest(Node sampler, List<Node> path, Map<String, String> variables) {
+        String method = resolve(sampler.properties.getOrDefault("HTTPSampler.method", "GET"), variables);
+        ApiRequest.Builder builder = ApiRequest.builder()
+                .name(resolve(sampler.testName, variables))
+                .method(method.isEmpty() ? "GET" : method.toUpperCase())
+                .url(buildUrl(sampler, variables));
+
+        // Header managers closer to the sampler override same-named headers further out
+        Map<String, String[]> headers = new LinkedHashMap<>();
+        for (Node scope : path) {
+            for (Node child : scope.children) {
+                if (child.kind == Kind.HEADER_MANAGER && child.enabled) {
+                    for (String[] header : child.entries) {
+                        if (header[0] != null && !header[0].isEmpty()) {
+                            headers.put(header[0].toLowerCase(), new String[]{
+                                    resolve(header[0], variables), resolve(header[1], variables)});
+                        }
+                    }
+                }
+            }
+        }
+        headers.values().forEach(header -> builder.header(header[0], header[1]));
+
+        if ("true".equals(sampler.properties.get("HTTPSampler.postBodyRaw"))) {
+            builder.body(sampler.entries.stream()
+                    .map(argument -> resolve(argument[1], variables))
+                    .collect(Collectors.joining()));
+        } else if (isFormMethod(method) && !sampler.entries.isEmpty()) {
+            builder.body(sampler.entries.stream()
+                    .map(argument -> encode(resolve(argument[0], variables)) + "=" + encode(resolve(argument[1], variables)))
+                    .collect(Collectors.joining("&")));
+            if (!headers.containsKey("content-type")) {
+                builder.header("Content-Type", "application/x-www-form-urlencoded");
+            }
+        } else {
+            for (String[] argument : sampler.entries) {
+                if (argument[0] != null && !argument[0].isEmpty()) {
+                    builder.queryParam(resolve(argument[0], variables), resolve(argument[1], variables));
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    private static String buildUrl(Node sampler, Map<String, String> variables) {
+        String path = resolve(sampler.properties.getOrDefault("HTTPSampler.path", ""), variables);
+        if (path.startsWith("http://") || path.startsWith("https://")) {
+            return path;
+        }
+        String protocol = resolve(sampler.properties.getOrDefault("HTTPSampler.protocol", ""), variables);
+        String domain = resolve(sampler.properties.getOrDefault("HTTPSampler.domain", ""), variables);
+        String port = resolve(sampler.properties.getOrDefault("HTTPSampler.port", ""), variables);
+
+        StringBuilder url = new StringBuilder(protocol.isEmpty() ? "http" : protocol.toLowerCase())
+                .append("://").append(domain.isEmpty() ? "localhost" : domain);
+        if (!port.isEmpty()) {
+            url.append(':').append(port);
+        }
+        if (!path.startsWith("/")) {
+            url.append('/');
+        }
+        return url.append(path).toString();
+    }
+
+    private static LoadTestConfig toLoadConfig(Node group, Map<String, String> variables) {
+        LoadTestConfig config = new LoadTestConfig()
+                .virtualUsers(Math.max(1, parseInt(group, "ThreadGroup.num_threads", variables, 1)))
+                .rampUp(Duration.ofSeconds(Math.max(0, parseInt(group, "ThreadGroup.ramp_time", variables, 0))));
+        int loops = parseInt(group, "LoopController.loops", variables, 1);
+        boolean forever = "true".equals(group.properties.get("LoopController.continue_forever"));
+        config.loops(loops < 0 || forever ? -1 : Math.max(1, loops));
+        if ("true".equals(group.properties.get("ThreadGroup.scheduler"))) {
+            int duration = parseInt(group, "ThreadGroup.duration", variables, 0);
+            if (duration > 0) {
+                config.duration(Duration.ofSeconds(duration));
+            }
+        }
+        return config;
+    }
+
+    private static int parseInt(Node node, String property, Map<String, String> variables, int defaultValue) {
+        String value = node.properties.get(property);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(resolve(value, variables).trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    private static boolean isFormMethod(String method) {
+        return "POST".equalsIgnoreCase(method) || "PUT".equalsIgnoreCase(method) || "PATCH".equalsIgnoreCase(method);
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    // Method to expand ${var} references and the ${__P(name,default)} property function
+    static String resolve(String text, Map<String, String> variables) {
+        if (text == null) {
+            return "";
+        }
+        return Template.ofDollar(text).render(expression -> evaluate(expression, variables));
+    }
+
+    private static String evaluate(String expression, Map<String, String> variables) {
+        if ((expression.startsWith("__P(") || expression.startsWith("__property(")) && expression.endsWith(")")) {
+            String arguments = expression.substring(expression.indexOf('(') + 1, expression.length() - 1);
+            int comma = arguments.indexOf(',');
+            String name = comma < 0 ? arguments.trim() : arguments.substring(0, comma).trim();
+            String defaultValue = comma < 0 ? "" : arguments.substring(comma + 1).trim();
+            return System.getProperty(name, defaultValue);
+        }
+        return variables.get(expression);
+    }
+}
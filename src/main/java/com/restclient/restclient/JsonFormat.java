@@ -0,0 +1,26 @@
+package com.restclient.restclient;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParser;
+
+// Shared pretty printer, so every view reuses one Gson instance
+public final class JsonFormat {
+    private static final Gson PRETTY_GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    private JsonFormat() {
+    }
+
+    // Pretty-print JSON text, leave anything else untouched
+    public static String prettyPrint(String text) {
+        String trimmed = text.trim();
+        if (!trimmed.startsWith("{") && !trimmed.startsWith("[")) {
+            return text;
+        }
+        try {
+            return PRETTY_GSON.toJson(JsonParser.parseString(text));
+        } catch (RuntimeException e) {
+            return text;
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.restclient.restclient;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// Byte-level JSON tokenizer over a (possibly memory-mapped) buffer. It never builds a document:
+// callers ask for the members of one container at a time and get back offsets into the buffer,
+// so expanding a node only scans that node's own bytes.
+public class JsonScanner {
+    public enum Kind { OBJECT, ARRAY, STRING, NUMBER, BOOLEAN, NULL }
+
+    private final ByteBuffer buffer;
+    private final int limit;
+
+    public JsonScanner(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.limit = buffer.limit();
+    }
+
+    // Offset of the top-level value, after any leading whitespace or byte order mark
+    public int rootOffset() {
+        int pos = 0;
+        if (limit >= 3 && (buffer.get(0) & 0xFF) == 0xEF && (buffer.get(1) & 0xFF) == 0xBB
+                && (buffer.get(2) & 0xFF) == 0xBF) {
+            pos = 3;
+        }
+        return skipWhitespace(pos);
+    }
+
+    // Quick check used to decide whether the tree view applies at all
+    public boolean looksLikeJson() {
+        int pos = rootOffset();
+        if (pos >= limit) {
+            return false;
+        }
+        byte first = buffer.get(pos);
+        return first == '{' || first == '[';
+    }
+
+    public Kind kindAt(int pos) {
+        if (pos >= limit) {
+            throw error("Unexpected end of input", pos);
+        }
+        switch (buffer.get(pos)) {
+            case '{':
+                return Kind.OBJECT;
+            case '[':
+                return Kind.ARRAY;
+            case '"':
+                return Kind.STRING;
+            case 't':
+            case 'f':
+                return Kind.BOOLEAN;
+            case 'n':
+                return Kind.NULL;
+            default:
+                byte b = buffer.get(pos);
+                if (b == '-' || (b >= '0' && b <= '9')) {
+                    return Kind.NUMBER;
+                }
+                throw error("Unexpected character '" + (char) b + "'", pos);
+        }
+    }
+
+    // Method to list the direct members of the object or array starting at pos
+    public Members members(int pos) {
+        Kind kind = kindAt(pos);
+        if (kind != Kind.OBJECT && kind != Kind.ARRAY) {
+            throw new IllegalArgumentException("Not a container at offset " + pos);
+        }
+        boolean object = kind == Kind.OBJECT;
+        byte close = object ? (byte) '}' : (byte) ']';
+        Members members = new Members();
+        int i = skipWhitespace(pos + 1);
+        if (i < limit && buffer.get(i) == close) {
+            return members;
+        }
+        while (true) {
+            int name = -1;
+            if (object) {
+                if (i >= limit || buffer.get(i) != '"') {
+                    throw error("Expected member name", i);
+                }
+                name = i;
+                i = skipWhitespace(skipString(i));
+                if (i >= limit || buffer.get(i) != ':') {
+                    throw error("Expected ':'", i);
+                }
+                i = skipWhitespace(i + 1);
+            }
+            int value = i;
+            i = skipWhitespace(skipValue(value));
+            members.add(name, value);
+            if (i >= limit) {
+                throw error("Unterminated " + (object ? "object" : "array"), pos);
+            }
+            byte next = buffer.get(i);
+            if (next == close) {
+                return members;
+            }
+            if (next != ',') {
+                throw error("Expected ',' or '" + (char) close + "'", i);
+            }
+            i = skipWhitespace(i + 1);
+        }
+    }
+
+    // Offset just past the value starting at pos; nested containers are skipped by bracket depth
+    public int skipValue(int pos) {
+        Kind kind = kindAt(pos);
+        if (kind == Kind.STRING) {
+            return skipString(pos);
+        }
+        if (kind != Kind.OBJECT && kind != Kind.ARRAY) {
+            return skipLiteral(pos);
+        }
+        int depth = 0;
+        int i = pos;
+        while (i < limit) {
+            byte b = buffer.get(i);
+            if (b == '"') {
+                i = skipString(i);
+                continue;
+            }
+            if (b == '{' || b == '[') {
+                depth++;
+            } else if (b == '}' || b == ']') {
+                depth--;
+                if (depth == 0) {
+                    return i + 1;
+                }
+            }
+            i++;
+        }
+        throw error("Unterminated " + kind.name().toLowerCase(), pos);
+    }
+
+    // Decoded string value (or member name) at pos, cut off after maxChars
+    public String readString(int pos, int maxChars) {
+        int end = skipString(pos) - 1;
+        int length = Math.min(end - (pos + 1), maxChars * 4);
+        byte[] raw = new byte[length];
+        for (int k = 0; k < length; k++) {
+            raw[k] = buffer.get(pos + 1 + k);
+        }
+        String text = unescape(new String(raw, StandardCharsets.UTF_8));
+        boolean truncated = length < end - (pos + 1) || text.length() > maxChars;
+        return truncated ? text.substring(0, Math.min(text.length(), maxChars)) + "..." : text;
+    }
+
+    // Raw text of a number, boolean or null
+    public String readLiteral(int pos) {
+        int end = skipLiteral(pos);
+        byte[] raw = new byte[end - pos];
+        for (int k = 0; k < raw.length; k++) {
+            raw[k] = buffer.get(pos + k);
+        }
+        return new String(raw, StandardCharsets.US_ASCII);
+    }
+
+    private int skipString(int pos) {
+        int i = pos + 1;
+        while (i < limit) {
+            byte b = buffer.get(i);
+            if (b == '\\') {
+                i += 2;
+            } else if (b == '"') {
+                return i + 1;
+            } else {
+                i++;
+            }
+        }
+        throw error("Unterminated string", pos);
+    }
+
+    private int skipLiteral(int pos) {
+        int i = pos;
+        while (i < limit) {
+            byte b = buffer.get(i);
+            if (b == ',' || b == '}' || b == ']' || b == ' ' || b == '\n' || b == '\r' || b == '\t') {
+                break;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    private int skipWhitespace(int pos) {
+        int i = pos;
+        while (i < limit) {
+            byte b = buffer.get(i);
+            if (b != ' ' && b != '\n' && b != '\r' && b != '\t') {
+                break;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    private static String unescape(String text) {
+        if (text.indexOf('\\') < 0) {
+            return text;
+        }
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c != '\\' || i + 1 >= text.length()) {
+                sb.append(c);
+                continue;
+            }
+            char escaped = text.charAt(++i);
+            switch (escaped) {
+                case 'n':
+                    sb.append('\n');
+                    break;
+                case 't':
+                    sb.append('\t');
+                    break;
+                case 'r':
+                    sb.append('\r');
+                    break;
+                case 'b':
+                    sb.append('\b');
+                    break;
+                case 'f':
+                    sb.append('\f');
+                    break;
+                case 'u':
+                    if (i + 4 < text.length()) {
+                        try {
+                            sb.append((char) Integer.parseInt(text.substring(i + 1, i + 5), 16));
+                            i += 4;
+                            break;
+                        } catch (NumberFormatException ignored) {
+                            // Fall through and keep the escape as written
+                        }
+                    }
+                    sb.append("\\u");
+                    break;
+                default:
+                    sb.append(escaped);
+                    break;
+            }
+        }
+        return sb.toString();
+    }
+
+    private static IllegalArgumentException error(String message, int pos) {
+        return new IllegalArgumentException(message + " at offset " + pos);
+    }
+
+    // Offsets of a container's members; names are -1 for array elements
+    public static final class Members {
+        private int[] names = new int[8];
+        private int[] values = new int[8];
+        private int size;
+
+        private void add(int name, int value) {
+            if (size == values.length) {
+                names = java.util.Arrays.copyOf(names, size * 2);
+                values = java.util.Arrays.copyOf(values, size * 2);
+            }
+            names[size] = name;
+            values[size] = value;
+            size++;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public int nameAt(int index) {
+            return names[index];
+        }
+
+        public int valueAt(int index) {
+            return values[index];
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.restclient.restclient;
+
+import javafx.application.Platform;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.scene.control.TreeItem;
+import javafx.scene.control.TreeView;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Collapsible JSON tree whose nodes are created only when their parent is expanded. Member scanning
+// runs off the FX thread and large containers are split into ranges of CHUNK_SIZE children.
+public class JsonTreeView extends TreeView<JsonTreeView.Node> {
+    private static final int CHUNK_SIZE = 100;
+    private static final int MAX_VALUE_CHARS = 200;
+    private static final ExecutorService SCANNER = Executors.newSingleThreadExecutor(
+            HttpClientEngine.daemonThreads("json-scan"));
+
+    private ResponseBody body;
+
+    public JsonTreeView() {
+        setShowRoot(true);
+    }
+
+    // Method to show a body as a tree; non-JSON bodies get a single explanatory node
+    public void showBody(ResponseBody body) {
+        if (body == this.body) {
+            return;
+        }
+        this.body = body;
+        if (body == null) {
+            setRoot(null);
+            return;
+        }
+        try {
+            JsonScanner scanner = new JsonScanner(body.map());
+            if (!scanner.looksLikeJson()) {
+                setRoot(message("Response is not a JSON object or array"));
+                return;
+            }
+            JsonItem root = new JsonItem(scanner, "", -1, scanner.rootOffset());
+            setRoot(root);
+            root.setExpanded(true);
+        } catch (IOException | IllegalArgumentException e) {
+            setRoot(message("Unable to read response: " + e.getMessage()));
+        }
+    }
+
+    private static TreeItem<Node> message(String text) {
+        return new TreeItem<>(new Node(text));
+    }
+
+    // Display value of a tree row
+    public static final class Node {
+        private final String label;
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    // A JSON value; containers scan their members the first time they are expanded
+    private static final class JsonItem extends TreeItem<Node> {
+        private final JsonScanner scanner;
+        private final String name;
+        private final int offset;
+        private final JsonScanner.Kind kind;
+        private boolean loading;
+
+        JsonItem(JsonScanner scanner, String name, int index, int offset) {
+            this.scanner = scanner;
+            this.name = index >= 0 ? "[" + index + "]" : name;
+            this.offset = offset;
+            this.kind = scanner.kindAt(offset);
+            setValue(new Node(label(null)));
+            if (isContainer()) {
+                getChildren().add(message("Loading..."));
+                expandedProperty().addListener((observable, wasExpanded, expanded) -> {
+                    if (expanded) {
+                        load();
+                    }
+                });
+            }
+        }
+
+        @Override
+        public boolean isLeaf() {
+            return !isContainer();
+        }
+
+        private boolean isContainer() {
+            return kind == JsonScanner.Kind.OBJECT || kind == JsonScanner.Kind.ARRAY;
+        }
+
+        private void load() {
+            if (loading) {
+                return;
+            }
+            loading = true;
+            SCANNER.execute(() -> {
+                try {
+                    JsonScanner.Members members = scanner.members(offset);
+                    List<TreeItem<Node>> children = members.size() > CHUNK_SIZE
+                            ? chunks(members)
+                            : items(members, 0, members.size());
+                    Platform.runLater(() -> {
+                        setValue(new Node(label(members.size())));
+                        getChildren().setAll(children);
+                    });
+                } catch (RuntimeException e) {
+                    List<TreeItem<Node>> error = List.of(message("Invalid JSON: " + e.getMessage()));
+                    Platform.runLater(() -> getChildren().setAll(error));
+                }
+            });
+        }
+
+        private List<TreeItem<Node>> chunks(JsonScanner.Members members) {
+            List<TreeItem<Node>> chunks = new ArrayList<>();
+            for (int from = 0; from < members.size(); from += CHUNK_SIZE) {
+                chunks.add(new ChunkItem(this, members, from, Math.min(members.size(), from + CHUNK_SIZE)));
+            }
+            return chunks;
+        }
+
+        private List<TreeItem<Node>> items(JsonScanner.Members members, int from, int to) {
+            List<TreeItem<Node>> items = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                int nameOffset = members.nameAt(i);
+                String childName = nameOffset >= 0 ? scanner.readString(nameOffset, MAX_VALUE_CHARS) : null;
+                items.add(new JsonItem(scanner, childName, nameOffset >= 0 ? -1 : i, members.valueAt(i)));
+            }
+            return items;
+        }
+
+        private String label(Integer count) {
+            String prefix = name.isEmpty() ? "" : name + ": ";
+            switch (kind) {
+                case OBJECT:
+                    return prefix + (count == null ? "{...}" : "{" + count + "}");
+                case ARRAY:
+                    return prefix + (count == null ? "[...]" : "[" + count + "]");
+                case STRING:
+                    return prefix + "\"" + scanner.readString(offset, MAX_VALUE_CHARS) + "\"";
+                default:
+                    return prefix + scanner.readLiteral(offset);
+            }
+        }
+    }
+
+    // A range of a large container's members, materialised when expanded
+    private static final class ChunkItem extends TreeItem<Node> {
+        ChunkItem(JsonItem parent, JsonScanner.Members members, int from, int to) {
+            super(new Node("[" + from + " ... " + (to - 1) + "]"));
+            getChildren().add(message("Loading..."));
+            expandedProperty().addListener(new ChangeListener<Boolean>() {
+                @Override
+                public void changed(ObservableValue<? extends Boolean> observable,
+                                    Boolean wasExpanded, Boolean expanded) {
+                    if (expanded) {
+                        observable.removeListener(this);
+                        getChildren().setAll(parent.items(members, from, to));
+                    }
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.restclient.restclient;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// A named sequence of requests each virtual user runs in order, plus the load shape to run it with
+public class LoadScenario {
+    private final String name;
+    private final List<ApiRequest> requests;
+    private final LoadTestConfig config;
+
+    public LoadScenario(String name, List<ApiRequest> requests, LoadTestConfig config) {
+        if (requests.isEmpty()) {
+            throw new IllegalArgumentException("Scenario '" + name + "' has no requests");
+        }
+        this.name = name;
+        this.requests = Collections.unmodifiableList(new ArrayList<>(requests));
+        this.config = config;
+    }
+
+    public LoadScenario(RequestCollection collection, LoadTestConfig config) {
+        this(collection.getName(), collection.getRequests(), config);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<ApiRequest> getRequests() {
+        return requests;
+    }
+
+    public LoadTestConfig getConfig() {
+        return config;
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + requests.size() + " requests, " + config + ")";
+    }
+}
@@ -0,0 +1,157 @@
+package com.restclient.restclient;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Locale;
+
+// Load settings. By default a closed model: how many virtual users, how fast they start, how long they
+// loop. With an arrival rate it is an open model: iterations start on a schedule whether or not earlier
+// ones have finished, and the virtual users are only the pool that runs them.
+public class LoadTestConfig {
+    private int virtualUsers = 1;
+    private Duration rampUp = Duration.ZERO;
+    private int loops = 1;
+    private double targetRps = 0;
+    private Duration duration;
+    private Path dataFeed;
+    private boolean recycleFeed = true;
+    private double arrivalRate = 0;
+    private double rateIncrement = 0;
+    private Duration rateStepInterval;
+
+    public LoadTestConfig virtualUsers(int virtualUsers) {
+        if (virtualUsers < 1) {
+            throw new IllegalArgumentException("Virtual users must be at least 1");
+        }
+        this.virtualUsers = virtualUsers;
+        return this;
+    }
+
+    // Users are started evenly across this window
+    public LoadTestConfig rampUp(Duration rampUp) {
+        this.rampUp = rampUp == null ? Duration.ZERO : rampUp;
+        return this;
+    }
+
+    // Iterations of the scenario per user; -1 loops until stopped or the duration elapses
+    public LoadTestConfig loops(int loops) {
+        if (loops == 0 || loops < -1) {
+            throw new IllegalArgumentException("Loops must be positive, or -1 for infinite");
+        }
+        this.loops = loops;
+        return this;
+    }
+
+    // Aggregate request rate cap across all users; 0 means unthrottled
+    public LoadTestConfig targetRps(double targetRps) {
+        this.targetRps = Math.max(0, targetRps);
+        return this;
+    }
+
+    // Optional hard stop; null runs until every user finishes its loops
+    public LoadTestConfig duration(Duration duration) {
+        this.duration = duration;
+        return this;
+    }
+
+    // CSV or JSONL file; each scenario iteration takes the next row as template variables
+    public LoadTestConfig dataFeed(Path dataFeed) {
+        this.dataFeed = dataFeed;
+        return this;
+    }
+
+    // Start the feed over at its end; otherwise a user stops when no rows are left
+    public LoadTestConfig recycleFeed(boolean recycleFeed) {
+        this.recycleFeed = recycleFeed;
+        return this;
+    }
+
+    // Open model: start this many scenario iterations per second; 0 keeps the closed model. Needs a duration.
+    public LoadTestConfig arrivalRate(double arrivalRate) {
+        if (arrivalRate < 0 || Double.isNaN(arrivalRate)) {
+            throw new IllegalArgumentException("Arrival rate must be zero or positive");
+        }
+        this.arrivalRate = arrivalRate;
+        return this;
+    }
+
+    // Stepped arrival rate: add increment (which may be negative) every interval; null interval keeps it fixed
+    public LoadTestConfig rateStep(double increment, Duration interval) {
+        if (interval != null && (interval.isZero() || interval.isNegative())) {
+            throw new IllegalArgumentException("Rate step interval must be positive");
+        }
+        this.rateIncrement = interval == null ? 0 : increment;
+        this.rateStepInterval = interval;
+        return this;
+    }
+
+    public boolean isOpenModel() {
+        return arrivalRate > 0;
+    }
+
+    public double getArrivalRate() {
+        return arrivalRate;
+    }
+
+    public double getRateIncrement() {
+        return rateIncrement;
+    }
+
+    public Duration getRateStepInterval() {
+        return rateStepInterval;
+    }
+
+    // Arrivals per second in force this far into the run; a step never takes the rate below 0.1/s
+    public double arrivalRateAt(long elapsedNanos) {
+        if (rateStepInterval == null) {
+            return arrivalRate;
+        }
+        long steps = Math.max(0, elapsedNanos) / rateStepInterval.toNanos();
+        return Math.max(0.1, arrivalRate + steps * rateIncrement);
+    }
+
+    public int getVirtualUsers() {
+        return virtualUsers;
+    }
+
+    public Duration getRampUp() {
+        return rampUp;
+    }
+
+    public int getLoops() {
+        return loops;
+    }
+
+    public double getTargetRps() {
+        return targetRps;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public Path getDataFeed() {
+        return dataFeed;
+    }
+
+    public boolean isRecycleFeed() {
+        return recycleFeed;
+    }
+
+    @Override
+    public String toString() {
+        if (isOpenModel()) {
+            return arrivalRate + " arrivals/s"
+                    + (rateStepInterval != null ? String.format(Locale.ROOT, " %+.1f every %ds", rateIncrement,
+                    rateStepInterval.getSeconds()) : "")
+                    + ", up to " + virtualUsers + " users"
+                    + (duration != null ? ", " + duration.getSeconds() + "s" : "")
+                    + (dataFeed != null ? ", rows from " + dataFeed.getFileName() + (recycleFeed ? "" : " (once)") : "");
+        }
+        return virtualUsers + " users, ramp-up " + rampUp.getSeconds() + "s, loops "
+                + (loops < 0 ? "infinite" : String.valueOf(loops))
+                + (targetRps > 0 ? ", " + targetRps + " rps" : "")
+                + (duration != null ? ", max " + duration.getSeconds() + "s" : "")
+                + (dataFeed != null ? ", rows from " + dataFeed.getFileName() + (recycleFeed ? "" : " (once)") : "");
+    }
+}
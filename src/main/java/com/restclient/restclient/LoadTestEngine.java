@@ -0,0 +1,25 @@
+package com.restclient.restclient;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+// Built-in load generator; every user shares the transport and therefore the engine's connection pool
+public class LoadTestEngine {
+    private final HttpTransport transport;
+
+    public LoadTestEngine() {
+        this(TransportType.JDK_HTTP_CLIENT.create());
+    }
+
+    public LoadTestEngine(HttpTransport transport) {
+        this.transport = transport;
+    }
+
+    // Starts the scenario and returns immediately; the listener gets a snapshot every second and one at the end.
+    // Fails only if the configured data feed cannot be opened.
+    public LoadTestRun start(LoadScenario scenario, Consumer<LoadTestSnapshot> listener) throws IOException {
+        LoadTestRun run = new LoadTestRun(scenario, transport, listener);
+        run.start();
+        return run;
+    }
+}
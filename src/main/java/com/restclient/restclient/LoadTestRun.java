@@ -0,0 +1,353 @@
+package com.restclient.restclient;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+// One running load test: its virtual users, live counters and completion. In the open model a single
+// arrivals thread parks until each iteration's intended start and hands it to the users; if none is free
+// it waits in the queue, and its latency still counts from the intended start, so a slow server shows
+// up in the numbers instead of quietly lowering the request rate (coordinated omission). Arrivals that
+// are dropped, or still waiting when the run ends, count as failures that waited until the end.
+public class LoadTestRun {
+    private static final long REPORT_INTERVAL_MILLIS = 1_000;
+    // Arrivals allowed to wait for a user before new ones are dropped, so a dead server cannot exhaust memory
+    private static final int MAX_QUEUED = 100_000;
+
+    private final LoadScenario scenario;
+    private final HttpTransport transport;
+    private final Consumer<LoadTestSnapshot> listener;
+    private final ExecutorService users;
+    private final ScheduledExecutorService reporter;
+    private final RatePacer pacer;
+    // Null unless the config names a data feed; then steps are rendered from a row per iteration
+    private final DataFeed feed;
+    private final List<RequestTemplate> templates = new ArrayList<>();
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LatencyHistogram serviceTime = new LatencyHistogram();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final AtomicInteger activeUsers = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    // Open-model arrivals never sent: over MAX_QUEUED, or still waiting for a user when the run ended
+    private final LongAdder dropped = new LongAdder();
+    private final AtomicLong lastReportRequests = new AtomicLong();
+    private final AtomicLong lastReportAt = new AtomicLong();
+    private final CompletableFuture<LoadTestSnapshot> completion = new CompletableFuture<>();
+    private final long startedAt;
+    private final long deadline;
+    private volatile boolean running = true;
+    private volatile Thread arrivals;
+
+    LoadTestRun(LoadScenario scenario, HttpTransport transport, Consumer<LoadTestSnapshot> listener)
+            throws IOException {
+        LoadTestConfig config = scenario.getConfig();
+        if (config.isOpenModel() && config.getDuration() == null) {
+            throw new IllegalArgumentException("An arrival-rate run needs a duration");
+        }
+        this.feed = config.getDataFeed() == null ? null : DataFeed.open(config.getDataFeed(), config.isRecycleFeed());
+        if (feed != null) {
+            // Compiled once; each iteration only renders
+            scenario.getRequests().forEach(request -> templates.add(RequestTemplate.compile(request)));
+        }
+        this.scenario = scenario;
+        this.transport = transport;
+        this.listener = listener;
+        // Otherwise a per-host limit below the user count would cap the run and show up as latency
+        transport.reserveConcurrency(config.getVirtualUsers());
+        this.users = Executors.newFixedThreadPool(config.getVirtualUsers(),
+                HttpClientEngine.daemonThreads("load-vu-" + scenario.getName()));
+        this.reporter = Executors.newScheduledThreadPool(2, HttpClientEngine.daemonThreads("load-report"));
+        this.pacer = new RatePacer(config.getTargetRps());
+        this.startedAt = System.nanoTime();
+        this.deadline = config.getDuration() == null ? Long.MAX_VALUE : startedAt + config.getDuration().toNanos();
+        this.lastReportAt.set(startedAt);
+    }
+
+    void start() {
+        LoadTestConfig config = scenario.getConfig();
+        if (config.isOpenModel()) {
+            // The users pool is shut down once the last arrival has been handed over
+            Thread thread = HttpClientEngine.daemonThreads("load-arrivals-" + scenario.getName())
+                    .newThread(this::dispatchArrivals);
+            arrivals = thread;
+            thread.start();
+        } else {
+            long rampStepNanos = config.getVirtualUsers() > 1
+                    ? config.getRampUp().toNanos() / config.getVirtualUsers() : 0;
+            for (int user = 0; user < config.getVirtualUsers(); user++) {
+                long startAt = startedAt + user * rampStepNanos;
+                users.execute(() -> runUser(startAt));
+            }
+            users.shutdown();
+        }
+        reporter.scheduleAtFixedRate(this::report, REPORT_INTERVAL_MILLIS, REPORT_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        reporter.execute(this::awaitUsers);
+    }
+
+    public LoadScenario getScenario() {
+        return scenario;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Completes with the final snapshot once every user has finished or the run was stopped
+    public CompletableFuture<LoadTestSnapshot> completion() {
+        return completion;
+    }
+
+    // The users pool itself is shut down by awaitUsers, which also accounts for arrivals left in its queue
+    public void stop() {
+        running = false;
+        Thread thread = arrivals;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    public LoadTestSnapshot snapshot() {
+        long now = System.nanoTime();
+        long total = requests.sum();
+        long previousAt = lastReportAt.getAndSet(now);
+        long previousTotal = lastReportRequests.getAndSet(total);
+        double intervalSeconds = Math.max(1, now - previousAt) / 1_000_000_000.0;
+        LoadTestConfig config = scenario.getConfig();
+        if (config.isOpenModel()) {
+            return new LoadTestSnapshot(TimeUnit.NANOSECONDS.toMillis(now - startedAt), activeUsers.get(),
+                    config.getVirtualUsers(), total, errors.sum(), (total - previousTotal) / intervalSeconds, latency,
+                    !running, config.arrivalRateAt(Math.min(now, deadline - 1) - startedAt), queued.get(), dropped.sum(),
+                    serviceTime);
+        }
+        return new LoadTestSnapshot(TimeUnit.NANOSECONDS.toMillis(now - startedAt), activeUsers.get(),
+                config.getVirtualUsers(), total, errors.sum(),
+                (total - previousTotal) / intervalSeconds, latency, !running);
+    }
+
+    private void runUser(long startAt) {
+        try {
+            long delay = startAt - System.nanoTime();
+            if (delay > 0) {
+                TimeUnit.NANOSECONDS.sleep(delay);
+            }
+            activeUsers.incrementAndGet();
+            try {
+                int loops = scenario.getConfig().getLoops();
+                List<ApiRequest> steps = scenario.getRequests();
+                for (int loop = 0; loops < 0 || loop < loops; loop++) {
+                    // Checked here too: a feed of malformed rows never reaches the step loop below
+                    if (!running || System.nanoTime() >= deadline) {
+                        return;
+                    }
+                    DataFeed.Row row = null;
+                    if (feed != null) {
+                        try {
+                            row = feed.next();
+                        } catch (IllegalArgumentException e) {
+                            // Malformed row: count it against the run and move on
+                            errors.increment();
+                            continue;
+                        }
+                        if (row == null) {
+                            return;
+                        }
+                    }
+                    for (int step = 0; step < steps.size(); step++) {
+                        if (!running || System.nanoTime() >= deadline) {
+                            return;
+                        }
+                        pacer.acquire();
+                        sample(row == null ? steps.get(step) : templates.get(step).render(row::get), System.nanoTime());
+                    }
+                }
+            } finally {
+                activeUsers.decrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Latency counts from intendedAt, which is earlier than now when an open-model arrival had to wait
+    private void sample(ApiRequest request, long intendedAt) throws InterruptedException {
+        long start = System.nanoTime();
+        boolean failed;
+        try {
+            ApiResponse response = transport.execute(request);
+            failed = response.getStatusCode() >= 400;
+            // Bodies are not inspected during a load test; drop any spooled copy straight away
+            response.getBody().close();
+        } catch (InterruptedException e) {
+            if (scenario.getConfig().isOpenModel()) {
+                // Cut off at the deadline or by Stop: still one of the slowest samples, so it must count
+                latency.recordNanos(Math.min(System.nanoTime(), deadline) - intendedAt);
+                requests.increment();
+                errors.increment();
+            }
+            throw e;
+        } catch (Exception e) {
+            failed = true;
+        }
+        long end = System.nanoTime();
+        latency.recordNanos(end - intendedAt);
+        serviceTime.recordNanos(end - start);
+        requests.increment();
+        if (failed) {
+            errors.increment();
+        }
+    }
+
+    // An open-model arrival that was due but never sent. Its latency is recorded as the wait until the
+    // deadline (or until now, if the run was stopped), since leaving it out would hide exactly the samples
+    // an overloaded server produces. It is not a request, so the request rate still shows what was served.
+    private void unserved(long intendedAt) {
+        latency.recordNanos(Math.max(0, Math.min(System.nanoTime(), deadline) - intendedAt));
+        dropped.increment();
+        errors.increment();
+    }
+
+    // Open model: issue arrivals on schedule until the duration is up, the run is stopped or the feed runs dry
+    private void dispatchArrivals() {
+        LoadTestConfig config = scenario.getConfig();
+        long next = startedAt;
+        try {
+            while (running && next < deadline) {
+                waitUntil(next);
+                long intendedAt = next;
+                next += (long) (1_000_000_000.0 / config.arrivalRateAt(intendedAt - startedAt));
+                DataFeed.Row row = null;
+                if (feed != null) {
+                    try {
+                        row = feed.next();
+                    } catch (IllegalArgumentException e) {
+                        errors.increment();
+                        continue;
+                    }
+                    if (row == null) {
+                        break;
+                    }
+                }
+                if (queued.get() >= MAX_QUEUED) {
+                    unserved(intendedAt);
+                    continue;
+                }
+                queued.incrementAndGet();
+                try {
+                    users.execute(new Arrival(intendedAt, row));
+                } catch (RejectedExecutionException e) {
+                    // Stopped between the wait and the hand-over
+                    queued.decrementAndGet();
+                    unserved(intendedAt);
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            // stopped
+        } finally {
+            users.shutdown();
+        }
+    }
+
+    private void runArrival(long intendedAt, DataFeed.Row row) {
+        queued.decrementAndGet();
+        activeUsers.incrementAndGet();
+        try {
+            List<ApiRequest> steps = scenario.getRequests();
+            for (int step = 0; step < steps.size(); step++) {
+                // An arrival due before the deadline is still sent if a user picks it up just after it;
+                // awaitUsers interrupts whatever is left once it notices the deadline
+                if (!running || step > 0 && System.nanoTime() >= deadline) {
+                    if (step == 0) {
+                        unserved(intendedAt);
+                    }
+                    return;
+                }
+                // Only the first step was scheduled; the rest follow it as a user would
+                sample(row == null ? steps.get(step) : templates.get(step).render(row::get),
+                        step == 0 ? intendedAt : System.nanoTime());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            activeUsers.decrementAndGet();
+        }
+    }
+
+    // Interrupts the users; arrivals still queued for one never ran, but they were due, so they are counted
+    private void shutdownUsers() {
+        for (Runnable task : users.shutdownNow()) {
+            if (task instanceof Arrival) {
+                queued.decrementAndGet();
+                unserved(((Arrival) task).intendedAt);
+            }
+        }
+    }
+
+    private static void waitUntil(long due) throws InterruptedException {
+        long wait;
+        while ((wait = due - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(wait);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+
+    private void report() {
+        if (running) {
+            listener.accept(snapshot());
+        }
+    }
+
+    private void awaitUsers() {
+        try {
+            while (!users.awaitTermination(100, TimeUnit.MILLISECONDS)) {
+                if (!running || System.nanoTime() >= deadline) {
+                    shutdownUsers();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        running = false;
+        reporter.shutdown();
+        if (feed != null) {
+            try {
+                feed.close();
+            } catch (IOException e) {
+                // Read-only; nothing to lose
+            }
+        }
+        LoadTestSnapshot result = snapshot();
+        listener.accept(result);
+        completion.complete(result);
+    }
+
+    // One scheduled iteration waiting in the users queue; a named type so shutdownUsers can find its intended start
+    private final class Arrival implements Runnable {
+        private final long intendedAt;
+        private final DataFeed.Row row;
+
+        Arrival(long intendedAt, DataFeed.Row row) {
+            this.intendedAt = intendedAt;
+            this.row = row;
+        }
+
+        @Override
+        public void run() {
+            runArrival(intendedAt, row);
+        }
+    }
+}
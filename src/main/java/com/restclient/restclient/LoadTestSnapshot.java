@@ -0,0 +1,120 @@
+package com.restclient.restclient;
+
+import java.util.Locale;
+
+// Point-in-time view of a load run for live reporting
+public class LoadTestSnapshot {
+    private final long elapsedMillis;
+    private final int activeUsers;
+    private final int totalUsers;
+    private final long requests;
+    private final long errors;
+    private final double currentRps;
+    private final double p50Millis;
+    private final double p90Millis;
+    private final double p99Millis;
+    private final double maxMillis;
+    private final boolean finished;
+    // Open model only: the arrival rate in force, arrivals waiting for a free user, arrivals given up on,
+    // and the p99 of time actually spent on the wire (latency above counts from the intended start)
+    private final double targetRate;
+    private final int queued;
+    private final long dropped;
+    private final double serviceP99Millis;
+
+    public LoadTestSnapshot(long elapsedMillis, int activeUsers, int totalUsers, long requests, long errors,
+                            double currentRps, LatencyHistogram latency, boolean finished) {
+        this(elapsedMillis, activeUsers, totalUsers, requests, errors, currentRps, latency, finished, 0, 0, 0, latency);
+    }
+
+    public LoadTestSnapshot(long elapsedMillis, int activeUsers, int totalUsers, long requests, long errors,
+                            double currentRps, LatencyHistogram latency, boolean finished, double targetRate,
+                            int queued, long dropped, LatencyHistogram serviceTime) {
+        this.elapsedMillis = elapsedMillis;
+        this.activeUsers = activeUsers;
+        this.totalUsers = totalUsers;
+        this.requests = requests;
+        this.errors = errors;
+        this.currentRps = currentRps;
+        this.p50Millis = latency.percentileMillis(50);
+        this.p90Millis = latency.percentileMillis(90);
+        this.p99Millis = latency.percentileMillis(99);
+        this.maxMillis = latency.getMaxMicros() / 1_000.0;
+        this.finished = finished;
+        this.targetRate = targetRate;
+        this.queued = queued;
+        this.dropped = dropped;
+        this.serviceP99Millis = serviceTime.percentileMillis(99);
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public int getActiveUsers() {
+        return activeUsers;
+    }
+
+    public long getRequests() {
+        return requests;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public double getCurrentRps() {
+        return currentRps;
+    }
+
+    public double getAverageRps() {
+        return elapsedMillis == 0 ? 0 : requests * 1000.0 / elapsedMillis;
+    }
+
+    public double getP50Millis() {
+        return p50Millis;
+    }
+
+    public double getP90Millis() {
+        return p90Millis;
+    }
+
+    public double getP99Millis() {
+        return p99Millis;
+    }
+
+    public double getMaxMillis() {
+        return maxMillis;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    // Arrivals per second being scheduled; 0 for a closed-model run
+    public double getTargetRate() {
+        return targetRate;
+    }
+
+    public int getQueued() {
+        return queued;
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+
+    public double getServiceP99Millis() {
+        return serviceP99Millis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT,
+                "%s%6.1fs  users %d/%d  requests %d (errors %d)  rps %.1f (avg %.1f)  p50 %.1f  p90 %.1f  p99 %.1f  max %.1f ms",
+                finished ? "DONE " : "", elapsedMillis / 1000.0, activeUsers, totalUsers, requests, errors,
+                currentRps, getAverageRps(), p50Millis, p90Millis, p99Millis, maxMillis)
+                + (targetRate > 0 ? String.format(Locale.ROOT, "  target %.1f rps  queued %d  dropped %d  service p99 %.1f ms",
+                targetRate, queued, dropped, serviceP99Millis) : "");
+    }
+}
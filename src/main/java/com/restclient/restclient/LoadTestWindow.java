@@ -0,0 +1,216 @@
+package com.restclient.restclient;
+
+import javafx.application.Platform;
+import javafx.geometry.Insets;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextArea;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
+import javafx.stage.Stage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+// Window for configuring and watching a load run of one or more requests
+public class LoadTestWindow {
+    private static final double PADDING = 10;
+    private static final int MAX_LOG_LINES = 500;
+
+    private final String scenarioName;
+    private final Supplier<List<ApiRequest>> requestSupplier;
+    private final Supplier<HttpTransport> transportSupplier;
+    private final Stage stage = new Stage();
+
+    private final TextField usersField = new TextField("10");
+    private final TextField rampUpField = new TextField("10");
+    private final TextField loopsField = new TextField("10");
+    private final TextField rpsField = new TextField("0");
+    private final TextField durationField = new TextField("");
+    private final TextField arrivalRateField = new TextField("0");
+    private final TextField rateStepField = new TextField("0");
+    private final TextField stepSecondsField = new TextField("");
+    private final TextField dataFeedField = new TextField("");
+    private final CheckBox recycleFeedCheckBox = new CheckBox("Recycle at end of file");
+    private final Label summaryLabel = new Label("Idle");
+    private final TextArea logArea = new TextArea();
+    private final Button startButton = new Button("Start");
+    private final Button stopButton = new Button("Stop");
+    private LoadTestRun currentRun;
+
+    public LoadTestWindow(String scenarioName, Supplier<List<ApiRequest>> requestSupplier,
+                          Supplier<HttpTransport> transportSupplier) {
+        this.scenarioName = scenarioName;
+        this.requestSupplier = requestSupplier;
+        this.transportSupplier = transportSupplier;
+    }
+
+    // Method to pre-fill the form, e.g. from an imported plan
+    public LoadTestWindow withDefaults(LoadTestConfig config) {
+        usersField.setText(String.valueOf(config.getVirtualUsers()));
+        rampUpField.setText(String.valueOf(config.getRampUp().getSeconds()));
+        loopsField.setText(String.valueOf(config.getLoops()));
+        rpsField.setText(config.getTargetRps() > 0 ? String.valueOf(config.getTargetRps()) : "0");
+        durationField.setText(config.getDuration() == null ? "" : String.valueOf(config.getDuration().getSeconds()));
+        arrivalRateField.setText(String.valueOf(config.getArrivalRate()));
+        rateStepField.setText(String.valueOf(config.getRateIncrement()));
+        stepSecondsField.setText(config.getRateStepInterval() == null
+                ? "" : String.valueOf(config.getRateStepInterval().getSeconds()));
+        return this;
+    }
+
+    public void show() {
+        GridPane grid = new GridPane();
+        grid.setHgap(10);
+        grid.setVgap(10);
+
+        usersField.setPromptText("Virtual users");
+        rampUpField.setPromptText("Ramp-up (s)");
+        loopsField.setPromptText("Loops (-1 = infinite)");
+        rpsField.setPromptText("Target RPS (0 = unlimited)");
+        durationField.setPromptText("Max duration (s, optional)");
+        arrivalRateField.setPromptText("0 = closed model");
+        rateStepField.setPromptText("+/- per second");
+        stepSecondsField.setPromptText("Step every (s)");
+
+        grid.add(new Label("Virtual users:"), 0, 0);
+        grid.add(usersField, 1, 0);
+        grid.add(new Label("Ramp-up (s):"), 0, 1);
+        grid.add(rampUpField, 1, 1);
+        grid.add(new Label("Loops:"), 0, 2);
+        grid.add(loopsField, 1, 2);
+        grid.add(new Label("Target RPS:"), 0, 3);
+        grid.add(rpsField, 1, 3);
+        grid.add(new Label("Max duration (s):"), 0, 4);
+        grid.add(durationField, 1, 4);
+        // Open model: iterations start on this schedule regardless of responses; users cap the concurrency
+        grid.add(new Label("Arrival rate (/s):"), 0, 5);
+        grid.add(new HBox(10, arrivalRateField, new Label("step"), rateStepField, new Label("every (s)"),
+                stepSecondsField), 1, 5);
+
+        dataFeedField.setPromptText("CSV / JSONL rows bound to ${column} (optional)");
+        dataFeedField.setPrefWidth(320);
+        Button browseButton = new Button("Browse...");
+        browseButton.setOnAction(e -> chooseDataFeed());
+        recycleFeedCheckBox.setSelected(true);
+        grid.add(new Label("Data feed:"), 0, 6);
+        grid.add(new HBox(10, dataFeedField, browseButton, recycleFeedCheckBox), 1, 6);
+
+        startButton.setOnAction(e -> startRun());
+        stopButton.setOnAction(e -> stopRun());
+        stopButton.setDisable(true);
+
+        logArea.setEditable(false);
+        logArea.setPrefRowCount(20);
+
+        VBox layout = new VBox(10, grid, new HBox(10, startButton, stopButton), summaryLabel, logArea);
+        layout.setPadding(new Insets(PADDING));
+
+        stage.setTitle("Load Test - " + scenarioName);
+        stage.setScene(new Scene(layout, 900, 600));
+        stage.setOnHidden(e -> stopRun());
+        stage.show();
+    }
+
+    private void startRun() {
+        LoadScenario scenario;
+        try {
+            scenario = new LoadScenario(scenarioName, requestSupplier.get(), readConfig());
+        } catch (RuntimeException e) {
+            summaryLabel.setText("Error: " + e.getMessage());
+            return;
+        }
+
+        logArea.clear();
+        appendLog("Starting " + scenario.getRequests().size() + " request(s): " + scenario.getConfig());
+        startButton.setDisable(true);
+        stopButton.setDisable(false);
+
+        LoadTestEngine engine = new LoadTestEngine(transportSupplier.get());
+        try {
+            currentRun = engine.start(scenario, snapshot -> Platform.runLater(() -> {
+                summaryLabel.setText(snapshot.toString());
+                appendLog(snapshot.toString());
+            }));
+        } catch (IOException | IllegalArgumentException e) {
+            summaryLabel.setText(e instanceof IOException ? "Cannot open data feed: " + e.getMessage()
+                    : "Error: " + e.getMessage());
+            startButton.setDisable(false);
+            stopButton.setDisable(true);
+            return;
+        }
+        currentRun.completion().thenRun(() -> Platform.runLater(() -> {
+            startButton.setDisable(false);
+            stopButton.setDisable(true);
+        }));
+    }
+
+    private void stopRun() {
+        if (currentRun != null && currentRun.isRunning()) {
+            currentRun.stop();
+        }
+    }
+
+    private LoadTestConfig readConfig() {
+        LoadTestConfig config = new LoadTestConfig()
+                .virtualUsers(parseInt(usersField, "Virtual users"))
+                .rampUp(Duration.ofSeconds(parseInt(rampUpField, "Ramp-up")))
+                .loops(parseInt(loopsField, "Loops"))
+                .targetRps(parseDouble(rpsField, "Target RPS"))
+                .arrivalRate(parseDouble(arrivalRateField, "Arrival rate"));
+        if (!stepSecondsField.getText().trim().isEmpty()) {
+            config.rateStep(parseDouble(rateStepField, "Rate step"),
+                    Duration.ofSeconds(parseInt(stepSecondsField, "Rate step interval")));
+        }
+        if (!durationField.getText().trim().isEmpty()) {
+            config.duration(Duration.ofSeconds(parseInt(durationField, "Max duration")));
+        }
+        if (!dataFeedField.getText().trim().isEmpty()) {
+            config.dataFeed(Paths.get(dataFeedField.getText().trim())).recycleFeed(recycleFeedCheckBox.isSelected());
+        }
+        return config;
+    }
+
+    private void chooseDataFeed() {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Choose Data Feed");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV / JSON Lines", "*.csv", "*.jsonl", "*.ndjson"));
+        File file = chooser.showOpenDialog(stage);
+        if (file != null) {
+            dataFeedField.setText(file.getAbsolutePath());
+        }
+    }
+
+    private void appendLog(String line) {
+        logArea.appendText(line + "\n");
+        if (logArea.getParagraphs().size() > MAX_LOG_LINES) {
+            int firstLineEnd = logArea.getText().indexOf('\n') + 1;
+            logArea.deleteText(0, firstLineEnd);
+        }
+    }
+
+    private static int parseInt(TextField field, String name) {
+        try {
+            return Integer.parseInt(field.getText().trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be a whole number");
+        }
+    }
+
+    private static double parseDouble(TextField field, String name) {
+        try {
+            return Double.parseDouble(field.getText().trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be a number");
+        }
+    }
+}
@@ -12,8 +12,8 @@ import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 
+import java.io.IOException;
 import java.net.URI;
-import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.util.Base64;
@@ -26,6 +26,8 @@ public class MainApplication extends Application {
     private TabPane requestTabPane;
     private TextArea responseArea;
     private TextArea requestBodyArea;
+    // Body of the response on screen; spooled bodies can hold a temp file until closed
+    private ResponseBody shownBody;
 
     @Override
     public void start(Stage primaryStage) {
@@ -196,8 +198,8 @@ private void sendRequest() {
         return;
     }
 
-    // Create HTTP client and send request asynchronously
-    HttpClient client = HttpClient.newHttpClient();
+    // Build the request for the shared HTTP engine
+    long start = System.nanoTime();
     HttpRequest.Builder requestBuilder = HttpRequest.newBuilder()
         .uri(URI.create(url));
 
@@ -240,21 +242,70 @@ private void sendRequest() {
         }
     }
 
-    // Send request asynchronously
-    client.sendAsync(requestBuilder.build(), HttpResponse.BodyHandlers.ofString())
+    HttpRequest httpRequest = requestBuilder.build();
+    long prepareNanos = System.nanoTime() - start;
+
+    // Send request asynchronously, noting when the host permit is granted and when the headers arrive
+    long[] dispatchedAt = new long[1];
+    long[] headersAt = new long[1];
+    HttpResponse.BodyHandler<ResponseBody> spooling = SpoolingBodySubscriber.handler();
+    HttpResponse.BodyHandler<ResponseBody> handler = responseInfo -> {
+        headersAt[0] = System.nanoTime();
+        return spooling.apply(responseInfo);
+    };
+    HttpClientEngine.shared().sendAsync(httpRequest, handler, permitted -> dispatchedAt[0] = permitted)
+        .whenComplete((response, error) -> {
+            if (response != null) {
+                MetricsRegistry.shared().record(method, url,
+                        timingOf(response, prepareNanos, dispatchedAt[0], headersAt[0], System.nanoTime()));
+            } else {
+                MetricsRegistry.shared().recordFailure(method, url);
+            }
+        })
         .thenAccept(response -> {
             // Update response area on JavaFX thread
             Platform.runLater(() -> {
-                responseArea.setText("Status: " + response.statusCode() + "\n\n" + response.body());
+                showBody(response.body());
+                responseArea.setText("Status: " + response.statusCode() + "\n\n"
+                        + response.body().preview(ResponseViewer.PAGE_SIZE));
             });
         })
         .exceptionally(e -> {
             Platform.runLater(() -> {
+                showBody(null);
                 responseArea.setText("Error: " + e.getMessage());
             });
             return null;
         });
 }
+
+    // Same phases as JdkHttpTransport: the handshake times go to the exchange that opened the connection
+    private static RequestTiming timingOf(HttpResponse<?> response, long prepareNanos, long dispatched,
+                                          long headersAt, long end) {
+        long connectNanos = -1;
+        long tlsNanos = -1;
+        TlsConnection connection = TlsConnection.of(response.sslSession());
+        if (connection != null) {
+            boolean opened = connection.claimOpening();
+            connectNanos = opened ? connection.getConnectNanos() : 0;
+            tlsNanos = opened ? connection.getTlsNanos() : 0;
+        }
+        return new RequestTiming(-1, connectNanos, tlsNanos, prepareNanos, headersAt - dispatched,
+                end - headersAt, prepareNanos + end - dispatched);
+    }
+
+    // Closes the body that was on screen once another result replaces it
+    private void showBody(ResponseBody body) {
+        ResponseBody previous = shownBody;
+        shownBody = body;
+        if (previous != null && previous != body) {
+            try {
+                previous.close();
+            } catch (IOException ignored) {
+                // Spool files left behind are swept on the next start
+            }
+        }
+    }
     public static void main(String[] args) {
         launch(args);
     }
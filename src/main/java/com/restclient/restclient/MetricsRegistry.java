@@ -0,0 +1,145 @@
+package com.restclient.restclient;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+// Per-endpoint latency metrics fed by every transport. Recording is lock-free: a map lookup for the
+// endpoint and a few atomic increments per phase.
+public final class MetricsRegistry {
+    private static final MetricsRegistry SHARED = new MetricsRegistry();
+    private static final int MAX_CACHED_TEMPLATES = 4096;
+    // Past this many endpoints, new ones share one row per method rather than growing the map forever
+    private static final int MAX_ENDPOINTS = 1024;
+    static final String OTHER_PATH = "(other)";
+    private static final Pattern NUMBER = Pattern.compile("\\d+");
+    private static final Pattern UUID = Pattern.compile(
+            "[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+    private static final Pattern LONG_HEX = Pattern.compile("[0-9a-fA-F]{16,}");
+
+    private final ConcurrentHashMap<String, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+    // Raw URL -> templated path, so repeated sends skip the path scan
+    private final ConcurrentHashMap<String, String> templates = new ConcurrentHashMap<>();
+    private volatile Instant since = Instant.now();
+
+    public static MetricsRegistry shared() {
+        return SHARED;
+    }
+
+    // Method to record a received response under the endpoint of the URL as written, so a rendered
+    // /countries/US/stores/7 counts under /countries/{country}/stores/{storeNbr}
+    public void record(ApiRequest request, RequestTiming timing) {
+        record(request.getMethod(), endpointUrl(request), timing);
+    }
+
+    public void recordFailure(ApiRequest request) {
+        recordFailure(request.getMethod(), endpointUrl(request));
+    }
+
+    // Method to record a received response under its endpoint
+    public void record(String method, String url, RequestTiming timing) {
+        endpointFor(method, url).record(timing);
+    }
+
+    // Method to count a send that failed before a response arrived
+    public void recordFailure(String method, String url) {
+        endpointFor(method, url).recordError();
+    }
+
+    // Every endpoint seen since the last reset, sorted by path then method
+    public List<EndpointMetrics> endpoints() {
+        List<EndpointMetrics> list = new ArrayList<>(endpoints.values());
+        list.sort(Comparator.comparing(EndpointMetrics::getPath).thenComparing(EndpointMetrics::getMethod));
+        return list;
+    }
+
+    public Instant getSince() {
+        return since;
+    }
+
+    public void reset() {
+        endpoints.clear();
+        since = Instant.now();
+    }
+
+    // Method to write every endpoint and phase as CSV (milliseconds), for comparing runs
+    public void export(Path file) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("# since " + since + ", exported " + Instant.now() + "\n");
+            writer.write("method,path,phase,count,errors,mean_ms,p50_ms,p90_ms,p99_ms,max_ms\n");
+            for (EndpointMetrics endpoint : endpoints()) {
+                for (EndpointMetrics.Phase phase : EndpointMetrics.Phase.values()) {
+                    LatencyHistogram histogram = endpoint.histogram(phase);
+                    // Endpoints that only ever failed still get their TOTAL row, for the error count
+                    if (histogram.getCount() == 0 && phase != EndpointMetrics.Phase.TOTAL) {
+                        continue;
+                    }
+                    writer.write(String.format(Locale.ROOT, "%s,%s,%s,%d,%d,%.3f,%.3f,%.3f,%.3f,%.3f%n",
+                            endpoint.getMethod(), csv(endpoint.getPath()), phase, histogram.getCount(),
+                            endpoint.getErrorCount(), histogram.getMeanMicros() / 1_000.0,
+                            histogram.percentileMillis(50), histogram.percentileMillis(90),
+                            histogram.percentileMillis(99), histogram.getMaxMicros() / 1_000.0));
+                }
+            }
+        }
+    }
+
+    private EndpointMetrics endpointFor(String method, String url) {
+        String path = templates.get(url);
+        if (path == null) {
+            if (templates.size() >= MAX_CACHED_TEMPLATES) {
+                templates.clear();
+            }
+            path = templatePath(url);
+            templates.put(url, path);
+        }
+        String key = method + " " + path;
+        EndpointMetrics endpoint = endpoints.get(key);
+        if (endpoint == null) {
+            if (endpoints.size() >= MAX_ENDPOINTS) {
+                path = OTHER_PATH;
+                key = method + " " + path;
+            }
+            String endpointPath = path;
+            endpoint = endpoints.computeIfAbsent(key, k -> new EndpointMetrics(method, endpointPath));
+        }
+        return endpoint;
+    }
+
+    private static String endpointUrl(ApiRequest request) {
+        return request.getUrlTemplate() != null ? request.getUrlTemplate() : request.getUrl();
+    }
+
+    // Method to turn a URL into a templated path: {placeholders} and ${references} are kept, and numeric
+    // or UUID-like segments become {id} so /stores/42 and /stores/43 share one histogram. A leading
+    // reference such as ${base} is the origin and is dropped.
+    static String templatePath(String url) {
+        String path = HistoryQuery.pathOf(RequestCollection.pathAndQuery(url));
+        String[] segments = path.split("/", -1);
+        StringBuilder templated = new StringBuilder(path.length());
+        for (int i = 1; i < segments.length; i++) {
+            String segment = segments[i];
+            templated.append('/');
+            if (NUMBER.matcher(segment).matches() || UUID.matcher(segment).matches()
+                    || LONG_HEX.matcher(segment).matches()) {
+                templated.append("{id}");
+            } else {
+                templated.append(segment);
+            }
+        }
+        return templated.length() == 0 ? "/" : templated.toString();
+    }
+
+    private static String csv(String value) {
+        return value.indexOf(',') < 0 && value.indexOf('"') < 0 ? value : '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,127 @@
+package com.restclient.restclient;
+
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.property.ReadOnlyStringWrapper;
+import javafx.collections.FXCollections;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
+import javafx.stage.Stage;
+import javafx.util.Duration;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.function.ToDoubleFunction;
+
+// Per-endpoint p50/p90/p99/max for one request phase, refreshed while the window is open
+public class MetricsWindow {
+    private static final double PADDING = 10;
+    private static final DateTimeFormatter FILE_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final MetricsRegistry registry;
+    private final Stage stage = new Stage();
+    private final TableView<EndpointMetrics> table = new TableView<>();
+    private final ComboBox<EndpointMetrics.Phase> phaseComboBox = new ComboBox<>();
+    private final Label sinceLabel = new Label();
+    private final Label statusLabel = new Label();
+    private final Timeline refresher = new Timeline(new KeyFrame(Duration.seconds(1), e -> refresh()));
+
+    public MetricsWindow(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    public void show() {
+        phaseComboBox.setItems(FXCollections.observableArrayList(EndpointMetrics.Phase.values()));
+        phaseComboBox.setValue(EndpointMetrics.Phase.TOTAL);
+        phaseComboBox.setOnAction(e -> refresh());
+
+        TableColumn<EndpointMetrics, String> endpointColumn = new TableColumn<>("Endpoint");
+        endpointColumn.setCellValueFactory(cell -> new ReadOnlyStringWrapper(cell.getValue().getKey()));
+        endpointColumn.setPrefWidth(360);
+        TableColumn<EndpointMetrics, Long> countColumn = new TableColumn<>("Count");
+        countColumn.setCellValueFactory(cell ->
+                new ReadOnlyObjectWrapper<>(cell.getValue().histogram(phaseComboBox.getValue()).getCount()));
+        TableColumn<EndpointMetrics, Long> errorColumn = new TableColumn<>("Errors");
+        errorColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().getErrorCount()));
+        table.getColumns().add(endpointColumn);
+        table.getColumns().add(countColumn);
+        table.getColumns().add(errorColumn);
+        table.getColumns().add(millisColumn("p50 (ms)", histogram -> histogram.percentileMillis(50)));
+        table.getColumns().add(millisColumn("p90 (ms)", histogram -> histogram.percentileMillis(90)));
+        table.getColumns().add(millisColumn("p99 (ms)", histogram -> histogram.percentileMillis(99)));
+        table.getColumns().add(millisColumn("max (ms)", histogram -> histogram.getMaxMicros() / 1_000.0));
+        table.setPlaceholder(new Label("No requests recorded yet"));
+
+        Button exportButton = new Button("Export...");
+        exportButton.setOnAction(e -> export());
+        Button resetButton = new Button("Reset");
+        resetButton.setOnAction(e -> {
+            registry.reset();
+            refresh();
+        });
+
+        HBox controls = new HBox(10, new Label("Phase:"), phaseComboBox, exportButton, resetButton, sinceLabel, statusLabel);
+        controls.setAlignment(Pos.CENTER_LEFT);
+        VBox layout = new VBox(10, controls, table);
+        VBox.setVgrow(table, Priority.ALWAYS);
+        layout.setPadding(new Insets(PADDING));
+
+        refresh();
+        refresher.setCycleCount(Timeline.INDEFINITE);
+        refresher.play();
+
+        stage.setTitle("Endpoint Metrics");
+        stage.setScene(new Scene(layout, 900, 500));
+        stage.setOnHidden(e -> refresher.stop());
+        stage.show();
+    }
+
+    private TableColumn<EndpointMetrics, String> millisColumn(String title, ToDoubleFunction<LatencyHistogram> value) {
+        TableColumn<EndpointMetrics, String> column = new TableColumn<>(title);
+        column.setCellValueFactory(cell -> {
+            LatencyHistogram histogram = cell.getValue().histogram(phaseComboBox.getValue());
+            return new ReadOnlyStringWrapper(histogram.getCount() == 0
+                    ? "-" : String.format(Locale.ROOT, "%.1f", value.applyAsDouble(histogram)));
+        });
+        column.setStyle("-fx-alignment: CENTER-RIGHT;");
+        return column;
+    }
+
+    private void refresh() {
+        table.getItems().setAll(registry.endpoints());
+        // Histograms change in place, so the cells have to be recomputed even for the same rows
+        table.refresh();
+        sinceLabel.setText("since " + registry.getSince());
+    }
+
+    private void export() {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Export Metrics");
+        chooser.setInitialFileName("metrics-" + LocalDateTime.now().format(FILE_STAMP) + ".csv");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV files", "*.csv"));
+        File file = chooser.showSaveDialog(stage);
+        if (file == null) {
+            return;
+        }
+        try {
+            registry.export(file.toPath());
+            statusLabel.setText("Exported to " + file.getName());
+        } catch (IOException e) {
+            statusLabel.setText("Export failed: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.restclient.restclient;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+// One canned response of the mock server: method and path (segments like {id} or ${id} match
+// anything), status, headers and body. Bodies recorded in history are read from disk on first use.
+public class MockRoute {
+    private final String method;
+    private final String path;
+    private final String[] segments;
+    private final boolean template;
+    private final int status;
+    private final Map<String, String> headers;
+    private final Path bodyFile;
+    private volatile byte[] body;
+
+    private MockRoute(String method, String path, int status, Map<String, String> headers, byte[] body, Path bodyFile) {
+        this.method = method.toUpperCase(Locale.ROOT);
+        this.path = path;
+        this.segments = path.split("/", -1);
+        this.template = isTemplate(segments);
+        this.status = status;
+        this.headers = Collections.unmodifiableMap(new LinkedHashMap<>(headers));
+        this.body = body;
+        this.bodyFile = bodyFile;
+    }
+
+    public static MockRoute of(String method, String path, int status, Map<String, String> headers, byte[] body) {
+        return new MockRoute(method, path, status, headers, body, null);
+    }
+
+    public static MockRoute json(String method, String path, int status, String json) {
+        return of(method, path, status, Map.of("Content-Type", "application/json"),
+                json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Body comes from a stored file, or is empty when the file is null
+    static MockRoute ofFile(String method, String path, int status, Map<String, String> headers, Path bodyFile) {
+        return new MockRoute(method, path, status, headers, bodyFile == null ? new byte[0] : null, bodyFile);
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    // True if the path has placeholder segments and needs segment-by-segment matching
+    public boolean isTemplate() {
+        return template;
+    }
+
+    public byte[] getBody() {
+        byte[] bytes = body;
+        if (bytes == null) {
+            try {
+                bytes = Files.readAllBytes(bodyFile);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Recorded body " + bodyFile + " is no longer available", e);
+            }
+            body = bytes;
+        }
+        return bytes;
+    }
+
+    // Method to match a concrete request path against this route's template
+    boolean matches(String[] requestSegments) {
+        if (requestSegments.length != segments.length) {
+            return false;
+        }
+        for (int i = 0; i < segments.length; i++) {
+            if (!isPlaceholder(segments[i]) && !segments[i].equals(requestSegments[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isTemplate(String[] segments) {
+        for (String segment : segments) {
+            if (isPlaceholder(segment)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isPlaceholder(String segment) {
+        return segment.contains("{") && segment.endsWith("}");
+    }
+
+    @Override
+    public String toString() {
+        return method + " " + path + " -> " + status;
+    }
+}
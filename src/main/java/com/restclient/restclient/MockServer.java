@@ -0,0 +1,337 @@
+package com.restclient.restclient;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Embedded HTTP server that answers from canned routes, so load runs and benchmarks can go against a
+// local, reproducible target. Built on the JDK's selector-based HttpServer with a bounded worker pool;
+// injected latency is scheduled rather than slept, so slow responses do not tie up workers.
+public class MockServer implements Closeable {
+
+    // The JDK server reads this once, when its first instance is created
+    private static final String NODELAY_PROPERTY = "sun.net.httpserver.nodelay";
+    // Describe the connection and framing of the original exchange, not of the mock one
+    private static final Set<String> SKIPPED_HEADERS = Set.of("content-length", "transfer-encoding", "connection",
+            "keep-alive", "date", "content-encoding");
+
+    private final Config config;
+    private final List<MockRoute> routes;
+    private final Map<String, MockRoute> exactRoutes = new HashMap<>();
+    private final List<MockRoute> templateRoutes = new ArrayList<>();
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong unmatchedCount = new AtomicLong();
+    private final AtomicLong injectedErrorCount = new AtomicLong();
+    private HttpServer server;
+    private ExecutorService workers;
+    private ScheduledExecutorService delays;
+
+    public MockServer(List<MockRoute> routes, Config config) {
+        this.config = config;
+        this.routes = Collections.unmodifiableList(new ArrayList<>(routes));
+        // First route wins, so callers list the preferred response first
+        for (MockRoute route : routes) {
+            if (route.isTemplate()) {
+                templateRoutes.add(route);
+            } else {
+                exactRoutes.putIfAbsent(route.getMethod() + " " + route.getPath(), route);
+            }
+        }
+    }
+
+    // Method to build one route per method + path from history, using the most recent response
+    public static List<MockRoute> routesFromHistory(HistoryStore history, HistoryQuery query) throws IOException {
+        Map<String, MockRoute> routes = new LinkedHashMap<>();
+        for (HistoryEntry entry : history.select(query)) {
+            String path = HistoryQuery.pathOf(entry.getUrl());
+            String key = entry.getMethod() + " " + path;
+            if (routes.containsKey(key)) {
+                continue;
+            }
+            HistoryRecord record = history.read(entry);
+            if (record == null) {
+                continue;
+            }
+            Map<String, String> headers = new LinkedHashMap<>();
+            record.getResponseHeaders().forEach((name, values) -> {
+                if (!values.isEmpty() && !SKIPPED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                    headers.put(name, String.join(", ", values));
+                }
+            });
+            String hash = record.getResponseBodyHash();
+            routes.put(key, MockRoute.ofFile(entry.getMethod(), path, entry.getStatusCode(), headers,
+                    hash == null ? null : history.getBodies().get(hash)));
+        }
+        return new ArrayList<>(routes.values());
+    }
+
+    // Method to build routes for an imported plan: spec-defined responses first, then a plain
+    // 200 for every other request in its scenarios
+    public static List<MockRoute> routesFromPlan(TestPlan plan) {
+        Map<String, MockRoute> routes = new LinkedHashMap<>();
+        for (MockRoute route : plan.getMockRoutes()) {
+            routes.putIfAbsent(route.getMethod() + " " + route.getPath(), route);
+        }
+        for (LoadScenario scenario : plan.getScenarios()) {
+            for (ApiRequest request : scenario.getRequests()) {
+                String path = HistoryQuery.pathOf(request.getUrl());
+                routes.putIfAbsent(request.getMethod() + " " + path, MockRoute.json(request.getMethod(), path, 200, "{}"));
+            }
+        }
+        return new ArrayList<>(routes.values());
+    }
+
+    public synchronized void start() throws IOException {
+        if (server != null) {
+            throw new IllegalStateException("Mock server is already running");
+        }
+        if (System.getProperty(NODELAY_PROPERTY) == null) {
+            System.setProperty(NODELAY_PROPERTY, "true");
+        }
+        workers = Executors.newFixedThreadPool(config.threads, HttpClientEngine.daemonThreads("mock-server"));
+        delays = Executors.newSingleThreadScheduledExecutor(HttpClientEngine.daemonThreads("mock-server-delay"));
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), config.port), config.backlog);
+        server.setExecutor(workers);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    public synchronized void stop() {
+        if (server == null) {
+            return;
+        }
+        server.stop(0);
+        delays.shutdownNow();
+        workers.shutdownNow();
+        server = null;
+    }
+
+    @Override
+    public void close() {
+        stop();
+    }
+
+    public synchronized boolean isRunning() {
+        return server != null;
+    }
+
+    public synchronized int getPort() {
+        return server == null ? -1 : server.getAddress().getPort();
+    }
+
+    // e.g. http://127.0.0.1:54321, for RequestCollection.rebase
+    public String getBaseUrl() {
+        return "http://" + InetAddress.getLoopbackAddress().getHostAddress() + ":" + getPort();
+    }
+
+    public List<MockRoute> getRoutes() {
+        return routes;
+    }
+
+    public Config getConfig() {
+        return config;
+    }
+
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    public long getUnmatchedCount() {
+        return unmatchedCount.get();
+    }
+
+    public long getInjectedErrorCount() {
+        return injectedErrorCount.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requestCount.incrementAndGet();
+        // Drain the request so the connection can be kept alive
+        try (InputStream in = exchange.getRequestBody()) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long delayMillis = config.latency.toMillis()
+                + (config.jitter.isZero() ? 0 : random.nextLong(config.jitter.toMillis() + 1));
+        if (config.errorRate > 0 && random.nextDouble() < config.errorRate) {
+            injectedErrorCount.incrementAndGet();
+            respondLater(exchange, delayMillis, () -> respondError(exchange));
+            return;
+        }
+        MockRoute route = find(exchange.getRequestMethod(), exchange.getRequestURI().getPath());
+        if (route == null) {
+            unmatchedCount.incrementAndGet();
+        }
+        respondLater(exchange, delayMillis, () -> respond(exchange, route));
+    }
+
+    private MockRoute find(String method, String path) {
+        String normalized = path == null || path.isEmpty() ? "/" : path;
+        MockRoute route = exactRoutes.get(method + " " + normalized);
+        if (route != null) {
+            return route;
+        }
+        String[] segments = normalized.split("/", -1);
+        for (MockRoute candidate : templateRoutes) {
+            if (candidate.getMethod().equals(method) && candidate.matches(segments)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private void respondLater(HttpExchange exchange, long delayMillis, ExchangeAction action) {
+        Runnable task = () -> {
+            try {
+                action.run();
+            } catch (IOException | RuntimeException e) {
+                // Client went away or the recorded body vanished; drop the connection
+            } finally {
+                exchange.close();
+            }
+        };
+        if (delayMillis <= 0) {
+            task.run();
+        } else {
+            // The scheduler only hands off; the response is written on a worker
+            delays.schedule(() -> workers.execute(task), delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void respond(HttpExchange exchange, MockRoute route) throws IOException {
+        if (route == null) {
+            send(exchange, 404, Map.of("Content-Type", "application/json"),
+                    ("{\"error\":\"No mock route for " + exchange.getRequestMethod() + " "
+                            + exchange.getRequestURI().getPath().replace("\"", "\\\"") + "\"}")
+                            .getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        send(exchange, route.getStatus(), route.getHeaders(), route.getBody());
+    }
+
+    private void respondError(HttpExchange exchange) throws IOException {
+        if (config.errorStatus == 0) {
+            // Status 0 means drop the connection without answering
+            return;
+        }
+        send(exchange, config.errorStatus, Map.of("Content-Type", "application/json"),
+                "{\"error\":\"Injected by mock server\"}".getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void send(HttpExchange exchange, int status, Map<String, String> headers, byte[] body)
+            throws IOException {
+        headers.forEach((name, value) -> exchange.getResponseHeaders().add(name, value));
+        boolean noBody = body.length == 0 || "HEAD".equals(exchange.getRequestMethod())
+                || status == 204 || status == 304;
+        exchange.sendResponseHeaders(status, noBody ? -1 : body.length);
+        if (!noBody) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    private interface ExchangeAction {
+        void run() throws IOException;
+    }
+
+    // Listening port, worker pool and fault injection
+    public static final class Config {
+        private int port = 0;
+        private int threads = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+        private int backlog = 1024;
+        private Duration latency = Duration.ZERO;
+        private Duration jitter = Duration.ZERO;
+        private double errorRate = 0;
+        private int errorStatus = 500;
+
+        // 0 picks a free port
+        public Config port(int port) {
+            this.port = port;
+            return this;
+        }
+
+        public Config threads(int threads) {
+            if (threads < 1) {
+                throw new IllegalArgumentException("threads must be positive");
+            }
+            this.threads = threads;
+            return this;
+        }
+
+        public Config backlog(int backlog) {
+            this.backlog = backlog;
+            return this;
+        }
+
+        // Fixed delay added before every response
+        public Config latency(Duration latency) {
+            this.latency = latency;
+            return this;
+        }
+
+        // Extra random delay, uniform between zero and this value
+        public Config jitter(Duration jitter) {
+            this.jitter = jitter;
+            return this;
+        }
+
+        // Fraction of requests (0-1) answered with the error status instead of their route
+        public Config errorRate(double errorRate) {
+            if (errorRate < 0 || errorRate > 1) {
+                throw new IllegalArgumentException("errorRate must be between 0 and 1");
+            }
+            this.errorRate = errorRate;
+            return this;
+        }
+
+        // Status for injected errors; 0 closes the connection without a response
+        public Config errorStatus(int errorStatus) {
+            this.errorStatus = errorStatus;
+            return this;
+        }
+
+        public int getPort() {
+            return port;
+        }
+
+        public Duration getLatency() {
+            return latency;
+        }
+
+        public Duration getJitter() {
+            return jitter;
+        }
+
+        public double getErrorRate() {
+            return errorRate;
+        }
+
+        public int getErrorStatus() {
+            return errorStatus;
+        }
+    }
+}
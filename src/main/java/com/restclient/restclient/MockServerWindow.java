@@ -0,0 +1,153 @@
+package com.restclient.restclient;
+
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.application.Platform;
+import javafx.geometry.Insets;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.stage.Stage;
+import javafx.util.Duration;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+// Starts a local mock server for a set of routes and shows its address and traffic
+public class MockServerWindow {
+    private static final double PADDING = 10;
+
+    private final String sourceName;
+    private final Callable<List<MockRoute>> routeLoader;
+    private final Stage stage = new Stage();
+
+    private final TextField portField = new TextField("0");
+    private final TextField latencyField = new TextField("0");
+    private final TextField jitterField = new TextField("0");
+    private final TextField errorRateField = new TextField("0");
+    private final TextField errorStatusField = new TextField("500");
+    private final TextField baseUrlField = new TextField();
+    private final ListView<MockRoute> routeListView = new ListView<>();
+    private final Label statusLabel = new Label("Stopped");
+    private final Button startButton = new Button("Start");
+    private final Button stopButton = new Button("Stop");
+    private final Timeline refresher = new Timeline(new KeyFrame(Duration.seconds(1), e -> refreshStatus()));
+    private MockServer server;
+
+    public MockServerWindow(String sourceName, Callable<List<MockRoute>> routeLoader) {
+        this.sourceName = sourceName;
+        this.routeLoader = routeLoader;
+    }
+
+    public void show() {
+        GridPane grid = new GridPane();
+        grid.setHgap(10);
+        grid.setVgap(10);
+        grid.add(new Label("Port (0 = any):"), 0, 0);
+        grid.add(portField, 1, 0);
+        grid.add(new Label("Latency (ms):"), 0, 1);
+        grid.add(latencyField, 1, 1);
+        grid.add(new Label("Jitter (ms):"), 0, 2);
+        grid.add(jitterField, 1, 2);
+        grid.add(new Label("Error rate (%):"), 0, 3);
+        grid.add(errorRateField, 1, 3);
+        grid.add(new Label("Error status (0 = drop):"), 0, 4);
+        grid.add(errorStatusField, 1, 4);
+
+        baseUrlField.setEditable(false);
+        baseUrlField.setPromptText("Base URL appears here once started");
+        baseUrlField.setPrefWidth(300);
+
+        startButton.setOnAction(e -> startServer());
+        stopButton.setOnAction(e -> stopServer());
+        stopButton.setDisable(true);
+
+        VBox layout = new VBox(10, grid,
+                new HBox(10, startButton, stopButton, new Label("Base URL:"), baseUrlField),
+                statusLabel, routeListView);
+        VBox.setVgrow(routeListView, Priority.ALWAYS);
+        layout.setPadding(new Insets(PADDING));
+
+        refresher.setCycleCount(Timeline.INDEFINITE);
+        stage.setTitle("Mock Server - " + sourceName);
+        stage.setScene(new Scene(layout, 700, 600));
+        stage.setOnHidden(e -> stopServer());
+        stage.show();
+    }
+
+    private void startServer() {
+        MockServer.Config config;
+        try {
+            config = new MockServer.Config()
+                    .port(parseInt(portField, "Port"))
+                    .latency(java.time.Duration.ofMillis(parseInt(latencyField, "Latency")))
+                    .jitter(java.time.Duration.ofMillis(parseInt(jitterField, "Jitter")))
+                    .errorRate(parseInt(errorRateField, "Error rate") / 100.0)
+                    .errorStatus(parseInt(errorStatusField, "Error status"));
+        } catch (IllegalArgumentException e) {
+            statusLabel.setText("Error: " + e.getMessage());
+            return;
+        }
+
+        // Loading from history reads records from disk, so keep it off the FX thread
+        startButton.setDisable(true);
+        statusLabel.setText("Loading routes from " + sourceName + " ...");
+        CompletableFuture.supplyAsync(() -> {
+            try {
+                MockServer started = new MockServer(routeLoader.call(), config);
+                started.start();
+                return started;
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }).whenComplete((started, error) -> Platform.runLater(() -> {
+            if (error != null) {
+                Throwable cause = error.getCause() != null ? error.getCause() : error;
+                statusLabel.setText("Failed to start: " + cause.getMessage());
+                startButton.setDisable(false);
+                return;
+            }
+            server = started;
+            baseUrlField.setText(started.getBaseUrl());
+            routeListView.getItems().setAll(started.getRoutes());
+            stopButton.setDisable(false);
+            refresher.play();
+            refreshStatus();
+        }));
+    }
+
+    private void stopServer() {
+        refresher.stop();
+        if (server != null) {
+            server.stop();
+            server = null;
+            statusLabel.setText("Stopped");
+            baseUrlField.clear();
+        }
+        startButton.setDisable(false);
+        stopButton.setDisable(true);
+    }
+
+    private void refreshStatus() {
+        if (server != null) {
+            statusLabel.setText(server.getRoutes().size() + " routes | " + server.getRequestCount() + " requests, "
+                    + server.getUnmatchedCount() + " unmatched, " + server.getInjectedErrorCount() + " injected errors");
+        }
+    }
+
+    private static int parseInt(TextField field, String name) {
+        try {
+            return Integer.parseInt(field.getText().trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be a whole number");
+        }
+    }
+}
@@ -0,0 +1,372 @@
+package com.restclient.restclient;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Reads a Swagger 2.0 or OpenAPI 3.x spec (JSON or YAML) straight into request templates and one load
+// scenario per tag, replacing the swagger-codegen "-l jmeter" round-trip.
+public class OpenApiImporter {
+    private static final String[] HTTP_METHODS = {"get", "put", "post", "delete", "options", "head", "patch", "trace"};
+    private static final int MAX_SCHEMA_DEPTH = 6;
+    private static final String DEFAULT_TAG = "default";
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    private final LoadTestConfig scenarioConfig;
+
+    public OpenApiImporter() {
+        this(new LoadTestConfig().virtualUsers(10).rampUp(Duration.ofSeconds(10)).loops(10));
+    }
+
+    public OpenApiImporter(LoadTestConfig scenarioConfig) {
+        this.scenarioConfig = scenarioConfig;
+    }
+
+    public TestPlan importSpec(Path file) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return importSpec(reader, file.getFileName().toString());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public TestPlan importSpec(Reader source, String sourceName) throws IOException {
+        BufferedReader reader = source instanceof BufferedReader ? (BufferedReader) source : new BufferedReader(source);
+        Object document;
+        try {
+            document = looksLikeJson(reader)
+                    ? GSON.fromJson(reader, Map.class)
+                    : new Yaml(new SafeConstructor(new LoaderOptions())).load(reader);
+        } catch (RuntimeException e) {
+            throw new IOException("Invalid OpenAPI spec " + sourceName + ": " + e.getMessage(), e);
+        }
+        if (!(document instanceof Map)) {
+            throw new IOException("Invalid OpenAPI spec " + sourceName + ": expected an object at the top level");
+        }
+        Map<String, Object> root = (Map<String, Object>) document;
+        if (!root.containsKey("paths")) {
+            throw new IOException("Invalid OpenAPI spec " + sourceName + ": no 'paths' section");
+        }
+        return buildPlan(root, sourceName);
+    }
+
+    private TestPlan buildPlan(Map<String, Object> root, String sourceName) {
+        Map<String, String> variables = new LinkedHashMap<>();
+        String baseUrl = baseUrl(root, variables);
+
+        Map<String, List<ApiRequest>> requestsByTag = new LinkedHashMap<>();
+        List<MockRoute> mockRoutes = new ArrayList<>();
+        String basePath = HistoryQuery.pathOf(baseUrl);
+        String pathPrefix = "/".equals(basePath) ? "" : basePath;
+        for (Map.Entry<String, Object> path : map(root.get("paths")).entrySet()) {
+            Map<String, Object> pathItem = map(resolveRef(root, path.getValue()));
+            List<Object> sharedParameters = list(pathItem.get("parameters"));
+            for (String method : HTTP_METHODS) {
+                Object operation = pathItem.get(method);
+                if (operation instanceof Map) {
+                    Map<String, Object> op = map(operation);
+                    ApiRequest request = toRequest(root, baseUrl, path.getKey(), method, op, sharedParameters);
+                    requestsByTag.computeIfAbsent(firstTag(op), tag -> new ArrayList<>()).add(request);
+                    MockRoute route = toMockRoute(root, pathPrefix + path.getKey(), method, op);
+                    if (route != null) {
+                        mockRoutes.add(route);
+                    }
+                }
+            }
+        }
+
+        List<LoadScenario> scenarios = new ArrayList<>();
+        requestsByTag.forEach((tag, requests) ->
+                scenarios.add(new LoadScenario(new RequestCollection(tag, requests), copyConfig())));
+
+        Map<String, Object> info = map(root.get("info"));
+        String title = info.get("title") instanceof String ? (String) info.get("title") : sourceName;
+        return new TestPlan(title, variables, scenarios, mockRoutes);
+    }
+
+    private ApiRequest toRequest(Map<String, Object> root, String baseUrl, String path, String method,
+                                 Map<String, Object> operation, List<Object> sharedParameters) {
+        String name = operation.get("operationId") instanceof String
+                ? (String) operation.get("operationId")
+                : method.toUpperCase() + " " + path;
+        ApiRequest.Builder builder = ApiRequest.builder()
+                .name(name)
+                .method(method.toUpperCase())
+                .url(baseUrl + path);
+
+        // Operation-level parameters override path-level ones with the same name and location
+        Map<String, Map<String, Object>> parameters = new LinkedHashMap<>();
+        for (Object parameter : sharedParameters) {
+            addParameter(root, parameters, parameter);
+        }
+        for (Object parameter : list(operation.get("parameters"))) {
+            addParameter(root, parameters, parameter);
+        }
+
+        for (Map<String, Object> parameter : parameters.values()) {
+            String parameterName = String.valueOf(parameter.get("name"));
+            String location = String.valueOf(parameter.get("in"));
+            Object example = parameterExample(root, parameter);
+            switch (location) {
+                case "path":
+                    // Unknown values keep their {placeholder} so they can be filled in later
+                    builder.pathParam(parameterName, example == null ? "{" + parameterName + "}" : scalar(example));
+                    break;
+                case "query":
+                    if (example != null || Boolean.TRUE.equals(parameter.get("required"))) {
+                        builder.queryParam(parameterName, example == null ? "" : scalar(example));
+                    }
+                    break;
+                case "header":
+                    builder.header(parameterName, example == null ? "" : scalar(example));
+                    break;
+                case "body":
+                    builder.header("Content-Type", "application/json");
+                    builder.body(GSON.toJson(exampleFor(root, parameter.get("schema"), 0)));
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        Map<String, Object> requestBody = map(resolveRef(root, operation.get("requestBody")));
+        if (!requestBody.isEmpty()) {
+            Map<String, Object> content = map(requestBody.get("content"));
+            String mediaType = content.containsKey("application/json") || content.isEmpty()
+                    ? "application/json" : content.keySet().iterator().next();
+            Map<String, Object> media = map(content.get(mediaType));
+            Object example = media.containsKey("example")
+                    ? media.get("example") : exampleFor(root, media.get("schema"), 0);
+            builder.header("Content-Type", mediaType);
+            builder.body(example instanceof String ? (String) example : GSON.toJson(example));
+        }
+        return builder.build();
+    }
+
+    // Method to turn the operation's first success response into a mock route; Swagger 2 puts the
+    // schema and examples on the response, OpenAPI 3 under content/<media type>
+    private MockRoute toMockRoute(Map<String, Object> root, String path, String method, Map<String, Object> operation) {
+        Map<String, Object> responses = map(operation.get("responses"));
+        // YAML reads an unquoted 200: as an Integer key, so the keys are not necessarily strings
+        Object key = null;
+        for (Object candidate : responses.keySet()) {
+            if (String.valueOf(candidate).startsWith("2")) {
+                key = candidate;
+                break;
+            }
+        }
+        if (key == null) {
+            return null;
+        }
+        String code = String.valueOf(key);
+        int status = code.matches("\\d{3}") ? Integer.parseInt(code) : 200;
+        Map<String, Object> response = map(resolveRef(root, responses.get(key)));
+
+        Object example = null;
+        boolean hasBody = false;
+        String mediaType = "application/json";
+        Map<String, Object> content = map(response.get("content"));
+        if (!content.isEmpty()) {
+            mediaType = content.containsKey("application/json") ? "application/json" : content.keySet().iterator().next();
+            Map<String, Object> media = map(content.get(mediaType));
+            example = media.containsKey("example") ? media.get("example") : exampleFor(root, media.get("schema"), 0);
+            hasBody = true;
+        } else if (response.containsKey("schema") || response.containsKey("examples")) {
+            Map<String, Object> examples = map(response.get("examples"));
+            example = examples.containsKey("application/json")
+                    ? examples.get("application/json") : exampleFor(root, response.get("schema"), 0);
+            hasBody = true;
+        }
+        if (!hasBody || status == 204) {
+            return MockRoute.of(method, path, status, Collections.emptyMap(), new byte[0]);
+        }
+        String body = example instanceof String ? (String) example : GSON.toJson(example);
+        return MockRoute.of(method, path, status, Map.of("Content-Type", mediaType), body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void addParameter(Map<String, Object> root, Map<String, Map<String, Object>> parameters, Object parameter) {
+        Map<String, Object> resolved = map(resolveRef(root, parameter));
+        if (resolved.containsKey("name")) {
+            parameters.put(resolved.get("in") + ":" + resolved.get("name"), resolved);
+        }
+    }
+
+    private Object parameterExample(Map<String, Object> root, Map<String, Object> parameter) {
+        for (String key : new String[]{"example", "x-example", "default"}) {
+            if (parameter.get(key) != null) {
+                return parameter.get(key);
+            }
+        }
+        Map<String, Object> schema = map(resolveRef(root, parameter.get("schema")));
+        for (String key : new String[]{"example", "default"}) {
+            if (schema.get(key) != null) {
+                return schema.get(key);
+            }
+        }
+        List<Object> values = list(parameter.containsKey("enum") ? parameter.get("enum") : schema.get("enum"));
+        return values.isEmpty() ? null : values.get(0);
+    }
+
+    // Method to synthesize an example value from a JSON schema
+    private Object exampleFor(Map<String, Object> root, Object schemaNode, int depth) {
+        Map<String, Object> schema = map(resolveRef(root, schemaNode));
+        if (schema.isEmpty() || depth > MAX_SCHEMA_DEPTH) {
+            return Collections.emptyMap();
+        }
+        if (schema.get("example") != null) {
+            return schema.get("example");
+        }
+        if (schema.get("default") != null) {
+            return schema.get("default");
+        }
+        List<Object> values = list(schema.get("enum"));
+        if (!values.isEmpty()) {
+            return values.get(0);
+        }
+        if (schema.containsKey("allOf")) {
+            Map<String, Object> merged = new LinkedHashMap<>();
+            for (Object part : list(schema.get("allOf"))) {
+                Object example = exampleFor(root, part, depth + 1);
+                if (example instanceof Map) {
+                    merged.putAll(map(example));
+                }
+            }
+            return merged;
+        }
+        for (String alternatives : new String[]{"oneOf", "anyOf"}) {
+            List<Object> options = list(schema.get(alternatives));
+            if (!options.isEmpty()) {
+                return exampleFor(root, options.get(0), depth + 1);
+            }
+        }
+
+        String type = schema.get("type") instanceof String ? (String) schema.get("type") : null;
+        if ("object".equals(type) || (type == null && schema.containsKey("properties"))) {
+            Map<String, Object> example = new LinkedHashMap<>();
+            map(schema.get("properties")).forEach((property, propertySchema) ->
+                    example.put(property, exampleFor(root, propertySchema, depth + 1)));
+            return example;
+        }
+        if ("array".equals(type)) {
+            return List.of(exampleFor(root, schema.get("items"), depth + 1));
+        }
+        if ("integer".equals(type)) {
+            return 0;
+        }
+        if ("number".equals(type)) {
+            return 0.0;
+        }
+        if ("boolean".equals(type)) {
+            return false;
+        }
+        String format = String.valueOf(schema.get("format"));
+        if ("date-time".equals(format)) {
+            return "2024-01-01T00:00:00Z";
+        }
+        if ("date".equals(format)) {
+            return "2024-01-01";
+        }
+        return "string";
+    }
+
+    // Swagger 2 uses scheme://host/basePath, OpenAPI 3 uses servers[0].url with {variables}
+    private String baseUrl(Map<String, Object> root, Map<String, String> variables) {
+        if (root.containsKey("servers")) {
+            List<Object> servers = list(root.get("servers"));
+            if (servers.isEmpty()) {
+                return "";
+            }
+            Map<String, Object> server = map(servers.get(0));
+            String url = String.valueOf(server.getOrDefault("url", ""));
+            for (Map.Entry<String, Object> variable : map(server.get("variables")).entrySet()) {
+                String value = String.valueOf(map(variable.getValue()).getOrDefault("default", ""));
+                variables.put(variable.getKey(), value);
+                url = url.replace("{" + variable.getKey() + "}", value);
+            }
+            return trimSlash(url);
+        }
+
+        List<Object> schemes = list(root.get("schemes"));
+        String scheme = schemes.isEmpty() ? "https" : String.valueOf(schemes.get(0));
+        String host = root.get("host") instanceof String ? (String) root.get("host") : "localhost";
+        String basePath = root.get("basePath") instanceof String ? (String) root.get("basePath") : "";
+        return trimSlash(scheme + "://" + host + basePath);
+    }
+
+    private String firstTag(Map<String, Object> operation) {
+        List<Object> tags = list(operation.get("tags"));
+        return tags.isEmpty() ? DEFAULT_TAG : String.valueOf(tags.get(0));
+    }
+
+    // Follows local "#/..." references; external references are left unresolved
+    private Object resolveRef(Map<String, Object> root, Object node) {
+        Object current = node;
+        for (int hops = 0; hops < 16 && current instanceof Map; hops++) {
+            Object ref = map(current).get("$ref");
+            if (!(ref instanceof String) || !((String) ref).startsWith("#/")) {
+                return current;
+            }
+            Object target = root;
+            for (String segment : ((String) ref).substring(2).split("/")) {
+                target = map(target).get(segment.replace("~1", "/").replace("~0", "~"));
+            }
+            current = target;
+        }
+        return current;
+    }
+
+    private LoadTestConfig copyConfig() {
+        return new LoadTestConfig()
+                .virtualUsers(scenarioConfig.getVirtualUsers())
+                .rampUp(scenarioConfig.getRampUp())
+                .loops(scenarioConfig.getLoops())
+                .targetRps(scenarioConfig.getTargetRps())
+                .duration(scenarioConfig.getDuration());
+    }
+
+    private static boolean looksLikeJson(BufferedReader reader) throws IOException {
+        reader.mark(4096);
+        int c;
+        do {
+            c = reader.read();
+        } while (c != -1 && Character.isWhitespace(c));
+        reader.reset();
+        return c == '{';
+    }
+
+    private static String scalar(Object value) {
+        // Gson reads every JSON number as a double; print whole numbers without ".0"
+        if (value instanceof Double && ((Double) value) == Math.rint((Double) value) && !((Double) value).isInfinite()) {
+            return String.valueOf(((Double) value).longValue());
+        }
+        return String.valueOf(value);
+    }
+
+    private static String trimSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> map(Object node) {
+        return node instanceof Map ? (Map<String, Object>) node : Collections.emptyMap();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Object> list(Object node) {
+        return node instanceof List ? (List<Object>) node : Collections.emptyList();
+    }
+}
@@ -0,0 +1,31 @@
+package com.restclient.restclient;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Spaces permits evenly to hold an aggregate rate across threads; never bursts to catch up
+public class RatePacer {
+    private final long intervalNanos;
+    private final AtomicLong nextSlot;
+
+    public RatePacer(double permitsPerSecond) {
+        this.intervalNanos = permitsPerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond) : 0;
+        this.nextSlot = new AtomicLong(System.nanoTime());
+    }
+
+    public static RatePacer unlimited() {
+        return new RatePacer(0);
+    }
+
+    public void acquire() throws InterruptedException {
+        if (intervalNanos == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        long slot = nextSlot.updateAndGet(previous -> Math.max(previous + intervalNanos, now));
+        long wait = slot - now;
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+}
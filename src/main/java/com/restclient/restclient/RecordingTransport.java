@@ -0,0 +1,38 @@
+package com.restclient.restclient;
+
+import java.io.IOException;
+
+// Decorator that copies every exchange through its delegate into a capture file
+public class RecordingTransport implements HttpTransport {
+    private final HttpTransport delegate;
+    private final CaptureWriter writer;
+
+    public RecordingTransport(HttpTransport delegate, CaptureWriter writer) {
+        this.delegate = delegate;
+        this.writer = writer;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public void reserveConcurrency(int concurrency) {
+        delegate.reserveConcurrency(concurrency);
+    }
+
+    @Override
+    public ApiResponse execute(ApiRequest request) throws IOException, InterruptedException {
+        long sentAt = System.nanoTime();
+        ApiResponse response;
+        try {
+            response = delegate.execute(request);
+        } catch (IOException | RuntimeException e) {
+            writer.recordFailure(request, sentAt, e);
+            throw e;
+        }
+        writer.record(request, response, sentAt);
+        return response;
+    }
+}
@@ -0,0 +1,64 @@
+package com.restclient.restclient;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// An ordered, named set of saved requests (e.g. one imported JMeter thread group)
+public class RequestCollection {
+    private final String name;
+    private final List<ApiRequest> requests;
+
+    public RequestCollection(String name, List<ApiRequest> requests) {
+        this.name = name;
+        this.requests = Collections.unmodifiableList(new ArrayList<>(requests));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<ApiRequest> getRequests() {
+        return requests;
+    }
+
+    public boolean isEmpty() {
+        return requests.isEmpty();
+    }
+
+    // Method to point every request at another scheme/host/port, keeping paths and queries
+    public RequestCollection rebase(String baseUrl) {
+        if (baseUrl == null || baseUrl.trim().isEmpty()) {
+            return this;
+        }
+        String base = baseUrl.trim();
+        if (base.endsWith("/")) {
+            base = base.substring(0, base.length() - 1);
+        }
+        List<ApiRequest> rebased = new ArrayList<>(requests.size());
+        for (ApiRequest request : requests) {
+            rebased.add(request.toBuilder().url(base + pathAndQuery(request.getUrl())).build());
+        }
+        return new RequestCollection(name, rebased);
+    }
+
+    // URL templates may hold {placeholders}, which java.net.URI rejects, so split by hand. A URL that
+    // starts with a reference such as ${host} has the reference as its origin.
+    static String pathAndQuery(String url) {
+        if (url.startsWith("${") || url.startsWith("{")) {
+            int end = url.indexOf('}');
+            return end < 0 ? url : url.substring(end + 1);
+        }
+        int scheme = url.indexOf("://");
+        if (scheme < 0) {
+            return url.startsWith("/") ? url : "/" + url;
+        }
+        int path = url.indexOf('/', scheme + 3);
+        return path < 0 ? "" : url.substring(path);
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + requests.size() + " requests)";
+    }
+}
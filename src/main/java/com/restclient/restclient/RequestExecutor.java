@@ -0,0 +1,55 @@
+package com.restclient.restclient;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+// Runs requests off the JavaFX Application Thread, several at a time, with cancellation and timeouts
+public class RequestExecutor {
+    private final ExecutorService workers;
+    private final ScheduledExecutorService timer;
+
+    public RequestExecutor() {
+        this(Executors.newCachedThreadPool(HttpClientEngine.daemonThreads("request-worker")));
+    }
+
+    public RequestExecutor(ExecutorService workers) {
+        this.workers = workers;
+        this.timer = Executors.newSingleThreadScheduledExecutor(HttpClientEngine.daemonThreads("request-timeout"));
+    }
+
+    // Submits the request; the timeout (if any) covers queueing, sending and reading the body
+    public InFlightRequest submit(ApiRequest request, HttpTransport transport) {
+        InFlightRequest inFlight = new InFlightRequest(request, transport.getName());
+        Duration timeout = request.getTimeout();
+        ScheduledFuture<?> watchdog = timeout == null ? null : timer.schedule(
+                () -> inFlight.timeout(timeout.toMillis()), timeout.toMillis(), TimeUnit.MILLISECONDS);
+
+        inFlight.attach(workers.submit(() -> {
+            if (!inFlight.start()) {
+                return;
+            }
+            try {
+                inFlight.complete(transport.execute(request));
+            } catch (InterruptedException e) {
+                // Cancelled or timed out; the handle already carries the final state
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                inFlight.fail(e);
+            } finally {
+                if (watchdog != null) {
+                    watchdog.cancel(false);
+                }
+            }
+        }));
+        return inFlight;
+    }
+
+    public void shutdown() {
+        workers.shutdownNow();
+        timer.shutdownNow();
+    }
+}
@@ -0,0 +1,284 @@
+package com.restclient.restclient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+// Structured request/response logging shared by every transport. When the level is OFF a call site
+// costs one volatile read and allocates nothing; otherwise events go into a bounded ring and are
+// formatted and written by a single background thread, dropping (and counting) events when full.
+public final class RequestLogger {
+    public enum Level { OFF, SUMMARY, HEADERS, FULL }
+
+    private static final int RING_CAPACITY = 4096;
+    private static final int DEFAULT_MAX_BODY_CHARS = 2048;
+    private static final RequestLogger SHARED = new RequestLogger(
+            parseLevel(System.getProperty("restclient.log.level")), DEFAULT_MAX_BODY_CHARS, System.out::println);
+
+    private volatile Level level;
+    private volatile int maxBodyChars;
+    private volatile Consumer<String> output;
+    private final Ring ring = new Ring(RING_CAPACITY);
+    private final AtomicLong dropped = new AtomicLong();
+    private final Object startLock = new Object();
+    private volatile Thread writer;
+
+    public RequestLogger(Level level, int maxBodyChars, Consumer<String> output) {
+        this.level = level;
+        this.maxBodyChars = maxBodyChars;
+        this.output = output;
+    }
+
+    // Process-wide logger; the initial level comes from -Drestclient.log.level (default off)
+    public static RequestLogger shared() {
+        return SHARED;
+    }
+
+    public Level getLevel() {
+        return level;
+    }
+
+    public RequestLogger setLevel(Level level) {
+        this.level = level;
+        return this;
+    }
+
+    // Bodies longer than this are cut off in FULL mode
+    public RequestLogger setMaxBodyChars(int maxBodyChars) {
+        this.maxBodyChars = Math.max(0, maxBodyChars);
+        return this;
+    }
+
+    public RequestLogger setOutput(Consumer<String> output) {
+        this.output = output;
+        return this;
+    }
+
+    public boolean isEnabled() {
+        return level != Level.OFF;
+    }
+
+    // Events discarded because the writer could not keep up
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    // Method to log a completed exchange; callers check isEnabled() first to keep the off path free
+    public void logExchange(ApiRequest request, ApiResponse response) {
+        Level current = level;
+        if (current == Level.OFF) {
+            return;
+        }
+        publish(Event.exchange(current, request, response, maxBodyChars));
+    }
+
+    public void logFailure(ApiRequest request, Throwable error) {
+        Level current = level;
+        if (current == Level.OFF) {
+            return;
+        }
+        publish(Event.failure(request, error));
+    }
+
+    private void publish(Event event) {
+        if (!ring.offer(event)) {
+            dropped.incrementAndGet();
+            return;
+        }
+        Thread thread = writer;
+        if (thread == null) {
+            thread = startWriter();
+        }
+        LockSupport.unpark(thread);
+    }
+
+    private Thread startWriter() {
+        synchronized (startLock) {
+            if (writer == null) {
+                Thread thread = HttpClientEngine.daemonThreads("request-log").newThread(this::drain);
+                writer = thread;
+                thread.start();
+            }
+            return writer;
+        }
+    }
+
+    private void drain() {
+        long reportedDrops = 0;
+        while (true) {
+            Event event = ring.poll();
+            if (event == null) {
+                long drops = dropped.get();
+                if (drops != reportedDrops) {
+                    write("[request-log] dropped " + (drops - reportedDrops) + " events");
+                    reportedDrops = drops;
+                }
+                LockSupport.parkNanos(50_000_000L);
+                continue;
+            }
+            write(format(event));
+        }
+    }
+
+    private void write(String line) {
+        try {
+            output.accept(line);
+        } catch (RuntimeException e) {
+            // A failing sink must not kill the writer thread
+        }
+    }
+
+    private static String format(Event event) {
+        StringBuilder line = new StringBuilder(256);
+        line.append(event.method).append(' ').append(event.url);
+        if (event.error != null) {
+            line.append(" -> FAILED: ").append(event.error);
+            return line.toString();
+        }
+        line.append(" -> ").append(event.status)
+                .append(" (").append(String.format(Locale.ROOT, "%.1f ms", event.totalMillis))
+                .append(", ").append(ResponseBody.formatSize(event.size))
+                .append(", ").append(event.transportName).append(')');
+        if (event.requestHeaders != null) {
+            line.append("\n  > request headers");
+            for (String[] header : event.requestHeaders) {
+                line.append("\n    ").append(header[0]).append(": ").append(AuthConfig.redact(header[0], header[1]));
+            }
+            line.append("\n  < response headers");
+            for (Map.Entry<String, List<String>> header : event.responseHeaders.entrySet()) {
+                for (String value : header.getValue()) {
+                    line.append("\n    ").append(header.getKey()).append(": ")
+                            .append(AuthConfig.redact(header.getKey(), value));
+                }
+            }
+        }
+        if (event.bodyPreview != null) {
+            if (event.requestBody != null) {
+                line.append("\n  > body\n").append(event.requestBody);
+            }
+            line.append("\n  < body\n").append(event.bodyPreview);
+        }
+        return line.toString();
+    }
+
+    private static String truncate(String text, int max) {
+        return text.length() <= max ? text : text.substring(0, max) + "... (" + text.length() + " chars)";
+    }
+
+    static Level parseLevel(String text) {
+        if (text == null || text.isEmpty()) {
+            return Level.OFF;
+        }
+        try {
+            return Level.valueOf(text.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return Level.OFF;
+        }
+    }
+
+    // Only what the level prints, copied when the event is published: queued events must not keep the
+    // response (and a body of up to a megabyte) reachable while the writer catches up
+    private static final class Event {
+        private final String method;
+        private final String url;
+        private final Throwable error;
+        private final int status;
+        private final double totalMillis;
+        private final long size;
+        private final String transportName;
+        // HEADERS and FULL only
+        private final List<String[]> requestHeaders;
+        private final Map<String, List<String>> responseHeaders;
+        // FULL only
+        private final String requestBody;
+        private final String bodyPreview;
+
+        private Event(ApiRequest request, Throwable error, int status, double totalMillis, long size,
+                      String transportName, List<String[]> requestHeaders, Map<String, List<String>> responseHeaders,
+                      String requestBody, String bodyPreview) {
+            this.method = request.getMethod();
+            this.url = request.buildUrlWithParams();
+            this.error = error;
+            this.status = status;
+            this.totalMillis = totalMillis;
+            this.size = size;
+            this.transportName = transportName;
+            this.requestHeaders = requestHeaders;
+            this.responseHeaders = responseHeaders;
+            this.requestBody = requestBody;
+            this.bodyPreview = bodyPreview;
+        }
+
+        static Event exchange(Level level, ApiRequest request, ApiResponse response, int maxBodyChars) {
+            List<String[]> requestHeaders = null;
+            if (level.compareTo(Level.HEADERS) >= 0) {
+                List<String[]> headers = new ArrayList<>();
+                request.addHeadersToRequest((name, value) -> headers.add(new String[]{name, value}));
+                requestHeaders = headers;
+            }
+            String requestBody = null;
+            String bodyPreview = null;
+            if (level == Level.FULL) {
+                requestBody = request.hasBody() ? truncate(request.getBody(), maxBodyChars) : null;
+                // The body may be a temp file deleted right after this call, so take the preview now
+                bodyPreview = response.getBody().preview(maxBodyChars);
+            }
+            return new Event(request, null, response.getStatusCode(), response.getTiming().getTotalMillis(),
+                    response.getBody().size(), response.getTransportName(), requestHeaders,
+                    requestHeaders == null ? null : response.getHeaders(), requestBody, bodyPreview);
+        }
+
+        static Event failure(ApiRequest request, Throwable error) {
+            return new Event(request, error, -1, 0, 0, null, null, null, null, null);
+        }
+    }
+
+    // Bounded multi-producer, single-consumer ring. Producers claim a slot by CAS on the tail and
+    // publish into it; the consumer waits for the slot to be filled before advancing the head.
+    private static final class Ring {
+        private final AtomicReferenceArray<Event> slots;
+        private final int mask;
+        private final AtomicLong tail = new AtomicLong();
+        private volatile long head;
+
+        Ring(int capacity) {
+            int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+            slots = new AtomicReferenceArray<>(size);
+            mask = size - 1;
+        }
+
+        boolean offer(Event event) {
+            while (true) {
+                long current = tail.get();
+                if (current - head >= slots.length()) {
+                    return false;
+                }
+                if (tail.compareAndSet(current, current + 1)) {
+                    slots.set((int) (current & mask), event);
+                    return true;
+                }
+            }
+        }
+
+        Event poll() {
+            long current = head;
+            if (current == tail.get()) {
+                return null;
+            }
+            int index = (int) (current & mask);
+            Event event = slots.get(index);
+            if (event == null) {
+                // Slot claimed but not yet published
+                return null;
+            }
+            slots.set(index, null);
+            head = current + 1;
+            return event;
+        }
+    }
+}
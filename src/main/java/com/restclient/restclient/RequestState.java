@@ -0,0 +1,15 @@
+package com.restclient.restclient;
+
+// Lifecycle of a request submitted to the RequestExecutor
+public enum RequestState {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    CANCELLED,
+    TIMED_OUT;
+
+    public boolean isDone() {
+        return this != QUEUED && this != RUNNING;
+    }
+}
@@ -0,0 +1,112 @@
+package com.restclient.restclient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+// An ApiRequest with its URL, header values, query parameters and body compiled into Templates once,
+// so load runs render one concrete request per iteration without re-parsing any text
+public final class RequestTemplate {
+    private final ApiRequest source;
+    private final Template url;
+    private final Template[][] headers;
+    private final Template[][] queryParams;
+    private final Template body;
+    private final boolean constant;
+
+    private RequestTemplate(ApiRequest source) {
+        this.source = source;
+        this.url = Template.of(source.getUrl());
+        this.headers = new Template[source.getHeaders().size()][2];
+        for (int i = 0; i < headers.length; i++) {
+            headers[i][0] = Template.of(source.getHeaders().get(i).getKey());
+            headers[i][1] = Template.of(source.getHeaders().get(i).getValue());
+        }
+        this.queryParams = new Template[source.getQueryParams().size()][2];
+        for (int i = 0; i < queryParams.length; i++) {
+            queryParams[i][0] = Template.of(source.getQueryParams().get(i).getKey());
+            queryParams[i][1] = Template.of(source.getQueryParams().get(i).getValue());
+        }
+        this.body = source.getBody() == null ? null : Template.ofDollar(source.getBody());
+        boolean allConstant = url.isConstant() && (body == null || body.isConstant());
+        for (Template[] pair : headers) {
+            allConstant &= pair[0].isConstant() && pair[1].isConstant();
+        }
+        for (Template[] pair : queryParams) {
+            allConstant &= pair[0].isConstant() && pair[1].isConstant();
+        }
+        this.constant = allConstant;
+    }
+
+    public static RequestTemplate compile(ApiRequest request) {
+        return new RequestTemplate(request);
+    }
+
+    public ApiRequest getSource() {
+        return source;
+    }
+
+    // True when nothing in the request references a variable
+    public boolean isConstant() {
+        return constant;
+    }
+
+    public ApiRequest render(Map<String, String> variables) {
+        return render(variables::get);
+    }
+
+    // Method to build the concrete request. The request's own path parameters fill any {name} the
+    // variables leave open, so an environment can override them but does not have to.
+    public ApiRequest render(Function<String, String> variables) {
+        if (constant) {
+            return source;
+        }
+        Map<String, String> pathParams = source.getPathParams();
+        Function<String, String> lookup = pathParams.isEmpty() ? variables : name -> {
+            String value = variables.apply(name);
+            return value != null ? value : pathParams.get(name);
+        };
+        ApiRequest.Builder builder = ApiRequest.builder()
+                .name(source.getName())
+                .method(source.getMethod())
+                .url(url.render(lookup))
+                .urlTemplate(url.isConstant() ? source.getUrlTemplate() : source.getUrl())
+                .auth(source.getAuth())
+                .body(body == null ? null : body.render(lookup))
+                .timeout(source.getTimeout());
+        for (Template[] header : headers) {
+            builder.header(header[0].render(lookup), header[1].render(lookup));
+        }
+        for (Template[] param : queryParams) {
+            builder.queryParam(param[0].render(lookup), param[1].render(lookup));
+        }
+        source.getDependsOn().forEach(builder::dependsOn);
+        return builder.build();
+    }
+
+    // Every variable referenced anywhere in the request, for showing what an environment must define
+    public List<String> getVariableNames() {
+        List<String> names = new ArrayList<>(url.getVariableNames());
+        for (Template[] pair : headers) {
+            addAll(names, pair);
+        }
+        for (Template[] pair : queryParams) {
+            addAll(names, pair);
+        }
+        if (body != null) {
+            addAll(names, new Template[]{body});
+        }
+        return names;
+    }
+
+    private static void addAll(List<String> names, Template[] templates) {
+        for (Template template : templates) {
+            for (String name : template.getVariableNames()) {
+                if (!names.contains(name)) {
+                    names.add(name);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.restclient.restclient;
+
+import java.util.Locale;
+
+// Per-request timing breakdown; phases a transport cannot observe are reported as -1
+public class RequestTiming {
+    private final long dnsNanos;
+    private final long connectNanos;
+    private final long tlsNanos;
+    private final long prepareNanos;
+    private final long timeToFirstByteNanos;
+    private final long downloadNanos;
+    private final long totalNanos;
+
+    public RequestTiming(long prepareNanos, long timeToFirstByteNanos, long downloadNanos, long totalNanos) {
+        this(-1, -1, -1, prepareNanos, timeToFirstByteNanos, downloadNanos, totalNanos);
+    }
+
+    public RequestTiming(long dnsNanos, long connectNanos, long tlsNanos, long prepareNanos, long timeToFirstByteNanos,
+                         long downloadNanos, long totalNanos) {
+        this.dnsNanos = dnsNanos;
+        this.connectNanos = connectNanos;
+        this.tlsNanos = tlsNanos;
+        this.prepareNanos = prepareNanos;
+        this.timeToFirstByteNanos = timeToFirstByteNanos;
+        this.downloadNanos = downloadNanos;
+        this.totalNanos = totalNanos;
+    }
+
+    // Host name lookup, for a transport that can time it; neither current one can, so this is -1
+    public long getDnsNanos() {
+        return dnsNanos;
+    }
+
+    // TCP connect for a newly opened connection, 0 when a pooled connection was reused
+    public long getConnectNanos() {
+        return connectNanos;
+    }
+
+    // TLS handshake for a newly opened connection, 0 when a pooled connection was reused
+    public long getTlsNanos() {
+        return tlsNanos;
+    }
+
+    // Time spent turning the request model into a transport request
+    public long getPrepareNanos() {
+        return prepareNanos;
+    }
+
+    // From dispatch until the response status line and headers arrived, including any connection setup
+    public long getTimeToFirstByteNanos() {
+        return timeToFirstByteNanos;
+    }
+
+    // From response headers until the body was fully read
+    public long getDownloadNanos() {
+        return downloadNanos;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public double getTotalMillis() {
+        return totalNanos / 1_000_000.0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        appendPhase(text, "DNS", dnsNanos);
+        appendPhase(text, "connect", connectNanos);
+        appendPhase(text, "TLS", tlsNanos);
+        appendPhase(text, "prepare", prepareNanos);
+        appendPhase(text, "TTFB", timeToFirstByteNanos);
+        appendPhase(text, "download", downloadNanos);
+        appendPhase(text, "total", totalNanos);
+        return text.toString();
+    }
+
+    private static void appendPhase(StringBuilder text, String name, long nanos) {
+        if (nanos < 0) {
+            return;
+        }
+        if (text.length() > 0) {
+            text.append(" | ");
+        }
+        text.append(name).append(' ').append(String.format(Locale.ROOT, "%.1f ms", nanos / 1_000_000.0));
+    }
+}
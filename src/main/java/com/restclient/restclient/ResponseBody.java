@@ -0,0 +1,257 @@
+package com.restclient.restclient;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// A response body held in memory when small, or spooled to a temp file when large. Large bodies are
+// only ever read back one page at a time through a memory-mapped window.
+public final class ResponseBody implements Closeable {
+    private static final ResponseBody EMPTY = new ResponseBody(new byte[0], 0, null, StandardCharsets.UTF_8);
+
+    private final byte[] bytes;
+    private final long size;
+    private final Path file;
+    private final Charset charset;
+    private FileChannel channel;
+
+    private ResponseBody(byte[] bytes, long size, Path file, Charset charset) {
+        this.bytes = bytes;
+        this.size = size;
+        this.file = file;
+        this.charset = charset;
+    }
+
+    public static ResponseBody empty() {
+        return EMPTY;
+    }
+
+    public static ResponseBody ofBytes(byte[] bytes, Charset charset) {
+        return new ResponseBody(bytes, bytes.length, null, charset);
+    }
+
+    public static ResponseBody ofString(String text) {
+        return ofBytes(text == null ? new byte[0] : text.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+    }
+
+    static ResponseBody ofFile(Path file, long size, Charset charset) {
+        return new ResponseBody(null, size, file, charset);
+    }
+
+    // Method to copy a stream into a body, spooling to disk past the memory threshold
+    public static ResponseBody read(InputStream in, Charset charset, int memoryThreshold) throws IOException {
+        byte[] buffer = new byte[64 * 1024];
+        java.io.ByteArrayOutputStream memory = new java.io.ByteArrayOutputStream();
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            memory.write(buffer, 0, read);
+            if (memory.size() > memoryThreshold) {
+                Path spool = createSpoolFile();
+                try (OutputStream out = Files.newOutputStream(spool, StandardOpenOption.WRITE)) {
+                    memory.writeTo(out);
+                    long size = memory.size();
+                    memory = null;
+                    while ((read = in.read(buffer)) != -1) {
+                        out.write(buffer, 0, read);
+                        size += read;
+                    }
+                    return ofFile(spool, size, charset);
+                } catch (IOException e) {
+                    Files.deleteIfExists(spool);
+                    throw e;
+                }
+            }
+        }
+        return ofBytes(memory.toByteArray(), charset);
+    }
+
+    // Deleted by close(); nothing is registered for deletion on exit, since that list only ever grows
+    static Path createSpoolFile() throws IOException {
+        return Files.createTempFile(SpoolDirectory.get(), "body-", ".tmp");
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public boolean isSpooled() {
+        return file != null;
+    }
+
+    public Charset getCharset() {
+        return charset;
+    }
+
+    public int pageCount(int pageSize) {
+        return size == 0 ? 1 : (int) ((size + pageSize - 1) / pageSize);
+    }
+
+    // Decoded text of one page; page edges are nudged so multi-byte characters are never split
+    public String readPage(int page, int pageSize) throws IOException {
+        long start = alignToCharacter((long) page * pageSize);
+        long end = alignToCharacter(Math.min(size, (long) (page + 1) * pageSize));
+        if (start >= end) {
+            return "";
+        }
+        return decode(slice(start, (int) (end - start)));
+    }
+
+    // Whole body as text, or only the first maxBytes of it with a truncation note
+    public String preview(int maxBytes) {
+        try {
+            if (size <= maxBytes) {
+                return readPage(0, (int) Math.max(1, size));
+            }
+            return readPage(0, maxBytes) + "\n\n... truncated, showing " + maxBytes + " of " + size + " bytes";
+        } catch (IOException e) {
+            return "Unable to read response body: " + e.getMessage();
+        }
+    }
+
+    // Full body as text; only sensible for in-memory bodies
+    public String asString() {
+        if (file != null) {
+            throw new IllegalStateException("Body of " + size + " bytes was spooled to disk; read it by page");
+        }
+        return new String(bytes, charset);
+    }
+
+    // Read-only view of the whole body for random access; spooled bodies are mapped, not loaded
+    public ByteBuffer map() throws IOException {
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Body of " + size + " bytes is too large to map");
+        }
+        return slice(0, (int) size).asReadOnlyBuffer();
+    }
+
+    public InputStream openStream() throws IOException {
+        return file == null ? new ByteArrayInputStream(bytes) : Files.newInputStream(file);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+        if (file != null) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private synchronized ByteBuffer slice(long offset, int length) throws IOException {
+        if (file == null) {
+            return ByteBuffer.wrap(bytes, (int) offset, length);
+        }
+        if (channel == null) {
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+    }
+
+    private long alignToCharacter(long position) throws IOException {
+        if (!StandardCharsets.UTF_8.equals(charset) || position <= 0 || position >= size) {
+            return position;
+        }
+        ByteBuffer window = slice(position, (int) Math.min(4, size - position));
+        int skip = 0;
+        while (skip < window.limit() && (window.get(skip) & 0xC0) == 0x80) {
+            skip++;
+        }
+        return position + skip;
+    }
+
+    private String decode(ByteBuffer buffer) throws IOException {
+        CharsetDecoder decoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        return decoder.decode(buffer).toString();
+    }
+
+    @Override
+    public String toString() {
+        return formatSize(size) + (file != null ? " (spooled to disk)" : "");
+    }
+
+    public static String formatSize(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " B";
+        }
+        if (bytes < 1024 * 1024) {
+            return String.format(java.util.Locale.ROOT, "%.1f KB", bytes / 1024.0);
+        }
+        return String.format(java.util.Locale.ROOT, "%.1f MB", bytes / (1024.0 * 1024.0));
+    }
+
+    // One directory per process under java.io.tmpdir/restclient-spool. The first spool of a run sweeps
+    // the directories of processes that are no longer running, which is all a crash or kill leaves behind.
+    private static final class SpoolDirectory {
+        private static final Path ROOT = Paths.get(System.getProperty("java.io.tmpdir"), "restclient-spool");
+        private static Path directory;
+
+        static synchronized Path get() throws IOException {
+            if (directory == null) {
+                Files.createDirectories(ROOT);
+                String pid = Long.toString(ProcessHandle.current().pid());
+                sweep(pid);
+                directory = Files.createDirectories(ROOT.resolve(pid));
+            }
+            return directory;
+        }
+
+        // A directory named after our own pid is from an earlier process that had the same id
+        private static void sweep(String pid) {
+            try (DirectoryStream<Path> processes = Files.newDirectoryStream(ROOT)) {
+                for (Path process : processes) {
+                    String name = process.getFileName().toString();
+                    if (name.equals(pid) || !isRunning(name)) {
+                        deleteTree(process);
+                    }
+                }
+            } catch (IOException e) {
+                // Best effort; the next start tries again
+            }
+        }
+
+        private static boolean isRunning(String pid) {
+            try {
+                return ProcessHandle.of(Long.parseLong(pid)).map(ProcessHandle::isAlive).orElse(false);
+            } catch (NumberFormatException e) {
+                // Not one of ours
+                return true;
+            }
+        }
+
+        private static void deleteTree(Path root) throws IOException {
+            List<Path> paths;
+            try (Stream<Path> walk = Files.walk(root)) {
+                paths = walk.sorted(Comparator.reverseOrder()).collect(Collectors.toList());
+            }
+            for (Path path : paths) {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    // Still open elsewhere (Windows); swept on a later start
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,573 @@
+package com.restclient.restclient;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Client-side HTTP cache with a bounded in-memory LRU tier in front of a bounded on-disk tier.
+// Freshness follows Cache-Control / Expires (with the usual Last-Modified heuristic); stale entries
+// keep their ETag and Last-Modified so CachingTransport can revalidate them. Entries are keyed by
+// method, URL and the credentials sent, so one identity's responses are never served to another.
+public class ResponseCache {
+    public static final long DEFAULT_MEMORY_BYTES = 32L * 1024 * 1024;
+    public static final long DEFAULT_DISK_BYTES = 256L * 1024 * 1024;
+    // Larger bodies live only on disk
+    private static final long MAX_MEMORY_ENTRY_BYTES = 1024 * 1024;
+    private static final long MAX_HEURISTIC_FRESHNESS_MILLIS = 24L * 60 * 60 * 1000;
+    private static final Set<Integer> CACHEABLE_STATUSES = Set.of(200, 203, 204, 300, 301, 308, 404, 405, 410, 414, 501);
+    private static final Gson GSON = new Gson();
+    private static final String META = ".meta";
+    private static final String BODY = ".body";
+    // Bumped when keys change meaning; a cache directory written with another format is cleared on open
+    private static final String FORMAT = "2";
+    private static final String FORMAT_FILE = "format";
+
+    private final Path directory;
+    private final long maxMemoryBytes;
+    private final long maxDiskBytes;
+    // Access-ordered, so iteration starts at the least recently used entry
+    private final LinkedHashMap<String, Entry> memory = new LinkedHashMap<>(64, 0.75f, true);
+    private final LinkedHashMap<String, Long> disk = new LinkedHashMap<>(64, 0.75f, true);
+    private long memoryBytes;
+    private long diskBytes;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong revalidations = new AtomicLong();
+
+    public ResponseCache(Path directory, long maxMemoryBytes, long maxDiskBytes) throws IOException {
+        this.directory = directory;
+        this.maxMemoryBytes = maxMemoryBytes;
+        this.maxDiskBytes = maxDiskBytes;
+        Files.createDirectories(directory);
+        loadDiskIndex();
+        Path format = directory.resolve(FORMAT_FILE);
+        if (!Files.exists(format) || !FORMAT.equals(Files.readString(format, StandardCharsets.UTF_8).trim())) {
+            // Earlier entries were keyed without credentials and could belong to any identity
+            clear();
+            Files.writeString(format, FORMAT, StandardCharsets.UTF_8);
+        }
+    }
+
+    // Method to open the cache under ~/.restclient (or -Drestclient.home)
+    public static ResponseCache openDefault() throws IOException {
+        String home = System.getProperty("restclient.home",
+                Paths.get(System.getProperty("user.home"), ".restclient").toString());
+        return new ResponseCache(Paths.get(home, "cache"), DEFAULT_MEMORY_BYTES, DEFAULT_DISK_BYTES);
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getRevalidatedCount() {
+        return revalidations.get();
+    }
+
+    public synchronized long getMemoryBytes() {
+        return memoryBytes;
+    }
+
+    public synchronized long getDiskBytes() {
+        return diskBytes;
+    }
+
+    // Method to find the stored response for a request, fresh or not; null when there is none
+    public Entry lookup(ApiRequest request) {
+        String key = keyFor(request);
+        Entry entry;
+        synchronized (this) {
+            entry = memory.get(key);
+            if (entry == null && disk.containsKey(key)) {
+                entry = readEntry(key);
+                if (entry == null) {
+                    removeFromDisk(key);
+                } else if (entry.bodySize <= MAX_MEMORY_ENTRY_BYTES) {
+                    putInMemory(key, entry);
+                }
+            }
+        }
+        return entry != null && entry.matchesVary(request) ? entry : null;
+    }
+
+    // Method to store a response if HTTP caching rules allow it; returns the entry or null
+    public Entry store(ApiRequest request, ApiResponse response) {
+        if (!CACHEABLE_STATUSES.contains(response.getStatusCode()) || hasDirective(request.getHeaders(), "no-store")) {
+            return null;
+        }
+        Map<String, String> cacheControl = cacheControl(response.getHeader("Cache-Control"));
+        String vary = response.getHeader("Vary");
+        if (cacheControl.containsKey("no-store") || (vary != null && vary.trim().equals("*"))) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        long freshness = freshnessMillis(response, cacheControl, now);
+        String etag = response.getHeader("ETag");
+        String lastModified = response.getHeader("Last-Modified");
+        if (freshness <= 0 && etag == null && lastModified == null) {
+            // Could neither be served nor revalidated
+            return null;
+        }
+        String key = keyFor(request);
+        Entry entry = new Entry(key, request.getMethod(), request.buildUrlWithParams(), response.getStatusCode(),
+                response.getProtocol(), response.getHeaders(), response.getBody().getCharset().name(),
+                response.getBody().size(), now, freshness, etag, lastModified, varyValues(vary, request));
+        try {
+            if (entry.bodySize <= MAX_MEMORY_ENTRY_BYTES) {
+                entry.body = readAll(response.getBody());
+            }
+            writeEntry(entry, response.getBody());
+        } catch (IOException e) {
+            // Best effort: a response that cannot be cached is still a valid response
+            return null;
+        }
+        synchronized (this) {
+            if (entry.body != null) {
+                putInMemory(key, entry);
+            } else {
+                removeFromMemory(key);
+            }
+        }
+        return entry;
+    }
+
+    // Method to apply a 304 to a stored entry: merge the new headers and restart its freshness
+    public Entry refresh(Entry entry, ApiResponse notModified) {
+        Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        headers.putAll(entry.headers);
+        notModified.getHeaders().forEach((name, values) -> {
+            if (name != null && !name.equalsIgnoreCase("Content-Length")) {
+                headers.put(name, values);
+            }
+        });
+        ApiResponse merged = new ApiResponse(entry.statusCode, entry.protocol, headers, null, null, null);
+        long now = System.currentTimeMillis();
+        Entry refreshed = new Entry(entry.key, entry.method, entry.url, entry.statusCode, entry.protocol, headers,
+                entry.charset, entry.bodySize, now, freshnessMillis(merged, cacheControl(merged.getHeader("Cache-Control")), now),
+                first(merged.getHeader("ETag"), entry.etag), first(merged.getHeader("Last-Modified"), entry.lastModified),
+                entry.vary);
+        refreshed.body = entry.body;
+        try {
+            writeMeta(refreshed);
+        } catch (IOException e) {
+            // The disk copy keeps its old freshness and is revalidated again next time
+        }
+        synchronized (this) {
+            if (refreshed.body != null) {
+                putInMemory(entry.key, refreshed);
+            }
+        }
+        return refreshed;
+    }
+
+    // Unsafe methods invalidate what is stored for their URL, under every identity
+    public void invalidate(String url) {
+        for (String method : new String[]{"GET", "HEAD"}) {
+            String prefix = keyFor(method, url);
+            synchronized (this) {
+                for (String key : new ArrayList<>(disk.keySet())) {
+                    if (isKeyFor(key, prefix)) {
+                        removeFromDisk(key);
+                    }
+                }
+                for (String key : new ArrayList<>(memory.keySet())) {
+                    if (isKeyFor(key, prefix)) {
+                        removeFromMemory(key);
+                    }
+                }
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        for (String key : new ArrayList<>(disk.keySet())) {
+            removeFromDisk(key);
+        }
+        memory.clear();
+        memoryBytes = 0;
+    }
+
+    // Method to turn a stored entry back into a response; disk bodies are copied so the caller may close them.
+    // Throws NoSuchFileException if the body was evicted since the entry was looked up.
+    public ApiResponse toResponse(Entry entry, ApiResponse.CacheStatus status, RequestTiming timing,
+                                  String transportName) throws IOException {
+        Charset charset = Charset.forName(entry.charset);
+        ResponseBody body;
+        if (entry.body != null) {
+            body = ResponseBody.ofBytes(entry.body, charset);
+        } else {
+            Path spool = ResponseBody.createSpoolFile();
+            try {
+                Files.copy(directory.resolve(entry.key + BODY), spool, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                Files.deleteIfExists(spool);
+                throw e;
+            }
+            body = ResponseBody.ofFile(spool, entry.bodySize, charset);
+        }
+        countResult(status);
+        return new ApiResponse(entry.statusCode, entry.protocol, entry.headers, body, timing, transportName, status);
+    }
+
+    void countResult(ApiResponse.CacheStatus status) {
+        switch (status) {
+            case HIT:
+                hits.incrementAndGet();
+                break;
+            case REVALIDATED:
+                revalidations.incrementAndGet();
+                break;
+            default:
+                misses.incrementAndGet();
+                break;
+        }
+    }
+
+    private void putInMemory(String key, Entry entry) {
+        removeFromMemory(key);
+        memory.put(key, entry);
+        memoryBytes += entry.bodySize;
+        for (Iterator<Entry> it = memory.values().iterator(); memoryBytes > maxMemoryBytes && it.hasNext(); ) {
+            memoryBytes -= it.next().bodySize;
+            it.remove();
+        }
+    }
+
+    private void removeFromMemory(String key) {
+        Entry removed = memory.remove(key);
+        if (removed != null) {
+            memoryBytes -= removed.bodySize;
+        }
+    }
+
+    private void removeFromDisk(String key) {
+        Long size = disk.remove(key);
+        if (size != null) {
+            diskBytes -= size;
+        }
+        try {
+            Files.deleteIfExists(directory.resolve(key + META));
+            Files.deleteIfExists(directory.resolve(key + BODY));
+        } catch (IOException e) {
+            // Left for the next clear()
+        }
+    }
+
+    private void writeEntry(Entry entry, ResponseBody body) throws IOException {
+        Path bodyFile = directory.resolve(entry.key + BODY);
+        Path temp = Files.createTempFile(directory, "entry-", ".tmp");
+        try {
+            try (InputStream in = body.openStream()) {
+                Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            Files.move(temp, bodyFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        writeMeta(entry);
+        synchronized (this) {
+            Long previous = disk.put(entry.key, entry.bodySize);
+            diskBytes += entry.bodySize - (previous == null ? 0 : previous);
+            long excess = diskBytes - maxDiskBytes;
+            List<String> victims = new ArrayList<>();
+            for (Map.Entry<String, Long> stored : disk.entrySet()) {
+                if (excess <= 0) {
+                    break;
+                }
+                if (!stored.getKey().equals(entry.key)) {
+                    victims.add(stored.getKey());
+                    excess -= stored.getValue();
+                }
+            }
+            for (String victim : victims) {
+                removeFromMemory(victim);
+                removeFromDisk(victim);
+            }
+        }
+    }
+
+    private void writeMeta(Entry entry) throws IOException {
+        Path temp = Files.createTempFile(directory, "meta-", ".tmp");
+        try {
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                GSON.toJson(entry, writer);
+            }
+            Files.move(temp, directory.resolve(entry.key + META), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private Entry readEntry(String key) {
+        try (Reader reader = Files.newBufferedReader(directory.resolve(key + META), StandardCharsets.UTF_8)) {
+            Entry entry = GSON.fromJson(reader, Entry.class);
+            if (entry == null || !Files.exists(directory.resolve(key + BODY))) {
+                return null;
+            }
+            if (entry.bodySize <= MAX_MEMORY_ENTRY_BYTES) {
+                entry.body = Files.readAllBytes(directory.resolve(key + BODY));
+            }
+            return entry;
+        } catch (IOException | JsonParseException e) {
+            return null;
+        }
+    }
+
+    // Oldest first, so the LRU order survives a restart approximately
+    private void loadDiskIndex() throws IOException {
+        List<Path> metas = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + META)) {
+            files.forEach(metas::add);
+        }
+        metas.sort((a, b) -> a.toFile().lastModified() < b.toFile().lastModified() ? -1 : 1);
+        for (Path meta : metas) {
+            String name = meta.getFileName().toString();
+            String key = name.substring(0, name.length() - META.length());
+            Path body = directory.resolve(key + BODY);
+            if (Files.exists(body)) {
+                long size = Files.size(body);
+                disk.put(key, size);
+                diskBytes += size;
+            } else {
+                Files.deleteIfExists(meta);
+            }
+        }
+    }
+
+    // Method and URL key, with a hash of the credentials appended when the request carries any
+    private static String keyFor(ApiRequest request) {
+        String key = keyFor(request.getMethod(), request.buildUrlWithParams());
+        String credentials = credentialsOf(request);
+        if (credentials.isEmpty()) {
+            return key;
+        }
+        String identity = BodyStore.toHex(BodyStore.sha256().digest(credentials.getBytes(StandardCharsets.UTF_8)));
+        return key + "-" + identity.substring(0, 32);
+    }
+
+    private static String keyFor(String method, String url) {
+        return BodyStore.toHex(BodyStore.sha256().digest((method + " " + url).getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static boolean isKeyFor(String key, String prefix) {
+        return key.startsWith(prefix) && (key.length() == prefix.length() || key.charAt(prefix.length()) == '-');
+    }
+
+    // Authorization, Proxy-Authorization and Cookie headers plus whatever the auth settings add
+    private static String credentialsOf(ApiRequest request) {
+        StringBuilder credentials = new StringBuilder();
+        for (Header header : request.getHeaders()) {
+            String name = header.getKey();
+            if (name.equalsIgnoreCase("Authorization") || name.equalsIgnoreCase("Proxy-Authorization")
+                    || name.equalsIgnoreCase("Cookie")) {
+                credentials.append(name.toLowerCase(Locale.ROOT)).append(':').append(header.getValue()).append('\n');
+            }
+        }
+        request.getAuth().addAuthenticationToRequest((name, value) ->
+                credentials.append(name.toLowerCase(Locale.ROOT)).append(':').append(value).append('\n'));
+        return credentials.toString();
+    }
+
+    private static byte[] readAll(ResponseBody body) throws IOException {
+        try (InputStream in = body.openStream()) {
+            return in.readAllBytes();
+        }
+    }
+
+    // Explicit lifetime from max-age or Expires, less any Age; otherwise 10% of the time since Last-Modified
+    static long freshnessMillis(ApiResponse response, Map<String, String> cacheControl, long now) {
+        if (cacheControl.containsKey("no-cache")) {
+            return 0;
+        }
+        long age = parseSeconds(response.getHeader("Age")) * 1000;
+        String maxAge = cacheControl.get("max-age");
+        if (maxAge != null) {
+            return Math.max(0, parseSeconds(maxAge) * 1000 - age);
+        }
+        long date = parseDate(response.getHeader("Date"), now);
+        String expires = response.getHeader("Expires");
+        if (expires != null) {
+            // An invalid Expires (often "0") means already expired
+            return Math.max(0, parseDate(expires, date) - date - age);
+        }
+        long lastModified = parseDate(response.getHeader("Last-Modified"), -1);
+        if (lastModified > 0 && lastModified < date) {
+            return Math.min(MAX_HEURISTIC_FRESHNESS_MILLIS, (date - lastModified) / 10);
+        }
+        return 0;
+    }
+
+    static Map<String, String> cacheControl(String header) {
+        Map<String, String> directives = new LinkedHashMap<>();
+        if (header == null) {
+            return directives;
+        }
+        for (String part : header.split(",")) {
+            String directive = part.trim();
+            if (directive.isEmpty()) {
+                continue;
+            }
+            int equals = directive.indexOf('=');
+            if (equals < 0) {
+                directives.put(directive.toLowerCase(Locale.ROOT), "");
+            } else {
+                directives.put(directive.substring(0, equals).trim().toLowerCase(Locale.ROOT),
+                        directive.substring(equals + 1).trim().replace("\"", ""));
+            }
+        }
+        return directives;
+    }
+
+    private static boolean hasDirective(List<Header> headers, String directive) {
+        for (Header header : headers) {
+            if ("Cache-Control".equalsIgnoreCase(header.getKey())
+                    && cacheControl(header.getValue()).containsKey(directive)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Map<String, String> varyValues(String vary, ApiRequest request) {
+        Map<String, String> values = new TreeMap<>();
+        if (vary == null) {
+            return values;
+        }
+        for (String name : vary.split(",")) {
+            String header = name.trim().toLowerCase(Locale.ROOT);
+            if (!header.isEmpty()) {
+                values.put(header, requestHeader(request, header));
+            }
+        }
+        return values;
+    }
+
+    private static String requestHeader(ApiRequest request, String name) {
+        List<String> values = new ArrayList<>();
+        request.addHeadersToRequest((key, value) -> {
+            if (key.equalsIgnoreCase(name)) {
+                values.add(value);
+            }
+        });
+        return String.join(", ", values);
+    }
+
+    private static long parseSeconds(String value) {
+        if (value == null) {
+            return 0;
+        }
+        try {
+            return Math.max(0, Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static long parseDate(String value, long fallback) {
+        if (value == null) {
+            return fallback;
+        }
+        try {
+            return ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return fallback;
+        }
+    }
+
+    private static String first(String value, String fallback) {
+        return value != null ? value : fallback;
+    }
+
+    // One stored response. Everything but the body is persisted as JSON next to the body file.
+    public static final class Entry {
+        private final String key;
+        private final String method;
+        private final String url;
+        private final int statusCode;
+        private final String protocol;
+        private final Map<String, List<String>> headers;
+        private final String charset;
+        private final long bodySize;
+        private final long storedAtMillis;
+        private final long freshnessMillis;
+        private final String etag;
+        private final String lastModified;
+        // Request header values the response varies on, keyed by lower-case name
+        private final Map<String, String> vary;
+        private transient byte[] body;
+
+        Entry(String key, String method, String url, int statusCode, String protocol, Map<String, List<String>> headers,
+              String charset, long bodySize, long storedAtMillis, long freshnessMillis, String etag,
+              String lastModified, Map<String, String> vary) {
+            this.key = key;
+            this.method = method;
+            this.url = url;
+            this.statusCode = statusCode;
+            this.protocol = protocol;
+            this.headers = new LinkedHashMap<>(headers);
+            this.charset = charset;
+            this.bodySize = bodySize;
+            this.storedAtMillis = storedAtMillis;
+            this.freshnessMillis = freshnessMillis;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.vary = vary;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public boolean isFresh(long nowMillis) {
+            return nowMillis - storedAtMillis < freshnessMillis;
+        }
+
+        public boolean hasValidators() {
+            return etag != null || lastModified != null;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public String getLastModified() {
+            return lastModified;
+        }
+
+        boolean matchesVary(ApiRequest request) {
+            for (Map.Entry<String, String> header : vary.entrySet()) {
+                if (!header.getValue().equals(requestHeader(request, header.getKey()))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
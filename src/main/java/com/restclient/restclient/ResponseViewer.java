@@ -0,0 +1,97 @@
+package com.restclient.restclient;
+
+import javafx.geometry.Pos;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.Tab;
+import javafx.scene.control.TabPane;
+import javafx.scene.control.TextArea;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+
+import java.io.IOException;
+import java.util.function.UnaryOperator;
+
+// Response pane that shows a body one page at a time, so only the visible window is ever held as text,
+// with a lazily built JSON tree alongside
+public class ResponseViewer extends VBox {
+    // Bytes decoded per page; bodies that fit in one page are shown whole and can be pretty-printed
+    public static final int PAGE_SIZE = 256 * 1024;
+
+    private final TextArea textArea = new TextArea();
+    private final Button previousButton = new Button("< Prev");
+    private final Button nextButton = new Button("Next >");
+    private final Label pageLabel = new Label();
+    private final HBox pageBar = new HBox(10, previousButton, pageLabel, nextButton);
+    private final JsonTreeView treeView = new JsonTreeView();
+    private final Tab treeTab = new Tab("Tree", treeView);
+    private final UnaryOperator<String> formatter;
+
+    private ResponseBody body;
+    private int page;
+
+    public ResponseViewer(UnaryOperator<String> formatter) {
+        super(5);
+        this.formatter = formatter;
+        textArea.setEditable(false);
+        textArea.setWrapText(false);
+        VBox.setVgrow(textArea, Priority.ALWAYS);
+        pageBar.setAlignment(Pos.CENTER_LEFT);
+        previousButton.setOnAction(e -> showPage(page - 1));
+        nextButton.setOnAction(e -> showPage(page + 1));
+        VBox textPane = new VBox(5, textArea, pageBar);
+        TabPane tabs = new TabPane(new Tab("Text", textPane), treeTab);
+        tabs.setTabClosingPolicy(TabPane.TabClosingPolicy.UNAVAILABLE);
+        VBox.setVgrow(tabs, Priority.ALWAYS);
+        // The tree is only built when someone actually looks at it
+        treeTab.selectedProperty().addListener((observable, wasSelected, selected) -> {
+            if (selected) {
+                treeView.showBody(body);
+            }
+        });
+        getChildren().add(tabs);
+        showText("");
+    }
+
+    // Method to display a response body, paging it when it is larger than one page
+    public void showBody(ResponseBody body) {
+        this.body = body;
+        showPage(0);
+        if (treeTab.isSelected()) {
+            treeView.showBody(body);
+        }
+    }
+
+    public void showText(String text) {
+        body = null;
+        treeView.showBody(null);
+        textArea.setText(text);
+        pageBar.setVisible(false);
+        pageBar.setManaged(false);
+    }
+
+    public ResponseBody getBody() {
+        return body;
+    }
+
+    private void showPage(int requested) {
+        int pages = body.pageCount(PAGE_SIZE);
+        page = Math.max(0, Math.min(requested, pages - 1));
+        String text;
+        try {
+            text = body.readPage(page, PAGE_SIZE);
+        } catch (IOException e) {
+            text = "Unable to read response body: " + e.getMessage();
+        }
+        textArea.setText(pages == 1 ? formatter.apply(text) : text);
+        textArea.positionCaret(0);
+
+        boolean paged = pages > 1;
+        pageBar.setVisible(paged);
+        pageBar.setManaged(paged);
+        pageLabel.setText("Page " + (page + 1) + " of " + pages + " - " + body);
+        previousButton.setDisable(page == 0);
+        nextButton.setDisable(page >= pages - 1);
+    }
+}
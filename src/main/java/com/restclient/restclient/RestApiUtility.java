@@ -12,11 +12,10 @@ public class RestApiUtility {
     private String baseUri;
     private RequestSpecification request;
 
-    // Constructor to set the base URI
+    // Constructor to set the base URI on this request only, leaving RestAssured.baseURI untouched
     public RestApiUtility(String baseUri) {
         this.baseUri = baseUri;
-        RestAssured.baseURI = baseUri;
-        this.request = RestAssured.given();
+        this.request = RestAssured.given().baseUri(baseUri);
     }
 
     // Method to add headers
@@ -0,0 +1,100 @@
+package com.restclient.restclient;
+
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Sends requests through RestAssured via GenericRestAPI
+public class RestAssuredTransport implements HttpTransport {
+
+    @Override
+    public String getName() {
+        return TransportType.REST_ASSURED.toString();
+    }
+
+    @Override
+    public ApiResponse execute(ApiRequest request) throws IOException {
+        RequestLogger logger = RequestLogger.shared();
+        MetricsRegistry metrics = MetricsRegistry.shared();
+        try {
+            ApiResponse response = send(request);
+            metrics.record(request, response.getTiming());
+            if (logger.isEnabled()) {
+                logger.logExchange(request, response);
+            }
+            return response;
+        } catch (IOException | RuntimeException e) {
+            metrics.recordFailure(request);
+            logger.logFailure(request, e);
+            throw e;
+        }
+    }
+
+    private ApiResponse send(ApiRequest request) throws IOException {
+        long start = System.nanoTime();
+        // Lists rather than maps, so a repeated header or query parameter is sent once per value
+        List<io.restassured.http.Header> headerList = new ArrayList<>();
+        request.addHeadersToRequest((name, value) -> headerList.add(new io.restassured.http.Header(name, value)));
+
+        Map<String, List<String>> queryParams = new LinkedHashMap<>();
+        request.getQueryParams().stream()
+                .filter(queryParam -> !queryParam.getKey().isEmpty())
+                .forEach(queryParam -> queryParams.computeIfAbsent(queryParam.getKey(), key -> new ArrayList<>())
+                        .add(queryParam.getValue()));
+        long dispatched = System.nanoTime();
+
+        // RestAssured keeps its connections to itself, so only requests and versions are counted here
+        ConnectionStats.Host host = ConnectionStats.shared().host(hostKey(request.resolveUrl()));
+        host.requestStarted();
+        Response response;
+        try {
+            response = GenericRestAPI.makeAPICall(request.getMethod(), request.resolveUrl(), null, request.getBody(),
+                    queryParams, new Headers(headerList));
+        } catch (RuntimeException e) {
+            host.requestFinished(null, null);
+            throw e;
+        }
+        host.requestFinished(protocolName(response.getStatusLine()), null);
+        // RestAssured has already buffered the body, but copying it into a ResponseBody keeps large
+        // payloads out of the long-lived response and the viewer
+        ResponseBody body = ResponseBody.read(response.asInputStream(),
+                SpoolingBodySubscriber.charsetOf(response.getContentType()), SpoolingBodySubscriber.DEFAULT_MEMORY_THRESHOLD);
+        long end = System.nanoTime();
+
+        // RestAssured only reports the overall response time, so DNS, connect, TLS, TTFB and download are not split out
+        RequestTiming timing = new RequestTiming(-1, -1, -1, dispatched - start, -1, -1, end - start);
+        return new ApiResponse(response.getStatusCode(), protocolName(response.getStatusLine()),
+                toHeaderMap(response), body, timing, getName());
+    }
+
+    private static String hostKey(String url) {
+        try {
+            URI uri = URI.create(url);
+            return uri.getHost() == null ? url : HttpClientEngine.hostKey(uri);
+        } catch (IllegalArgumentException e) {
+            return url;
+        }
+    }
+
+    private static Map<String, List<String>> toHeaderMap(Response response) {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        response.getHeaders().forEach(header ->
+                headers.computeIfAbsent(header.getName(), name -> new ArrayList<>()).add(header.getValue()));
+        return headers;
+    }
+
+    private static String protocolName(String statusLine) {
+        if (statusLine == null) {
+            return "HTTP/1.1";
+        }
+        int space = statusLine.indexOf(' ');
+        return space > 0 ? statusLine.substring(0, space) : statusLine;
+    }
+}
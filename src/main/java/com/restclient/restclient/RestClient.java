@@ -1,10 +1,7 @@
 package com.restclient.restclient;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonParser;
-import io.restassured.response.Response;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
@@ -18,24 +15,21 @@ import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 import javafx.util.Pair;
 
-import javax.net.ssl.SSLContext;
-import javax.net.ssl.TrustManager;
-import javax.net.ssl.X509TrustManager;
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
-import java.security.KeyManagementException;
-import java.security.NoSuchAlgorithmException;
-import java.security.SecureRandom;
 import java.time.Duration;
-import java.util.Base64;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 public class RestClient extends Application {
@@ -46,22 +40,39 @@ public class RestClient extends Application {
     private static final double WINDOW_HEIGHT = 800;
     private static final String APP_TITLE = "REST API Client";
     private static final String ICON_PATH = "src/main/resources/rest_api.png";
+    private static final int MAX_TRACKED_REQUESTS = 20;
+    private static final Environment NO_ENVIRONMENT = new Environment("No environment", Map.of());
 
     // UI Components
     private final ComboBox<String> methodComboBox = new ComboBox<>();
     private final TextField urlField = new TextField();
     private final TextArea requestBody = new TextArea();
-    private final TextArea responseBody = new TextArea();
+    private final ResponseViewer responseBody = new ResponseViewer(JsonFormat::prettyPrint);
+    private final Label responseStatusLabel = new Label();
+    private final ComboBox<TransportType> transportComboBox = new ComboBox<>();
+    private final ComboBox<Environment> environmentComboBox = new ComboBox<>();
+    private final TextField timeoutField = new TextField();
+    private final ListView<InFlightRequest> inFlightListView = new ListView<>();
     private TableView<Header> headersTable = new TableView<>();
     private TableView<QueryParam> queryParamsTable = new TableView<>();
     private ComboBox<String> authTypeComboBox = new ComboBox<>();
     private VBox authDetailsBox = new VBox(10);
-    private ListView<HistoryEntry> historyListView = new ListView<>();
+    private HistoryPane historyPane;
 
     // Observable Collections
-    private ObservableList<HistoryEntry> historyList = FXCollections.observableArrayList();
     private final ObservableList<Header> headers = FXCollections.observableArrayList();
     private final ObservableList<QueryParam> queryParams = FXCollections.observableArrayList();
+    private final ObservableList<InFlightRequest> inFlightRequests = FXCollections.observableArrayList();
+
+    // Request execution
+    private final RequestExecutor requestExecutor = new RequestExecutor();
+    private HistoryStore historyStore;
+    private CollectionStore collectionStore;
+    private final EnvironmentStore environmentStore = EnvironmentStore.openDefault();
+    // Set while traffic capture is on
+    private volatile CaptureWriter captureWriter;
+    // Set while the response cache is switched on
+    private volatile ResponseCache responseCache;
 
     // Data Models
 
@@ -71,6 +82,12 @@ public class RestClient extends Application {
 
 
 
+    // This front end has always trusted any certificate, for self-signed test servers; the others validate
+    @Override
+    public void init() {
+        HttpClientEngine.configure(new HttpClientEngine.Config().relaxedTls(true));
+    }
+
     @Override
     public void start(Stage primaryStage) {
         initializePrimaryStage(primaryStage);
@@ -129,27 +146,32 @@ public class RestClient extends Application {
         return new Scene(mainLayout, WINDOW_WIDTH, WINDOW_HEIGHT);
     }
     private VBox createHistorySection() {
-        VBox historySection = new VBox(10);
-        historySection.setPadding(new Insets(PADDING));
-        historySection.setPrefWidth(300);
-
-        historyList = FXCollections.observableArrayList();
-        historyListView = new ListView<>(historyList);
-        historyListView.setOnMouseClicked(e -> loadHistoryEntry());
-
-        historySection.getChildren().addAll(
-                new Label("History"), historyListView
-        );
-        return historySection;
+        historyStore = openHistoryStore();
+        historyPane = new HistoryPane(historyStore, this::loadHistoryEntry);
+        historyPane.setPadding(new Insets(PADDING));
+        historyPane.setPrefWidth(300);
+        return historyPane;
     }
 
-    private void loadHistoryEntry() {
-        HistoryEntry entry = historyListView.getSelectionModel().getSelectedItem();
-        if (entry != null) {
-            methodComboBox.setValue(entry.getMethod());
-            urlField.setText(entry.getUrl());
+    // History persists under the user's home; if that is unusable, keep it for this session only
+    private static HistoryStore openHistoryStore() {
+        try {
+            return HistoryStore.openDefault();
+        } catch (IOException e) {
+            System.err.println("Failed to open request history: " + e.getMessage());
+            try {
+                return new HistoryStore(Files.createTempDirectory("restclient-history"), HistoryStore.DEFAULT_MAX_ENTRIES);
+            } catch (IOException fallback) {
+                throw new UncheckedIOException(fallback);
+            }
         }
     }
+
+    private void loadHistoryEntry(HistoryEntry entry) {
+        methodComboBox.setValue(entry.getMethod());
+        urlField.setText(entry.getUrl());
+    }
+
     private HBox createTopSection() {
         HBox topSection = new HBox(10);
         topSection.setAlignment(Pos.CENTER_LEFT);
@@ -157,19 +179,67 @@ public class RestClient extends Application {
 
         initializeMethodComboBox();
         initializeUrlField();
+        initializeTransportComboBox();
+        initializeEnvironmentComboBox();
+        initializeTimeoutField();
         Button sendButton = createSendButton();
+        Button cancelButton = createCancelButton();
+        MenuButton toolsMenu = createToolsMenu();
 
-        topSection.getChildren().addAll(methodComboBox, urlField, sendButton);
+        topSection.getChildren().addAll(methodComboBox, urlField, sendButton, cancelButton,
+                timeoutField, transportComboBox, environmentComboBox, toolsMenu);
         return topSection;
     }
 
     private void initializeMethodComboBox() {
         methodComboBox.setItems(FXCollections.observableArrayList(
-            "GET", "POST", "PUT", "DELETE", "PATCH", "HEAD", "OPTIONS"
+            "GET", "POST", "PUT", "DELETE", "PATCH", "HEAD", "OPTIONS", "TRACE"
         ));
         methodComboBox.setValue("GET");
     }
 
+    private void initializeTransportComboBox() {
+        transportComboBox.setItems(FXCollections.observableArrayList(TransportType.values()));
+        transportComboBox.setValue(TransportType.JDK_HTTP_CLIENT);
+        transportComboBox.setTooltip(new Tooltip("Transport used to send the request"));
+    }
+
+    private void initializeEnvironmentComboBox() {
+        environmentComboBox.setTooltip(new Tooltip("Variables substituted into ${name} / {name} when sending"));
+        reloadEnvironments();
+    }
+
+    // Method to refresh the environment list, keeping the current selection when it still exists
+    private void reloadEnvironments() {
+        Environment selected = environmentComboBox.getValue();
+        List<Environment> environments = new ArrayList<>();
+        environments.add(NO_ENVIRONMENT);
+        try {
+            environments.addAll(environmentStore.list());
+        } catch (IOException e) {
+            responseStatusLabel.setText("Cannot read environments: " + e.getMessage());
+        }
+        environmentComboBox.setItems(FXCollections.observableArrayList(environments));
+        environmentComboBox.setValue(environments.stream()
+                .filter(environment -> selected != null && environment.getName().equals(selected.getName()))
+                .findFirst().orElse(NO_ENVIRONMENT));
+    }
+
+    // Method to substitute the selected environment's variables; templates are compiled once per request
+    private ApiRequest applyEnvironment(ApiRequest request) {
+        return RequestTemplate.compile(request).render(environmentVariables());
+    }
+
+    private Map<String, String> environmentVariables() {
+        Environment environment = environmentComboBox.getValue();
+        return environment == null ? Map.of() : environment.getVariables();
+    }
+
+    private void initializeTimeoutField() {
+        timeoutField.setPrefWidth(90);
+        timeoutField.setPromptText("Timeout (s)");
+    }
+
     private void initializeUrlField() {
         urlField.setPrefWidth(URL_FIELD_WIDTH);
         urlField.setPromptText("Enter URL");
@@ -177,16 +247,328 @@ public class RestClient extends Application {
 
     private Button createSendButton() {
         Button sendButton = new Button("Send");
-        sendButton.setOnAction(e -> {
+        sendButton.setOnAction(e -> sendRequest());
+        return sendButton;
+    }
+
+    private MenuButton createToolsMenu() {
+        MenuItem loadTestItem = new MenuItem("Load Test...");
+        loadTestItem.setOnAction(e -> openLoadTest());
+
+        MenuItem burstItem = new MenuItem("Burst...");
+        burstItem.setOnAction(e -> new BurstWindow(() -> applyEnvironment(buildApiRequest())).show());
+
+        MenuItem importJmxItem = new MenuItem("Import JMeter Plan...");
+        importJmxItem.setOnAction(e -> importJmeterPlan());
+
+        MenuItem importOpenApiItem = new MenuItem("Import OpenAPI Spec...");
+        importOpenApiItem.setOnAction(e -> importOpenApiSpec());
+
+        MenuItem environmentsItem = new MenuItem("Environments...");
+        environmentsItem.setOnAction(e -> new EnvironmentWindow(environmentStore, this::reloadEnvironments).show());
+
+        MenuItem metricsItem = new MenuItem("Endpoint Metrics...");
+        metricsItem.setOnAction(e -> new MetricsWindow(MetricsRegistry.shared()).show());
+
+        MenuItem connectionsItem = new MenuItem("Connections...");
+        connectionsItem.setOnAction(e -> new ConnectionsWindow(ConnectionStats.shared()).show());
+
+        MenuItem mockServerItem = new MenuItem("Mock Server from History...");
+        mockServerItem.setOnAction(e -> new MockServerWindow("History",
+                () -> MockServer.routesFromHistory(historyStore, new HistoryQuery())).show());
+
+        MenuItem saveToCollectionItem = new MenuItem("Save to Collection...");
+        saveToCollectionItem.setOnAction(e -> saveToCollection());
+
+        MenuItem runCollectionItem = new MenuItem("Run Collection...");
+        runCollectionItem.setOnAction(e -> runCollection());
+
+        CheckMenuItem captureItem = new CheckMenuItem("Capture Traffic...");
+        captureItem.setOnAction(e -> toggleCapture(captureItem));
+
+        MenuItem replayItem = new MenuItem("Replay Capture...");
+        replayItem.setOnAction(e -> replayCapture());
+
+        return new MenuButton("Tools", null, loadTestItem, burstItem, importJmxItem, importOpenApiItem,
+                new SeparatorMenuItem(), environmentsItem, saveToCollectionItem, runCollectionItem,
+                new SeparatorMenuItem(), captureItem, replayItem,
+                new SeparatorMenuItem(), metricsItem, connectionsItem, mockServerItem, createCacheMenu(), createCompressionMenu(),
+                createLoggingMenu());
+    }
+
+    // Method to start or stop recording every sent exchange to a capture file
+    private void toggleCapture(CheckMenuItem captureItem) {
+        if (!captureItem.isSelected()) {
+            CaptureWriter writer = captureWriter;
+            captureWriter = null;
+            responseStatusLabel.setText(closeCapture(writer));
+            return;
+        }
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Capture Traffic To");
+        chooser.setInitialFileName("traffic.rcap");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Traffic captures", "*.rcap"));
+        File file = chooser.showSaveDialog(urlField.getScene().getWindow());
+        if (file == null) {
+            captureItem.setSelected(false);
+            return;
+        }
+        try {
+            captureWriter = new CaptureWriter(file.toPath());
+            responseStatusLabel.setText("Capturing traffic to " + file.getName());
+        } catch (IOException e) {
+            captureItem.setSelected(false);
+            responseStatusLabel.setText("Cannot capture to " + file.getName() + ": " + e.getMessage());
+        }
+    }
+
+    private static String closeCapture(CaptureWriter writer) {
+        if (writer == null) {
+            return "";
+        }
+        try {
+            writer.close();
+            return "Captured " + writer.getWrittenCount() + " exchanges to " + writer.getFile().getFileName()
+                    + (writer.getDroppedCount() > 0 ? " (" + writer.getDroppedCount() + " dropped)" : "");
+        } catch (IOException e) {
+            return "Capture failed: " + e.getMessage();
+        }
+    }
+
+    private void replayCapture() {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Replay Capture");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Traffic captures", "*.rcap"));
+        File file = chooser.showOpenDialog(urlField.getScene().getWindow());
+        if (file != null) {
+            new CaptureReplayWindow(file.toPath(), () -> transportComboBox.getValue().create()).show();
+        }
+    }
+
+    // Opt-in HTTP cache in front of single sends; load runs and replays always go to the server
+    private Menu createCacheMenu() {
+        CheckMenuItem enabledItem = new CheckMenuItem("Enabled");
+        enabledItem.setOnAction(e -> {
+            if (!enabledItem.isSelected()) {
+                responseCache = null;
+                return;
+            }
             try {
-                sendRequest();
-            } catch (NoSuchAlgorithmException ex) {
-                throw new RuntimeException(ex);
-            } catch (KeyManagementException ex) {
-                throw new RuntimeException(ex);
+                responseCache = ResponseCache.openDefault();
+            } catch (IOException ex) {
+                enabledItem.setSelected(false);
+                responseStatusLabel.setText("Cannot open response cache: " + ex.getMessage());
             }
         });
-        return sendButton;
+
+        MenuItem clearItem = new MenuItem("Clear");
+        clearItem.setOnAction(e -> {
+            try {
+                ResponseCache cache = responseCache != null ? responseCache : ResponseCache.openDefault();
+                cache.clear();
+                responseStatusLabel.setText("Response cache cleared");
+            } catch (IOException ex) {
+                responseStatusLabel.setText("Cannot clear response cache: " + ex.getMessage());
+            }
+        });
+        return new Menu("Response Cache", null, enabledItem, clearItem);
+    }
+
+    // Accept-Encoding negotiation and request body gzip; the threshold comes from the system property if set
+    private Menu createCompressionMenu() {
+        Compression compression = Compression.shared();
+        CheckMenuItem negotiateItem = new CheckMenuItem("Accept gzip/deflate Responses");
+        negotiateItem.setSelected(compression.isNegotiate());
+        negotiateItem.setOnAction(e -> compression.setNegotiate(negotiateItem.isSelected()));
+
+        int threshold = compression.isCompressingRequests()
+                ? compression.getRequestThreshold() : Compression.DEFAULT_REQUEST_THRESHOLD;
+        CheckMenuItem requestItem = new CheckMenuItem("Gzip Request Bodies over " + ResponseBody.formatSize(threshold));
+        requestItem.setSelected(compression.isCompressingRequests());
+        requestItem.setOnAction(e -> compression.setRequestThreshold(requestItem.isSelected() ? threshold : -1));
+        return new Menu("Compression", null, negotiateItem, requestItem);
+    }
+
+    // Request/response logging level; OFF keeps the send path free of logging work
+    private Menu createLoggingMenu() {
+        Menu loggingMenu = new Menu("Request Logging");
+        ToggleGroup levels = new ToggleGroup();
+        RequestLogger logger = RequestLogger.shared();
+        for (RequestLogger.Level level : RequestLogger.Level.values()) {
+            RadioMenuItem item = new RadioMenuItem(level.name().charAt(0) + level.name().substring(1).toLowerCase());
+            item.setToggleGroup(levels);
+            item.setSelected(level == logger.getLevel());
+            item.setOnAction(e -> logger.setLevel(level));
+            loggingMenu.getItems().add(item);
+        }
+        return loggingMenu;
+    }
+
+    private void importJmeterPlan() {
+        importPlan("Import JMeter Plan", new FileChooser.ExtensionFilter("JMeter plans", "*.jmx"),
+                file -> new JmxPlanImporter().importPlan(file.toPath()));
+    }
+
+    private void importOpenApiSpec() {
+        importPlan("Import OpenAPI Spec",
+                new FileChooser.ExtensionFilter("OpenAPI / Swagger specs", "*.json", "*.yaml", "*.yml"),
+                file -> new OpenApiImporter().importSpec(file.toPath()));
+    }
+
+    private void importPlan(String title, FileChooser.ExtensionFilter filter, PlanLoader loader) {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle(title);
+        chooser.getExtensionFilters().add(filter);
+        File file = chooser.showOpenDialog(urlField.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+
+        // Parse off the FX thread, then show the plan
+        responseStatusLabel.setText("Importing " + file.getName() + " ...");
+        CompletableFuture.supplyAsync(() -> {
+            try {
+                return loader.load(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }).whenComplete((plan, error) -> Platform.runLater(() -> {
+            if (error != null) {
+                Throwable cause = error.getCause() != null ? error.getCause() : error;
+                responseStatusLabel.setText("Import failed: " + cause.getMessage());
+                return;
+            }
+            responseStatusLabel.setText("Imported " + plan);
+            new TestPlanWindow(plan.toString(), plan.getScenarios(),
+                    () -> transportComboBox.getValue().create(), this::loadRequest)
+                    .withMockRoutes(MockServer.routesFromPlan(plan))
+                    .show();
+        }));
+    }
+
+    private interface PlanLoader {
+        TestPlan load(File file) throws IOException;
+    }
+
+    // Method to load a saved or imported request into the editor
+    private void loadRequest(ApiRequest request) {
+        methodComboBox.setValue(request.getMethod());
+        urlField.setText(request.resolveUrl());
+        headers.setAll(request.getHeaders().stream()
+                .map(header -> new Header(header.getKey(), header.getValue()))
+                .collect(Collectors.toList()));
+        queryParams.setAll(request.getQueryParams().stream()
+                .map(param -> new QueryParam(param.getKey(), param.getValue()))
+                .collect(Collectors.toList()));
+        requestBody.setText(request.getBody() == null ? "" : request.getBody());
+    }
+
+    // Method to add the current request to a saved collection, optionally after other requests in it
+    private void saveToCollection() {
+        ApiRequest current;
+        try {
+            current = buildApiRequest();
+        } catch (RuntimeException e) {
+            responseStatusLabel.setText("Cannot save: " + e.getMessage());
+            return;
+        }
+
+        Dialog<ButtonType> dialog = new Dialog<>();
+        dialog.setTitle("Save to Collection");
+        dialog.setHeaderText("Save the current request into a collection");
+        ButtonType saveButtonType = new ButtonType("Save", ButtonBar.ButtonData.OK_DONE);
+        dialog.getDialogPane().getButtonTypes().addAll(saveButtonType, ButtonType.CANCEL);
+
+        ComboBox<String> collectionField = new ComboBox<>();
+        collectionField.setEditable(true);
+        try {
+            collectionField.getItems().setAll(collectionStore().list());
+        } catch (IOException e) {
+            responseStatusLabel.setText("Cannot read collections: " + e.getMessage());
+            return;
+        }
+        TextField nameField = new TextField(current.getMethod() + " " + current.getUrl());
+        TextField dependsOnField = new TextField();
+        dependsOnField.setPromptText("Names of requests that must pass first, comma separated");
+
+        GridPane grid = new GridPane();
+        grid.setHgap(10);
+        grid.setVgap(10);
+        grid.setPadding(new Insets(20, 150, 10, 10));
+        grid.add(new Label("Collection:"), 0, 0);
+        grid.add(collectionField, 1, 0);
+        grid.add(new Label("Name:"), 0, 1);
+        grid.add(nameField, 1, 1);
+        grid.add(new Label("Depends on:"), 0, 2);
+        grid.add(dependsOnField, 1, 2);
+        dialog.getDialogPane().setContent(grid);
+
+        if (dialog.showAndWait().orElse(ButtonType.CANCEL) != saveButtonType) {
+            return;
+        }
+        String collectionName = collectionField.getEditor().getText().trim();
+        if (collectionName.isEmpty()) {
+            responseStatusLabel.setText("Cannot save: collection name is empty");
+            return;
+        }
+        ApiRequest.Builder builder = current.toBuilder().name(nameField.getText().trim());
+        for (String dependency : dependsOnField.getText().split(",")) {
+            if (!dependency.trim().isEmpty()) {
+                builder.dependsOn(dependency);
+            }
+        }
+        try {
+            RequestCollection saved = collectionStore().addRequest(collectionName, builder.build());
+            responseStatusLabel.setText("Saved to " + saved);
+        } catch (IOException e) {
+            responseStatusLabel.setText("Save failed: " + e.getMessage());
+        }
+    }
+
+    private void runCollection() {
+        List<String> names;
+        try {
+            names = collectionStore().list();
+        } catch (IOException e) {
+            responseStatusLabel.setText("Cannot read collections: " + e.getMessage());
+            return;
+        }
+        if (names.isEmpty()) {
+            responseStatusLabel.setText("No saved collections yet");
+            return;
+        }
+        ChoiceDialog<String> dialog = new ChoiceDialog<>(names.get(0), names);
+        dialog.setTitle("Run Collection");
+        dialog.setHeaderText("Choose a collection to run");
+        Optional<String> choice = dialog.showAndWait();
+        if (choice.isEmpty()) {
+            return;
+        }
+        try {
+            new CollectionRunnerWindow(collectionStore().load(choice.get()),
+                    () -> transportComboBox.getValue().create(), this::environmentVariables, this::loadRequest).show();
+        } catch (IOException e) {
+            responseStatusLabel.setText("Cannot load collection: " + e.getMessage());
+        }
+    }
+
+    private CollectionStore collectionStore() throws IOException {
+        if (collectionStore == null) {
+            collectionStore = CollectionStore.openDefault();
+        }
+        return collectionStore;
+    }
+
+    private void openLoadTest() {
+        new LoadTestWindow(urlField.getText(),
+                () -> List.of(applyEnvironment(buildApiRequest())),
+                () -> transportComboBox.getValue().create()).show();
+    }
+
+    private Button createCancelButton() {
+        Button cancelButton = new Button("Cancel");
+        cancelButton.setOnAction(e -> cancelRequest());
+        return cancelButton;
     }
 
 
@@ -397,115 +779,204 @@ public class RestClient extends Application {
                 new Label("Request Body"),
                 requestBody,
             new Label("Response"),
-            responseBody
+            responseStatusLabel,
+            responseBody,
+            new Label("Requests"),
+            createInFlightList()
         );
         return responseSection;
     }
-    private String buildUrlWithParams() {
-        String baseUrl = urlField.getText();
-        if (queryParams.isEmpty()) {
-            return baseUrl;
-        }
+    private ListView<InFlightRequest> createInFlightList() {
+        inFlightListView.setItems(inFlightRequests);
+        inFlightListView.setPrefHeight(120);
+        inFlightListView.getSelectionModel().selectedItemProperty()
+                .addListener((observable, oldValue, newValue) -> showResult(newValue));
+        return inFlightListView;
+    }
+
+    private ApiRequest buildApiRequest() {
+        ApiRequest.Builder requestBuilder = ApiRequest.builder()
+                .method(methodComboBox.getValue())
+                .url(urlField.getText())
+                .body(requestBody.getText())
+                .timeout(readTimeout());
 
-        String queryString = queryParams.stream()
-                .filter(param -> !param.getKey().isEmpty())
-                .map(param -> param.getKey() + "=" + param.getValue())
-                .collect(Collectors.joining("&"));
+        queryParams.forEach(param -> requestBuilder.queryParam(param.getKey(), param.getValue()));
 
+        // Add headers
+        addHeadersToRequest(requestBuilder);
 
+        // Add authentication
+        addAuthenticationToRequest(requestBuilder);
 
-        return baseUrl + (baseUrl.contains("?") ? "&" : "?") + queryString;
+        return requestBuilder.build();
     }
-    private void addHeadersToRequest(HttpRequest.Builder requestBuilder) {
+
+    private void addHeadersToRequest(ApiRequest.Builder requestBuilder) {
         headers.stream()
                 .filter(header -> !header.getKey().isEmpty())
                 .forEach(header -> requestBuilder.header(header.getKey(), header.getValue()));
 
     }
 
+    private void sendRequest() {
+        ApiRequest request;
+        try {
+            request = applyEnvironment(buildApiRequest());
+        } catch (RuntimeException e) {
+            responseStatusLabel.setText("");
+            responseBody.showText("Error: " + e.getMessage());
+            return;
+        }
 
-
-    private static TrustManager[] trustAllCerts = new TrustManager[]{
-            new X509TrustManager() {
-                public java.security.cert.X509Certificate[] getAcceptedIssuers() {
-                    return null;
-                }
-                public void checkClientTrusted(
-                        java.security.cert.X509Certificate[] certs, String authType) {
+        // Single dispatch through the selected transport, off the FX thread
+        // Capture sits under the cache so only exchanges that reached the network are recorded
+        HttpTransport transport = transportComboBox.getValue().create();
+        CaptureWriter writer = captureWriter;
+        if (writer != null) {
+            transport = new RecordingTransport(transport, writer);
+        }
+        ResponseCache cache = responseCache;
+        if (cache != null) {
+            transport = new CachingTransport(transport, cache);
+        }
+        InFlightRequest inFlight = requestExecutor.submit(request, transport);
+        inFlight.addListener(changed -> Platform.runLater(inFlightListView::refresh));
+        trackInFlight(inFlight);
+
+        inFlight.result().whenComplete((response, error) -> {
+            // Persist on the worker thread; only the list update happens on the FX thread
+            HistoryEntry entry = response != null ? recordHistory(request, response) : null;
+            Platform.runLater(() -> {
+                if (entry != null) {
+                    historyPane.add(entry);
                 }
-                public void checkServerTrusted(
-                        java.security.cert.X509Certificate[] certs, String authType) {
+                if (inFlightListView.getSelectionModel().getSelectedItem() == inFlight) {
+                    showResult(inFlight);
                 }
-            }
-    };
-    private void sendRequest() throws NoSuchAlgorithmException, KeyManagementException {
-        SSLContext sslContext = SSLContext.getInstance("TLS");
-        sslContext.init(null, trustAllCerts, new SecureRandom());
-        HttpClient client = HttpClient.newBuilder()
-                .connectTimeout(Duration.ofMillis(10 * 1000))
-        .sslContext(sslContext) // SSL context 'sc' initialised as earlier
-               // .sslParameters(parameters) // ssl parameters if overriden
-                .build();
+            });
+        });
+    }
+
+    private HistoryEntry recordHistory(ApiRequest request, ApiResponse response) {
         try {
-           // HttpClient client = HttpClient.newHttpClient();
-            HttpRequest.Builder requestBuilder = HttpRequest.newBuilder()
-                    .uri(new URI(buildUrlWithParams()))
-                    .method(methodComboBox.getValue(),
-                            HttpRequest.BodyPublishers.ofString(requestBody.getText()));
-
-            // Add headers
-            addHeadersToRequest(requestBuilder);
-
-            // Add authentication
-            addAuthenticationToRequest(requestBuilder);
-
-            System.out.println(requestBuilder.toString());
-            HttpResponse<String> response = client.send(requestBuilder.build(),
-                    HttpResponse.BodyHandlers.ofString());
-            Gson gson = new GsonBuilder().setPrettyPrinting().create();
-            //responseBody.setText(gson.toJson((new JsonParser().parse(response.body()))));
-
-            HashMap<String, Object> queryParamMap = new HashMap<>();
-            queryParams.stream()
-                    .filter(queryParam -> !queryParam.getKey().isEmpty())
-                    .forEach(queryParam -> queryParamMap.put(queryParam.getKey(), queryParam.getValue()));
-
-            //Rest Assured
-            Response response1 = GenericRestAPI.makeAPICall(methodComboBox.getValue().toString(), urlField.getText(), null, null, null, requestBody.getText(), queryParamMap, null, null);
-            responseBody.setText(response1.asPrettyString());
-            // Add to history
-            historyList.add(0, new HistoryEntry(
-                    methodComboBox.getValue(), urlField.getText()
-            ));
+            return historyStore.append(request, response);
+        } catch (IOException e) {
+            System.err.println("Failed to record history: " + e.getMessage());
+            return null;
+        }
+    }
 
-        } catch (Exception e) {
-            responseBody.setText("Error: " + e.getMessage());
+    private void trackInFlight(InFlightRequest inFlight) {
+        inFlightRequests.add(0, inFlight);
+        for (int i = inFlightRequests.size() - 1; i >= MAX_TRACKED_REQUESTS; i--) {
+            if (inFlightRequests.get(i).getState().isDone()) {
+                releaseBody(inFlightRequests.remove(i));
+            }
+        }
+        inFlightListView.getSelectionModel().select(inFlight);
+        showResult(inFlight);
+    }
+
+    // Spooled bodies live in temp files; delete them once the request drops off the list
+    private static void releaseBody(InFlightRequest inFlight) {
+        if (inFlight.getState() == RequestState.COMPLETED) {
+            try {
+                inFlight.result().join().getBody().close();
+            } catch (IOException ignored) {
+                // Spool files left behind are swept on the next start
+            }
+        }
+    }
+
+    private void cancelRequest() {
+        InFlightRequest selected = inFlightListView.getSelectionModel().getSelectedItem();
+        if (selected != null && selected.cancel()) {
+            return;
         }
+        inFlightRequests.stream()
+                .filter(inFlight -> !inFlight.getState().isDone())
+                .findFirst()
+                .ifPresent(InFlightRequest::cancel);
     }
-    private void addAuthenticationToRequest(HttpRequest.Builder requestBuilder) {
+
+    private void showResult(InFlightRequest inFlight) {
+        if (inFlight == null) {
+            return;
+        }
+        switch (inFlight.getState()) {
+            case COMPLETED:
+                ApiResponse response = inFlight.result().join();
+                responseStatusLabel.setText(response.summary());
+                responseBody.showBody(response.getBody());
+                break;
+
+            case FAILED:
+            case TIMED_OUT:
+                responseStatusLabel.setText("");
+                Throwable error = inFlight.getError();
+                responseBody.showText("Error: " + (error != null ? error.getMessage() : inFlight.getState()));
+                break;
+
+            case CANCELLED:
+                responseStatusLabel.setText("Request cancelled after " + inFlight.getElapsedMillis() + " ms");
+                responseBody.showText("");
+                break;
+
+            default:
+                responseStatusLabel.setText("Sending " + inFlight.getRequest() + " ...");
+                responseBody.showText("");
+                break;
+        }
+    }
+
+    private Duration readTimeout() {
+        String text = timeoutField.getText().trim();
+        if (text.isEmpty()) {
+            return null;
+        }
+        try {
+            double seconds = Double.parseDouble(text);
+            return seconds > 0 ? Duration.ofMillis((long) (seconds * 1000)) : null;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Timeout must be a number of seconds");
+        }
+    }
+
+    private void addAuthenticationToRequest(ApiRequest.Builder requestBuilder) {
         switch (authTypeComboBox.getValue()) {
-            case "Basic Auth":
+            case AuthConfig.BASIC:
                 TextField usernameField = (TextField) authDetailsBox.getChildren().get(0);
                 PasswordField passwordField = (PasswordField) authDetailsBox.getChildren().get(1);
-                String auth = usernameField.getText() + ":" + passwordField.getText();
-                String encodedAuth = Base64.getEncoder().encodeToString(auth.getBytes());
-                requestBuilder.header("Authorization", "Basic " + encodedAuth);
+                requestBuilder.auth(AuthConfig.basic(usernameField.getText(), passwordField.getText()));
                 break;
 
-            case "Bearer Token":
+            case AuthConfig.BEARER:
                 TextField tokenField = (TextField) authDetailsBox.getChildren().get(0);
-                requestBuilder.header("Authorization", "Bearer " + tokenField.getText());
+                requestBuilder.auth(AuthConfig.bearer(tokenField.getText()));
                 break;
 
-            case "API Key":
+            case AuthConfig.API_KEY:
                 TextField headerField = (TextField) authDetailsBox.getChildren().get(0);
                 TextField keyField = (TextField) authDetailsBox.getChildren().get(1);
-                String headerName = headerField.getText().isEmpty() ? "X-API-Key" : headerField.getText();
-                requestBuilder.header(headerName, keyField.getText());
+                requestBuilder.auth(AuthConfig.apiKey(headerField.getText(), keyField.getText()));
+                break;
+
+            default:
+                requestBuilder.auth(AuthConfig.none());
                 break;
         }
     }
 
+    @Override
+    public void stop() throws IOException {
+        requestExecutor.shutdown();
+        closeCapture(captureWriter);
+        if (historyStore != null) {
+            historyStore.close();
+        }
+    }
+
     public static void main(String[] args) {
         launch(args);
     }
@@ -1,6 +1,7 @@
 package com.restclient.restclient;
 
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
@@ -17,15 +18,10 @@ import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 import javafx.util.Pair;
 
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
+import java.io.IOException;
 import java.nio.file.Path;
-import java.util.Base64;
 import java.util.Date;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 public class RestClient1 extends Application {
     private static final double PADDING = 10;
@@ -45,6 +41,11 @@ public class RestClient1 extends Application {
     private ObservableList<HistoryEntry> historyList;
     private ObservableList<Header> headers = FXCollections.observableArrayList();
     private ObservableList<QueryParam> queryParams = FXCollections.observableArrayList();
+    private final HttpTransport transport = TransportType.JDK_HTTP_CLIENT.create();
+    private final RequestExecutor requestExecutor = new RequestExecutor();
+    private InFlightRequest currentRequest;
+    // Body of the response on screen; spooled bodies can hold a temp file until closed
+    private ResponseBody shownBody;
 
     // Inner classes for data models
     private static class Header {
@@ -158,7 +159,7 @@ public class RestClient1 extends Application {
 
         // HTTP Method selector
         methodComboBox = new ComboBox<>(FXCollections.observableArrayList(
-            "GET", "POST", "PUT", "DELETE", "PATCH", "HEAD", "OPTIONS"
+            "GET", "POST", "PUT", "DELETE", "PATCH", "HEAD", "OPTIONS", "TRACE"
         ));
         methodComboBox.setValue("GET");
 
@@ -171,7 +172,11 @@ public class RestClient1 extends Application {
         Button sendButton = new Button("Send");
         sendButton.setOnAction(e -> sendRequest());
 
-        topSection.getChildren().addAll(methodComboBox, urlField, sendButton);
+        // Cancel button
+        Button cancelButton = new Button("Cancel");
+        cancelButton.setOnAction(e -> cancelRequest());
+
+        topSection.getChildren().addAll(methodComboBox, urlField, sendButton, cancelButton);
         return topSection;
     }
 
@@ -339,11 +344,11 @@ public class RestClient1 extends Application {
 
     private void sendRequest() {
         try {
-            HttpClient client = HttpClient.newHttpClient();
-            HttpRequest.Builder requestBuilder = HttpRequest.newBuilder()
-                .uri(new URI(buildUrlWithParams()))
-                .method(methodComboBox.getValue(),
-                       HttpRequest.BodyPublishers.ofString(requestBody.getText()));
+            ApiRequest.Builder requestBuilder = ApiRequest.builder()
+                .method(methodComboBox.getValue())
+                .url(urlField.getText())
+                .body(requestBody.getText());
+            queryParams.forEach(param -> requestBuilder.queryParam(param.getKey(), param.getValue()));
 
             // Add headers
             addHeadersToRequest(requestBuilder);
@@ -351,31 +356,69 @@ public class RestClient1 extends Application {
             // Add authentication
             addAuthenticationToRequest(requestBuilder);
 
-            HttpResponse<String> response = client.send(requestBuilder.build(),
-                HttpResponse.BodyHandlers.ofString());
-
-            responseBody.setText(response.body());
-
-            // Add to history
-            historyList.add(0, new HistoryEntry(
-                methodComboBox.getValue(), urlField.getText()
-            ));
+            ApiRequest request = requestBuilder.build();
+            InFlightRequest inFlight = requestExecutor.submit(request, transport);
+            currentRequest = inFlight;
+            responseBody.setText("Sending " + request + " ...");
+
+            inFlight.result().whenComplete((response, error) -> Platform.runLater(() -> {
+                if (response != null) {
+                    // Add to history
+                    historyList.add(0, new HistoryEntry(request.getMethod(), request.getUrl()));
+                }
+                if (currentRequest != inFlight) {
+                    // Superseded before it finished, so it is never shown
+                    if (response != null) {
+                        closeBody(response.getBody());
+                    }
+                    return;
+                }
+                if (response != null) {
+                    showBody(response.getBody());
+                    responseBody.setText(response.getBody().preview(ResponseViewer.PAGE_SIZE));
+                } else if (inFlight.getState() == RequestState.CANCELLED) {
+                    showBody(null);
+                    responseBody.setText("Request cancelled");
+                } else {
+                    showBody(null);
+                    Throwable cause = inFlight.getError();
+                    responseBody.setText("Error: " + (cause != null ? cause.getMessage() : inFlight.getState()));
+                }
+            }));
 
         } catch (Exception e) {
             responseBody.setText("Error: " + e.getMessage());
         }
     }
 
-    private void formatJson(TextArea textArea) {
+    // Closes the body that was on screen once another result replaces it
+    private void showBody(ResponseBody body) {
+        ResponseBody previous = shownBody;
+        shownBody = body;
+        if (previous != null && previous != body) {
+            closeBody(previous);
+        }
+    }
+
+    private static void closeBody(ResponseBody body) {
         try {
-            String text = textArea.getText();
-            if (!text.isEmpty()) {
-               // JSONObject json = new JSONObject(text);
-                //textArea.setText(json.toString(4));
-                textArea.setText(text);
-            }
-        } catch (Exception e) {
-            // If formatting fails, keep original text
+            body.close();
+        } catch (IOException ignored) {
+            // Spool files left behind are swept on the next start
+        }
+    }
+
+    private void cancelRequest() {
+        if (currentRequest != null) {
+            currentRequest.cancel();
+        }
+    }
+
+    private void formatJson(TextArea textArea) {
+        String text = textArea.getText();
+        if (!text.isEmpty()) {
+            // Non-JSON text is returned unchanged
+            textArea.setText(JsonFormat.prettyPrint(text));
         }
     }
 
@@ -432,50 +475,38 @@ private void addHeader() {
         queryParams.add(new QueryParam("", ""));
     }
 
-    private String buildUrlWithParams() {
-        String baseUrl = urlField.getText();
-        if (queryParams.isEmpty()) {
-            return baseUrl;
-        }
-
-        String queryString = queryParams.stream()
-            .filter(param -> !param.getKey().isEmpty())
-            .map(param -> param.getKey() + "=" + param.getValue())
-            .collect(Collectors.joining("&"));
-
-        return baseUrl + (baseUrl.contains("?") ? "&" : "?") + queryString;
-    }
-
-    private void addHeadersToRequest(HttpRequest.Builder requestBuilder) {
+    private void addHeadersToRequest(ApiRequest.Builder requestBuilder) {
         headers.stream()
             .filter(header -> !header.getKey().isEmpty())
             .forEach(header -> requestBuilder.header(header.getKey(), header.getValue()));
     }
 
-    private void addAuthenticationToRequest(HttpRequest.Builder requestBuilder) {
+    private void addAuthenticationToRequest(ApiRequest.Builder requestBuilder) {
         switch (authTypeComboBox.getValue()) {
             case "Basic Auth":
                 TextField usernameField = (TextField) authDetailsBox.getChildren().get(0);
                 PasswordField passwordField = (PasswordField) authDetailsBox.getChildren().get(1);
-                String auth = usernameField.getText() + ":" + passwordField.getText();
-                String encodedAuth = Base64.getEncoder().encodeToString(auth.getBytes());
-                requestBuilder.header("Authorization", "Basic " + encodedAuth);
+                requestBuilder.auth(AuthConfig.basic(usernameField.getText(), passwordField.getText()));
                 break;
 
             case "Bearer Token":
                 TextField tokenField = (TextField) authDetailsBox.getChildren().get(0);
-                requestBuilder.header("Authorization", "Bearer " + tokenField.getText());
+                requestBuilder.auth(AuthConfig.bearer(tokenField.getText()));
                 break;
 
             case "API Key":
                 TextField headerField = (TextField) authDetailsBox.getChildren().get(0);
                 TextField keyField = (TextField) authDetailsBox.getChildren().get(1);
-                String headerName = headerField.getText().isEmpty() ? "X-API-Key" : headerField.getText();
-                requestBuilder.header(headerName, keyField.getText());
+                requestBuilder.auth(AuthConfig.apiKey(headerField.getText(), keyField.getText()));
                 break;
         }
     }
 
+    @Override
+    public void stop() {
+        requestExecutor.shutdown();
+    }
+
     public static void main(String[] args) {
         launch(args);
     }
@@ -0,0 +1,160 @@
+package com.restclient.restclient;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+
+// Streams a response body into memory up to a threshold, then switches to a temp file so heap
+// usage stays bounded no matter how large the payload is
+public class SpoolingBodySubscriber implements HttpResponse.BodySubscriber<ResponseBody> {
+    // Bodies up to this size stay in memory; anything larger goes to disk
+    public static final int DEFAULT_MEMORY_THRESHOLD = 1024 * 1024;
+
+    private final int memoryThreshold;
+    private final Charset charset;
+    private final CompletableFuture<ResponseBody> result = new CompletableFuture<>();
+    private Flow.Subscription subscription;
+    private ByteArrayOutputStream memory = new ByteArrayOutputStream();
+    private Path spoolFile;
+    private FileChannel spoolChannel;
+    private long size;
+
+    public SpoolingBodySubscriber(int memoryThreshold, Charset charset) {
+        this.memoryThreshold = memoryThreshold;
+        this.charset = charset;
+    }
+
+    // Method to build a body handler that spools past the default threshold
+    public static HttpResponse.BodyHandler<ResponseBody> handler() {
+        return handler(DEFAULT_MEMORY_THRESHOLD);
+    }
+
+    public static HttpResponse.BodyHandler<ResponseBody> handler(int memoryThreshold) {
+        return responseInfo -> new SpoolingBodySubscriber(memoryThreshold, charsetOf(responseInfo.headers()));
+    }
+
+    @Override
+    public CompletionStage<ResponseBody> getBody() {
+        return result;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(1);
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> buffers) {
+        try {
+            for (ByteBuffer buffer : buffers) {
+                write(buffer);
+            }
+            subscription.request(1);
+        } catch (IOException e) {
+            subscription.cancel();
+            onError(e);
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        closeQuietly();
+        if (spoolFile != null) {
+            try {
+                Files.deleteIfExists(spoolFile);
+            } catch (IOException ignored) {
+                // Temp file is also registered for deletion on exit
+            }
+        }
+        result.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        try {
+            if (spoolChannel != null) {
+                spoolChannel.close();
+                result.complete(ResponseBody.ofFile(spoolFile, size, charset));
+            } else {
+                result.complete(ResponseBody.ofBytes(memory.toByteArray(), charset));
+            }
+        } catch (IOException e) {
+            onError(e);
+        }
+    }
+
+    private void write(ByteBuffer buffer) throws IOException {
+        int remaining = buffer.remaining();
+        size += remaining;
+        if (spoolChannel == null && memory.size() + remaining > memoryThreshold) {
+            startSpooling();
+        }
+        if (spoolChannel != null) {
+            while (buffer.hasRemaining()) {
+                spoolChannel.write(buffer);
+            }
+        } else if (buffer.hasArray()) {
+            memory.write(buffer.array(), buffer.arrayOffset() + buffer.position(), remaining);
+        } else {
+            byte[] chunk = new byte[remaining];
+            buffer.get(chunk);
+            memory.write(chunk, 0, remaining);
+        }
+    }
+
+    // Move what has been buffered so far to disk and continue writing there
+    private void startSpooling() throws IOException {
+        spoolFile = ResponseBody.createSpoolFile();
+        spoolChannel = FileChannel.open(spoolFile, StandardOpenOption.WRITE);
+        ByteBuffer buffered = ByteBuffer.wrap(memory.toByteArray());
+        while (buffered.hasRemaining()) {
+            spoolChannel.write(buffered);
+        }
+        memory = null;
+    }
+
+    private void closeQuietly() {
+        if (spoolChannel != null) {
+            try {
+                spoolChannel.close();
+            } catch (IOException ignored) {
+                // Nothing more to do; the file is removed below
+            }
+        }
+    }
+
+    // Charset from the Content-Type header, defaulting to UTF-8
+    static Charset charsetOf(HttpHeaders headers) {
+        return headers.firstValue("Content-Type").map(SpoolingBodySubscriber::charsetOf).orElse(StandardCharsets.UTF_8);
+    }
+
+    static Charset charsetOf(String contentType) {
+        if (contentType != null) {
+            for (String part : contentType.split(";")) {
+                String trimmed = part.trim();
+                if (trimmed.toLowerCase(Locale.ROOT).startsWith("charset=")) {
+                    try {
+                        return Charset.forName(trimmed.substring(8).replace("\"", "").trim());
+                    } catch (IllegalArgumentException e) {
+                        return StandardCharsets.UTF_8;
+                    }
+                }
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+}
@@ -0,0 +1,155 @@
+package com.restclient.restclient;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+// Text with ${name} (and optionally {name}) references, parsed once into literal and variable
+// segments so rendering is a single pass with no scanning or regex. Unknown variables render as
+// written, which keeps placeholders visible instead of silently sending an empty value.
+public final class Template {
+    private static final int MAX_CACHED = 4096;
+    private static final Map<String, Template> CACHE = new ConcurrentHashMap<>();
+    private static final Map<String, Template> DOLLAR_CACHE = new ConcurrentHashMap<>();
+
+    private final String source;
+    // Literal text at even indexes, variable names at odd ones; a template always starts with a literal
+    private final String[] segments;
+    // Whether each variable was written ${name} rather than {name}, to render unknown ones as written
+    private final boolean[] dollar;
+    private final int literalLength;
+
+    private Template(String source, String[] segments, boolean[] dollar) {
+        this.source = source;
+        this.segments = segments;
+        this.dollar = dollar;
+        int length = 0;
+        for (int i = 0; i < segments.length; i += 2) {
+            length += segments[i].length();
+        }
+        this.literalLength = length;
+    }
+
+    // Method to compile text accepting both ${name} and {name}, as used in URLs, headers and parameters
+    public static Template of(String text) {
+        return cached(CACHE, text, true);
+    }
+
+    // Only ${name}: for bodies, where braces are JSON and must be left alone
+    public static Template ofDollar(String text) {
+        return cached(DOLLAR_CACHE, text, false);
+    }
+
+    private static Template cached(Map<String, Template> cache, String text, boolean braces) {
+        String source = text == null ? "" : text;
+        Template template = cache.get(source);
+        if (template == null) {
+            template = compile(source, braces);
+            if (cache.size() >= MAX_CACHED) {
+                cache.clear();
+            }
+            cache.put(source, template);
+        }
+        return template;
+    }
+
+    static Template compile(String text, boolean braces) {
+        List<String> segments = new ArrayList<>();
+        List<Boolean> dollar = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int position = 0;
+        while (position < text.length()) {
+            char c = text.charAt(position);
+            int nameStart = -1;
+            if (c == '$' && position + 1 < text.length() && text.charAt(position + 1) == '{') {
+                nameStart = position + 2;
+            } else if (c == '{' && braces) {
+                nameStart = position + 1;
+            }
+            int end = nameStart < 0 ? -1 : text.indexOf('}', nameStart);
+            if (end > nameStart && isName(text, nameStart, end, c == '$')) {
+                segments.add(literal.toString());
+                segments.add(text.substring(nameStart, end));
+                dollar.add(c == '$');
+                literal.setLength(0);
+                position = end + 1;
+            } else {
+                literal.append(c);
+                position++;
+            }
+        }
+        segments.add(literal.toString());
+        boolean[] flags = new boolean[segments.size()];
+        for (int i = 0; i < dollar.size(); i++) {
+            flags[2 * i + 1] = dollar.get(i);
+        }
+        return new Template(text, segments.toArray(new String[0]), flags);
+    }
+
+    // {name} must look like an identifier so JSON-ish text such as {"a":1} stays literal;
+    // ${...} accepts anything up to the brace, e.g. JMeter's ${__P(host,localhost)}
+    private static boolean isName(String text, int start, int end, boolean dollar) {
+        if (dollar) {
+            return true;
+        }
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (!Character.isLetterOrDigit(c) && c != '_' && c != '-' && c != '.') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public boolean isConstant() {
+        return segments.length == 1;
+    }
+
+    public Set<String> getVariableNames() {
+        if (isConstant()) {
+            return Collections.emptySet();
+        }
+        Set<String> names = new LinkedHashSet<>();
+        for (int i = 1; i < segments.length; i += 2) {
+            names.add(segments[i]);
+        }
+        return names;
+    }
+
+    public String render(Map<String, String> variables) {
+        return render(variables::get);
+    }
+
+    // Method to fill in the variables; a null lookup result leaves the reference as written
+    public String render(Function<String, String> variables) {
+        if (isConstant()) {
+            return source;
+        }
+        StringBuilder out = new StringBuilder(literalLength + 16 * (segments.length / 2));
+        out.append(segments[0]);
+        for (int i = 1; i < segments.length; i += 2) {
+            String value = variables.apply(segments[i]);
+            if (value != null) {
+                out.append(value);
+            } else {
+                out.append(dollar[i] ? "${" : "{").append(segments[i]).append('}');
+            }
+            out.append(segments[i + 1]);
+        }
+        return out.toString();
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+}
@@ -0,0 +1,51 @@
+package com.restclient.restclient;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+// An imported plan (JMeter .jmx or OpenAPI spec): its variables and the load scenarios it defines
+public class TestPlan {
+    private final String name;
+    private final Map<String, String> variables;
+    private final List<LoadScenario> scenarios;
+    private final List<MockRoute> mockRoutes;
+
+    public TestPlan(String name, Map<String, String> variables, List<LoadScenario> scenarios) {
+        this(name, variables, scenarios, Collections.emptyList());
+    }
+
+    public TestPlan(String name, Map<String, String> variables, List<LoadScenario> scenarios,
+                    List<MockRoute> mockRoutes) {
+        this.name = name;
+        this.variables = Collections.unmodifiableMap(variables);
+        this.scenarios = Collections.unmodifiableList(scenarios);
+        this.mockRoutes = Collections.unmodifiableList(mockRoutes);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Map<String, String> getVariables() {
+        return variables;
+    }
+
+    public List<LoadScenario> getScenarios() {
+        return scenarios;
+    }
+
+    // Responses declared by the source (e.g. OpenAPI examples), for serving the plan from a mock server
+    public List<MockRoute> getMockRoutes() {
+        return mockRoutes;
+    }
+
+    public int getRequestCount() {
+        return scenarios.stream().mapToInt(scenario -> scenario.getRequests().size()).sum();
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + scenarios.size() + " scenarios, " + getRequestCount() + " requests)";
+    }
+}
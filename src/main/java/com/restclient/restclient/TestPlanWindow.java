@@ -0,0 +1,124 @@
+package com.restclient.restclient;
+
+import javafx.geometry.Insets;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.SplitPane;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import javafx.stage.Stage;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+// Shows the thread groups of an imported plan and runs them through the built-in load engine
+public class TestPlanWindow {
+    private static final double PADDING = 10;
+
+    private final String title;
+    private final List<LoadScenario> scenarios;
+    private final Supplier<HttpTransport> transportSupplier;
+    private final Consumer<ApiRequest> openInEditor;
+    private final Stage stage = new Stage();
+
+    private final ListView<LoadScenario> scenarioListView = new ListView<>();
+    private final ListView<ApiRequest> requestListView = new ListView<>();
+    private final TextField baseUrlField = new TextField();
+    private List<MockRoute> mockRoutes = List.of();
+
+    public TestPlanWindow(String title, List<LoadScenario> scenarios, Supplier<HttpTransport> transportSupplier,
+                          Consumer<ApiRequest> openInEditor) {
+        this.title = title;
+        this.scenarios = scenarios;
+        this.transportSupplier = transportSupplier;
+        this.openInEditor = openInEditor;
+    }
+
+    // Routes to serve when the plan is mocked locally
+    public TestPlanWindow withMockRoutes(List<MockRoute> mockRoutes) {
+        this.mockRoutes = mockRoutes;
+        return this;
+    }
+
+    public void show() {
+        scenarioListView.getItems().setAll(scenarios);
+        scenarioListView.getSelectionModel().selectedItemProperty().addListener((observable, oldValue, newValue) ->
+                requestListView.getItems().setAll(newValue == null ? List.of() : newValue.getRequests()));
+        requestListView.setCellFactory(list -> new ListCell<>() {
+            @Override
+            protected void updateItem(ApiRequest item, boolean empty) {
+                super.updateItem(item, empty);
+                setText(empty || item == null ? null : item.getMethod() + " " + item.getLabel());
+            }
+        });
+        requestListView.setOnMouseClicked(e -> {
+            if (e.getClickCount() == 2) {
+                openSelectedRequest();
+            }
+        });
+
+        baseUrlField.setPromptText("Base URL override, e.g. https://stores.example.com");
+
+        Button loadTestButton = new Button("Load Test");
+        loadTestButton.setOnAction(e -> openLoadTest());
+        Button runButton = new Button("Run Collection");
+        runButton.setOnAction(e -> openCollectionRun());
+        Button mockButton = new Button("Mock Server");
+        mockButton.setOnAction(e -> new MockServerWindow(title, () -> mockRoutes).show());
+        mockButton.setDisable(mockRoutes.isEmpty());
+        Button openButton = new Button("Open Request");
+        openButton.setOnAction(e -> openSelectedRequest());
+
+        SplitPane lists = new SplitPane(scenarioListView, requestListView);
+        VBox layout = new VBox(10,
+                new Label(title),
+                new HBox(10, new Label("Base URL:"), baseUrlField),
+                lists,
+                new HBox(10, loadTestButton, runButton, mockButton, openButton));
+        layout.setPadding(new Insets(PADDING));
+        baseUrlField.setPrefWidth(500);
+
+        if (!scenarios.isEmpty()) {
+            scenarioListView.getSelectionModel().selectFirst();
+        }
+
+        stage.setTitle(title);
+        stage.setScene(new Scene(layout, 1000, 600));
+        stage.show();
+    }
+
+    private void openLoadTest() {
+        LoadScenario scenario = scenarioListView.getSelectionModel().getSelectedItem();
+        if (scenario == null) {
+            return;
+        }
+        new LoadTestWindow(scenario.getName(),
+                () -> new RequestCollection(scenario.getName(), scenario.getRequests())
+                        .rebase(baseUrlField.getText()).getRequests(),
+                transportSupplier)
+                .withDefaults(scenario.getConfig())
+                .show();
+    }
+
+    private void openCollectionRun() {
+        LoadScenario scenario = scenarioListView.getSelectionModel().getSelectedItem();
+        if (scenario != null) {
+            new CollectionRunnerWindow(new RequestCollection(scenario.getName(), scenario.getRequests()),
+                    transportSupplier, Map::of, openInEditor).show();
+        }
+    }
+
+    private void openSelectedRequest() {
+        ApiRequest request = requestListView.getSelectionModel().getSelectedItem();
+        if (request != null) {
+            RequestCollection single = new RequestCollection(request.getLabel(), List.of(request));
+            openInEditor.accept(single.rebase(baseUrlField.getText()).getRequests().get(0));
+        }
+    }
+}
@@ -0,0 +1,499 @@
+package com.restclient.restclient;
+
+import javax.net.ssl.ExtendedSSLSession;
+import javax.net.ssl.KeyManager;
+import javax.net.ssl.SNIServerName;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLContextSpi;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult;
+import javax.net.ssl.SSLException;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLPeerUnverifiedException;
+import javax.net.ssl.SSLServerSocketFactory;
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSessionContext;
+import javax.net.ssl.SSLSocketFactory;
+import javax.net.ssl.TrustManager;
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.security.Principal;
+import java.security.SecureRandom;
+import java.security.cert.Certificate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+
+// SSLContext that hands out engines timing their own handshakes into a TlsConnection, bound to the
+// session they report, and counting handshakes, resumptions and closes in ConnectionStats. Everything
+// else is delegated unchanged, so TLS behaviour is exactly that of the wrapped context.
+final class TimedSslContext extends SSLContext {
+    private static final Cleaner CLEANER = Cleaner.create(HttpClientEngine.daemonThreads("tls-engine-cleaner"));
+
+    TimedSslContext(SSLContext delegate, ConnectionStats stats) {
+        super(new Spi(delegate, stats), delegate.getProvider(), delegate.getProtocol());
+    }
+
+    private static final class Spi extends SSLContextSpi {
+        private final SSLContext delegate;
+        private final ConnectionStats stats;
+
+        Spi(SSLContext delegate, ConnectionStats stats) {
+            this.delegate = delegate;
+            this.stats = stats;
+        }
+
+        @Override
+        protected void engineInit(KeyManager[] keyManagers, TrustManager[] trustManagers, SecureRandom random) {
+            throw new UnsupportedOperationException("The wrapped context is already initialised");
+        }
+
+        @Override
+        protected SSLSocketFactory engineGetSocketFactory() {
+            return delegate.getSocketFactory();
+        }
+
+        @Override
+        protected SSLServerSocketFactory engineGetServerSocketFactory() {
+            return delegate.getServerSocketFactory();
+        }
+
+        @Override
+        protected SSLEngine engineCreateSSLEngine() {
+            return delegate.createSSLEngine();
+        }
+
+        @Override
+        protected SSLEngine engineCreateSSLEngine(String host, int port) {
+            return new TimedEngine(delegate.createSSLEngine(host, port), stats);
+        }
+
+        @Override
+        protected SSLSessionContext engineGetServerSessionContext() {
+            return delegate.getServerSessionContext();
+        }
+
+        @Override
+        protected SSLSessionContext engineGetClientSessionContext() {
+            return delegate.getClientSessionContext();
+        }
+
+        @Override
+        protected SSLParameters engineGetDefaultSSLParameters() {
+            return delegate.getDefaultSSLParameters();
+        }
+
+        @Override
+        protected SSLParameters engineGetSupportedSSLParameters() {
+            return delegate.getSupportedSSLParameters();
+        }
+    }
+
+    // Notes when the handshake starts (first wrap/unwrap), when it reports FINISHED and when the
+    // connection is closed. One engine is one connection. The JDK client drops a connection without
+    // telling its engine unless a close_notify is exchanged, so an engine that is garbage collected
+    // also counts as closed.
+    private static final class TimedEngine extends SSLEngine {
+        private final SSLEngine delegate;
+        private final ConnectionStats stats;
+        private final TlsConnection connection;
+        private final long createdMillis = System.currentTimeMillis();
+        private volatile Closer closer;
+        private volatile long startedNanos;
+        private volatile boolean recorded;
+        private volatile TaggedSession session;
+
+        TimedEngine(SSLEngine delegate, ConnectionStats stats) {
+            super(delegate.getPeerHost(), delegate.getPeerPort());
+            this.delegate = delegate;
+            this.stats = stats;
+            this.connection = new TlsConnection(delegate.getPeerHost() + ":" + delegate.getPeerPort());
+        }
+
+        private void started() {
+            if (startedNanos == 0) {
+                startedNanos = System.nanoTime();
+            }
+        }
+
+        private SSLEngineResult observe(SSLEngineResult result) {
+            if (!recorded && result.getHandshakeStatus() == SSLEngineResult.HandshakeStatus.FINISHED) {
+                recorded = true;
+                long finished = System.nanoTime();
+                connection.handshakeFinished(startedNanos != 0 ? startedNanos : finished, finished);
+                SSLSession session = delegate.getSession();
+                // A resumed session (TLS 1.2 session ID or TLS 1.3 PSK) keeps the creation time of the
+                // session it resumes, which predates this engine
+                ConnectionStats.Host host = stats.host(connection.getHostKey());
+                host.handshakeFinished(connection.getConnectNanos(), connection.getTlsNanos(), session.getProtocol(),
+                        session.getCreationTime() < createdMillis);
+                closer = new Closer(host);
+                CLEANER.register(this, closer);
+            } else if (result.getStatus() == SSLEngineResult.Status.CLOSED) {
+                // close_notify from either side; the client does not always call closeInbound/closeOutbound
+                closed();
+            }
+            return result;
+        }
+
+        private void closed() {
+            Closer current = closer;
+            if (current != null) {
+                current.run();
+            }
+        }
+
+        @Override
+        public SSLEngineResult wrap(ByteBuffer src, ByteBuffer dst) throws SSLException {
+            started();
+            return observe(delegate.wrap(src, dst));
+        }
+
+        @Override
+        public SSLEngineResult wrap(ByteBuffer[] srcs, ByteBuffer dst) throws SSLException {
+            started();
+            return observe(delegate.wrap(srcs, dst));
+        }
+
+        @Override
+        public SSLEngineResult wrap(ByteBuffer[] srcs, int offset, int length, ByteBuffer dst) throws SSLException {
+            started();
+            return observe(delegate.wrap(srcs, offset, length, dst));
+        }
+
+        @Override
+        public SSLEngineResult unwrap(ByteBuffer src, ByteBuffer dst) throws SSLException {
+            started();
+            return observe(delegate.unwrap(src, dst));
+        }
+
+        @Override
+        public SSLEngineResult unwrap(ByteBuffer src, ByteBuffer[] dsts) throws SSLException {
+            started();
+            return observe(delegate.unwrap(src, dsts));
+        }
+
+        @Override
+        public SSLEngineResult unwrap(ByteBuffer src, ByteBuffer[] dsts, int offset, int length) throws SSLException {
+            started();
+            return observe(delegate.unwrap(src, dsts, offset, length));
+        }
+
+        @Override
+        public void beginHandshake() throws SSLException {
+            started();
+            delegate.beginHandshake();
+        }
+
+        @Override
+        public Runnable getDelegatedTask() {
+            return delegate.getDelegatedTask();
+        }
+
+        @Override
+        public void closeInbound() throws SSLException {
+            closed();
+            delegate.closeInbound();
+        }
+
+        @Override
+        public boolean isInboundDone() {
+            return delegate.isInboundDone();
+        }
+
+        @Override
+        public void closeOutbound() {
+            closed();
+            delegate.closeOutbound();
+        }
+
+        @Override
+        public boolean isOutboundDone() {
+            return delegate.isOutboundDone();
+        }
+
+        @Override
+        public String[] getSupportedCipherSuites() {
+            return delegate.getSupportedCipherSuites();
+        }
+
+        @Override
+        public String[] getEnabledCipherSuites() {
+            return delegate.getEnabledCipherSuites();
+        }
+
+        @Override
+        public void setEnabledCipherSuites(String[] suites) {
+            delegate.setEnabledCipherSuites(suites);
+        }
+
+        @Override
+        public String[] getSupportedProtocols() {
+            return delegate.getSupportedProtocols();
+        }
+
+        @Override
+        public String[] getEnabledProtocols() {
+            return delegate.getEnabledProtocols();
+        }
+
+        @Override
+        public void setEnabledProtocols(String[] protocols) {
+            delegate.setEnabledProtocols(protocols);
+        }
+
+        // The client copies this into every response it reads over the connection, which is how a
+        // response finds its TlsConnection; the wrapper is rebuilt only if the session changes
+        @Override
+        public SSLSession getSession() {
+            SSLSession current = delegate.getSession();
+            TaggedSession tagged = session;
+            if (tagged != null && tagged.delegate == current) {
+                return tagged;
+            }
+            if (!(current instanceof ExtendedSSLSession)) {
+                return current;
+            }
+            tagged = new TaggedSession((ExtendedSSLSession) current, connection);
+            session = tagged;
+            return tagged;
+        }
+
+        @Override
+        public SSLSession getHandshakeSession() {
+            return delegate.getHandshakeSession();
+        }
+
+        @Override
+        public SSLEngineResult.HandshakeStatus getHandshakeStatus() {
+            return delegate.getHandshakeStatus();
+        }
+
+        @Override
+        public void setUseClientMode(boolean mode) {
+            delegate.setUseClientMode(mode);
+        }
+
+        @Override
+        public boolean getUseClientMode() {
+            return delegate.getUseClientMode();
+        }
+
+        @Override
+        public void setNeedClientAuth(boolean need) {
+            delegate.setNeedClientAuth(need);
+        }
+
+        @Override
+        public boolean getNeedClientAuth() {
+            return delegate.getNeedClientAuth();
+        }
+
+        @Override
+        public void setWantClientAuth(boolean want) {
+            delegate.setWantClientAuth(want);
+        }
+
+        @Override
+        public boolean getWantClientAuth() {
+            return delegate.getWantClientAuth();
+        }
+
+        @Override
+        public void setEnableSessionCreation(boolean flag) {
+            delegate.setEnableSessionCreation(flag);
+        }
+
+        @Override
+        public boolean getEnableSessionCreation() {
+            return delegate.getEnableSessionCreation();
+        }
+
+        @Override
+        public SSLParameters getSSLParameters() {
+            return delegate.getSSLParameters();
+        }
+
+        @Override
+        public void setSSLParameters(SSLParameters params) {
+            delegate.setSSLParameters(params);
+        }
+
+        // ALPN: the JDK client negotiates HTTP/2 through these
+        @Override
+        public String getApplicationProtocol() {
+            return delegate.getApplicationProtocol();
+        }
+
+        @Override
+        public String getHandshakeApplicationProtocol() {
+            return delegate.getHandshakeApplicationProtocol();
+        }
+
+        @Override
+        public void setHandshakeApplicationProtocolSelector(BiFunction<SSLEngine, List<String>, String> selector) {
+            delegate.setHandshakeApplicationProtocolSelector(selector);
+        }
+
+        @Override
+        public BiFunction<SSLEngine, List<String>, String> getHandshakeApplicationProtocolSelector() {
+            return delegate.getHandshakeApplicationProtocolSelector();
+        }
+    }
+
+    // The engine's session, answering getValue(TlsConnection.SESSION_KEY) with the connection it belongs
+    // to; everything else is the session's own
+    private static final class TaggedSession extends ExtendedSSLSession {
+        private final ExtendedSSLSession delegate;
+        private final TlsConnection connection;
+
+        TaggedSession(ExtendedSSLSession delegate, TlsConnection connection) {
+            this.delegate = delegate;
+            this.connection = connection;
+        }
+
+        @Override
+        public Object getValue(String name) {
+            return TlsConnection.SESSION_KEY.equals(name) ? connection : delegate.getValue(name);
+        }
+
+        @Override
+        public void putValue(String name, Object value) {
+            delegate.putValue(name, value);
+        }
+
+        @Override
+        public void removeValue(String name) {
+            delegate.removeValue(name);
+        }
+
+        @Override
+        public String[] getValueNames() {
+            return delegate.getValueNames();
+        }
+
+        @Override
+        public byte[] getId() {
+            return delegate.getId();
+        }
+
+        @Override
+        public SSLSessionContext getSessionContext() {
+            return delegate.getSessionContext();
+        }
+
+        @Override
+        public long getCreationTime() {
+            return delegate.getCreationTime();
+        }
+
+        @Override
+        public long getLastAccessedTime() {
+            return delegate.getLastAccessedTime();
+        }
+
+        @Override
+        public void invalidate() {
+            delegate.invalidate();
+        }
+
+        @Override
+        public boolean isValid() {
+            return delegate.isValid();
+        }
+
+        @Override
+        public Certificate[] getPeerCertificates() throws SSLPeerUnverifiedException {
+            return delegate.getPeerCertificates();
+        }
+
+        // Abstract up to Java 14, so a Java 11 runtime throws AbstractMethodError without it
+        @Override
+        @SuppressWarnings({"deprecation", "removal"})
+        public javax.security.cert.X509Certificate[] getPeerCertificateChain() throws SSLPeerUnverifiedException {
+            return delegate.getPeerCertificateChain();
+        }
+
+        @Override
+        public Certificate[] getLocalCertificates() {
+            return delegate.getLocalCertificates();
+        }
+
+        @Override
+        public Principal getPeerPrincipal() throws SSLPeerUnverifiedException {
+            return delegate.getPeerPrincipal();
+        }
+
+        @Override
+        public Principal getLocalPrincipal() {
+            return delegate.getLocalPrincipal();
+        }
+
+        @Override
+        public String getCipherSuite() {
+            return delegate.getCipherSuite();
+        }
+
+        @Override
+        public String getProtocol() {
+            return delegate.getProtocol();
+        }
+
+        @Override
+        public String getPeerHost() {
+            return delegate.getPeerHost();
+        }
+
+        @Override
+        public int getPeerPort() {
+            return delegate.getPeerPort();
+        }
+
+        @Override
+        public int getPacketBufferSize() {
+            return delegate.getPacketBufferSize();
+        }
+
+        @Override
+        public int getApplicationBufferSize() {
+            return delegate.getApplicationBufferSize();
+        }
+
+        @Override
+        public String[] getLocalSupportedSignatureAlgorithms() {
+            return delegate.getLocalSupportedSignatureAlgorithms();
+        }
+
+        @Override
+        public String[] getPeerSupportedSignatureAlgorithms() {
+            return delegate.getPeerSupportedSignatureAlgorithms();
+        }
+
+        @Override
+        public List<SNIServerName> getRequestedServerNames() {
+            return delegate.getRequestedServerNames();
+        }
+
+        @Override
+        public List<byte[]> getStatusResponses() {
+            return delegate.getStatusResponses();
+        }
+    }
+
+    // Counts the close once, whether it is seen on the wire or by the cleaner; must not reference the engine
+    private static final class Closer implements Runnable {
+        private final ConnectionStats.Host host;
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        Closer(ConnectionStats.Host host) {
+            this.host = host;
+        }
+
+        @Override
+        public void run() {
+            if (done.compareAndSet(false, true)) {
+                host.connectionClosed();
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.restclient.restclient;
+
+import javax.net.ssl.SSLSession;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// One TLS connection opened through the engine's SSLContext, with its handshake timing. The timed
+// engine binds it to the session it reports, so a response's sslSession() leads back to the exact
+// connection it came over, however many requests to the host are in flight at once.
+public final class TlsConnection {
+    static final String SESSION_KEY = TlsConnection.class.getName();
+
+    private final String hostKey;
+    private final long createdNanos = System.nanoTime();
+    private final AtomicBoolean opened = new AtomicBoolean();
+    private volatile long startedNanos;
+    private volatile long finishedNanos;
+
+    TlsConnection(String hostKey) {
+        this.hostKey = hostKey;
+    }
+
+    // Method to find the connection a response came over; null for plain http or a foreign SSLContext
+    public static TlsConnection of(Optional<SSLSession> session) {
+        Object value = session.map(s -> s.getValue(SESSION_KEY)).orElse(null);
+        return value instanceof TlsConnection ? (TlsConnection) value : null;
+    }
+
+    void handshakeFinished(long startedNanos, long finishedNanos) {
+        this.startedNanos = startedNanos;
+        this.finishedNanos = finishedNanos;
+    }
+
+    // True for the first exchange that completes on this connection, the one that waited for it to open;
+    // false for every later one, which reused it
+    public boolean claimOpening() {
+        return opened.compareAndSet(false, true);
+    }
+
+    public String getHostKey() {
+        return hostKey;
+    }
+
+    // The JDK client creates the engine before connecting and starts the handshake once connected
+    public long getConnectNanos() {
+        return startedNanos - createdNanos;
+    }
+
+    public long getTlsNanos() {
+        return finishedNanos - startedNanos;
+    }
+}
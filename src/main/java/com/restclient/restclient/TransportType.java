@@ -0,0 +1,30 @@
+package com.restclient.restclient;
+
+// The send backends the UI can choose between
+public enum TransportType {
+    JDK_HTTP_CLIENT("JDK HttpClient") {
+        @Override
+        public HttpTransport create() {
+            return new JdkHttpTransport(HttpClientEngine.shared());
+        }
+    },
+    REST_ASSURED("RestAssured") {
+        @Override
+        public HttpTransport create() {
+            return new RestAssuredTransport();
+        }
+    };
+
+    private final String displayName;
+
+    TransportType(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public abstract HttpTransport create();
+
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
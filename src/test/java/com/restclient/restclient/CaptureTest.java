@@ -0,0 +1,137 @@
+package com.restclient.restclient;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CaptureTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void varintsRoundTrip() {
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        long[] values = {0, 1, 127, 128, 300, Long.MAX_VALUE};
+        for (long value : values) {
+            CaptureCodec.putVarLong(buffer, value);
+        }
+        CaptureCodec.putSignedVarLong(buffer, -1);
+        CaptureCodec.putSignedVarLong(buffer, Long.MIN_VALUE);
+        buffer.flip();
+        for (long value : values) {
+            assertEquals(value, CaptureCodec.getVarLong(buffer));
+        }
+        assertEquals(-1, CaptureCodec.getSignedVarLong(buffer));
+        assertEquals(Long.MIN_VALUE, CaptureCodec.getSignedVarLong(buffer));
+        assertEquals(0, buffer.remaining());
+    }
+
+    @Test
+    void roundTripsExchangesAndFailures() throws IOException {
+        Path file = dir.resolve("run.rcap");
+        ApiRequest request = ApiRequest.builder().method("POST").url("https://example.com/orders")
+                .queryParam("page", "2").header("Authorization", "Bearer secret").header("X-Trace", "abc")
+                .body("{\"qty\":1}").build();
+        RequestTiming timing = new RequestTiming(-1, 2_000, 3_000, 400, 50_000, 6_000, 61_400);
+        ApiResponse response = new ApiResponse(201, "HTTP/2", Map.of("Content-Type", List.of("application/json")),
+                ResponseBody.ofString("{\"id\":5}"), timing, "JDK");
+        ApiRequest failing = ApiRequest.builder().method("GET").url("https://example.com/down").build();
+
+        try (CaptureWriter writer = new CaptureWriter(file)) {
+            writer.record(request, response, System.nanoTime());
+            writer.recordFailure(failing, System.nanoTime(), new IOException("Connection refused"));
+        }
+
+        try (CaptureReader reader = new CaptureReader(file)) {
+            CapturedExchange exchange = reader.next();
+            assertEquals("POST", exchange.getMethod());
+            assertEquals(request.buildUrlWithParams(), exchange.getUrl());
+            assertEquals(List.of(AuthConfig.REDACTED), exchange.getRequestHeaders().get("Authorization"));
+            assertEquals(List.of("abc"), exchange.getRequestHeaders().get("X-Trace"));
+            assertEquals("{\"qty\":1}", new String(exchange.getRequestBody(), StandardCharsets.UTF_8));
+            assertEquals(201, exchange.getStatusCode());
+            assertEquals("HTTP/2", exchange.getProtocol());
+            assertNull(exchange.getError());
+            assertEquals(List.of("application/json"), exchange.getResponseHeaders().get("Content-Type"));
+            assertEquals(8, exchange.getResponseSize());
+            assertEquals("{\"id\":5}", new String(exchange.getResponseBody(), StandardCharsets.UTF_8));
+            assertEquals(-1, exchange.getTiming().getDnsNanos());
+            assertEquals(2_000, exchange.getTiming().getConnectNanos());
+            assertEquals(3_000, exchange.getTiming().getTlsNanos());
+            assertEquals(61_400, exchange.getTiming().getTotalNanos());
+
+            CapturedExchange failure = reader.next();
+            assertEquals("https://example.com/down", failure.getUrl());
+            assertEquals(-1, failure.getStatusCode());
+            assertEquals("java.io.IOException: Connection refused", failure.getError());
+            assertEquals(0, failure.getResponseBody().length);
+
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void truncatesBodiesToTheLimit() throws IOException {
+        Path file = dir.resolve("big.rcap");
+        ApiResponse response = new ApiResponse(200, "HTTP/1.1", Map.of(), ResponseBody.ofString("0123456789"),
+                new RequestTiming(-1, -1, -1, 1, 2, 3, 6), "JDK");
+        try (CaptureWriter writer = new CaptureWriter(file, 4, false)) {
+            writer.record(ApiRequest.builder().url("http://localhost/big").build(), response, System.nanoTime());
+        }
+        try (CaptureReader reader = new CaptureReader(file)) {
+            CapturedExchange exchange = reader.next();
+            assertEquals(10, exchange.getResponseSize());
+            assertArrayEquals("0123".getBytes(StandardCharsets.UTF_8), exchange.getResponseBody());
+        }
+    }
+
+    @Test
+    void tornLastRecordEndsTheStream() throws IOException {
+        Path file = dir.resolve("torn.rcap");
+        try (CaptureWriter writer = new CaptureWriter(file)) {
+            for (int i = 0; i < 3; i++) {
+                writer.recordFailure(ApiRequest.builder().url("http://localhost/" + i).build(), System.nanoTime(),
+                        new IOException("refused"));
+            }
+        }
+        // Cut the file in the middle of the last record, as a writer killed mid-flush would leave it
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 5);
+        }
+
+        try (CaptureReader reader = new CaptureReader(file)) {
+            assertEquals("http://localhost/0", reader.next().getUrl());
+            assertEquals("http://localhost/1", reader.next().getUrl());
+            assertNull(reader.next());
+        }
+
+        // A cut inside a record's length prefix ends the stream there too
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(CaptureCodec.FILE_HEADER_SIZE + 2);
+        }
+        try (CaptureReader reader = new CaptureReader(file)) {
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void rejectsFilesThatAreNotCaptures() throws IOException {
+        Path file = dir.resolve("other.bin");
+        Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9});
+        assertThrows(IOException.class, () -> new CaptureReader(file));
+    }
+}
@@ -0,0 +1,136 @@
+package com.restclient.restclient;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CollectionRunTest {
+
+    private static ApiRequest request(String name, String... dependsOn) {
+        ApiRequest.Builder builder = ApiRequest.builder().name(name).method("GET").url("http://localhost/" + name);
+        for (String dependency : dependsOn) {
+            builder.dependsOn(dependency);
+        }
+        return builder.build();
+    }
+
+    private static int positionOf(int[] order, int index) {
+        for (int i = 0; i < order.length; i++) {
+            if (order[i] == index) {
+                return i;
+            }
+        }
+        throw new AssertionError("index " + index + " missing from order");
+    }
+
+    @Test
+    void keepsCollectionOrderWithoutDependencies() {
+        int[] order = CollectionRun.executionOrder(List.of(request("a"), request("b"), request("c")));
+        assertArrayEquals(new int[]{0, 1, 2}, order);
+    }
+
+    @Test
+    void placesPrerequisitesFirst() {
+        List<ApiRequest> requests = List.of(
+                request("checkout", "cart", "login"),
+                request("cart", "login"),
+                request("login"),
+                request("logout", "checkout"));
+        int[] order = CollectionRun.executionOrder(requests);
+
+        assertEquals(4, order.length);
+        assertTrue(positionOf(order, 2) < positionOf(order, 1));
+        assertTrue(positionOf(order, 1) < positionOf(order, 0));
+        assertTrue(positionOf(order, 0) < positionOf(order, 3));
+    }
+
+    @Test
+    void dependsOnEveryRequestSharingTheLabel() {
+        List<ApiRequest> requests = List.of(request("report", "seed"), request("seed"), request("seed"));
+        int[] order = CollectionRun.executionOrder(requests);
+        assertEquals(2, positionOf(order, 0));
+    }
+
+    @Test
+    void rejectsUnknownDependency() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> CollectionRun.executionOrder(List.of(request("a", "missing"))));
+        assertTrue(e.getMessage().contains("missing"));
+    }
+
+    @Test
+    void rejectsCycle() {
+        List<ApiRequest> requests = List.of(request("a", "c"), request("b", "a"), request("c", "b"));
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> CollectionRun.executionOrder(requests));
+        assertTrue(e.getMessage().startsWith("Dependency cycle"));
+    }
+
+    @Test
+    void rejectsSelfDependencyAsCycle() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> CollectionRun.executionOrder(List.of(request("a", "a"))));
+        assertEquals("Dependency cycle: a -> a", e.getMessage());
+    }
+
+    @Test
+    void runnerRejectsSelfDependencyBeforeSending() {
+        List<ApiRequest> requests = List.of(request("ping"), request("poll", "poll"));
+        HttpTransport transport = new HttpTransport() {
+            @Override
+            public String getName() {
+                return "none";
+            }
+
+            @Override
+            public ApiResponse execute(ApiRequest request) {
+                throw new AssertionError("nothing should be sent");
+            }
+        };
+        assertThrows(IllegalArgumentException.class,
+                () -> new CollectionRun(new RequestCollection("c", requests), transport, Map.of(), 2, result -> { }));
+    }
+
+    @Test
+    void rendersEnvironmentVariablesIntoEachRequestAsItIsSent() {
+        ApiRequest login = ApiRequest.builder().method("POST").url("${host}/login").build();
+        ApiRequest store = ApiRequest.builder().method("GET").url("${host}/stores/{storeNbr}")
+                .pathParam("storeNbr", "100").dependsOn(login.getLabel()).build();
+        ConcurrentLinkedQueue<String> sent = new ConcurrentLinkedQueue<>();
+        HttpTransport transport = new HttpTransport() {
+            @Override
+            public String getName() {
+                return "recording";
+            }
+
+            @Override
+            public ApiResponse execute(ApiRequest request) {
+                sent.add(request.getMethod() + " " + request.getUrl());
+                return new ApiResponse(200, "HTTP/1.1", Map.of(), ResponseBody.empty(),
+                        new RequestTiming(-1, -1, -1, 0, 0, 0, 0), getName());
+            }
+        };
+        List<CollectionResult> results = new CollectionRunner(transport)
+                .variables(Map.of("host", "http://localhost:8080"))
+                .start(new RequestCollection("c", List.of(login, store)), result -> { })
+                .completion().join();
+
+        assertEquals(List.of("POST http://localhost:8080/login", "GET http://localhost:8080/stores/100"),
+                List.copyOf(sent));
+        assertTrue(results.stream().allMatch(CollectionResult::isPassed));
+    }
+
+    @Test
+    void rebaseReplacesALeadingReference() {
+        RequestCollection rebased = new RequestCollection("c",
+                List.of(ApiRequest.builder().url("${host}/stores/{storeNbr}").build())).rebase("http://localhost:9090/");
+        assertEquals("http://localhost:9090/stores/{storeNbr}", rebased.getRequests().get(0).getUrl());
+    }
+}
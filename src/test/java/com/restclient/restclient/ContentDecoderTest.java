@@ -0,0 +1,174 @@
+package com.restclient.restclient;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ContentDecoderTest {
+    private static final byte[] TEXT = ("{\"items\":[" + "\"abcdefghij\",".repeat(5000) + "\"end\"]}")
+            .getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void picksDecoderFromContentEncoding() {
+        assertNotNull(ContentDecoder.forEncoding("gzip"));
+        assertNotNull(ContentDecoder.forEncoding(" X-GZIP "));
+        assertNotNull(ContentDecoder.forEncoding("deflate"));
+        assertNull(ContentDecoder.forEncoding("br"));
+        assertNull(ContentDecoder.forEncoding("identity"));
+        assertNull(ContentDecoder.forEncoding(null));
+    }
+
+    @Test
+    void decodesGzipInOneBuffer() throws IOException {
+        byte[] gzip = Compression.gzip(TEXT);
+        assertArrayEquals(TEXT, decode("gzip", gzip, gzip.length));
+    }
+
+    @Test
+    void decodesGzipFedOneByteAtATime() throws IOException {
+        // Every header and trailer field arrives split across buffers
+        assertArrayEquals(TEXT, decode("gzip", Compression.gzip(TEXT), 1));
+    }
+
+    @Test
+    void decodesOptionalHeaderFieldsSplitAcrossBuffers() throws IOException {
+        byte[] member = gzipMember(TEXT, "payload.json", new byte[]{1, 2, 3, 4});
+        for (int chunk : new int[]{1, 3, 7, 11, 4096}) {
+            assertArrayEquals(TEXT, decode("gzip", member, chunk), "chunk size " + chunk);
+        }
+    }
+
+    @Test
+    void decodesConcatenatedGzipMembers() throws IOException {
+        byte[] first = "first member,".getBytes(StandardCharsets.UTF_8);
+        byte[] second = "second member".getBytes(StandardCharsets.UTF_8);
+        byte[] stream = concat(Compression.gzip(first), gzipMember(second, "b.txt", null));
+        byte[] expected = concat(first, second);
+        for (int chunk : new int[]{1, 5, stream.length}) {
+            assertArrayEquals(expected, decode("gzip", stream, chunk), "chunk size " + chunk);
+        }
+    }
+
+    @Test
+    void ignoresTrailingBytesAfterTheLastMember() throws IOException {
+        byte[] stream = concat(Compression.gzip(TEXT), new byte[]{0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0});
+        assertArrayEquals(TEXT, decode("gzip", stream, 1000));
+    }
+
+    @Test
+    void decodesZlibAndRawDeflate() throws IOException {
+        assertArrayEquals(TEXT, decode("deflate", deflate(TEXT, false), 1));
+        assertArrayEquals(TEXT, decode("deflate", deflate(TEXT, true), 1));
+        assertArrayEquals(TEXT, decode("deflate", deflate(TEXT, true), 8192));
+    }
+
+    @Test
+    void countsCompressedBytes() throws IOException {
+        byte[] gzip = Compression.gzip(TEXT);
+        ContentDecoder decoder = ContentDecoder.forEncoding("gzip");
+        decoder.decode(ByteBuffer.wrap(gzip));
+        decoder.finish();
+        assertEquals(gzip.length, decoder.getConsumed());
+    }
+
+    @Test
+    void rejectsTruncatedBodies() {
+        byte[] gzip = Compression.gzip(TEXT);
+        assertThrows(EOFException.class, () -> decode("gzip", Arrays.copyOf(gzip, gzip.length - 4), 100));
+        assertThrows(EOFException.class, () -> decode("gzip", Arrays.copyOf(gzip, 6), 100));
+        byte[] zlib = deflate(TEXT, false);
+        assertThrows(EOFException.class, () -> decode("deflate", Arrays.copyOf(zlib, zlib.length / 2), 100));
+    }
+
+    @Test
+    void rejectsCorruptBodies() {
+        byte[] gzip = Compression.gzip(TEXT);
+        gzip[gzip.length - 6] ^= 0x55;
+        assertThrows(ZipException.class, () -> decode("gzip", gzip, 100));
+        assertThrows(ZipException.class, () -> decode("gzip", "not gzip at all".getBytes(StandardCharsets.UTF_8), 4));
+    }
+
+    @Test
+    void emptyBodyIsComplete() throws IOException {
+        assertArrayEquals(new byte[0], decode("gzip", new byte[0], 1));
+    }
+
+    private static byte[] decode(String encoding, byte[] input, int chunkSize) throws IOException {
+        ContentDecoder decoder = ContentDecoder.forEncoding(encoding);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int from = 0; from < input.length; from += chunkSize) {
+            ByteBuffer chunk = ByteBuffer.wrap(input, from, Math.min(chunkSize, input.length - from)).slice();
+            for (ByteBuffer decoded : decoder.decode(chunk)) {
+                out.write(decoded.array(), decoded.arrayOffset() + decoded.position(), decoded.remaining());
+            }
+        }
+        decoder.finish();
+        return out.toByteArray();
+    }
+
+    // A gzip member with the optional FEXTRA, FNAME and FHCRC header fields, which Compression.gzip never writes
+    private static byte[] gzipMember(byte[] data, String name, byte[] extra) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int flags = 2 | 8 | (extra != null ? 4 : 0);
+        out.write(0x1f);
+        out.write(0x8b);
+        out.write(8);
+        out.write(flags);
+        out.writeBytes(new byte[6]);
+        if (extra != null) {
+            out.write(extra.length & 0xff);
+            out.write(extra.length >> 8);
+            out.writeBytes(extra);
+        }
+        out.writeBytes(name.getBytes(StandardCharsets.ISO_8859_1));
+        out.write(0);
+        // Header CRC16 is not checked by the decoder
+        out.write(0);
+        out.write(0);
+        out.writeBytes(deflate(data, true));
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        writeLittleEndianInt(out, crc.getValue());
+        writeLittleEndianInt(out, data.length);
+        return out.toByteArray();
+    }
+
+    private static byte[] deflate(byte[] data, boolean raw) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, raw);
+        deflater.setInput(data);
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        while (!deflater.finished()) {
+            out.write(buffer, 0, deflater.deflate(buffer));
+        }
+        deflater.end();
+        return out.toByteArray();
+    }
+
+    private static void writeLittleEndianInt(ByteArrayOutputStream out, long value) {
+        for (int i = 0; i < 4; i++) {
+            out.write((int) (value >> (8 * i)) & 0xff);
+        }
+    }
+
+    private static byte[] concat(byte[] first, byte[] second) {
+        byte[] joined = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, joined, first.length, second.length);
+        return joined;
+    }
+}
@@ -0,0 +1,98 @@
+package com.restclient.restclient;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DataFeedTest {
+    @TempDir
+    Path dir;
+
+    private Path write(String name, String content) throws IOException {
+        return Files.write(dir.resolve(name), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void parsesQuotedCsvFields() throws IOException {
+        Path file = write("users.csv", "\uFEFFid, name ,note\r\n"
+                + "1,\"Smith, Jane\",\"said \"\"hi\"\"\"\r\n"
+                + "2,Bob,\"two\nlines\"\n");
+        try (DataFeed feed = DataFeed.open(file, false)) {
+            assertEquals(List.of("id", "name", "note"), feed.getColumns());
+
+            DataFeed.Row first = feed.next();
+            assertEquals("1", first.get("id"));
+            assertEquals("Smith, Jane", first.get("name"));
+            assertEquals("said \"hi\"", first.get("note"));
+
+            DataFeed.Row second = feed.next();
+            assertEquals("Bob", second.get("name"));
+            assertEquals("two\nlines", second.get("note"));
+            assertNull(second.get("missing"));
+
+            assertNull(feed.next());
+            assertEquals(2, feed.getRowsRead());
+        }
+    }
+
+    @Test
+    void skipsBlankLines() throws IOException {
+        Path file = write("blank.csv", "id\n\n1\n   \r\n2\n\n");
+        try (DataFeed feed = DataFeed.open(file, false)) {
+            assertEquals("1", feed.next().get("id"));
+            assertEquals("2", feed.next().get("id"));
+            assertNull(feed.next());
+        }
+    }
+
+    @Test
+    void recyclesFromTheFirstDataRow() throws IOException {
+        Path file = write("ids.csv", "id\n1\n2\n");
+        try (DataFeed feed = DataFeed.open(file, true)) {
+            for (String expected : new String[]{"1", "2", "1", "2", "1"}) {
+                assertEquals(expected, feed.next().get("id"));
+            }
+        }
+    }
+
+    @Test
+    @Timeout(value = 5, threadMode = Timeout.ThreadMode.SEPARATE_THREAD)
+    void recyclingFeedWithOnlyBlankRowsRunsDry() throws IOException {
+        try (DataFeed feed = DataFeed.open(write("empty.csv", "id\n\n"), true)) {
+            assertNull(feed.next());
+        }
+        try (DataFeed feed = DataFeed.open(write("header.csv", "id"), true)) {
+            assertNull(feed.next());
+        }
+    }
+
+    @Test
+    void readsJsonLines() throws IOException {
+        Path file = write("rows.jsonl", "{\"id\": 7, \"tags\": [\"a\"], \"note\": null}\n\n{\"id\": 8}\n");
+        try (DataFeed feed = DataFeed.open(file, false)) {
+            DataFeed.Row first = feed.next();
+            assertEquals("7", first.get("id"));
+            assertEquals("[\"a\"]", first.get("tags"));
+            assertEquals("", first.get("note"));
+            assertEquals("8", feed.next().get("id"));
+            assertNull(feed.next());
+        }
+    }
+
+    @Test
+    void rejectsMalformedJsonLine() throws IOException {
+        try (DataFeed feed = DataFeed.open(write("bad.jsonl", "not json\n"), false)) {
+            assertThrows(IllegalArgumentException.class, feed::next);
+        }
+    }
+}
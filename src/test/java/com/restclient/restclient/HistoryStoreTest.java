@@ -0,0 +1,280 @@
+package com.restclient.restclient;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HistoryStoreTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTripsEveryTimingPhase() throws IOException {
+        ApiRequest request = ApiRequest.builder().method("POST").url("https://example.com/orders")
+                .header("Authorization", "Bearer secret").body("{\"qty\":1}").build();
+        RequestTiming timing = new RequestTiming(-1, 2_000_000, 3_000_000, 400_000, 50_000_000, 6_000_000, 61_400_000);
+        ApiResponse response = new ApiResponse(201, "HTTP/2", Map.of("Content-Type", List.of("application/json")),
+                ResponseBody.ofString("{\"id\":5}"), timing, "JDK");
+
+        HistoryEntry entry;
+        try (HistoryStore store = new HistoryStore(dir, 100)) {
+            entry = store.append(request, response);
+        }
+        try (HistoryStore store = new HistoryStore(dir, 100)) {
+            assertEquals(1, store.size());
+            HistoryRecord record = store.read(entry);
+            RequestTiming read = record.getTiming();
+            assertEquals(-1, read.getDnsNanos());
+            assertEquals(2_000_000, read.getConnectNanos());
+            assertEquals(3_000_000, read.getTlsNanos());
+            assertEquals(400_000, read.getPrepareNanos());
+            assertEquals(50_000_000, read.getTimeToFirstByteNanos());
+            assertEquals(6_000_000, read.getDownloadNanos());
+            assertEquals(61_400_000, read.getTotalNanos());
+            assertEquals("HTTP/2", record.getProtocol());
+            assertEquals(201, record.getEntry().getStatusCode());
+            assertEquals(List.of("application/json"), record.getResponseHeaders().get("Content-Type"));
+        }
+    }
+
+    @Test
+    void readsRecordsWrittenBeforeThePhaseTimings() throws IOException {
+        writeVersionOneLog(dir.resolve("history.log"));
+        try (HistoryStore store = new HistoryStore(dir, 100)) {
+            HistoryEntry entry = store.select(new HistoryQuery())[0];
+            assertEquals("https://example.com/old", entry.getUrl());
+            RequestTiming timing = store.read(entry).getTiming();
+            assertEquals(-1, timing.getConnectNanos());
+            assertEquals(-1, timing.getTlsNanos());
+            assertEquals(10, timing.getPrepareNanos());
+            assertEquals(40, timing.getTotalNanos());
+
+            // New records go on after the old one in the same file
+            HistoryEntry added = store.append(ApiRequest.builder().method("GET").url("https://example.com/new").build(),
+                    new ApiResponse(200, "HTTP/1.1", Map.of(), ResponseBody.empty(),
+                            new RequestTiming(-1, 5, 6, 1, 2, 3, 17), "JDK"));
+            assertEquals(5, store.read(added).getTiming().getConnectNanos());
+            assertEquals(10, store.read(entry).getTiming().getPrepareNanos());
+        }
+    }
+
+    @Test
+    void searchesByMethodStatusAndPath() throws IOException {
+        try (HistoryStore store = new HistoryStore(dir, 100)) {
+            append(store, "GET", "https://api.test/users/1", 200);
+            append(store, "POST", "https://api.test/users", 201);
+            append(store, "GET", "https://api.test/orders/7", 404);
+            append(store, "DELETE", "https://api.test/users/1", 500);
+            append(store, "GET", "https://other.test/users/2", 503);
+
+            assertEquals(List.of("https://other.test/users/2", "https://api.test/orders/7", "https://api.test/users/1"),
+                    urls(store.search(new HistoryQuery().method("get"))));
+            assertEquals(List.of("https://other.test/users/2", "https://api.test/users/1"),
+                    urls(store.search(new HistoryQuery().statusRange(500, 599))));
+            assertEquals(List.of("https://api.test/orders/7"), urls(store.search(new HistoryQuery().status(404))));
+            assertEquals(List.of("https://other.test/users/2", "https://api.test/users/1", "https://api.test/users",
+                    "https://api.test/users/1"), urls(store.search(new HistoryQuery().pathPrefix("/users"))));
+            assertEquals(List.of("https://api.test/users/1"),
+                    urls(store.search(HistoryQuery.parse("DELETE 5xx host:api.test path:/users"))));
+            assertEquals(0, store.search(new HistoryQuery().method("PUT")).getTotal());
+        }
+    }
+
+    @Test
+    void pagesNewestFirstWithTheFullTotal() throws IOException {
+        try (HistoryStore store = new HistoryStore(dir, 100)) {
+            for (int i = 0; i < 25; i++) {
+                append(store, "GET", "https://api.test/items/" + i, i % 5 == 0 ? 500 : 200);
+            }
+            HistoryStore.Page first = store.search(new HistoryQuery().page(0, 10));
+            assertEquals(25, first.getTotal());
+            assertEquals(10, first.getEntries().size());
+            assertEquals("https://api.test/items/24", first.getEntries().get(0).getUrl());
+
+            HistoryStore.Page last = store.search(new HistoryQuery().page(20, 10));
+            assertEquals(25, last.getTotal());
+            assertEquals(List.of("https://api.test/items/4", "https://api.test/items/3", "https://api.test/items/2",
+                    "https://api.test/items/1", "https://api.test/items/0"), urls(last));
+
+            HistoryStore.Page errors = store.search(new HistoryQuery().status(500).page(2, 2));
+            assertEquals(5, errors.getTotal());
+            assertEquals(List.of("https://api.test/items/10", "https://api.test/items/5"), urls(errors));
+        }
+    }
+
+    @Test
+    void compactionKeepsTheNewestEntriesAndTheirBodies() throws IOException {
+        List<HistoryEntry> appended = new ArrayList<>();
+        List<String> bodyHashes = new ArrayList<>();
+        try (HistoryStore store = new HistoryStore(dir, 20)) {
+            for (int i = 0; i < 60; i++) {
+                HistoryEntry entry = store.append(ApiRequest.builder().url("https://api.test/items/" + i).build(),
+                        response(200, "{\"item\":" + i + "}"));
+                appended.add(entry);
+                bodyHashes.add(store.read(entry).getResponseBodyHash());
+            }
+        }
+        try (HistoryStore store = new HistoryStore(dir, 20)) {
+            // Compaction runs in the background once a quarter over the cap, so some older entries may remain
+            int size = store.size();
+            assertTrue(size >= 20 && size <= 25, "size " + size);
+            HistoryEntry newest = store.select(new HistoryQuery().page(0, 1))[0];
+            assertEquals("https://api.test/items/59", newest.getUrl());
+            assertEquals(size, store.search(new HistoryQuery().urlContains("items")).getTotal());
+
+            assertNull(store.read(appended.get(0)));
+            assertNull(store.getBodies().get(bodyHashes.get(0)));
+            HistoryRecord kept = store.read(appended.get(59));
+            assertNotNull(kept);
+            assertEquals("{\"item\":59}", Files.readString(store.getBodies().get(kept.getResponseBodyHash())));
+
+            // Ids carry on from the compacted log
+            HistoryEntry next = append(store, "GET", "https://api.test/after", 200);
+            assertEquals(appended.get(59).getId() + 1, next.getId());
+        }
+    }
+
+    @Test
+    void truncatesATornTailOnOpen() throws IOException {
+        try (HistoryStore store = new HistoryStore(dir, 100)) {
+            for (int i = 0; i < 3; i++) {
+                append(store, "GET", "https://api.test/items/" + i, 200);
+            }
+        }
+        Path log = dir.resolve("history.log");
+        long fullSize = Files.size(log);
+        // Cut the last record short, as a crash mid-write would leave it
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE)) {
+            channel.truncate(fullSize - 5);
+        }
+        try (HistoryStore store = new HistoryStore(dir, 100)) {
+            assertEquals(2, store.size());
+            assertEquals(List.of("https://api.test/items/1", "https://api.test/items/0"),
+                    urls(store.search(new HistoryQuery())));
+            HistoryEntry added = append(store, "GET", "https://api.test/items/again", 200);
+            assertEquals("https://api.test/items/again", store.read(added).getEntry().getUrl());
+        }
+        try (HistoryStore store = new HistoryStore(dir, 100)) {
+            assertEquals(3, store.size());
+        }
+    }
+
+    @Test
+    void skipsACorruptRecordAndKeepsTheOnesAfterIt() throws IOException {
+        try (HistoryStore store = new HistoryStore(dir, 100)) {
+            for (int i = 0; i < 3; i++) {
+                append(store, "GET", "https://api.test/items/" + i, 200);
+            }
+        }
+        Path log = dir.resolve("history.log");
+        long size = Files.size(log);
+        // Past the file header and the first record's length and checksum, so only the payload is bad
+        corruptByte(log, 16 + 4);
+
+        try (HistoryStore store = new HistoryStore(dir, 100)) {
+            assertEquals(List.of("https://api.test/items/2", "https://api.test/items/1"),
+                    urls(store.search(new HistoryQuery())));
+        }
+        assertEquals(size, Files.size(log));
+    }
+
+    @Test
+    void refusesToTruncateAfterACorruptRecord() throws IOException {
+        try (HistoryStore store = new HistoryStore(dir, 100)) {
+            for (int i = 0; i < 3; i++) {
+                append(store, "GET", "https://api.test/items/" + i, 200);
+            }
+        }
+        Path log = dir.resolve("history.log");
+        long size = Files.size(log);
+        // A bad payload byte in the first record, then a cut in the last one
+        corruptByte(log, 16 + 4);
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE)) {
+            channel.truncate(size - 5);
+        }
+        assertThrows(IOException.class, () -> new HistoryStore(dir, 100));
+        assertEquals(size - 5, Files.size(log));
+    }
+
+    private static HistoryEntry append(HistoryStore store, String method, String url, int status) throws IOException {
+        return store.append(ApiRequest.builder().method(method).url(url).build(), response(status, ""));
+    }
+
+    private static ApiResponse response(int status, String body) {
+        return new ApiResponse(status, "HTTP/1.1", Map.of(), ResponseBody.ofString(body),
+                new RequestTiming(-1, -1, -1, 1, 2, 3, 6), "JDK");
+    }
+
+    private static List<String> urls(HistoryStore.Page page) {
+        List<String> urls = new ArrayList<>();
+        for (HistoryEntry entry : page.getEntries()) {
+            urls.add(entry.getUrl());
+        }
+        return urls;
+    }
+
+    private static void corruptByte(Path file, long position) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer one = ByteBuffer.allocate(1);
+            channel.read(one, position);
+            one.flip();
+            one.put(0, (byte) (one.get(0) ^ 0x5a));
+            channel.write(one, position);
+        }
+    }
+
+    // The layout the store used before DNS, connect and TLS were recorded
+    private static void writeVersionOneLog(Path file) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeLong(1);
+        out.writeLong(1_700_000_000_000L);
+        writeString(out, "GET");
+        writeString(out, "https://example.com/old");
+        out.writeInt(200);
+        out.writeLong(40);
+        out.writeLong(0);
+        writeString(out, "HTTP/1.1");
+        writeString(out, "JDK");
+        out.writeInt(0);
+        writeString(out, "");
+        out.writeLong(0);
+        out.writeInt(0);
+        writeString(out, "");
+        for (long nanos : new long[]{10, 20, 10, 40}) {
+            out.writeLong(nanos);
+        }
+        byte[] payload = bytes.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer log = ByteBuffer.allocate(16 + payload.length)
+                .putInt(0x52434831).putInt(1)
+                .putInt(payload.length).putInt((int) crc.getValue()).put(payload);
+        Files.write(file, log.array());
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+}
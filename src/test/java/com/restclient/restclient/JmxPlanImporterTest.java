@@ -0,0 +1,255 @@
+package com.restclient.restclient;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JmxPlanImporterTest {
+
+    // Laid out like Venkat.jmx: thread group settings from ${__P(...)}, a header manager for the whole group
+    // plus one per sampler, query, form and raw-body samplers, and a disabled group that must be skipped
+    private static final String PLAN = String.join("\n",
+            "<?xml version=\"1.0\" encoding=\"UTF-8\"?>",
+            "<jmeterTestPlan version=\"1.2\" properties=\"5.0\" jmeter=\"5.6.3\">",
+            "  <hashTree>",
+            "    <TestPlan guiclass=\"TestPlanGui\" testclass=\"TestPlan\" testname=\"Store API\">",
+            "      <elementProp name=\"TestPlan.user_defined_variables\" elementType=\"Arguments\">",
+            "        <collectionProp name=\"Arguments.arguments\">",
+            "          <elementProp name=\"host\" elementType=\"Argument\">",
+            "            <stringProp name=\"Argument.name\">host</stringProp>",
+            "            <stringProp name=\"Argument.value\">venkat</stringProp>",
+            "          </elementProp>",
+            "        </collectionProp>",
+            "      </elementProp>",
+            "    </TestPlan>",
+            "    <hashTree>",
+            "      <ThreadGroup guiclass=\"ThreadGroupGui\" testclass=\"ThreadGroup\" testname=\"Default\">",
+            "        <stringProp name=\"ThreadGroup.num_threads\">${__P(threads,10)}</stringProp>",
+            "        <stringProp name=\"ThreadGroup.ramp_time\">${__P(rampup,30)}</stringProp>",
+            "        <stringProp name=\"ThreadGroup.duration\">${__P(duration,3600)}</stringProp>",
+            "        <boolProp name=\"ThreadGroup.scheduler\">true</boolProp>",
+            "        <elementProp name=\"ThreadGroup.main_controller\" elementType=\"LoopController\">",
+            "          <stringProp name=\"LoopController.loops\">${__P(iterations,-1)}</stringProp>",
+            "          <boolProp name=\"LoopController.continue_forever\">false</boolProp>",
+            "        </elementProp>",
+            "      </ThreadGroup>",
+            "      <hashTree>",
+            "        <HeaderManager guiclass=\"HeaderPanel\" testclass=\"HeaderManager\" testname=\"Group headers\">",
+            "          <collectionProp name=\"HeaderManager.headers\">",
+            "            <elementProp name=\"accept\" elementType=\"Header\">",
+            "              <stringProp name=\"Header.name\">accept</stringProp>",
+            "              <stringProp name=\"Header.value\">application/json</stringProp>",
+            "            </elementProp>",
+            "            <elementProp name=\"x-client\" elementType=\"Header\">",
+            "              <stringProp name=\"Header.name\">x-client</stringProp>",
+            "              <stringProp name=\"Header.value\">suite</stringProp>",
+            "            </elementProp>",
+            "          </collectionProp>",
+            "        </HeaderManager>",
+            "        <hashTree/>",
+            "        <HTTPSamplerProxy guiclass=\"HttpTestSampleGui\" testclass=\"HTTPSamplerProxy\" testname=\"HealthCheck\">",
+            "          <stringProp name=\"HTTPSampler.domain\">${host}</stringProp>",
+            "          <stringProp name=\"HTTPSampler.protocol\">https</stringProp>",
+            "          <stringProp name=\"HTTPSampler.path\">/</stringProp>",
+            "          <stringProp name=\"HTTPSampler.method\">GET</stringProp>",
+            "          <boolProp name=\"HTTPSampler.postBodyRaw\">false</boolProp>",
+            "          <elementProp name=\"HTTPsampler.Arguments\" elementType=\"Arguments\">",
+            "            <collectionProp name=\"Arguments.arguments\"/>",
+            "          </elementProp>",
+            "        </HTTPSamplerProxy>",
+            "        <hashTree>",
+            "          <HeaderManager guiclass=\"HeaderPanel\" testclass=\"HeaderManager\" testname=\"HTTP HeaderManager\">",
+            "            <collectionProp name=\"HeaderManager.headers\">",
+            "              <elementProp name=\"x-client\" elementType=\"Header\">",
+            "                <stringProp name=\"Header.name\">X-Client</stringProp>",
+            "                <stringProp name=\"Header.value\">health</stringProp>",
+            "              </elementProp>",
+            "            </collectionProp>",
+            "          </HeaderManager>",
+            "          <hashTree/>",
+            "        </hashTree>",
+            "        <HTTPSamplerProxy guiclass=\"HttpTestSampleGui\" testclass=\"HTTPSamplerProxy\" testname=\"/v1/config\">",
+            "          <stringProp name=\"HTTPSampler.domain\">${host}</stringProp>",
+            "          <stringProp name=\"HTTPSampler.protocol\">https</stringProp>",
+            "          <stringProp name=\"HTTPSampler.port\">8443</stringProp>",
+            "          <stringProp name=\"HTTPSampler.path\">/v1/config</stringProp>",
+            "          <stringProp name=\"HTTPSampler.method\">GET</stringProp>",
+            "          <boolProp name=\"HTTPSampler.postBodyRaw\">false</boolProp>",
+            "          <elementProp name=\"HTTPsampler.Arguments\" elementType=\"Arguments\">",
+            "            <collectionProp name=\"Arguments.arguments\">",
+            "              <elementProp name=\"appVersion\" elementType=\"HTTPArgument\">",
+            "                <boolProp name=\"HTTPArgument.always_encode\">false</boolProp>",
+            "                <stringProp name=\"Argument.name\">appVersion</stringProp>",
+            "                <stringProp name=\"Argument.value\">${__P(appVersion,1)}</stringProp>",
+            "                <stringProp name=\"Argument.metadata\">=</stringProp>",
+            "              </elementProp>",
+            "              <elementProp name=\"fields\" elementType=\"HTTPArgument\">",
+            "                <stringProp name=\"Argument.name\">fields</stringProp>",
+            "                <stringProp name=\"Argument.value\">all</stringProp>",
+            "              </elementProp>",
+            "            </collectionProp>",
+            "          </elementProp>",
+            "        </HTTPSamplerProxy>",
+            "        <hashTree/>",
+            "        <HTTPSamplerProxy guiclass=\"HttpTestSampleGui\" testclass=\"HTTPSamplerProxy\" testname=\"login\">",
+            "          <stringProp name=\"HTTPSampler.domain\">${host}</stringProp>",
+            "          <stringProp name=\"HTTPSampler.path\">/v1/login</stringProp>",
+            "          <stringProp name=\"HTTPSampler.method\">POST</stringProp>",
+            "          <boolProp name=\"HTTPSampler.postBodyRaw\">false</boolProp>",
+            "          <elementProp name=\"HTTPsampler.Arguments\" elementType=\"Arguments\">",
+            "            <collectionProp name=\"Arguments.arguments\">",
+            "              <elementProp name=\"user\" elementType=\"HTTPArgument\">",
+            "                <stringProp name=\"Argument.name\">user</stringProp>",
+            "                <stringProp name=\"Argument.value\">ada</stringProp>",
+            "              </elementProp>",
+            "              <elementProp name=\"pass\" elementType=\"HTTPArgument\">",
+            "                <stringProp name=\"Argument.name\">pass</stringProp>",
+            "                <stringProp name=\"Argument.value\">a b&amp;c</stringProp>",
+            "              </elementProp>",
+            "            </collectionProp>",
+            "          </elementProp>",
+            "        </HTTPSamplerProxy>",
+            "        <hashTree/>",
+            "        <HTTPSamplerProxy guiclass=\"HttpTestSampleGui\" testclass=\"HTTPSamplerProxy\" testname=\"createOrder\">",
+            "          <stringProp name=\"HTTPSampler.domain\">${host}</stringProp>",
+            "          <stringProp name=\"HTTPSampler.protocol\">https</stringProp>",
+            "          <stringProp name=\"HTTPSampler.path\">/v1/orders</stringProp>",
+            "          <stringProp name=\"HTTPSampler.method\">POST</stringProp>",
+            "          <boolProp name=\"HTTPSampler.postBodyRaw\">true</boolProp>",
+            "          <elementProp name=\"HTTPsampler.Arguments\" elementType=\"Arguments\">",
+            "            <collectionProp name=\"Arguments.arguments\">",
+            "              <elementProp name=\"\" elementType=\"HTTPArgument\">",
+            "                <boolProp name=\"HTTPArgument.always_encode\">false</boolProp>",
+            "                <stringProp name=\"Argument.value\">{\"store\":\"${host}\",\"qty\":${__P(qty,2)}}</stringProp>",
+            "                <stringProp name=\"Argument.metadata\">=</stringProp>",
+            "              </elementProp>",
+            "            </collectionProp>",
+            "          </elementProp>",
+            "        </HTTPSamplerProxy>",
+            "        <hashTree>",
+            "          <HeaderManager guiclass=\"HeaderPanel\" testclass=\"HeaderManager\" testname=\"HTTP HeaderManager\">",
+            "            <collectionProp name=\"HeaderManager.headers\">",
+            "              <elementProp name=\"content-type\" elementType=\"Header\">",
+            "                <stringProp name=\"Header.name\">content-type</stringProp>",
+            "                <stringProp name=\"Header.value\">application/json</stringProp>",
+            "              </elementProp>",
+            "            </collectionProp>",
+            "          </HeaderManager>",
+            "          <hashTree/>",
+            "        </hashTree>",
+            "      </hashTree>",
+            "      <ThreadGroup guiclass=\"ThreadGroupGui\" testclass=\"ThreadGroup\" testname=\"Disabled\" enabled=\"false\">",
+            "        <stringProp name=\"ThreadGroup.num_threads\">1</stringProp>",
+            "      </ThreadGroup>",
+            "      <hashTree>",
+            "        <HTTPSamplerProxy guiclass=\"HttpTestSampleGui\" testclass=\"HTTPSamplerProxy\" testname=\"never\">",
+            "          <stringProp name=\"HTTPSampler.domain\">${host}</stringProp>",
+            "          <stringProp name=\"HTTPSampler.path\">/never</stringProp>",
+            "        </HTTPSamplerProxy>",
+            "        <hashTree/>",
+            "      </hashTree>",
+            "    </hashTree>",
+            "  </hashTree>",
+            "</jmeterTestPlan>",
+            "");
+
+    @Test
+    void readsThreadGroupSettingsFromPropertyDefaults() throws IOException {
+        TestPlan plan = importPlan();
+        assertEquals("Store API", plan.getName());
+        assertEquals("venkat", plan.getVariables().get("host"));
+        assertEquals(1, plan.getScenarios().size());
+
+        LoadScenario scenario = plan.getScenarios().get(0);
+        assertEquals("Default", scenario.getName());
+        LoadTestConfig config = scenario.getConfig();
+        assertEquals(10, config.getVirtualUsers());
+        assertEquals(Duration.ofSeconds(30), config.getRampUp());
+        assertEquals(Duration.ofSeconds(3600), config.getDuration());
+        assertEquals(-1, config.getLoops());
+    }
+
+    @Test
+    void propertiesOverrideTheDefaults() throws IOException {
+        System.setProperty("threads", "3");
+        System.setProperty("iterations", "5");
+        System.setProperty("qty", "7");
+        try {
+            TestPlan plan = importPlan();
+            LoadTestConfig config = plan.getScenarios().get(0).getConfig();
+            assertEquals(3, config.getVirtualUsers());
+            assertEquals(5, config.getLoops());
+            assertEquals("{\"store\":\"venkat\",\"qty\":7}", request(plan, "createOrder").getBody());
+        } finally {
+            System.clearProperty("threads");
+            System.clearProperty("iterations");
+            System.clearProperty("qty");
+        }
+    }
+
+    @Test
+    void samplerHeaderManagersOverrideTheGroupOnes() throws IOException {
+        TestPlan plan = importPlan();
+        ApiRequest health = request(plan, "HealthCheck");
+        assertEquals("https://venkat/", health.getUrl());
+        assertEquals(Map.of("accept", "application/json", "X-Client", "health"), headers(health));
+
+        // The sampler-level manager of HealthCheck does not leak into its siblings
+        ApiRequest config = request(plan, "/v1/config");
+        assertEquals(Map.of("accept", "application/json", "x-client", "suite"), headers(config));
+    }
+
+    @Test
+    void getArgumentsBecomeQueryParameters() throws IOException {
+        ApiRequest config = request(importPlan(), "/v1/config");
+        assertEquals("GET", config.getMethod());
+        assertNull(config.getBody());
+        assertEquals("https://venkat:8443/v1/config?appVersion=1&fields=all", config.buildUrlWithParams());
+    }
+
+    @Test
+    void postArgumentsBecomeAnEncodedForm() throws IOException {
+        ApiRequest login = request(importPlan(), "login");
+        assertEquals("POST", login.getMethod());
+        assertEquals("http://venkat/v1/login", login.getUrl());
+        assertEquals("user=ada&pass=a+b%26c", login.getBody());
+        assertEquals("application/x-www-form-urlencoded", headers(login).get("Content-Type"));
+        assertTrue(login.getQueryParams().isEmpty());
+    }
+
+    @Test
+    void rawBodiesAreSentAsWritten() throws IOException {
+        ApiRequest order = request(importPlan(), "createOrder");
+        assertEquals("{\"store\":\"venkat\",\"qty\":2}", order.getBody());
+        assertEquals(Map.of("accept", "application/json", "x-client", "suite", "content-type", "application/json"),
+                headers(order));
+        assertTrue(order.getQueryParams().isEmpty());
+    }
+
+    private static TestPlan importPlan() throws IOException {
+        return new JmxPlanImporter().importPlan(
+                new ByteArrayInputStream(PLAN.getBytes(StandardCharsets.UTF_8)), "Venkat.jmx");
+    }
+
+    private static ApiRequest request(TestPlan plan, String name) {
+        List<ApiRequest> requests = plan.getScenarios().get(0).getRequests();
+        return requests.stream().filter(request -> name.equals(request.getName())).findFirst()
+                .orElseThrow(() -> new AssertionError("no request " + name + " in " + requests));
+    }
+
+    private static Map<String, String> headers(ApiRequest request) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        request.getHeaders().forEach(header -> headers.put(header.getKey(), header.getValue()));
+        return headers;
+    }
+}
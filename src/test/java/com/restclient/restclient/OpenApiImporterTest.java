@@ -0,0 +1,138 @@
+package com.restclient.restclient;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OpenApiImporterTest {
+
+    // Response codes left unquoted, as most hand-written YAML specs have them
+    private static final String SWAGGER_YAML = String.join("\n",
+            "swagger: '2.0'",
+            "info:",
+            "  title: Pets",
+            "host: api.example.com",
+            "basePath: /v1",
+            "schemes: [https]",
+            "paths:",
+            "  /pets/{id}:",
+            "    get:",
+            "      operationId: getPet",
+            "      tags: [pets]",
+            "      parameters:",
+            "        - name: id",
+            "          in: path",
+            "          type: integer",
+            "          x-example: 7",
+            "      responses:",
+            "        200:",
+            "          description: ok",
+            "          schema:",
+            "            type: object",
+            "            properties:",
+            "              name:",
+            "                type: string",
+            "        404:",
+            "          description: missing",
+            "    delete:",
+            "      tags: [pets]",
+            "      responses:",
+            "        204:",
+            "          description: gone",
+            "");
+
+    private static final String OPENAPI_YAML = String.join("\n",
+            "openapi: 3.0.0",
+            "info:",
+            "  title: Orders",
+            "servers:",
+            "  - url: http://localhost:8080/api",
+            "paths:",
+            "  /orders:",
+            "    post:",
+            "      requestBody:",
+            "        content:",
+            "          application/json:",
+            "            example: {\"qty\": 1}",
+            "      responses:",
+            "        201:",
+            "          content:",
+            "            application/json:",
+            "              example: {\"id\": 5}",
+            "");
+
+    @Test
+    void importsSwaggerYamlWithUnquotedResponseCodes() throws IOException {
+        TestPlan plan = new OpenApiImporter().importSpec(new StringReader(SWAGGER_YAML), "pets.yaml");
+
+        assertEquals("Pets", plan.getName());
+        assertEquals(1, plan.getScenarios().size());
+        ApiRequest get = plan.getScenarios().get(0).getRequests().get(0);
+        assertEquals("getPet", get.getName());
+        assertEquals("https://api.example.com/v1/pets/{id}", get.getUrl());
+        assertEquals("7", get.getPathParams().get("id"));
+
+        assertEquals(2, plan.getMockRoutes().size());
+        MockRoute getRoute = plan.getMockRoutes().get(0);
+        assertEquals("/v1/pets/{id}", getRoute.getPath());
+        assertEquals(200, getRoute.getStatus());
+        assertEquals("{\n  \"name\": \"string\"\n}", new String(getRoute.getBody(), StandardCharsets.UTF_8));
+        assertEquals(204, plan.getMockRoutes().get(1).getStatus());
+        assertEquals(0, plan.getMockRoutes().get(1).getBody().length);
+    }
+
+    @Test
+    void importsOpenApi3YamlWithUnquotedResponseCodes() throws IOException {
+        TestPlan plan = new OpenApiImporter().importSpec(new StringReader(OPENAPI_YAML), "orders.yaml");
+
+        ApiRequest post = plan.getScenarios().get(0).getRequests().get(0);
+        assertEquals("POST", post.getMethod());
+        assertEquals("http://localhost:8080/api/orders", post.getUrl());
+        assertEquals("{\n  \"qty\": 1\n}", post.getBody());
+
+        MockRoute route = plan.getMockRoutes().get(0);
+        assertEquals("/api/orders", route.getPath());
+        assertEquals(201, route.getStatus());
+        assertEquals("application/json", route.getHeaders().get("Content-Type"));
+        assertEquals("{\n  \"id\": 5\n}", new String(route.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void oneImporterReadsSpecsIndependently() throws IOException {
+        OpenApiImporter importer = new OpenApiImporter();
+        TestPlan pets = importer.importSpec(new StringReader(SWAGGER_YAML), "pets.yaml");
+        TestPlan orders = importer.importSpec(new StringReader(OPENAPI_YAML), "orders.yaml");
+        TestPlan petsAgain = importer.importSpec(new StringReader(SWAGGER_YAML), "pets.yaml");
+
+        assertEquals("Orders", orders.getName());
+        assertEquals("http://localhost:8080/api/orders", orders.getScenarios().get(0).getRequests().get(0).getUrl());
+        assertEquals(pets.getName(), petsAgain.getName());
+        assertEquals(pets.getScenarios().get(0).getRequests().get(0).getUrl(),
+                petsAgain.getScenarios().get(0).getRequests().get(0).getUrl());
+    }
+
+    @Test
+    void importsTraceOperations() throws IOException {
+        String spec = String.join("\n",
+                "openapi: 3.0.0",
+                "info:",
+                "  title: Echo",
+                "servers:",
+                "  - url: https://echo.test",
+                "paths:",
+                "  /echo:",
+                "    trace:",
+                "      responses:",
+                "        200:",
+                "          description: echoed",
+                "");
+        TestPlan plan = new OpenApiImporter().importSpec(new StringReader(spec), "echo.yaml");
+        ApiRequest trace = plan.getScenarios().get(0).getRequests().get(0);
+        assertEquals("TRACE", trace.getMethod());
+        assertEquals("https://echo.test/echo", trace.getUrl());
+    }
+}
@@ -0,0 +1,100 @@
+package com.restclient.restclient;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TemplateTest {
+    @Test
+    void rendersBothReferenceStyles() {
+        Template template = Template.of("https://${host}/users/{id}?q=${query}");
+        assertEquals(Set.of("host", "id", "query"), template.getVariableNames());
+        assertEquals("https://api.test/users/7?q=x",
+                template.render(Map.of("host", "api.test", "id", "7", "query", "x")));
+    }
+
+    @Test
+    void leavesUnknownVariablesAsWritten() {
+        Template template = Template.of("${base}/items/{id}");
+        assertEquals("${base}/items/3", template.render(Map.of("id", "3")));
+        assertEquals("http://x/items/{id}", template.render(Map.of("base", "http://x")));
+    }
+
+    @Test
+    void constantTextRendersAsItself() {
+        Template template = Template.of("https://example.com/plain");
+        assertTrue(template.isConstant());
+        assertTrue(template.getVariableNames().isEmpty());
+        assertSame(template.getSource(), template.render(Map.of("unused", "1")));
+        assertTrue(Template.of(null).isConstant());
+    }
+
+    @Test
+    void dollarTemplatesLeaveJsonBracesAlone() {
+        Template body = Template.ofDollar("{\"id\":\"${id}\",\"nested\":{name}}");
+        assertEquals(Set.of("id"), body.getVariableNames());
+        assertEquals("{\"id\":\"9\",\"nested\":{name}}", body.render(Map.of("id", "9", "name", "no")));
+    }
+
+    @Test
+    void bracesAroundNonIdentifiersStayLiteral() {
+        Template template = Template.of("{\"a\":1} {} { spaced } ${__P(host,localhost)}");
+        assertEquals(Set.of("__P(host,localhost)"), template.getVariableNames());
+        assertEquals("{\"a\":1} {} { spaced } example", template.render(name -> "example"));
+    }
+
+    @Test
+    void unclosedReferencesStayLiteral() {
+        Template template = Template.of("${open and {also");
+        assertTrue(template.isConstant());
+        assertEquals("${open and {also", template.render(Map.of("open", "x")));
+    }
+
+    @Test
+    void requestTemplateRendersEveryPart() {
+        ApiRequest source = ApiRequest.builder().name("create").method("POST").url("{base}/orders/{orderId}")
+                .header("Authorization", "Bearer ${token}").header("X-${kind}", "static")
+                .queryParam("page", "{page}").body("{\"user\":\"${user}\"}")
+                .timeout(Duration.ofSeconds(3)).dependsOn("login").build();
+        RequestTemplate template = RequestTemplate.compile(source);
+        assertFalse(template.isConstant());
+        assertEquals(List.of("base", "orderId", "token", "kind", "page", "user"), template.getVariableNames());
+
+        ApiRequest rendered = template.render(Map.of("base", "https://shop.test", "orderId", "42", "token", "t0k",
+                "kind", "Trace", "page", "2", "user", "ada"));
+        assertEquals("create", rendered.getName());
+        assertEquals("POST", rendered.getMethod());
+        assertEquals("https://shop.test/orders/42", rendered.getUrl());
+        assertEquals("Bearer t0k", rendered.getHeaders().get(0).getValue());
+        assertEquals("X-Trace", rendered.getHeaders().get(1).getKey());
+        assertEquals("2", rendered.getQueryParams().get(0).getValue());
+        assertEquals("{\"user\":\"ada\"}", rendered.getBody());
+        assertEquals(Duration.ofSeconds(3), rendered.getTimeout());
+        assertEquals(List.of("login"), rendered.getDependsOn());
+    }
+
+    @Test
+    void pathParametersFillWhatTheVariablesLeaveOpen() {
+        ApiRequest source = ApiRequest.builder().url("https://example.com/users/{id}/{section}")
+                .pathParam("id", "1").pathParam("section", "profile").build();
+        RequestTemplate template = RequestTemplate.compile(source);
+        assertEquals("https://example.com/users/1/profile", template.render(Map.of()).getUrl());
+        assertEquals("https://example.com/users/5/profile", template.render(Map.of("id", "5")).getUrl());
+    }
+
+    @Test
+    void constantRequestIsReturnedAsIs() {
+        ApiRequest source = ApiRequest.builder().url("https://example.com/health").header("Accept", "*/*").build();
+        RequestTemplate template = RequestTemplate.compile(source);
+        assertTrue(template.isConstant());
+        assertSame(source, template.render(Map.of("anything", "x")));
+    }
+}